@@ -28,13 +28,22 @@ package com.xilinx.rapidwright.edif;
 
 import static com.xilinx.rapidwright.edif.BinaryEDIFWriter.EDIF_HAS_OWNER;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.xilinx.rapidwright.util.FileTools;
+import com.xilinx.rapidwright.util.ParallelismTools;
 
 /**
  * A Reader for the RapidWright Binary EDIF Format
@@ -141,6 +150,21 @@ public class BinaryEDIFReader {
      * @see BinaryEDIFWriter#writeEDIFCell(EDIFCell, Output, Map)
      */
     public static EDIFCell readEDIFCell(Input is, String[] strings, EDIFLibrary lib, EDIFNetlist netlist) {
+        EDIFCell c = readEDIFCellInterface(is, strings, lib);
+        readEDIFCellContents(c, is, strings, netlist, false);
+        return c;
+    }
+
+    /**
+     * Reads and creates a new EDIFCell with only its interface (name, properties, view and ports)
+     * from the Kryo-based input stream
+     * @param is Kryo-based input stream
+     * @param strings Indexed string lookup
+     * @param lib Parent library for which this EDIFCell should become a member
+     * @return The newly read and created EDIFCell
+     * @see BinaryEDIFWriter#writeEDIFCellInterface(EDIFCell, Output, Map)
+     */
+    static EDIFCell readEDIFCellInterface(Input is, String[] strings, EDIFLibrary lib) {
         EDIFCell c = new EDIFCell();
         readEDIFObject(c, is, strings);
         lib.addCell(c);
@@ -172,12 +196,31 @@ public class BinaryEDIFReader {
             port.setIsLittleEndian();
             c.addPort(port);
         }
+        return c;
+    }
+
+    /**
+     * Reads the contents (instances and nets) of an EDIFCell from the Kryo-based input stream
+     * @param c The cell to populate, which already has its interface
+     * @param is Kryo-based input stream
+     * @param strings Indexed string lookup
+     * @param netlist The current netlist being read
+     * @param countsSeeded True if the instantiation counts of the instantiated cells already
+     * include the instances read here, as is the case for the chunked format
+     * @see BinaryEDIFWriter#writeEDIFCellContents(EDIFCell, Output, Map)
+     */
+    static void readEDIFCellContents(EDIFCell c, Input is, String[] strings, EDIFNetlist netlist,
+                                     boolean countsSeeded) {
+        EDIFLibrary lib = c.getLibrary();
         int instCount = is.readInt();
         for (int i=0; i < instCount; i++) {
             EDIFCellInst inst = new EDIFCellInst();
             readEDIFObject(inst, is, strings);
             inst.setCellType(readEDIFCellRef(is, strings, netlist, lib));
             c.addCellInst(inst);
+            if (countsSeeded) {
+                inst.getCellType().decrementNonHierInstantiationCount();
+            }
         }
         int netCount = is.readInt();
         for (int i=0; i < netCount; i++) {
@@ -198,7 +241,6 @@ public class BinaryEDIFReader {
                 }
             }
         }
-        return c;
     }
 
     /**
@@ -218,6 +260,27 @@ public class BinaryEDIFReader {
      * @see BinaryEDIFWriter#writeBinaryEDIF(Path, EDIFNetlist)
      */
     public static EDIFNetlist readBinaryEDIF(Path path) {
+        return readBinaryEDIF(path, false);
+    }
+
+    /**
+     * Reads a binary EDIF (.bedf) file and creates a new EDIFNetlist object.  Files in the chunked
+     * format (see {@link BinaryEDIFWriter#writeChunkedBinaryEDIF(Path, EDIFNetlist)}) have the
+     * contents of their cells decoded in parallel or, if lazy, on first access of each cell's
+     * instances or nets (see {@link EDIFCell#materializeContents()}).  All libraries, cell
+     * interfaces and the design are always read up front.  A lazily read netlist requires the
+     * file to remain unchanged until all cells needed have been accessed.
+     * @param path Name of the file to read
+     * @param lazy If true, and the file is in the chunked format, the contents of each cell are
+     * read on first access rather than up front.
+     * @return The newly created netlist populated from the binary EDIF file
+     * @see BinaryEDIFWriter#writeBinaryEDIF(Path, EDIFNetlist)
+     */
+    public static EDIFNetlist readBinaryEDIF(Path path, boolean lazy) {
+        ChunkedFile file = ChunkedFile.open(path);
+        if (file != null) {
+            return readChunkedBinaryEDIF(file, lazy);
+        }
         try (Input is = FileTools.getKryoZstdInputStream(path.toString())) {
             if (!is.readString().equals(BinaryEDIFWriter.EDIF_BINARY_FILE_TAG)) {
                 throw new RuntimeException("ERROR: Cannot recognize EDIF Binary format");
@@ -247,4 +310,202 @@ public class BinaryEDIFReader {
         }
     }
 
+    /**
+     * Location of the contents of a cell in a chunked binary EDIF file, which reads them into the
+     * cell when run.
+     */
+    private static class CellChunk implements Runnable {
+        private final ChunkedFile file;
+        private final EDIFCell cell;
+        private final long offset;
+        private final int length;
+
+        CellChunk(ChunkedFile file, EDIFCell cell, long offset, int length) {
+            this.file = file;
+            this.cell = cell;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public void run() {
+            byte[] chunk = file.read(file.headerLength + offset, length);
+            try (Input is = FileTools.getKryoZstdInputStream(new ByteArrayInputStream(chunk))) {
+                readEDIFCellContents(cell, is, file.strings, file.netlist, true);
+            }
+        }
+    }
+
+    /**
+     * A chunked binary EDIF file, along with the state shared by all of its cell chunks.
+     */
+    private static class ChunkedFile {
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+        private final long headerLength;
+        private String[] strings;
+        private EDIFNetlist netlist;
+        /**
+         * Channel shared by all reads while the netlist is being read eagerly (see {@link #openShared()}),
+         * or null if each read opens (and validates) the file itself
+         */
+        private FileChannel sharedChannel;
+
+        private ChunkedFile(Path path, long size, long lastModified, long headerLength) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.headerLength = headerLength;
+        }
+
+        /**
+         * Checks the trailer of a binary EDIF file for the chunked format.
+         * @param path The file.
+         * @return The chunked file, or null if the file is not in the chunked format.
+         */
+        static ChunkedFile open(Path path) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < BinaryEDIFWriter.EDIF_BINARY_CHUNKED_TRAILER_SIZE) {
+                    return null;
+                }
+                ByteBuffer trailer = ByteBuffer.allocate(BinaryEDIFWriter.EDIF_BINARY_CHUNKED_TRAILER_SIZE);
+                readFully(channel, trailer, size - trailer.capacity());
+                long headerLength = trailer.getLong(0);
+                if (trailer.getLong(Long.BYTES) != BinaryEDIFWriter.EDIF_BINARY_CHUNKED_MAGIC) {
+                    return null;
+                }
+                if (headerLength <= 0 || headerLength > size - trailer.capacity()) {
+                    throw new RuntimeException("ERROR: Corrupt chunked EDIF Binary file " + path);
+                }
+                return new ChunkedFile(path, size, Files.getLastModifiedTime(path).toMillis(), headerLength);
+            } catch (IOException e) {
+                throw new RuntimeException("ERROR: Unable to read EDIF Binary file " + path, e);
+            }
+        }
+
+        private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, position);
+                if (n < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+                position += n;
+            }
+        }
+
+        private void checkUnchanged(FileChannel channel) throws IOException {
+            if (channel.size() != size || Files.getLastModifiedTime(path).toMillis() != lastModified) {
+                throw new RuntimeException("ERROR: EDIF Binary file " + path + " has changed "
+                        + "since it was opened, cannot load remaining cell contents");
+            }
+        }
+
+        /**
+         * Opens the file once, and validates it, for all reads until {@link #closeShared()}.
+         * Positional reads on a {@link FileChannel} may be made concurrently from multiple threads.
+         */
+        void openShared() {
+            try {
+                sharedChannel = FileChannel.open(path, StandardOpenOption.READ);
+                checkUnchanged(sharedChannel);
+            } catch (IOException e) {
+                closeShared();
+                throw new RuntimeException("ERROR: Unable to read EDIF Binary file " + path, e);
+            }
+        }
+
+        void closeShared() {
+            if (sharedChannel == null) {
+                return;
+            }
+            try {
+                sharedChannel.close();
+            } catch (IOException e) {
+                throw new RuntimeException("ERROR: Unable to close EDIF Binary file " + path, e);
+            } finally {
+                sharedChannel = null;
+            }
+        }
+
+        byte[] read(long position, int length) {
+            byte[] bytes = new byte[length];
+            try {
+                if (sharedChannel != null) {
+                    readFully(sharedChannel, ByteBuffer.wrap(bytes), position);
+                    return bytes;
+                }
+                // A lazily loaded cell may be read long after the file was opened, so check it again
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    checkUnchanged(channel);
+                    readFully(channel, ByteBuffer.wrap(bytes), position);
+                    return bytes;
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("ERROR: Unable to read EDIF Binary file " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Reads the header of a chunked binary EDIF file, and then either reads the contents of all
+     * cells in parallel or leaves them to be read on first access.
+     * @param file The chunked file to read
+     * @param lazy If true, cell contents are read on first access
+     * @return The newly created netlist
+     * @see BinaryEDIFWriter#writeChunkedBinaryEDIF(java.io.OutputStream, EDIFNetlist)
+     */
+    private static EDIFNetlist readChunkedBinaryEDIF(ChunkedFile file, boolean lazy) {
+        file.openShared();
+        try {
+            return readChunkedBinaryEDIF(file, file.read(0, (int) file.headerLength), lazy);
+        } finally {
+            file.closeShared();
+        }
+    }
+
+    private static EDIFNetlist readChunkedBinaryEDIF(ChunkedFile file, byte[] header, boolean lazy) {
+        List<EDIFCell> lazyCells = new ArrayList<>();
+        EDIFNetlist netlist = new EDIFNetlist();
+        try (Input is = FileTools.getKryoZstdInputStream(new ByteArrayInputStream(header))) {
+            if (!is.readString().equals(BinaryEDIFWriter.EDIF_BINARY_FILE_TAG)) {
+                throw new RuntimeException("ERROR: Cannot recognize EDIF Binary format");
+            }
+            if (!is.readString().equals(BinaryEDIFWriter.EDIF_BINARY_CHUNKED_FILE_VERSION)) {
+                throw new RuntimeException("ERROR: Unsupported EDIF Binary format version");
+            }
+            String[] strings = FileTools.readStringArray(is);
+            file.strings = strings;
+            file.netlist = netlist;
+            int numLibraries = is.readInt();
+            for (int i=0; i < numLibraries; i++) {
+                EDIFLibrary lib = new EDIFLibrary();
+                readEDIFName(lib, is, strings);
+                netlist.addLibrary(lib);
+                int numCells = is.readInt();
+                for (int j=0; j < numCells; j++) {
+                    EDIFCell cell = readEDIFCellInterface(is, strings, lib);
+                    cell.setNonHierInstantiationCount(is.readInt());
+                    long offset = is.readLong();
+                    int length = is.readInt();
+                    if (length > 0) {
+                        cell.setLazyContents(new CellChunk(file, cell, offset, length));
+                        lazyCells.add(cell);
+                    }
+                }
+            }
+            readEDIFName(netlist, is, strings);
+            int numComments = is.readInt();
+            for (int i=0; i < numComments; i++) {
+                netlist.addComment(is.readString());
+            }
+            readEDIFDesign(is, strings, netlist);
+        }
+        if (!lazy) {
+            ParallelismTools.invokeAllRange(0, lazyCells.size(), 1,
+                    (i) -> lazyCells.get(i).materializeContents());
+        }
+        return netlist;
+    }
 }
@@ -26,18 +26,23 @@
  */
 package com.xilinx.rapidwright.edif;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.xilinx.rapidwright.util.FileTools;
+import com.xilinx.rapidwright.util.ParallelismTools;
 
 /**
  * A Writer for the RapidWright Binary EDIF Format
@@ -50,6 +55,12 @@ public class BinaryEDIFWriter {
 
     public static final String EDIF_BINARY_FILE_TAG = "RAPIDWRIGHT_EDIF_BINARY";
     public static final String EDIF_BINARY_FILE_VERSION = "0.0.2";
+    /** Version of the chunked format, see {@link #writeChunkedBinaryEDIF(OutputStream, EDIFNetlist)} */
+    public static final String EDIF_BINARY_CHUNKED_FILE_VERSION = "0.1.0";
+    /** Ends every file of the chunked format, "RWBEDIFC" */
+    public static final long EDIF_BINARY_CHUNKED_MAGIC = 0x5257424544494643L;
+    /** Size of the trailer of the chunked format: header length and magic */
+    public static final int EDIF_BINARY_CHUNKED_TRAILER_SIZE = 2 * Long.BYTES;
 
     public static final int EDIF_NAME_FLAG = 0x80000000;
     public static final int EDIF_UNIQUE_VIEW_FLAG = 0x80000000;
@@ -221,6 +232,19 @@ public class BinaryEDIFWriter {
      * @see BinaryEDIFReader#readEDIFCell(Input, String[], EDIFLibrary, EDIFNetlist)
      */
     public static void writeEDIFCell(EDIFCell c, Output os, Map<String,Integer> stringMap) {
+        writeEDIFCellInterface(c, os, stringMap);
+        writeEDIFCellContents(c, os, stringMap);
+    }
+
+    /**
+     * Writes the interface of the provided EDIFCell (its name, properties, view and ports) to
+     * Kryo-based output stream.
+     * @param c The current cell to write
+     * @param os The Kryo-based output stream
+     * @param stringMap Map of string to integer enumerations to use to reference strings
+     * @see BinaryEDIFReader#readEDIFCellInterface(Input, String[], EDIFLibrary)
+     */
+    static void writeEDIFCellInterface(EDIFCell c, Output os, Map<String,Integer> stringMap) {
         writeEDIFObject(c, os, stringMap);
         boolean hasUniqueView = c.getEDIFView() != EDIFCell.DEFAULT_VIEW;
         os.writeInt((hasUniqueView ? EDIF_UNIQUE_VIEW_FLAG : 0) | c.getPorts().size());
@@ -244,7 +268,17 @@ public class BinaryEDIFWriter {
             }
             os.writeInt(dirAndWidth);
         }
+    }
 
+    /**
+     * Writes the contents of the provided EDIFCell (its instances and nets) to Kryo-based output
+     * stream.
+     * @param c The current cell to write
+     * @param os The Kryo-based output stream
+     * @param stringMap Map of string to integer enumerations to use to reference strings
+     * @see BinaryEDIFReader#readEDIFCellContents(EDIFCell, Input, String[], EDIFNetlist, boolean)
+     */
+    static void writeEDIFCellContents(EDIFCell c, Output os, Map<String,Integer> stringMap) {
         os.writeInt(c.getCellInsts().size());
         for (EDIFCellInst i : c.getCellInsts()) {
             writeEDIFObject(i, os, stringMap);
@@ -336,4 +370,111 @@ public class BinaryEDIFWriter {
             writeEDIFDesign(netlist.getDesign(), os, stringMap);
         }
     }
+
+    /**
+     * Writes the provided netlist as a chunked binary EDIF file (.bedf), see
+     * {@link #writeChunkedBinaryEDIF(OutputStream, EDIFNetlist)}.
+     * @param path Path to the file to write
+     * @param netlist The current netlist to write
+     * @see BinaryEDIFReader#readBinaryEDIF(Path, boolean)
+     */
+    public static void writeChunkedBinaryEDIF(Path path, EDIFNetlist netlist) {
+        try (final OutputStream outputStream = Files.newOutputStream(path)) {
+            writeChunkedBinaryEDIF(outputStream, netlist);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes the provided netlist in the chunked binary EDIF format, which allows the contents
+     * (instances and nets) of each cell to be read independently of all others.  The file starts
+     * with a header, which contains the string table, the interface (ports and properties) of every
+     * cell along with the location of its contents, and the EDIFDesign.  The contents of each cell
+     * follow as separately compressed chunks, and the file ends with the length of the header and
+     * a magic number by which the format is recognized:
+     * <pre>
+     *   header (Kryo/Zstd): tag, version, strings, numLibraries * (library name, numCells *
+     *                       (cell interface, int instantiationCount, long chunkOffset, int chunkLength)),
+     *                       netlist name, comments, design
+     *   chunks (Kryo/Zstd): cell contents, at chunkOffset bytes after the end of the header
+     *   long headerLength, long magic
+     * </pre>
+     * Cells without contents have a chunk length of zero.  Chunks are compressed in parallel.
+     * @param outputStream The stream to write to
+     * @param netlist The current netlist to write
+     * @see BinaryEDIFReader#readBinaryEDIF(Path, boolean)
+     */
+    public static void writeChunkedBinaryEDIF(OutputStream outputStream, EDIFNetlist netlist) {
+        Map<String, Integer> stringMap = createStringMap(netlist);
+        List<EDIFLibrary> libs = netlist.getLibrariesInExportOrder();
+        List<List<EDIFCell>> libCells = new ArrayList<>();
+        List<EDIFCell> cells = new ArrayList<>();
+        for (EDIFLibrary lib : libs) {
+            List<EDIFCell> exportOrder = lib.getValidCellExportOrder(false);
+            libCells.add(exportOrder);
+            cells.addAll(exportOrder);
+        }
+
+        byte[][] chunks = new byte[cells.size()][];
+        ParallelismTools.invokeAllRange(0, cells.size(), 1, (i) -> {
+            EDIFCell cell = cells.get(i);
+            if (!cell.hasContents()) {
+                return;
+            }
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+            try (Output os = FileTools.getKryoZstdOutputStream(chunk)) {
+                writeEDIFCellContents(cell, os, stringMap);
+            }
+            chunks[i] = chunk.toByteArray();
+        });
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (Output os = FileTools.getKryoZstdOutputStream(header)) {
+            os.writeString(EDIF_BINARY_FILE_TAG);
+            os.writeString(EDIF_BINARY_CHUNKED_FILE_VERSION);
+            String[] strings = new String[stringMap.size()];
+            for (Entry<String,Integer> e : stringMap.entrySet()) {
+                strings[e.getValue()] = e.getKey();
+            }
+            FileTools.writeStringArray(os, strings);
+            os.writeInt(libs.size());
+            long chunkOffset = 0;
+            int i = 0;
+            for (int j = 0; j < libs.size(); j++) {
+                writeEDIFName(libs.get(j), os, stringMap);
+                os.writeInt(libCells.get(j).size());
+                for (EDIFCell cell : libCells.get(j)) {
+                    writeEDIFCellInterface(cell, os, stringMap);
+                    os.writeInt(cell.getNonHierInstantiationCount());
+                    int chunkLength = chunks[i] == null ? 0 : chunks[i].length;
+                    os.writeLong(chunkOffset);
+                    os.writeInt(chunkLength);
+                    chunkOffset += chunkLength;
+                    i++;
+                }
+            }
+            writeEDIFName(netlist, os, stringMap);
+            os.writeInt(netlist.getComments().size());
+            for (String comment : netlist.getComments()) {
+                os.writeString(comment);
+            }
+            writeEDIFDesign(netlist.getDesign(), os, stringMap);
+        }
+
+        try {
+            header.writeTo(outputStream);
+            for (byte[] chunk : chunks) {
+                if (chunk != null) {
+                    outputStream.write(chunk);
+                }
+            }
+            DataOutputStream dos = new DataOutputStream(outputStream);
+            dos.writeLong(header.size());
+            dos.writeLong(EDIF_BINARY_CHUNKED_MAGIC);
+            dos.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
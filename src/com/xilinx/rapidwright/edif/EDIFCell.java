@@ -41,6 +41,8 @@ import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
+import com.xilinx.rapidwright.util.StringPool;
+
 /**
  * Represent a logical cell in an EDIF netlist.  Can
  * be both a leaf cell or a hierarchical cell.
@@ -63,6 +65,23 @@ public class EDIFCell extends EDIFPropertyObject {
 
     private EDIFName view = DEFAULT_VIEW;
 
+    /**
+     * Loader of the contents (instances and nets) of this cell that are yet to be read from a
+     * lazily loaded binary EDIF file, or null if there are none.
+     * @see BinaryEDIFReader#readBinaryEDIF(java.nio.file.Path, boolean)
+     */
+    private volatile Runnable lazyContents;
+
+    /** Set while the lazy contents of this cell are being loaded, to suppress change tracking */
+    private volatile boolean loadingContents;
+
+    /**
+     * Sorted instances and nets of this cell in the hierarchical name index of the netlist, or
+     * null if yet to be built or since invalidated by a change.
+     * @see EDIFHierNameIndex
+     */
+    private volatile EDIFHierNameIndex.Node hierNameNode;
+
     /**
      * An atomically updated variable to track the number of `EDIFCellInst`
      * objects (attached to a parent cell) that instantiate this cell.
@@ -98,6 +117,7 @@ public class EDIFCell extends EDIFPropertyObject {
     public EDIFCell(EDIFLibrary lib, EDIFCell orig) {
         super(orig.getName());
         if (lib != null) lib.addCell(this);
+        orig.materializeContents();
         instances = orig.instances;
         nets = orig.nets;
         ports = orig.ports;
@@ -115,6 +135,7 @@ public class EDIFCell extends EDIFPropertyObject {
     public EDIFCell(EDIFLibrary lib, EDIFCell orig, String newCellName) {
         super(newCellName);
         if (lib != null) lib.addCell(this);
+        orig.materializeContents();
         if (orig.instances != null) {
             for (Entry<String, EDIFCellInst> e : orig.instances.entrySet()) {
                 addCellInst(new EDIFCellInst(e.getValue(), this));
@@ -157,6 +178,86 @@ public class EDIFCell extends EDIFPropertyObject {
 
     }
 
+    /**
+     * Creates a new map for the instances, nets or ports of this cell, unless it is part of a
+     * frozen netlist.
+     */
+    private <V> Map<String, V> newContentsMap() {
+        checkNotFrozen();
+        return getNewMap();
+    }
+
+    private void checkNotFrozen() {
+        if (isInFrozenNetlist()) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+    }
+
+    @Override
+    protected boolean isInFrozenNetlist() {
+        EDIFNetlist netlist = getNetlist();
+        return netlist != null && netlist.isFrozen();
+    }
+
+    /**
+     * Replaces the maps and lists that hold the instances, nets, ports and properties of this cell
+     * (and those of its instances, nets and ports) with compact, immutable copies.
+     * @param propertySets Frozen property maps seen so far, to be shared among objects.
+     * @param portInstNames Names of port instances seen so far, to be shared among port instances.
+     * @see EDIFNetlist#freeze()
+     */
+    void freeze(Map<Map<String, EDIFPropertyValue>, Map<String, EDIFPropertyValue>> propertySets,
+                StringPool portInstNames) {
+        materializeContents();
+        freezeProperties(propertySets);
+        instances = EDIFFrozenMap.freeze(instances);
+        nets = EDIFFrozenMap.freeze(nets);
+        ports = EDIFFrozenMap.freeze(ports);
+        internalPortMap = EDIFFrozenMap.freeze(internalPortMap);
+        for (EDIFPort port : getPorts()) {
+            port.freezeProperties(propertySets);
+        }
+        for (EDIFCellInst inst : getCellInsts()) {
+            inst.freezeProperties(propertySets);
+            inst.freezePortInsts();
+            for (EDIFPortInst portInst : inst.getPortInsts()) {
+                // The name of a port instance on a bussed port (e.g. "D[3]") is built separately
+                // for every instance of the cell, so share one copy between all of them
+                if (portInst.getPort().isBus()) {
+                    portInst.setName(portInstNames.uniquifyName(portInst.getName()));
+                }
+            }
+        }
+        for (EDIFNet net : getNets()) {
+            net.freezeProperties(propertySets);
+            net.freezePortInsts();
+        }
+    }
+
+    /**
+     * Reverts {@link #freeze(Map, StringPool)}, giving this cell (and its instances, nets and ports) mutable
+     * maps and lists again.
+     * @see EDIFNetlist#thaw()
+     */
+    void thaw() {
+        thawProperties();
+        instances = EDIFFrozenMap.thaw(instances);
+        nets = EDIFFrozenMap.thaw(nets);
+        ports = EDIFFrozenMap.thaw(ports);
+        internalPortMap = EDIFFrozenMap.thaw(internalPortMap);
+        for (EDIFPort port : getPorts()) {
+            port.thawProperties();
+        }
+        for (EDIFCellInst inst : getCellInsts()) {
+            inst.thawProperties();
+            inst.thawPortInsts();
+        }
+        for (EDIFNet net : getNets()) {
+            net.thawProperties();
+            net.thawPortInsts();
+        }
+    }
+
     public EDIFCellInst createChildCellInst(String name, EDIFCell reference) {
         return new EDIFCellInst(name, reference, this);
     }
@@ -175,7 +276,9 @@ public class EDIFCell extends EDIFPropertyObject {
      * @return The instance added to the cell.
      */
     public EDIFCellInst addCellInst(EDIFCellInst instance) {
-        if (instances == null) instances = getNewMap();
+        checkNotFrozen();
+        materializeContents();
+        if (instances == null) instances = newContentsMap();
         instance.setParentCell(this);
         EDIFCellInst collision = instances.put(instance.getName(), instance);
         if (collision != null && instance != collision) {
@@ -194,7 +297,9 @@ public class EDIFCell extends EDIFPropertyObject {
      * @return The instance added to the cell.
      */
     public EDIFCellInst addCellInstUniqueName(EDIFCellInst instance) {
-        if (instances == null) instances = getNewMap();
+        checkNotFrozen();
+        materializeContents();
+        if (instances == null) instances = newContentsMap();
         instance.setParentCell(this);
         while (instances.containsKey(instance.getName())) {
             instance.setName(instance.getName() + "_" + getLibrary().getNetlist().nameSpaceUniqueCount++);
@@ -204,6 +309,7 @@ public class EDIFCell extends EDIFPropertyObject {
     }
 
     public EDIFCellInst getCellInst(String name) {
+        materializeContents();
         if (instances == null) return null;
         return instances.get(name);
     }
@@ -215,7 +321,9 @@ public class EDIFCell extends EDIFPropertyObject {
      * @return The net that was added.
      */
     public EDIFNet addNet(EDIFNet net) {
-        if (nets == null) nets = getNewMap();
+        checkNotFrozen();
+        materializeContents();
+        if (nets == null) nets = newContentsMap();
         net.setParentCell(this);
         EDIFNet collision = nets.put(net.getName(), net);
         if (collision != null && net != collision) {
@@ -231,6 +339,7 @@ public class EDIFCell extends EDIFPropertyObject {
     }
 
     public EDIFNet getNet(String name) {
+        materializeContents();
         if (nets == null) return null;
         return nets.get(name);
     }
@@ -240,6 +349,8 @@ public class EDIFCell extends EDIFPropertyObject {
     }
 
     public EDIFNet removeNet(String name) {
+        checkNotFrozen();
+        materializeContents();
         if (nets == null) return null;
         trackChange(EDIFChangeType.NET_REMOVE, name);
         return nets.remove(name);
@@ -257,7 +368,8 @@ public class EDIFCell extends EDIFPropertyObject {
      * @return The port that was added.
      */
     public EDIFPort addPort(EDIFPort port) {
-        if (ports == null) ports = getNewMap();
+        checkNotFrozen();
+        if (ports == null) ports = newContentsMap();
         port.setParentCell(this);
         EDIFPort collision = ports.put(port.getBusName(true), port);
         if (collision != null && port != collision) {
@@ -312,6 +424,8 @@ public class EDIFCell extends EDIFPropertyObject {
     }
 
     public EDIFCellInst removeCellInst(String name) {
+        checkNotFrozen();
+        materializeContents();
         if (instances == null) return null;
         EDIFCellInst removedInstance = instances.remove(name);
         if (removedInstance != null) {
@@ -417,11 +531,13 @@ public class EDIFCell extends EDIFPropertyObject {
     }
 
     public Collection<EDIFCellInst> getCellInsts() {
+        materializeContents();
         if (instances == null) return Collections.emptyList();
         return instances.values();
     }
 
     public Collection<EDIFNet> getNets() {
+        materializeContents();
         if (nets == null) return Collections.emptyList();
         return nets.values();
     }
@@ -433,7 +549,8 @@ public class EDIFCell extends EDIFPropertyObject {
      * @param internalNet  The net inside this cell to match with the port ref name.
      */
     public void addInternalPortMapEntry(String portInstName, EDIFNet internalNet) {
-        if (internalPortMap == null) internalPortMap = getNewMap();
+        materializeContents();
+        if (internalPortMap == null) internalPortMap = newContentsMap();
         internalPortMap.put(portInstName, internalNet);
     }
 
@@ -444,11 +561,13 @@ public class EDIFCell extends EDIFPropertyObject {
      * @return The net to which the removed port ref belongs, or null if none could be found.
      */
     public EDIFNet removeInternalPortMapEntry(String portInstName) {
+        materializeContents();
         if (internalPortMap == null) return null;
         return internalPortMap.remove(portInstName);
     }
 
     public Map<String, EDIFNet> getInternalNetMap() {
+        materializeContents();
         if (internalPortMap == null) return Collections.emptyMap();
         return internalPortMap;
     }
@@ -472,6 +591,7 @@ public class EDIFCell extends EDIFPropertyObject {
      * @return The internal connected net or null if none exists.
      */
     public EDIFNet getInternalNet(String portInstName) {
+        materializeContents();
         if (internalPortMap == null) return null;
         return internalPortMap.get(portInstName);
     }
@@ -502,9 +622,52 @@ public class EDIFCell extends EDIFPropertyObject {
     }
 
     public boolean hasContents() {
+        materializeContents();
         return instances != null || nets != null;
     }
 
+    /**
+     * Sets the loader of the contents of this cell, to be run on first access of its instances or nets.
+     * @param loader The loader, which populates this cell using its regular methods.
+     */
+    void setLazyContents(Runnable loader) {
+        lazyContents = loader;
+    }
+
+    /**
+     * Checks if the contents (instances and nets) of this cell are yet to be loaded from a lazily
+     * loaded binary EDIF file.
+     * @return True if the contents are yet to be loaded, false otherwise.
+     */
+    public boolean hasLazyContents() {
+        return lazyContents != null;
+    }
+
+    /**
+     * Loads the contents (instances and nets) of this cell from a lazily loaded binary EDIF file, if
+     * they are yet to be loaded. This is called implicitly on first access of the contents, and
+     * is safe to call from multiple threads.
+     */
+    public void materializeContents() {
+        if (lazyContents == null) {
+            return;
+        }
+        synchronized (this) {
+            Runnable loader = lazyContents;
+            // The loader itself populates this cell through methods that call back here
+            if (loader == null || loadingContents) {
+                return;
+            }
+            loadingContents = true;
+            try {
+                loader.run();
+            } finally {
+                loadingContents = false;
+                lazyContents = null;
+            }
+        }
+    }
+
     public boolean isPrimitive() {
         return getLibrary().getName().equals(EDIFTools.EDIF_LIBRARY_HDI_PRIMITIVES_NAME) && isLeafCellOrBlackBox();
     }
@@ -522,6 +685,7 @@ public class EDIFCell extends EDIFPropertyObject {
     }
 
     public boolean isLeafCellOrBlackBox() {
+        materializeContents();
         return (instances == null || instances.size() == 0) && (nets == null || nets.size() == 0);
     }
 
@@ -553,6 +717,7 @@ public class EDIFCell extends EDIFPropertyObject {
      * Deletes internal representation.
      */
     public void makePrimitive() {
+        checkNotFrozen();
         EDIFNetlist netlist = getNetlist();
         if (netlist != null && netlist.isTrackingCellChanges()) {
             for (EDIFCellInst inst : getCellInsts()) {
@@ -568,6 +733,15 @@ public class EDIFCell extends EDIFPropertyObject {
         instances = null;
         nets = null;
         internalPortMap = null;
+        hierNameNode = null;
+    }
+
+    EDIFHierNameIndex.Node getHierNameNode() {
+        return hierNameNode;
+    }
+
+    void setHierNameNode(EDIFHierNameIndex.Node hierNameNode) {
+        this.hierNameNode = hierNameNode;
     }
 
 
@@ -662,6 +836,16 @@ public class EDIFCell extends EDIFPropertyObject {
     }
 
     public void trackChange(EDIFChangeType type, String name) {
+        switch (type) {
+            case CELL_INST_ADD: case CELL_INST_REMOVE: case NET_ADD: case NET_REMOVE:
+                hierNameNode = null;
+                break;
+            default:
+                break;
+        }
+        if (loadingContents) {
+            return;
+        }
         EDIFNetlist netlist = getNetlist();
         if (netlist != null) {
             netlist.trackChange(this, type, name);
@@ -722,6 +906,14 @@ public class EDIFCell extends EDIFPropertyObject {
         nonHierInstantiationCountUpdater.getAndDecrement(this);
     }
 
+    /**
+     * Sets the instance count of this cell, used when it is known ahead of the instances being created.
+     * @param count The number of times this cell is instantiated.
+     */
+    void setNonHierInstantiationCount(int count) {
+        nonHierInstantiationCountUpdater.set(this, count);
+    }
+
     /**
      * @return The number of times this cell has been instantiated.
      */
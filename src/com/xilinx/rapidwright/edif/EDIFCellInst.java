@@ -109,6 +109,7 @@ public class EDIFCellInst extends EDIFPropertyObject {
      */
     protected void addPortInst(EDIFPortInst epr, boolean deferSort) {
         if (portInsts == null) portInsts = new EDIFPortInstList();
+        if (portInsts.isFrozen()) throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
         if (!epr.getCellInst().equals(this))
             throw new RuntimeException("ERROR: Incorrect EDIFPortInst '"+
                 epr.getFullName()+"' being added to EDIFCellInst " + toString());
@@ -193,6 +194,11 @@ public class EDIFCellInst extends EDIFPropertyObject {
         return parentCell;
     }
 
+    @Override
+    protected boolean isInFrozenNetlist() {
+        return parentCell != null && parentCell.isInFrozenNetlist();
+    }
+
     /**
      * @param parent the parentCell to set
      */
@@ -276,6 +282,20 @@ public class EDIFCellInst extends EDIFPropertyObject {
         return portInsts;
     }
 
+    /**
+     * @see EDIFNetlist#freeze()
+     */
+    void freezePortInsts() {
+        portInsts = EDIFPortInstList.freeze(portInsts);
+    }
+
+    /**
+     * @see EDIFNetlist#thaw()
+     */
+    void thawPortInsts() {
+        portInsts = EDIFPortInstList.thaw(portInsts);
+    }
+
     public static final byte[] EXPORT_CONST_INSTANCE_BEGIN = "         (instance ".getBytes(StandardCharsets.UTF_8);
     public static final byte[] EXPORT_CONST_VIEWREF = " (viewref ".getBytes(StandardCharsets.UTF_8);
     public static final byte[] EXPORT_CONST_CELLREF = " (cellref ".getBytes(StandardCharsets.UTF_8);
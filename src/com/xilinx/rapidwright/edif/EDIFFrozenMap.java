@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.edif;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A compact, immutable map keyed by name, used by a frozen {@link EDIFNetlist} (see
+ * {@link EDIFNetlist#freeze()}) in place of the {@link HashMap}s that hold its cell instances, nets,
+ * ports and properties.  Entries are stored in two flat arrays, ordered by the hash code of their
+ * name (and then by name), such that a lookup is a binary search over the cached hash codes of
+ * {@link String} followed by an equality check.  This takes about a third of the memory of a
+ * {@link HashMap}, which needs a separate node object per entry.
+ *
+ * All methods that would modify the map throw an {@link UnsupportedOperationException}.
+ */
+public class EDIFFrozenMap<V> extends AbstractMap<String, V> {
+
+    public static final String FROZEN_ERROR =
+            "ERROR: Cannot modify a frozen EDIFNetlist, call EDIFNetlist.thaw() first.";
+
+    private static final EDIFFrozenMap<?> EMPTY = new EDIFFrozenMap<>(new int[0], new Object[0]);
+
+    /** Hash code of the name of each entry, in non-decreasing order */
+    private final int[] hashes;
+    /** Name and value of each entry, interleaved */
+    private final Object[] entries;
+
+    private EDIFFrozenMap(int[] hashes, Object[] entries) {
+        this.hashes = hashes;
+        this.entries = entries;
+    }
+
+    /**
+     * Gets the shared empty frozen map.
+     * @return The empty frozen map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> EDIFFrozenMap<V> empty() {
+        return (EDIFFrozenMap<V>) EMPTY;
+    }
+
+    /**
+     * Creates a frozen copy of the provided map.
+     * @param map The map to freeze.
+     * @return The frozen copy, the map itself if it is already frozen, or null if it is null.
+     */
+    public static <V> Map<String, V> freeze(Map<String, V> map) {
+        if (map == null || map instanceof EDIFFrozenMap) {
+            return map;
+        }
+        if (map.isEmpty()) {
+            return empty();
+        }
+        @SuppressWarnings("unchecked")
+        Map.Entry<String, V>[] sorted = map.entrySet().toArray(new Map.Entry[0]);
+        Arrays.sort(sorted, (a, b) -> {
+            int compare = Integer.compare(a.getKey().hashCode(), b.getKey().hashCode());
+            return compare != 0 ? compare : a.getKey().compareTo(b.getKey());
+        });
+        int[] hashes = new int[sorted.length];
+        Object[] entries = new Object[sorted.length * 2];
+        for (int i = 0; i < sorted.length; i++) {
+            hashes[i] = sorted[i].getKey().hashCode();
+            entries[2 * i] = sorted[i].getKey();
+            entries[2 * i + 1] = sorted[i].getValue();
+        }
+        return new EDIFFrozenMap<>(hashes, entries);
+    }
+
+    /**
+     * Creates a mutable copy of the provided map if it is frozen.
+     * @param map The map to thaw.
+     * @return A new {@link HashMap} with the same entries if the map is frozen, otherwise the map
+     * itself.
+     */
+    public static <V> Map<String, V> thaw(Map<String, V> map) {
+        return map instanceof EDIFFrozenMap ? new HashMap<>(map) : map;
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int hash = key.hashCode();
+        // Find the first entry with this hash
+        int left = 0;
+        int right = hashes.length;
+        while (left < right) {
+            int pivot = (left + right) >>> 1;
+            if (hashes[pivot] < hash) {
+                left = pivot + 1;
+            } else {
+                right = pivot;
+            }
+        }
+        for (int i = left; i < hashes.length && hashes[i] == hash; i++) {
+            if (key.equals(entries[2 * i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int i = indexOf(key);
+        return i < 0 ? null : (V) entries[2 * i + 1];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return hashes.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return hashes.length == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        for (int i = 0; i < entries.length; i += 2) {
+            action.accept((String) entries[i], (V) entries[i + 1]);
+        }
+    }
+
+    private abstract class ArrayIterator<T> implements Iterator<T> {
+        private int i = 0;
+
+        @Override
+        public boolean hasNext() {
+            return i < hashes.length;
+        }
+
+        @Override
+        public T next() {
+            if (i >= hashes.length) {
+                throw new NoSuchElementException();
+            }
+            return get(i++);
+        }
+
+        abstract T get(int i);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new ArrayIterator<String>() {
+                    @Override
+                    String get(int i) {
+                        return (String) entries[2 * i];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return hashes.length;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new ArrayIterator<V>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V get(int i) {
+                        return (V) entries[2 * i + 1];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return hashes.length;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new ArrayIterator<Entry<String, V>>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    Entry<String, V> get(int i) {
+                        return new SimpleImmutableEntry<>((String) entries[2 * i], (V) entries[2 * i + 1]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return hashes.length;
+            }
+        };
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            hashCode += hashes[i] ^ Objects.hashCode(entries[2 * i + 1]);
+        }
+        return hashCode;
+    }
+
+    @Override
+    public V put(String key, V value) {
+        throw new UnsupportedOperationException(FROZEN_ERROR);
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException(FROZEN_ERROR);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends V> m) {
+        throw new UnsupportedOperationException(FROZEN_ERROR);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(FROZEN_ERROR);
+    }
+}
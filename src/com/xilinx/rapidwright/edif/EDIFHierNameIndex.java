@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.edif;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+
+import com.xilinx.rapidwright.util.Pair;
+import com.xilinx.rapidwright.util.ParallelismTools;
+
+/**
+ * An index of the hierarchical names of all cell instances and nets in an {@link EDIFNetlist}, for
+ * lookups by full hierarchical name, by name prefix and by wildcard pattern.
+ *
+ * The index is a trie over hierarchical names, whose edges are labeled with the names of cell
+ * instances (and, at the leaves, nets).  As all instances of the same {@link EDIFCell} have
+ * identical subtrees, the trie is compressed by keeping a single node per cell rather than per
+ * hierarchical instance, holding the instances and nets of the cell sorted by name.  An exact
+ * lookup is thus a binary search per level of hierarchy, without splitting the name or creating
+ * intermediate strings, and a wildcard pattern is matched incrementally while walking down the
+ * trie, such that subtrees that cannot match are skipped.
+ *
+ * The node of a cell is dropped whenever an instance or net is added to or removed from the cell,
+ * and rebuilt on the next query, such that the index always reflects the current netlist.
+ * @see EDIFNetlist#getHierNameIndex()
+ */
+public class EDIFHierNameIndex {
+
+    private static final char SEP = EDIFTools.EDIF_HIER_SEP.charAt(0);
+
+    /** The instances and nets of a cell, each sorted by name */
+    static class Node {
+        private static final Node EMPTY = new Node(new EDIFCellInst[0], new EDIFNet[0]);
+
+        private final EDIFCellInst[] insts;
+        private final EDIFNet[] nets;
+        /** True if the name of any instance contains the hierarchy separator */
+        private final boolean hasSeparatorInNames;
+
+        private Node(EDIFCellInst[] insts, EDIFNet[] nets) {
+            Arrays.sort(insts, Comparator.comparing(EDIFCellInst::getName));
+            Arrays.sort(nets, Comparator.comparing(EDIFNet::getName));
+            this.insts = insts;
+            this.nets = nets;
+            boolean separator = false;
+            for (EDIFCellInst inst : insts) {
+                if (inst.getName().indexOf(SEP) != -1) {
+                    separator = true;
+                    break;
+                }
+            }
+            this.hasSeparatorInNames = separator;
+        }
+
+        private static Node create(EDIFCell cell) {
+            if (cell.isLeafCellOrBlackBox()) {
+                return EMPTY;
+            }
+            return new Node(cell.getCellInsts().toArray(new EDIFCellInst[0]),
+                    cell.getNets().toArray(new EDIFNet[0]));
+        }
+    }
+
+    private final EDIFNetlist netlist;
+
+    public EDIFHierNameIndex(EDIFNetlist netlist) {
+        this.netlist = netlist;
+    }
+
+    public EDIFNetlist getNetlist() {
+        return netlist;
+    }
+
+    /**
+     * Builds the nodes of all cells in the netlist in parallel, rather than on first use.  Cells
+     * whose contents are yet to be loaded from a lazily loaded binary EDIF file are skipped.
+     */
+    public void build() {
+        List<EDIFCell> cells = new ArrayList<>();
+        for (EDIFLibrary lib : netlist.getLibraries()) {
+            for (EDIFCell cell : lib.getCells()) {
+                if (!cell.hasLazyContents()) {
+                    cells.add(cell);
+                }
+            }
+        }
+        ParallelismTools.invokeAllRange(0, cells.size(), 1, (i) -> getNode(cells.get(i)));
+    }
+
+    /**
+     * Drops the nodes of all cells in the netlist, releasing their memory.
+     */
+    public void clear() {
+        for (EDIFLibrary lib : netlist.getLibraries()) {
+            for (EDIFCell cell : lib.getCells()) {
+                cell.setHierNameNode(null);
+            }
+        }
+    }
+
+    private static Node getNode(EDIFCell cell) {
+        Node node = cell.getHierNameNode();
+        if (node == null) {
+            node = Node.create(cell);
+            cell.setHierNameNode(node);
+        }
+        return node;
+    }
+
+    /**
+     * Compares a name with the region [from, to) of a string, in the same order as
+     * {@link String#compareTo(String)}.
+     */
+    private static int compare(String name, String s, int from, int to) {
+        int length = to - from;
+        int n = Math.min(name.length(), length);
+        for (int k = 0; k < n; k++) {
+            int diff = name.charAt(k) - s.charAt(from + k);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return name.length() - length;
+    }
+
+    private static <T extends EDIFName> T find(T[] sorted, String s, int from, int to) {
+        int left = 0;
+        int right = sorted.length - 1;
+        while (left <= right) {
+            int pivot = (left + right) >>> 1;
+            int compare = compare(sorted[pivot].getName(), s, from, to);
+            if (compare < 0) {
+                left = pivot + 1;
+            } else if (compare > 0) {
+                right = pivot - 1;
+            } else {
+                return sorted[pivot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the region of a hierarchical name starting at from, relative to the last instance
+     * of path.  As names may contain the hierarchy separator, instance names ending at each
+     * subsequent separator are tried in turn (shortest first), backtracking if the rest of the
+     * name cannot be resolved beneath them.
+     * @param path Instances leading to the current level of hierarchy, extended with the
+     * instances found.
+     * @param name The full hierarchical name.
+     * @param from Start of the region of the name yet to be resolved.
+     * @param netLookup If true, the name ends with a net name rather than an instance name.
+     * @return The instance (also appended to path) or net found, or null if none.
+     */
+    private static EDIFName resolve(List<EDIFCellInst> path, String name, int from, boolean netLookup) {
+        Node node = getNode(path.get(path.size() - 1).getCellType());
+        int end = name.indexOf(SEP, from);
+        while (true) {
+            int to = (end == -1) ? name.length() : end;
+            EDIFCellInst inst = find(node.insts, name, from, to);
+            if (inst != null) {
+                if (end == -1) {
+                    if (!netLookup) {
+                        path.add(inst);
+                        return inst;
+                    }
+                } else {
+                    path.add(inst);
+                    EDIFName found = resolve(path, name, end + 1, netLookup);
+                    if (found != null) {
+                        return found;
+                    }
+                    path.remove(path.size() - 1);
+                }
+            }
+            if (end == -1 || !node.hasSeparatorInNames) {
+                break;
+            }
+            end = name.indexOf(SEP, end + 1);
+        }
+        return netLookup ? find(node.nets, name, from, name.length()) : null;
+    }
+
+    private static EDIFHierCellInst toHierCellInst(List<EDIFCellInst> path) {
+        return EDIFHierCellInst.create(path.toArray(new EDIFCellInst[0]));
+    }
+
+    /**
+     * Gets the hierarchical cell instance with the provided full hierarchical name.
+     * @param hierName Full hierarchical name of the instance, for example: 'clk_wiz/inst/bufg0'.
+     * @return The hierarchical cell instance, the top cell instance if the name is empty, or null
+     * if none could be found.
+     */
+    public EDIFHierCellInst getHierCellInst(String hierName) {
+        EDIFCellInst top = netlist.getTopCellInst();
+        if (top == null) {
+            return null;
+        }
+        if (hierName.isEmpty()) {
+            return netlist.getTopHierCellInst();
+        }
+        List<EDIFCellInst> path = new ArrayList<>();
+        path.add(top);
+        return resolve(path, hierName, 0, false) == null ? null : toHierCellInst(path);
+    }
+
+    /**
+     * Gets the hierarchical net with the provided full hierarchical name.
+     * @param hierNetName Full hierarchical name of the net, for example: 'inst0/inst1/net0'.
+     * @return The hierarchical net, or null if none could be found.
+     */
+    public EDIFHierNet getHierNet(String hierNetName) {
+        EDIFCellInst top = netlist.getTopCellInst();
+        if (top == null) {
+            return null;
+        }
+        List<EDIFCellInst> path = new ArrayList<>();
+        path.add(top);
+        EDIFName net = resolve(path, hierNetName, 0, true);
+        return net == null ? null : new EDIFHierNet(toHierCellInst(path), (EDIFNet) net);
+    }
+
+    /**
+     * Gets all hierarchical cell instances (at any depth) whose full hierarchical name starts
+     * with the provided prefix.  For example, the prefix 'u_core/' gives all descendants of the
+     * instance 'u_core', and 'u_core/reg_' those of them whose names start with 'reg_'.
+     * @param prefix Prefix of the full hierarchical names.
+     * @return The list of matching hierarchical cell instances, in breadth-first order.
+     */
+    public List<EDIFHierCellInst> getCellInstsWithPrefix(String prefix) {
+        List<EDIFHierCellInst> insts = new ArrayList<>();
+        walk(new Glob(prefix, true, false), insts, null);
+        return insts;
+    }
+
+    /**
+     * Gets all hierarchical cell instances (at any depth) whose full hierarchical name matches
+     * the provided wildcard pattern.
+     * @param wildcardPattern Pattern in which '*' matches any sequence of characters (including
+     * hierarchy separators) and all other characters match themselves, or null to match all.
+     * @return The list of matching hierarchical cell instances, in breadth-first order.
+     */
+    public List<EDIFHierCellInst> findCellInsts(String wildcardPattern) {
+        List<EDIFHierCellInst> insts = new ArrayList<>();
+        walk(new Glob(wildcardPattern == null ? "" : wildcardPattern, wildcardPattern == null, false), insts, null);
+        return insts;
+    }
+
+    /**
+     * Gets all hierarchical cell instances (at any depth) whose full hierarchical name matches
+     * the provided pattern, with the same semantics as {@link EDIFNetlist#findCellInsts(String)}
+     * without an index, which matches the pattern as a regular expression in which '*' is
+     * replaced by '.*': '*' matches any sequence of characters and '.' any single character.
+     * @param wildcardPattern The pattern, which must not contain '+', or null to match all.
+     * @return The list of matching hierarchical cell instances, in breadth-first order.
+     */
+    List<EDIFHierCellInst> findCellInstsAnyCharDot(String wildcardPattern) {
+        assert(wildcardPattern == null || wildcardPattern.indexOf('+') < 0);
+        List<EDIFHierCellInst> insts = new ArrayList<>();
+        walk(new Glob(wildcardPattern == null ? "" : wildcardPattern, wildcardPattern == null, true), insts, null);
+        return insts;
+    }
+
+    /**
+     * Gets all hierarchical nets (at any depth) whose full hierarchical name matches the provided
+     * wildcard pattern.
+     * @param wildcardPattern Pattern in which '*' matches any sequence of characters (including
+     * hierarchy separators) and all other characters match themselves, or null to match all.
+     * @return The list of matching hierarchical nets.
+     */
+    public List<EDIFHierNet> findNets(String wildcardPattern) {
+        List<EDIFHierNet> nets = new ArrayList<>();
+        walk(new Glob(wildcardPattern == null ? "" : wildcardPattern, wildcardPattern == null, false), null, nets);
+        return nets;
+    }
+
+    /**
+     * Walks down the trie breadth-first, tracking the states of the pattern reached by the
+     * hierarchical name of each instance, and skipping those from which no match is possible.
+     */
+    private void walk(Glob glob, List<EDIFHierCellInst> insts, List<EDIFHierNet> nets) {
+        EDIFHierCellInst top = netlist.getTopHierCellInst();
+        if (top == null) {
+            return;
+        }
+        Queue<Pair<EDIFHierCellInst, boolean[]>> q = new ArrayDeque<>();
+        q.add(new Pair<>(top, glob.start()));
+        while (!q.isEmpty()) {
+            Pair<EDIFHierCellInst, boolean[]> p = q.poll();
+            EDIFHierCellInst parent = p.getFirst();
+            boolean[] state = p.getSecond();
+            Node node = getNode(parent.getCellType());
+            if (nets != null) {
+                for (EDIFNet net : node.nets) {
+                    boolean[] netState = glob.step(state, net.getName());
+                    if (netState != null && glob.matches(netState)) {
+                        nets.add(new EDIFHierNet(parent, net));
+                    }
+                }
+            }
+            for (EDIFCellInst inst : node.insts) {
+                boolean[] instState = glob.step(state, inst.getName());
+                if (instState == null) {
+                    continue;
+                }
+                EDIFHierCellInst child = parent.getChild(inst);
+                if (insts != null && glob.matches(instState)) {
+                    insts.add(child);
+                }
+                boolean[] childState = glob.step(instState, SEP);
+                if (childState != null) {
+                    q.add(new Pair<>(child, childState));
+                }
+            }
+        }
+    }
+
+    /**
+     * A wildcard pattern, matched as a nondeterministic automaton whose states are the positions
+     * in the pattern, such that the states reached by a prefix of a name tell whether any name
+     * starting with that prefix could match.
+     */
+    private static class Glob {
+        private final String pattern;
+        private final boolean[] wildcard;
+        private final boolean[] anyChar;
+
+        /**
+         * @param pattern The pattern, in which '*' matches any sequence of characters.
+         * @param prefix If true, the pattern is taken literally and matches any name starting
+         * with it.
+         * @param anyCharDot If true (and not a prefix), '.' in the pattern matches any single
+         * character.
+         */
+        private Glob(String pattern, boolean prefix, boolean anyCharDot) {
+            this.pattern = prefix ? pattern + '*' : pattern;
+            wildcard = new boolean[this.pattern.length()];
+            anyChar = new boolean[this.pattern.length()];
+            for (int i = 0; i < wildcard.length; i++) {
+                wildcard[i] = prefix ? (i == wildcard.length - 1) : (this.pattern.charAt(i) == '*');
+                anyChar[i] = !prefix && anyCharDot && this.pattern.charAt(i) == '.';
+            }
+        }
+
+        private void closure(boolean[] state) {
+            for (int i = 0; i < wildcard.length; i++) {
+                if (state[i] && wildcard[i]) {
+                    state[i + 1] = true;
+                }
+            }
+        }
+
+        private boolean[] start() {
+            boolean[] state = new boolean[wildcard.length + 1];
+            state[0] = true;
+            closure(state);
+            return state;
+        }
+
+        private boolean matches(boolean[] state) {
+            return state[wildcard.length];
+        }
+
+        /**
+         * @return The states reached from the provided ones after the character, or null if there
+         * are none.
+         */
+        private boolean[] step(boolean[] state, char c) {
+            boolean[] next = new boolean[state.length];
+            boolean any = false;
+            for (int i = 0; i < wildcard.length; i++) {
+                if (!state[i]) {
+                    continue;
+                }
+                if (wildcard[i]) {
+                    next[i] = true;
+                    any = true;
+                } else if (anyChar[i] || pattern.charAt(i) == c) {
+                    next[i + 1] = true;
+                    any = true;
+                }
+            }
+            if (!any) {
+                return null;
+            }
+            closure(next);
+            return next;
+        }
+
+        /**
+         * @return The states reached from the provided ones after the string, or null if there are
+         * none.
+         */
+        private boolean[] step(boolean[] state, String s) {
+            for (int i = 0; i < s.length() && state != null; i++) {
+                state = step(state, s.charAt(i));
+            }
+            return state;
+        }
+    }
+}
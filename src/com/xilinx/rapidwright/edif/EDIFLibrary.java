@@ -165,6 +165,11 @@ public class EDIFLibrary extends EDIFName {
         return netlist;
     }
 
+    @Override
+    protected boolean isInFrozenNetlist() {
+        return netlist != null && netlist.isFrozen();
+    }
+
     /**
      * @param netlist the netlist to set
      */
@@ -224,6 +229,20 @@ public class EDIFLibrary extends EDIFName {
         return cells == null ? false : cells.containsKey(name);
     }
 
+    /**
+     * @see EDIFNetlist#freeze()
+     */
+    void freeze() {
+        cells = EDIFFrozenMap.freeze(cells);
+    }
+
+    /**
+     * @see EDIFNetlist#thaw()
+     */
+    void thaw() {
+        cells = EDIFFrozenMap.thaw(cells);
+    }
+
     /**
      * Gets and returns the current map of cells in the library.  The cells
      * are keyed by the legal EDIF name of the cell.
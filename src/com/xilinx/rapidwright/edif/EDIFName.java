@@ -65,9 +65,21 @@ public class EDIFName implements Comparable<EDIFName> {
     }
 
     protected void setName(String name) {
+        if (isInFrozenNetlist()) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
         this.name = name;
     }
 
+    /**
+     * Checks if this object belongs to a frozen netlist (see {@link EDIFNetlist#freeze()}), in
+     * which case it cannot be renamed, as it may be keyed by its name.
+     * @return True if this object belongs to a frozen netlist, false otherwise.
+     */
+    protected boolean isInFrozenNetlist() {
+        return false;
+    }
+
     public static final byte[] EXPORT_CONST_RENAME_START = "(rename ".getBytes(StandardCharsets.UTF_8);
 
 
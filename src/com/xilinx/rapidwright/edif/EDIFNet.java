@@ -87,6 +87,7 @@ public class EDIFNet extends EDIFPropertyObject {
      */
     public void addPortInst(EDIFPortInst portInst, boolean deferSort) {
         if (portInsts == null) portInsts = new EDIFPortInstList();
+        if (portInsts.isFrozen()) throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
         boolean isParentCellNonNull = parentCell != null;
         EDIFCellInst inst = portInst.getCellInst();
         if (isParentCellNonNull && inst == null) {
@@ -346,6 +347,11 @@ public class EDIFNet extends EDIFPropertyObject {
         return parentCell;
     }
 
+    @Override
+    protected boolean isInFrozenNetlist() {
+        return parentCell != null && parentCell.isInFrozenNetlist();
+    }
+
     /**
      * @param parentCell the parentCell to set
      */
@@ -358,6 +364,20 @@ public class EDIFNet extends EDIFPropertyObject {
         return portInsts;
     }
 
+    /**
+     * @see EDIFNetlist#freeze()
+     */
+    void freezePortInsts() {
+        portInsts = EDIFPortInstList.freeze(portInsts);
+    }
+
+    /**
+     * @see EDIFNetlist#thaw()
+     */
+    void thawPortInsts() {
+        portInsts = EDIFPortInstList.thaw(portInsts);
+    }
+
     /**
      * Checks if this net is a logical VCC net. It first checks if the net matches
      * the defacto name for VCC in Vivado synthesis, {@literal"<const1>"}
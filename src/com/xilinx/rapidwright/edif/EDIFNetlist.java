@@ -52,6 +52,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
@@ -72,6 +73,7 @@ import com.xilinx.rapidwright.util.Pair;
 import com.xilinx.rapidwright.util.ParallelDCPInput;
 import com.xilinx.rapidwright.util.ParallelDCPOutput;
 import com.xilinx.rapidwright.util.ParallelismTools;
+import com.xilinx.rapidwright.util.StringPool;
 
 /**
  * Top level object for a (logical) EDIF netlist.
@@ -111,6 +113,10 @@ public class EDIFNetlist extends EDIFName {
 
     private Map<EDIFCell, List<EDIFChange>> modifiedCells = null;
 
+    private boolean frozen = false;
+
+    private EDIFHierNameIndex hierNameIndex = null;
+
     private boolean DEBUG = false;
 
     /**
@@ -276,6 +282,9 @@ public class EDIFNetlist extends EDIFName {
      * @return The library that was added.
      */
     public EDIFLibrary addLibrary(EDIFLibrary library) {
+        if (frozen) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
         library.setNetlist(this);
         EDIFLibrary collision = libraries.put(library.getName(), library);
         if (collision != null) {
@@ -322,6 +331,9 @@ public class EDIFNetlist extends EDIFName {
     }
 
     public EDIFLibrary removeLibrary(String name) {
+        if (frozen) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
         EDIFLibrary library = libraries.remove(name);
         if (library != null) {
             library.clearNetlist();
@@ -1031,6 +1043,9 @@ public class EDIFNetlist extends EDIFName {
      * @return Hierarchical cell instance reference or null if named instance could not be found
      */
     public EDIFHierCellInst getHierCellInstFromName(String name) {
+        if (hierNameIndex != null) {
+            return hierNameIndex.getHierCellInst(name);
+        }
         final Pair<List<EDIFCellInst>, String> hierObject = getHierObject(name);
         //Incomplete match?
         if (hierObject.getSecond() != null) {
@@ -1046,6 +1061,9 @@ public class EDIFNetlist extends EDIFName {
      * @return The absolute net with hierarchical name, or null if none could be found.
      */
     public EDIFHierNet getHierNetFromName(String netName) {
+        if (hierNameIndex != null) {
+            return hierNameIndex.getHierNet(netName);
+        }
         return getHierObject(
                 netName,
                 (eci, n) -> eci.getCellType().getNet(n),
@@ -1105,6 +1123,10 @@ public class EDIFNetlist extends EDIFName {
      * @return The list of all matching EDIFHierCellInst
      */
     public List<EDIFHierCellInst> findCellInsts(String wildcardPattern) {
+        if (hierNameIndex != null && (wildcardPattern == null || wildcardPattern.indexOf('+') < 0)) {
+            // Same (regular expression) semantics as below, which the index cannot follow for '+'
+            return hierNameIndex.findCellInstsAnyCharDot(wildcardPattern);
+        }
         return getAllDescendants("", wildcardPattern, false);
     }
 
@@ -1956,6 +1978,15 @@ public class EDIFNetlist extends EDIFName {
         return BinaryEDIFReader.readBinaryEDIF(fileName);
     }
 
+    /**
+     * Reads a binary EDIF file, optionally leaving the contents of each cell to be read on first
+     * access if the file is in the chunked format.
+     * @see BinaryEDIFReader#readBinaryEDIF(Path, boolean)
+     */
+    public static EDIFNetlist readBinaryEDIF(Path path, boolean lazy) {
+        return BinaryEDIFReader.readBinaryEDIF(path, lazy);
+    }
+
     public void writeBinaryEDIF(Path path) {
         BinaryEDIFWriter.writeBinaryEDIF(path, this);
     }
@@ -1967,6 +1998,10 @@ public class EDIFNetlist extends EDIFName {
         BinaryEDIFWriter.writeBinaryEDIF(fileName, this);
     }
 
+    public void writeChunkedBinaryEDIF(Path path) {
+        BinaryEDIFWriter.writeChunkedBinaryEDIF(path, this);
+    }
+
     /**
      * Checks a flag indicating if this netlist is currently tracking changes to its EDIFCells.
      * Modified EDIFCells are tracked in a set which can be queried with {@link #getModifiedCells()}.
@@ -1988,6 +2023,103 @@ public class EDIFNetlist extends EDIFName {
         this.trackCellChanges = trackCellChanges;
     }
 
+    /**
+     * Converts this netlist to a compact, read-only representation for analysis-only flows, in
+     * which the maps of cells, cell instances, nets and ports are replaced by
+     * {@link EDIFFrozenMap}s, the port instance lists of nets and cell instances are trimmed to
+     * size, and identical property maps and port instance names are shared between objects.  Any method that would add
+     * or remove objects or properties then throws an {@link UnsupportedOperationException} until
+     * {@link #thaw()} is called, as does modifying a (possibly shared) {@link EDIFPropertyValue} or
+     * renaming an object.  Cells of a lazily loaded binary EDIF netlist are loaded
+     * first.
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        Map<Map<String, EDIFPropertyValue>, Map<String, EDIFPropertyValue>> propertySets = new ConcurrentHashMap<>();
+        List<EDIFCell> cells = new ArrayList<>();
+        for (EDIFLibrary lib : getLibraries()) {
+            cells.addAll(lib.getCells());
+        }
+        StringPool portInstNames = StringPool.concurrentPool();
+        ParallelismTools.invokeAllRange(0, cells.size(), 1, (i) -> cells.get(i).freeze(propertySets, portInstNames));
+        for (EDIFLibrary lib : getLibraries()) {
+            lib.freeze();
+        }
+        if (design != null) {
+            design.freezeProperties(propertySets);
+        }
+        frozen = true;
+    }
+
+    /**
+     * Reverts {@link #freeze()}, making this netlist modifiable again.  Each object gets its own
+     * copy of its properties.
+     */
+    public void thaw() {
+        if (!frozen) {
+            return;
+        }
+        frozen = false;
+        if (design != null) {
+            design.thawProperties();
+        }
+        List<EDIFCell> cells = new ArrayList<>();
+        for (EDIFLibrary lib : getLibraries()) {
+            lib.thaw();
+            cells.addAll(lib.getCells());
+        }
+        ParallelismTools.invokeAllRange(0, cells.size(), 1, (i) -> cells.get(i).thaw());
+    }
+
+    /**
+     * @return True if this netlist has been frozen by {@link #freeze()}, false otherwise.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    @Override
+    protected boolean isInFrozenNetlist() {
+        return frozen;
+    }
+
+    /**
+     * Gets the hierarchical name index of this netlist, building it in parallel on first use.
+     * While the index exists, {@link #getHierCellInstFromName(String)},
+     * {@link #getHierNetFromName(String)} and {@link #findCellInsts(String)} are answered from it.
+     * The index follows any instances and nets added to or removed from the netlist.
+     * @return The hierarchical name index of this netlist.
+     */
+    public EDIFHierNameIndex getHierNameIndex() {
+        if (hierNameIndex == null) {
+            EDIFHierNameIndex index = new EDIFHierNameIndex(this);
+            index.build();
+            hierNameIndex = index;
+        }
+        return hierNameIndex;
+    }
+
+    /**
+     * @return True if the hierarchical name index of this netlist has been built by
+     * {@link #getHierNameIndex()}, false otherwise.
+     */
+    public boolean hasHierNameIndex() {
+        return hierNameIndex != null;
+    }
+
+    /**
+     * Removes the hierarchical name index of this netlist (if any), releasing its memory.
+     */
+    public void removeHierNameIndex() {
+        if (hierNameIndex == null) {
+            return;
+        }
+        hierNameIndex.clear();
+        hierNameIndex = null;
+    }
+
     public void trackChange(EDIFCell cell, EDIFChangeType type, String objectName) {
         if (isTrackingCellChanges()) {
             addTrackingChange(cell, new EDIFChange(type, objectName));
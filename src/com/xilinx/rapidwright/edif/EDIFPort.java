@@ -315,6 +315,11 @@ public class EDIFPort extends EDIFPropertyObject {
         return parentCell;
     }
 
+    @Override
+    protected boolean isInFrozenNetlist() {
+        return parentCell != null && parentCell.isInFrozenNetlist();
+    }
+
     /**
      * @param parentCell the parentCell to set
      */
@@ -24,8 +24,11 @@
 package com.xilinx.rapidwright.edif;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Customized ArrayList<EDIFPortInst> for the {@link EDIFNet} and {@link EDIFCellInst} classes.
@@ -140,4 +143,144 @@ public class EDIFPortInstList extends ArrayList<EDIFPortInst> {
     public void reSortList() {
         Collections.sort(this);
     }
+
+    /**
+     * Creates a frozen copy of the provided list, with no spare capacity and on which all methods
+     * that would modify the list throw an {@link UnsupportedOperationException}.
+     * @param list The list to freeze, or null.
+     * @return The frozen copy, the list itself if it is already frozen, or a shared empty frozen
+     * list if it is null.
+     * @see EDIFNetlist#freeze()
+     */
+    public static EDIFPortInstList freeze(EDIFPortInstList list) {
+        if (list instanceof Frozen) {
+            return list;
+        }
+        return list == null || list.isEmpty() ? Frozen.EMPTY : new Frozen(list);
+    }
+
+    /**
+     * Creates a mutable copy of the provided list if it is frozen.
+     * @param list The list to thaw.
+     * @return A new list with the same elements if the list is frozen (or null if it is empty),
+     * otherwise the list itself.
+     * @see EDIFNetlist#thaw()
+     */
+    public static EDIFPortInstList thaw(EDIFPortInstList list) {
+        if (!(list instanceof Frozen)) {
+            return list;
+        }
+        if (list.isEmpty()) {
+            return null;
+        }
+        EDIFPortInstList thawed = new EDIFPortInstList();
+        thawed.ensureCapacity(list.size());
+        for (EDIFPortInst e : list) {
+            thawed.deferSortAdd(e);
+        }
+        return thawed;
+    }
+
+    public boolean isFrozen() {
+        return false;
+    }
+
+    private static class Frozen extends EDIFPortInstList {
+
+        private static final long serialVersionUID = -3312917646218163384L;
+
+        private static final Frozen EMPTY = new Frozen(Collections.emptyList());
+
+        private Frozen(Collection<EDIFPortInst> list) {
+            for (EDIFPortInst e : list) {
+                super.deferSortAdd(e);
+            }
+            trimToSize();
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return true;
+        }
+
+        @Override
+        public boolean add(EDIFPortInst e) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public void add(int index, EDIFPortInst e) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends EDIFPortInst> c) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends EDIFPortInst> c) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public EDIFPortInst set(int index, EDIFPortInst e) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public EDIFPortInst remove(int index) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public EDIFPortInst remove(EDIFCellInst inst, String portInstName) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super EDIFPortInst> filter) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<EDIFPortInst> operator) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public void deferSortAdd(EDIFPortInst e) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public void reSortList() {
+            // Already sorted when frozen
+        }
+    }
 }
@@ -152,7 +152,7 @@ public class EDIFPropertyObject extends EDIFName {
      * @return
      */
     public Map<String, EDIFPropertyValue> createDuplicatePropertiesMap() {
-        if (properties == null) return null;
+        if (properties == null || properties == EDIFFrozenMap.<EDIFPropertyValue>empty()) return null;
         Map<String, EDIFPropertyValue> newMap = new HashMap<>();
         for (Entry<String, EDIFPropertyValue> e : properties.entrySet()) {
             newMap.put(e.getKey(), new EDIFPropertyValue(e.getValue()));
@@ -160,6 +160,40 @@ public class EDIFPropertyObject extends EDIFName {
         return newMap;
     }
 
+    /**
+     * Replaces the properties of this object with a frozen copy, shared with all other objects
+     * that have identical properties.  Objects without properties get the empty frozen map, such
+     * that adding a property is also rejected.  The property values are replaced by unmodifiable
+     * copies, since they may be shared.
+     * @param propertySets Frozen property maps seen so far, by themselves.  Must be thread-safe
+     * if this is called from multiple threads.
+     * @see EDIFNetlist#freeze()
+     */
+    void freezeProperties(Map<Map<String, EDIFPropertyValue>, Map<String, EDIFPropertyValue>> propertySets) {
+        if (properties == null || properties.isEmpty()) {
+            properties = EDIFFrozenMap.empty();
+            return;
+        }
+        Map<String, EDIFPropertyValue> values = new HashMap<>(properties.size() * 4 / 3 + 1);
+        for (Entry<String, EDIFPropertyValue> e : properties.entrySet()) {
+            values.put(e.getKey(), e.getValue().freeze());
+        }
+        Map<String, EDIFPropertyValue> frozen = EDIFFrozenMap.freeze(values);
+        Map<String, EDIFPropertyValue> existing = propertySets.putIfAbsent(frozen, frozen);
+        properties = existing != null ? existing : frozen;
+    }
+
+    /**
+     * Replaces frozen properties with a mutable copy of their own, which no longer shares its
+     * property values with other objects.
+     * @see EDIFNetlist#thaw()
+     */
+    void thawProperties() {
+        if (properties instanceof EDIFFrozenMap) {
+            properties = createDuplicatePropertiesMap();
+        }
+    }
+
     /**
      * Get all properties in native format
      */
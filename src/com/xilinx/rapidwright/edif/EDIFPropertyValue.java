@@ -281,6 +281,39 @@ public class EDIFPropertyValue {
         return owner;
     }
 
+    /**
+     * Gets an unmodifiable copy of this property value for a frozen netlist, in which property
+     * values are shared between objects (see {@link EDIFNetlist#freeze()}).
+     * @return The unmodifiable copy, or this property value if it is already unmodifiable.
+     */
+    EDIFPropertyValue freeze() {
+        return this instanceof Frozen ? this : new Frozen(this);
+    }
+
+    /**
+     * A property value of a frozen netlist, which rejects any modification.
+     */
+    private static final class Frozen extends EDIFPropertyValue {
+        Frozen(EDIFPropertyValue propValue) {
+            super(propValue);
+        }
+
+        @Override
+        public void setType(EDIFValueType type) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public void setValue(String value) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+
+        @Override
+        public void setOwner(String owner) {
+            throw new UnsupportedOperationException(EDIFFrozenMap.FROZEN_ERROR);
+        }
+    }
+
     public void setOwner(String owner) {
         this.owner = owner;
     }
@@ -291,7 +324,7 @@ public class EDIFPropertyValue {
             return true;
         if (obj == null)
             return false;
-        if (getClass() != obj.getClass())
+        if (!(obj instanceof EDIFPropertyValue))
             return false;
         EDIFPropertyValue other = (EDIFPropertyValue) obj;
         if (!type.equals(other.type))
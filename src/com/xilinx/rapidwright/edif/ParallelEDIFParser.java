@@ -41,6 +41,8 @@ import java.util.stream.Collectors;
 import com.xilinx.rapidwright.device.Device;
 import com.xilinx.rapidwright.tests.CodePerfTracker;
 import com.xilinx.rapidwright.util.FileTools;
+import com.xilinx.rapidwright.util.GzipIndex;
+import com.xilinx.rapidwright.util.IndexedGzipInputStream;
 import com.xilinx.rapidwright.util.ParallelismTools;
 import com.xilinx.rapidwright.util.Params;
 import com.xilinx.rapidwright.util.StringPool;
@@ -58,6 +60,11 @@ public class ParallelEDIFParser implements AutoCloseable{
     protected final InputStreamSupplier inputStreamSupplier;
     protected final int maxTokenLength;
     protected StringPool uniquifier = StringPool.concurrentPool();
+    /** True to read a gzipped file through its {@link GzipIndex} (if one exists), rather than from the input stream supplier */
+    protected boolean useGzipIndex = false;
+    protected GzipIndex gzipIndex = null;
+    /** Background build of the {@link GzipIndex} of a gzipped file that has none, if requested by {@link Params#RW_WRITE_GZIP_INDEX} */
+    private Future<GzipIndex> gzipIndexBuild = null;
 
     protected final EDIFReadLegalNameCache cache;
 
@@ -85,6 +92,8 @@ public class ParallelEDIFParser implements AutoCloseable{
     public ParallelEDIFParser(Path p, long fileSize) {
         this(p, fileSize, InputStreamSupplier.fromPath(p,
                 p.toString().endsWith(".gz") && Params.RW_DECOMPRESS_GZIPPED_EDIF_TO_DISK));
+        useGzipIndex = p.toString().endsWith(".gz") && !Params.RW_DECOMPRESS_GZIPPED_EDIF_TO_DISK
+                && !Params.RW_DISABLE_GZIP_INDEX;
     }
 
     public ParallelEDIFParser(Path p) throws IOException {
@@ -92,6 +101,11 @@ public class ParallelEDIFParser implements AutoCloseable{
     }
 
     protected ParallelEDIFParserWorker makeWorker(long offset) throws IOException {
+        if (gzipIndex != null) {
+            // Each worker resumes decompression at the last access point before its offset
+            return new ParallelEDIFParserWorker(fileName, new IndexedGzipInputStream(fileName, gzipIndex), offset,
+                    uniquifier, maxTokenLength, cache);
+        }
         return new ParallelEDIFParserWorker(fileName, inputStreamSupplier.get(), offset, uniquifier, maxTokenLength, cache);
     }
 
@@ -106,8 +120,20 @@ public class ParallelEDIFParser implements AutoCloseable{
     protected void initializeWorkers() throws IOException {
         workers.clear();
         boolean isGzipped = fileName.toString().endsWith(".gz");
-        int threads = calcThreads(fileSize, maxThreads, isGzipped);
-        long offsetPerThread = (isGzipped ? (fileSize * EDIF_GZIP_COMPRESSION_RATIO) : fileSize)
+        long size = fileSize;
+        if (useGzipIndex) {
+            gzipIndex = GzipIndex.load(fileName);
+            if (gzipIndex != null) {
+                // The uncompressed size is known exactly, rather than estimated from the compression ratio
+                size = gzipIndex.getUncompressedSize();
+                isGzipped = false;
+            } else if (Params.RW_WRITE_GZIP_INDEX) {
+                // Rather than holding up this read, index the file alongside parsing it for the benefit of later reads
+                gzipIndexBuild = ParallelismTools.submit(() -> GzipIndex.buildAndWrite(fileName));
+            }
+        }
+        int threads = calcThreads(size, maxThreads, isGzipped);
+        long offsetPerThread = (isGzipped ? (size * EDIF_GZIP_COMPRESSION_RATIO) : size)
                 / threads;
         for (int i=0;i<threads;i++) {
             ParallelEDIFParserWorker worker = makeWorker(i*offsetPerThread);
@@ -167,6 +193,11 @@ public class ParallelEDIFParser implements AutoCloseable{
         t.stop().start("Do Parse");
         doParse();
 
+        if (gzipIndexBuild != null) {
+            t.stop().start("Finish Gzip Index");
+            ParallelismTools.get(gzipIndexBuild);
+            gzipIndexBuild = null;
+        }
 
         return mergeParseResults(t);
     }
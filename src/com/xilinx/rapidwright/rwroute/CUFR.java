@@ -27,15 +27,21 @@ package com.xilinx.rapidwright.rwroute;
 import com.xilinx.rapidwright.design.Design;
 import com.xilinx.rapidwright.interchange.Interchange;
 import com.xilinx.rapidwright.tests.CodePerfTracker;
+import com.xilinx.rapidwright.util.MessageGenerator;
 import com.xilinx.rapidwright.timing.delayestimator.DelayEstimatorBase;
 import com.xilinx.rapidwright.timing.delayestimator.InterconnectInfo;
 import com.xilinx.rapidwright.util.ParallelismTools;
 import com.xilinx.rapidwright.util.RuntimeTracker;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  *  This is the implementation of the parallel structure Recursive Partitioning Ternary Tree (RPTT)
@@ -74,10 +80,13 @@ public class CUFR extends RWRoute {
      *  (do not use ThreadLocal as the only way to have its values garbage collected is through calling
      *  ThreadLocal.remove() from the owning thread; this cannot be done elegantly when routing has finished) */
     private final Map<Thread,ConnectionState> connectionState;
+    /** Number of connections whose region-locked routing was deferred by a conflicting region lock */
+    private final AtomicLong regionLockConflicts;
 
     public CUFR(Design design, RWRouteConfig config) {
         super(design, config);
         connectionState = new ConcurrentHashMap<>();
+        regionLockConflicts = new AtomicLong();
     }
 
     public static class RouteNodeGraphCUFR extends RouteNodeGraph {
@@ -113,21 +122,40 @@ public class CUFR extends RWRoute {
 
     @Override
     protected ConnectionState getConnectionState() {
-        return connectionState.computeIfAbsent(Thread.currentThread(), (k) -> new ConnectionState());
+        return connectionState.computeIfAbsent(Thread.currentThread(), (k) -> createConnectionState());
     }
 
     @Override
     protected void initialize() {
         super.initialize();
         partitionTimer = routerTimer.createStandAloneRuntimeTracker("update partitioning");
+        if (config.isRegionLockedRouting() && !config.isUseBoundingBox()) {
+            // Every region lock would cover the entire device, serializing all routing
+            System.err.println("WARNING: Region-locked routing requires the bounding box constraint; "
+                    + "using the partition tree instead.");
+        }
     }
 
     @Override
-    protected void printRoutingStatistics() {
-        routerTimer.getRuntimeTracker("route wire nets").addChild(partitionTimer);
+    protected boolean isMultiSinkRouted(Connection connection) {
+        // Connections of the same net may be routed concurrently, so their routing trees cannot be reused
+        return false;
+    }
+
+    @Override
+    protected void addRouteWireNetsChildTimers(RuntimeTracker routeWireNets) {
+        super.addRouteWireNetsChildTimers(routeWireNets);
+        routeWireNets.addChild(partitionTimer);
         RuntimeTracker routeConnectionsTimer = routerTimer.getRuntimeTracker("route connections");
         routeConnectionsTimer.setTime(routeConnectionsTimer.getTime() - partitionTimer.getTime());
+    }
+
+    @Override
+    protected void printRoutingStatistics() {
         super.printRoutingStatistics();
+        if (config.isRegionLockedRouting() && config.isVerbose()) {
+            System.out.print(MessageGenerator.formatString("Region lock deferred connections:", regionLockConflicts.get()));
+        }
     }
 
     /**
@@ -151,8 +179,147 @@ public class CUFR extends RWRoute {
         }
     }
 
+    /**
+     * Maximum number of region locks that may be released while a connection stays parked, after which no
+     * connection that comes after it is locked until it has been locked, so that connections with large bounding
+     * boxes cannot starve.
+     */
+    private static final int MAX_PARKED_RELEASES = 8;
+
+    /**
+     * Hands out connections to the workers of {@link #routeIndirectConnectionsRegionLocked(Collection)} in
+     * sorted order, each only once the region of its bounding box has been locked. A connection whose lock
+     * conflicts is parked, and only retried (ahead of any later connection) when a lock is released, so idle workers wait
+     * rather than spin. At most a fixed number of connections may be parked at once, which bounds how far
+     * the routing order can deviate from the sorted order.
+     */
+    private class RegionLockSchedule {
+        private final List<Connection> connections;
+        private final ConnectionRegionLocks locks;
+        private final int maxParked;
+        /** Index of the next connection not yet handed out or parked */
+        private int next;
+        /** Indices of parked connections, in sorted order, mapped to the number of locks released since */
+        private final TreeMap<Integer, Integer> parked;
+        /** Number of connections handed out and not yet released */
+        private int inFlight;
+
+        RegionLockSchedule(Collection<Connection> connections, ConnectionRegionLocks locks, int numWorkers) {
+            this.connections = new ArrayList<>(connections);
+            this.locks = locks;
+            maxParked = 4 * numWorkers;
+            next = 0;
+            parked = new TreeMap<>();
+            inFlight = 0;
+        }
+
+        /**
+         * Waits until a connection can be routed, and locks the region of its bounding box.
+         * @return The locked connection, or null if all connections have been routed.
+         */
+        synchronized Connection take() throws InterruptedException {
+            while (true) {
+                boolean blocked = false;
+                Iterator<Map.Entry<Integer, Integer>> it = parked.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Integer, Integer> e = it.next();
+                    Connection connection = connections.get(e.getKey());
+                    if (locks.tryLock(connection)) {
+                        it.remove();
+                        inFlight++;
+                        return connection;
+                    }
+                    if (e.getValue() >= MAX_PARKED_RELEASES) {
+                        // Let in-flight connections drain until this one can be locked
+                        blocked = true;
+                        break;
+                    }
+                }
+                while (!blocked && parked.size() < maxParked && next < connections.size()) {
+                    int i = next++;
+                    Connection connection = connections.get(i);
+                    if (!shouldRoute(connection)) {
+                        continue;
+                    }
+                    if (locks.tryLock(connection)) {
+                        inFlight++;
+                        return connection;
+                    }
+                    regionLockConflicts.incrementAndGet();
+                    parked.put(i, 0);
+                }
+                if (inFlight == 0 && parked.isEmpty() && next >= connections.size()) {
+                    return null;
+                }
+                // With nothing in flight, every bin is free and the first parked connection was locked above
+                assert(inFlight > 0);
+                wait();
+            }
+        }
+
+        synchronized void release(Connection connection) {
+            locks.unlock(connection);
+            inFlight--;
+            for (Map.Entry<Integer, Integer> e : parked.entrySet()) {
+                e.setValue(e.getValue() + 1);
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Routes connections under region locks: a number of workers take connections in order and route each one
+     * concurrently with all others, provided that the region of its bounding box can be locked without conflicting
+     * with that of any connection currently being routed. Connections that conflict are parked until a lock is released
+     * (see {@link RegionLockSchedule}).
+     * Since the per-connection search state (e.g. visited, prev) lives on each rnode, non-overlapping bounding
+     * boxes is what guarantees that concurrent searches never touch the same rnodes, exactly as with the
+     * partition tree; unlike the partition tree though, connections crossing a cutline are not serialized.
+     * This is pessimistic: a connection waits for its whole region rather than being routed optimistically and
+     * retried on conflict, so it requires routing to be confined to bounding boxes (see
+     * {@link #routeIndirectConnections(Collection)}).
+     * As with the partition tree, the routing order depends on thread timing, except when using one worker.
+     * @param connections The connections to route.
+     */
+    private void routeIndirectConnectionsRegionLocked(Collection<Connection> connections) {
+        int numWorkers = config.getRegionLockedRoutingThreads();
+        if (numWorkers == 0 || numWorkers > ParallelismTools.maxParallelism()) {
+            numWorkers = ParallelismTools.maxParallelism();
+        }
+        final ConnectionRegionLocks locks = new ConnectionRegionLocks(design.getDevice().getColumns(),
+                design.getDevice().getRows());
+        final RegionLockSchedule schedule = new RegionLockSchedule(connections, locks, numWorkers);
+
+        Runnable worker = () -> {
+            while (true) {
+                Connection connection;
+                try {
+                    connection = schedule.take();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                if (connection == null) {
+                    return;
+                }
+                try {
+                    routeIndirectConnection(connection);
+                } finally {
+                    schedule.release(connection);
+                }
+            }
+        };
+
+        Runnable[] workers = new Runnable[numWorkers];
+        Arrays.fill(workers, worker);
+        ParallelismTools.invokeAll(workers);
+    }
+
     @Override
     protected void routeIndirectConnections(Collection<Connection> connections) {
+        if (config.isRegionLockedRouting() && config.isUseBoundingBox()) {
+            routeIndirectConnectionsRegionLocked(connections);
+            return;
+        }
         boolean firstIteration = (routeIteration == 1);
         if (firstIteration || config.isEnlargeBoundingBox()) {
             partitionTimer.start();
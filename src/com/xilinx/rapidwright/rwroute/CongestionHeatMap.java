@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A per-tile view of routing congestion, indexed by the end tile coordinates of each rnode.
+ * At the end of each routing iteration, {@link #endIteration(Collection)} recomputes the present overuse of
+ * each tile (the sum of the overuse of all rnodes ending in that tile) from the overused rnodes, accumulates it
+ * into a per-tile history and marks tiles that are still overused as hot, so that the hot regions overlapping
+ * a connection's bounding box can be queried in constant time.
+ * Since it is only computed between iterations, while no connections are being routed, the present overuse
+ * is exact even when connections are routed concurrently (e.g. by {@link CUFR}).
+ */
+public class CongestionHeatMap {
+    private final int columns;
+    private final int rows;
+    /** Present overuse of each tile, as of the end of the last completed iteration */
+    private final int[] presentOveruse;
+    /** Sum of the present overuse of each tile at the end of every completed iteration */
+    private final long[] historicalOveruse;
+    /** 2D prefix sum of hot tiles, with an extra leading row and column of zeros */
+    private final int[] hotPrefixSum;
+    /** Number of tiles that were hot at the end of the last completed iteration */
+    private int numHotTiles;
+
+    /**
+     * Creates an empty heat map covering the device.
+     * @param columns Number of tile columns in the device.
+     * @param rows Number of tile rows in the device.
+     */
+    public CongestionHeatMap(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        presentOveruse = new int[columns * rows];
+        historicalOveruse = new long[columns * rows];
+        hotPrefixSum = new int[(columns + 1) * (rows + 1)];
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    private int getIndex(RouteNode rnode) {
+        return rnode.getEndTileYCoordinate() * columns + rnode.getEndTileXCoordinate();
+    }
+
+    /**
+     * Gets the present overuse of a tile.
+     * @param x The tile column.
+     * @param y The tile row.
+     * @return The sum of the overuse of all rnodes ending in the tile at the end of the last completed iteration.
+     */
+    public int getPresentOveruse(int x, int y) {
+        return presentOveruse[y * columns + x];
+    }
+
+    /**
+     * Gets the historical overuse of a tile.
+     * @param x The tile column.
+     * @param y The tile row.
+     * @return The sum of the present overuse of the tile at the end of every completed iteration.
+     */
+    public long getHistoricalOveruse(int x, int y) {
+        return historicalOveruse[y * columns + x];
+    }
+
+    /**
+     * Gets the number of hot tiles, i.e. those that were still overused at the end of the last completed iteration.
+     * @return The number of hot tiles.
+     */
+    public int getNumHotTiles() {
+        return numHotTiles;
+    }
+
+    /**
+     * Recomputes the present overuse of every tile from the overused rnodes, accumulates it into the history,
+     * and recomputes the hot tiles.
+     * Must not be called while connections are being routed.
+     * @param overUsedRnodes All rnodes that are overused at the end of this iteration.
+     */
+    public void endIteration(Collection<RouteNode> overUsedRnodes) {
+        Arrays.fill(presentOveruse, 0);
+        for (RouteNode rnode : overUsedRnodes) {
+            int overuse = rnode.getOccupancy() - RouteNode.capacity;
+            assert(overuse > 0);
+            presentOveruse[getIndex(rnode)] += overuse;
+        }
+        numHotTiles = 0;
+        for (int y = 0; y < rows; y++) {
+            int rowSum = 0;
+            for (int x = 0; x < columns; x++) {
+                int i = y * columns + x;
+                int overuse = presentOveruse[i];
+                historicalOveruse[i] += overuse;
+                if (overuse > 0) {
+                    rowSum++;
+                    numHotTiles++;
+                }
+                hotPrefixSum[(y + 1) * (columns + 1) + x + 1] = hotPrefixSum[y * (columns + 1) + x + 1] + rowSum;
+            }
+        }
+    }
+
+    /**
+     * Checks if the bounding box of a connection overlaps any hot tile.
+     * @param connection The connection in question.
+     * @return True if at least one tile within the connection's bounding box is hot.
+     */
+    public boolean overlapsHotRegion(Connection connection) {
+        if (numHotTiles == 0) {
+            return false;
+        }
+        int xMin = Math.max(0, connection.getXMinBB());
+        int xMax = Math.min(columns - 1, connection.getXMaxBB());
+        int yMin = Math.max(0, connection.getYMinBB());
+        int yMax = Math.min(rows - 1, connection.getYMaxBB());
+        if (xMin > xMax || yMin > yMax) {
+            return false;
+        }
+        int stride = columns + 1;
+        int count = hotPrefixSum[(yMax + 1) * stride + xMax + 1]
+                - hotPrefixSum[yMin * stride + xMax + 1]
+                - hotPrefixSum[(yMax + 1) * stride + xMin]
+                + hotPrefixSum[yMin * stride + xMin];
+        return count > 0;
+    }
+
+    /**
+     * Checks if a routed connection uses any rnode ending in a hot tile, i.e. if it passes through a region that
+     * was still overused at the end of the last completed iteration (even if none of its own rnodes are overused).
+     * @param connection The connection in question.
+     * @return True if at least one rnode of the connection ends in a hot tile.
+     */
+    public boolean usesHotRegion(Connection connection) {
+        if (numHotTiles == 0) {
+            return false;
+        }
+        for (RouteNode rnode : connection.getRnodes()) {
+            int x = rnode.getEndTileXCoordinate();
+            int y = rnode.getEndTileYCoordinate();
+            if (x >= 0 && x < columns && y >= 0 && y < rows && presentOveruse[y * columns + x] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes all tiles with a non-zero present or historical overuse to a CSV file,
+     * with the columns: x, y, present overuse, historical overuse.
+     * @param path Path of the file to be written.
+     */
+    public void writeCSV(Path path) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("x,y,present_overuse,historical_overuse\n");
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < columns; x++) {
+                    int i = y * columns + x;
+                    int present = presentOveruse[i];
+                    if (present == 0 && historicalOveruse[i] == 0) {
+                        continue;
+                    }
+                    writer.write(x + "," + y + "," + present + "," + historicalOveruse[i] + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("ERROR: Unable to write congestion heat map file " + path, e);
+        }
+    }
+}
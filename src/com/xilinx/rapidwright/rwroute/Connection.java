@@ -189,7 +189,17 @@ public class Connection implements Comparable<Connection>{
             float slack = e.getDst().getRequiredTime() - e.getSrc().getArrivalTime() - e.getDelay();
             minSlack = Float.min(minSlack, slack);
         }
+        calculateCriticality(minSlack, maxDelay, maxCriticality, criticalityExponent);
+    }
 
+    /**
+     * Computes criticality of a connection from the minimum slack of its timing edges.
+     * @param minSlack The minimum slack of the timing edges of this connection.
+     * @param maxDelay The maximum delay to normalize the slack of a connection.
+     * @param maxCriticality The maximum criticality.
+     * @param criticalityExponent The exponent to separate critical connections and non-critical connections.
+     */
+    public void calculateCriticality(float minSlack, float maxDelay, float maxCriticality, float criticalityExponent) {
         // Negative slacks are not supported, and should not occur if maxDelay was
         // normalized correctly.
         assert(minSlack >= 0);
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Region locks over the device, held by connections while they are being routed, so that connections may be
+ * routed concurrently only if their bounding boxes do not (conservatively) overlap.
+ * The device is divided into a grid of square bins, each of which can be locked by at most one connection
+ * at a time. This is pessimistic locking: a connection is only routed once every bin covered by its bounding box
+ * is held, and nothing is ever routed against a snapshot and rolled back. Acquiring a lock does not block though:
+ * the bins are acquired in a fixed order using compare-and-set, and if any bin is already taken then all bins
+ * acquired so far are released and the attempt fails, leaving the caller to retry later.
+ * Since the lock region is the connection's bounding box, this is only useful when routing is confined to it.
+ */
+public class ConnectionRegionLocks {
+    /** Width and height of each bin, in tiles */
+    public static final int BIN_SIZE = 4;
+
+    private final int numBinsX;
+    private final int numBinsY;
+    /** 1 if the bin is locked, 0 otherwise */
+    private final AtomicIntegerArray bins;
+
+    /**
+     * Creates a new, unlocked, grid of bins covering the device.
+     * @param columns Number of tile columns in the device.
+     * @param rows Number of tile rows in the device.
+     */
+    public ConnectionRegionLocks(int columns, int rows) {
+        numBinsX = (columns + BIN_SIZE - 1) / BIN_SIZE;
+        numBinsY = (rows + BIN_SIZE - 1) / BIN_SIZE;
+        bins = new AtomicIntegerArray(numBinsX * numBinsY);
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(max, value));
+    }
+
+    private int getBinXMin(Connection connection) {
+        return clamp(connection.getXMinBB() / BIN_SIZE, numBinsX - 1);
+    }
+
+    private int getBinXMax(Connection connection) {
+        return clamp(connection.getXMaxBB() / BIN_SIZE, numBinsX - 1);
+    }
+
+    private int getBinYMin(Connection connection) {
+        return clamp(connection.getYMinBB() / BIN_SIZE, numBinsY - 1);
+    }
+
+    private int getBinYMax(Connection connection) {
+        return clamp(connection.getYMaxBB() / BIN_SIZE, numBinsY - 1);
+    }
+
+    /**
+     * Attempts to lock all bins covered by the bounding box of a connection.
+     * @param connection The connection to be routed.
+     * @return True if the lock succeeded (and must later be released using {@link #unlock(Connection)}),
+     * or false if it conflicted with a connection currently being routed (and nothing is locked).
+     */
+    public boolean tryLock(Connection connection) {
+        final int xMin = getBinXMin(connection);
+        final int xMax = getBinXMax(connection);
+        final int yMin = getBinYMin(connection);
+        final int yMax = getBinYMax(connection);
+        for (int y = yMin; y <= yMax; y++) {
+            for (int x = xMin; x <= xMax; x++) {
+                if (!bins.compareAndSet(y * numBinsX + x, 0, 1)) {
+                    // Conflict: release everything acquired so far, in the same order
+                    releaseUntil(xMin, xMax, yMin, x, y);
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void releaseUntil(int xMin, int xMax, int yMin, int xEnd, int yEnd) {
+        for (int y = yMin; y <= yEnd; y++) {
+            int xLast = (y == yEnd) ? xEnd - 1 : xMax;
+            for (int x = xMin; x <= xLast; x++) {
+                bins.set(y * numBinsX + x, 0);
+            }
+        }
+    }
+
+    /**
+     * Releases all bins locked by a previously successful call to {@link #tryLock(Connection)}.
+     * The bounding box of the connection must not have changed since it was locked.
+     * @param connection The connection that was routed.
+     */
+    public void unlock(Connection connection) {
+        final int xMin = getBinXMin(connection);
+        final int xMax = getBinXMax(connection);
+        final int yMin = getBinYMin(connection);
+        final int yMax = getBinYMax(connection);
+        for (int y = yMin; y <= yMax; y++) {
+            for (int x = xMin; x <= xMax; x++) {
+                assert(bins.get(y * numBinsX + x) == 1);
+                bins.set(y * numBinsX + x, 0);
+            }
+        }
+    }
+}
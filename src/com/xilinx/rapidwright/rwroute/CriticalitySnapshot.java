@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.design.Design;
+import com.xilinx.rapidwright.design.SitePinInst;
+import com.xilinx.rapidwright.timing.TimingEdge;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the criticality and route delay of each indirect connection at the end of a timing-driven
+ * RWRoute run, keyed by the names of its source and sink {@link SitePinInst}s, so that a subsequent run of the
+ * same (or a slightly modified) design can start from them rather than from all connections being uncritical.
+ * When loaded, the recorded route delays replace the pre-routing delay estimates, the recorded criticalities
+ * raise the initial criticalities, and the first routing iteration routes connections in order of non-increasing
+ * recorded criticality.
+ *
+ * File layout (big-endian), with entries grouped by source pin:
+ * <pre>
+ *   int magic, int version, UTF deviceName, UTF designName
+ *   int numSources, numSources * (UTF sourcePinName, int numSinks,
+ *                                 numSinks * (UTF sinkPinName, float criticality, float routeDelay))
+ * </pre>
+ * where each pin name is the name of its site and pin separated by '/'.
+ */
+public class CriticalitySnapshot {
+    private static final int MAGIC = 0x52574353; // "RWCS"
+    /** Version of the file format, to be incremented on any change to the format */
+    public static final int VERSION = 1;
+
+    private final String deviceName;
+    private final String designName;
+    /** Recorded entries, by source pin name and then by sink pin name */
+    private final Map<String, Map<String, Entry>> entries;
+    private int numEntries;
+
+    private static class Entry {
+        final float criticality;
+        final float routeDelay;
+
+        Entry(float criticality, float routeDelay) {
+            this.criticality = criticality;
+            this.routeDelay = routeDelay;
+        }
+    }
+
+    /**
+     * Creates an empty criticality snapshot for the given design.
+     * @param design The design.
+     */
+    public CriticalitySnapshot(Design design) {
+        this(design.getDevice().getName(), design.getName());
+    }
+
+    private CriticalitySnapshot(String deviceName, String designName) {
+        this.deviceName = deviceName;
+        this.designName = designName;
+        entries = new HashMap<>();
+    }
+
+    private static String getPinName(SitePinInst pin) {
+        return pin.getSiteName() + "/" + pin.getName();
+    }
+
+    private void put(String sourceName, String sinkName, Entry entry) {
+        if (entries.computeIfAbsent(sourceName, (k) -> new HashMap<>()).put(sinkName, entry) == null) {
+            numEntries++;
+        }
+    }
+
+    private Entry get(Connection connection) {
+        Map<String, Entry> sinks = entries.get(getPinName(connection.getSource()));
+        return (sinks != null) ? sinks.get(getPinName(connection.getSink())) : null;
+    }
+
+    /**
+     * Records the criticality and route delay of all given connections that have timing edges.
+     * @param connections The connections.
+     */
+    public void record(Collection<Connection> connections) {
+        for (Connection connection : connections) {
+            List<TimingEdge> timingEdges = connection.getTimingEdges();
+            if (timingEdges == null || timingEdges.isEmpty()) {
+                continue;
+            }
+            TimingEdge e = timingEdges.get(0);
+            put(getPinName(connection.getSource()), getPinName(connection.getSink()),
+                    new Entry(connection.getCriticality(), e.getNetDelay() - e.getIntraSiteDelay()));
+        }
+    }
+
+    /**
+     * Sets the route delay of the timing edges of each given connection to its recorded route delay.
+     * @param connections The connections.
+     * @return The number of connections whose route delay was set.
+     */
+    public int seedRouteDelays(Collection<Connection> connections) {
+        int numSeeded = 0;
+        for (Connection connection : connections) {
+            if (connection.getTimingEdges() == null) {
+                continue;
+            }
+            Entry entry = get(connection);
+            if (entry != null) {
+                connection.setTimingEdgesDelay(entry.routeDelay);
+                numSeeded++;
+            }
+        }
+        return numSeeded;
+    }
+
+    /**
+     * Raises the criticality of each given connection to its recorded criticality, if higher.
+     * @param connections The connections.
+     * @return The number of connections whose criticality was raised.
+     */
+    public int seedCriticalities(Collection<Connection> connections) {
+        int numSeeded = 0;
+        for (Connection connection : connections) {
+            Entry entry = get(connection);
+            if (entry != null && entry.criticality > connection.getCriticality()) {
+                connection.setCriticality(entry.criticality);
+                numSeeded++;
+            }
+        }
+        return numSeeded;
+    }
+
+    /**
+     * Stably sorts connections in order of non-increasing recorded criticality, such that connections with the
+     * same (or no) recorded criticality keep their relative order.
+     * @param connections The connections to sort.
+     */
+    public void sort(List<Connection> connections) {
+        Map<Connection, Float> criticalities = new IdentityHashMap<>();
+        for (Connection connection : connections) {
+            Entry entry = get(connection);
+            criticalities.put(connection, (entry != null) ? entry.criticality : 0f);
+        }
+        connections.sort((a, b) -> Float.compare(criticalities.get(b), criticalities.get(a)));
+    }
+
+    /**
+     * Gets the recorded criticality of a connection.
+     * @param connection The connection.
+     * @return The recorded criticality, or null if the connection is not recorded.
+     */
+    public Float getCriticality(Connection connection) {
+        Entry entry = get(connection);
+        return (entry != null) ? entry.criticality : null;
+    }
+
+    /**
+     * Gets the recorded route delay of a connection.
+     * @param connection The connection.
+     * @return The recorded route delay in picoseconds, or null if the connection is not recorded.
+     */
+    public Float getRouteDelay(Connection connection) {
+        Entry entry = get(connection);
+        return (entry != null) ? entry.routeDelay : null;
+    }
+
+    public String getDesignName() {
+        return designName;
+    }
+
+    public int getNumConnections() {
+        return numEntries;
+    }
+
+    /**
+     * Writes this snapshot to a file.
+     * @param path The file to write.
+     */
+    public void save(Path path) {
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 20))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeUTF(deviceName);
+            dos.writeUTF(designName);
+            dos.writeInt(entries.size());
+            for (Map.Entry<String, Map<String, Entry>> source : entries.entrySet()) {
+                dos.writeUTF(source.getKey());
+                dos.writeInt(source.getValue().size());
+                for (Map.Entry<String, Entry> sink : source.getValue().entrySet()) {
+                    dos.writeUTF(sink.getKey());
+                    dos.writeFloat(sink.getValue().criticality);
+                    dos.writeFloat(sink.getValue().routeDelay);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("ERROR: Unable to save criticality snapshot file " + path, e);
+        }
+    }
+
+    /**
+     * Reads a criticality snapshot from a file.
+     * @param path The file to read.
+     * @param design The design that the snapshot is to be applied to.
+     * @return The criticality snapshot.
+     */
+    public static CriticalitySnapshot load(Path path, Design design) {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 20))) {
+            if (dis.readInt() != MAGIC) {
+                throw new RuntimeException("ERROR: " + path + " is not a criticality snapshot file.");
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new RuntimeException("ERROR: Criticality snapshot file " + path + " has version " + version +
+                        " but version " + VERSION + " is expected.");
+            }
+            String deviceName = dis.readUTF();
+            if (!deviceName.equals(design.getDevice().getName())) {
+                throw new RuntimeException("ERROR: Criticality snapshot file " + path + " is for device " +
+                        deviceName + " but design targets device " + design.getDevice().getName() + ".");
+            }
+            CriticalitySnapshot snapshot = new CriticalitySnapshot(deviceName, dis.readUTF());
+            int numSources = dis.readInt();
+            for (int i = 0; i < numSources; i++) {
+                String sourceName = dis.readUTF();
+                int numSinks = dis.readInt();
+                for (int j = 0; j < numSinks; j++) {
+                    String sinkName = dis.readUTF();
+                    snapshot.put(sourceName, sinkName, new Entry(dis.readFloat(), dis.readFloat()));
+                }
+            }
+            return snapshot;
+        } catch (IOException e) {
+            throw new RuntimeException("ERROR: Unable to load criticality snapshot file " + path, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A {@link RWRouteListener} that writes each event as a single line of JSON, flushing after every line so that
+ * the progress of a run can be followed (e.g. using "tail -f") while it is still routing.
+ * Each object has an "event" field of "iteration", "phase" or "done", with the remaining fields named after the
+ * corresponding getters of {@link RoutingIterationStatistics} or parameters of {@link RWRouteListener}, and with
+ * all times in seconds.
+ */
+public class JsonLinesRWRouteListener implements RWRouteListener, AutoCloseable {
+    private final PrintWriter writer;
+
+    /**
+     * Creates a listener that writes to a file, replacing any existing contents.
+     * @param path Path of the file to be written.
+     */
+    public JsonLinesRWRouteListener(Path path) {
+        try {
+            writer = new PrintWriter(Files.newBufferedWriter(path));
+        } catch (IOException e) {
+            throw new RuntimeException("ERROR: Unable to open routing progress file " + path, e);
+        }
+    }
+
+    /**
+     * Creates a listener that writes to an existing writer.
+     * @param writer The writer to use, which is closed by {@link #close()}.
+     */
+    public JsonLinesRWRouteListener(PrintWriter writer) {
+        this.writer = writer;
+    }
+
+    private void write(JSONObject object) {
+        writer.println(object.toString());
+        writer.flush();
+    }
+
+    @Override
+    public void iterationCompleted(RoutingIterationStatistics statistics) {
+        JSONObject object = new JSONObject();
+        object.put("event", "iteration");
+        object.put("iteration", statistics.getIteration());
+        object.put("overUsedRnodes", statistics.getOverUsedRnodes());
+        object.put("unroutableConnections", statistics.getUnroutableConnections());
+        object.put("connectionsRouted", statistics.getConnectionsRouted());
+        object.put("rnodesCreated", statistics.getRnodesCreated());
+        object.put("nodesPushed", statistics.getNodesPushed());
+        object.put("nodesPopped", statistics.getNodesPopped());
+        if (!Float.isNaN(statistics.getMaxDelay())) {
+            object.put("maxDelay", statistics.getMaxDelay());
+            object.put("timingVerticesUpdated", statistics.getTimingVerticesUpdated());
+        }
+        object.put("iterationTime", statistics.getIterationTime() * 1e-9);
+        object.put("elapsedTime", statistics.getElapsedTime() * 1e-9);
+        object.put("heapUsed", statistics.getHeapUsed());
+        object.put("busyThreads", statistics.getBusyThreads());
+        write(object);
+    }
+
+    @Override
+    public void phaseCompleted(String name, int level, long time) {
+        JSONObject object = new JSONObject();
+        object.put("event", "phase");
+        object.put("name", name);
+        object.put("level", level);
+        object.put("time", time * 1e-9);
+        write(object);
+    }
+
+    @Override
+    public void routingCompleted(boolean success) {
+        JSONObject object = new JSONObject();
+        object.put("event", "done");
+        object.put("success", success);
+        write(object);
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
@@ -25,7 +25,9 @@
 package com.xilinx.rapidwright.rwroute;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.xilinx.rapidwright.design.DesignTools;
 import com.xilinx.rapidwright.design.Net;
@@ -50,12 +52,36 @@ public class NetWrapper{
     boolean noAltSourceFound;
     private RouteNode sourceRnode;
     private RouteNode altSourceRnode;
+    /** Rnodes of this net's routing tree used to seed multi-sink routing, each after its parent */
+    private List<RoutingTreeRnode> routingTree;
+    /** Index of the entries in {@link #routingTree} */
+    private Map<RouteNode, RoutingTreeRnode> routingTreeMap;
+    /** The routing iteration in which {@link #routingTree} was last reset */
+    private int routingTreeIteration;
+
+    /**
+     * An rnode of the routing tree used to seed multi-sink routing, with the parent it was reached from
+     * when it was added to the tree.
+     */
+    public static class RoutingTreeRnode {
+        public final RouteNode rnode;
+        public final RouteNode parent;
+        /** Delay of the tree path from the source up to and including this rnode */
+        public final float upstreamDelay;
+
+        RoutingTreeRnode(RouteNode rnode, RouteNode parent, float upstreamDelay) {
+            this.rnode = rnode;
+            this.parent = parent;
+            this.upstreamDelay = upstreamDelay;
+        }
+    }
 
     public NetWrapper(int id, Net net) {
         this.id = id;
         this.net = net;
         connections = new ArrayList<>();
         noAltSourceFound = false;
+        routingTreeIteration = -1;
     }
 
     public void computeHPWLAndCenterCoordinates(int[] nextLagunaColumn, int[] prevLagunaColumn) {
@@ -130,6 +156,10 @@ public class NetWrapper{
         return xCenter;
     }
 
+    /**
+     * Gets the unique index of this net, which {@link RouteNode} also uses to record its users.
+     * @return The unique index given to this net at construction.
+     */
     @Override
     public int hashCode() {
         return id;
@@ -139,6 +169,69 @@ public class NetWrapper{
         return sourceRnode;
     }
 
+    /**
+     * Gets the routing tree used to seed multi-sink routing, in which every rnode comes after its parent.
+     * @return The rnodes of the routing tree, or null if it has never been reset.
+     */
+    public List<RoutingTreeRnode> getRoutingTree() {
+        return routingTree;
+    }
+
+    /**
+     * Gets the routing iteration in which the routing tree was last reset.
+     * @return The routing iteration, or -1 if it has never been reset.
+     */
+    public int getRoutingTreeIteration() {
+        return routingTreeIteration;
+    }
+
+    /**
+     * Empties the routing tree used to seed multi-sink routing.
+     * @param routeIteration The current routing iteration.
+     */
+    public void resetRoutingTree(int routeIteration) {
+        if (routingTree == null) {
+            routingTree = new ArrayList<>();
+            routingTreeMap = new HashMap<>();
+        } else {
+            routingTree.clear();
+            routingTreeMap.clear();
+        }
+        routingTreeIteration = routeIteration;
+    }
+
+    /**
+     * Adds the branch of a routed connection of this net that is not yet part of the routing tree.
+     * The sink of the connection is not added.
+     * @param connection A routed connection of this net.
+     * @param timingDriven True to accumulate the delay along each branch.
+     */
+    public void addRoutingTreeBranch(Connection connection, boolean timingDriven) {
+        List<RouteNode> rnodes = connection.getRnodes();
+        // Connection rnodes are stored from sink to source
+        if (rnodes.size() < 3) {
+            return;
+        }
+        RouteNode parent = rnodes.get(rnodes.size() - 1);
+        float upstreamDelay = 0;
+        for (int i = rnodes.size() - 2; i > 0; i--) {
+            RouteNode rnode = rnodes.get(i);
+            RoutingTreeRnode existing = routingTreeMap.get(rnode);
+            if (existing != null) {
+                // Already part of the tree, keep its existing path back to the source
+                upstreamDelay = existing.upstreamDelay;
+            } else {
+                if (timingDriven) {
+                    upstreamDelay += rnode.getDelay();
+                }
+                RoutingTreeRnode entry = new RoutingTreeRnode(rnode, parent, upstreamDelay);
+                routingTree.add(entry);
+                routingTreeMap.put(rnode, entry);
+            }
+            parent = rnode;
+        }
+    }
+
     public void setSourceRnode(RouteNode sourceRnode) {
         this.sourceRnode = sourceRnode;
     }
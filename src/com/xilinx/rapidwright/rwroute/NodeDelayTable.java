@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.device.Device;
+import com.xilinx.rapidwright.device.IntentCode;
+import com.xilinx.rapidwright.device.Node;
+import com.xilinx.rapidwright.device.Tile;
+import com.xilinx.rapidwright.device.TileTypeEnum;
+import com.xilinx.rapidwright.timing.delayestimator.DelayEstimatorBase;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A table of the delay of every wire of the INT tile type, as computed by {@link RouterHelper#computeNodeDelay},
+ * at each INT tile coordinate.
+ * The delay of a node group only depends on its base wire and on either the X or the Y coordinate of its base tile
+ * (depending on its orientation), so the table holds one row of delays per wire, indexed by that coordinate.
+ * Identical rows (e.g. those of all wires of the same node group type and direction) are stored only once.
+ * Nodes whose base tile is not an INT tile, or whose coordinate is outside the table, are computed live.
+ *
+ * The table can be cached on disk, per device, in the routing graph cache directory
+ * (see {@link RWRouteConfig#getRouteNodeGraphCacheDir()}). File layout (big-endian):
+ * <pre>
+ *   int magic, int version, short+bytes deviceName, short+bytes optionsKey,
+ *   int numCol, int numRow, int numWires, int numDelays, numWires * int wireEntry, numDelays * short delay
+ * </pre>
+ */
+public class NodeDelayTable {
+    private static final int MAGIC = 0x52574E44; // "RWND"
+    /** Version of the file format, to be incremented on any change to the format or to how delays are computed */
+    public static final int VERSION = 1;
+    public static final String FILE_EXTENSION = ".rwnd";
+
+    private static final int NOT_TABULATED = -1;
+
+    private final DelayEstimatorBase estimator;
+    private final int numCol;
+    private final int numRow;
+    /**
+     * For each wire of the INT tile type, the offset of its row in {@link #delays} shifted left by one, with the
+     * lowest bit set if the row is indexed by X (rather than Y) coordinate; or NOT_TABULATED.
+     */
+    private final int[] wireEntries;
+    private final short[] delays;
+
+    private NodeDelayTable(DelayEstimatorBase estimator, int[] wireEntries, short[] delays) {
+        this.estimator = estimator;
+        this.numCol = estimator.getNumCol();
+        this.numRow = estimator.getNumRow();
+        this.wireEntries = wireEntries;
+        this.delays = delays;
+    }
+
+    /**
+     * Builds the table of node delays of a device.
+     * @param device The device.
+     * @param estimator The delay estimator used to compute node delays, and to compute those not in the table.
+     * @return The node delay table.
+     */
+    public static NodeDelayTable build(Device device, DelayEstimatorBase estimator) {
+        Tile intTile = device.getArbitraryTileOfType(TileTypeEnum.INT);
+        int numCol = estimator.getNumCol();
+        int numRow = estimator.getNumRow();
+        int[] wireEntries = new int[(intTile != null) ? intTile.getWireCount() : 0];
+        Map<ShortBuffer, Integer> rowOffsets = new HashMap<>();
+        List<short[]> rows = new ArrayList<>();
+        int numDelays = 0;
+        for (int wireIndex = 0; wireIndex < wireEntries.length; wireIndex++) {
+            String wireName = intTile.getWireName(wireIndex);
+            IntentCode ic = intTile.getWireIntentCode(wireIndex);
+            boolean horizontal = false;
+            short[] row;
+            if (!RouteNode.isExitNode(ic, wireName)) {
+                row = new short[numRow];
+            } else if (wireName.indexOf('_') < 0) {
+                // Not a wire name understood by the estimator; leave it to be computed live
+                wireEntries[wireIndex] = NOT_TABULATED;
+                continue;
+            } else {
+                horizontal = estimator.isHorizontal(wireName, ic);
+                row = new short[horizontal ? numCol : numRow];
+                for (int i = 0; i < row.length; i++) {
+                    short x = (short) (horizontal ? i : 0);
+                    short y = (short) (horizontal ? 0 : i);
+                    row[i] = estimator.getDelayOf(wireName, ic, x, y);
+                }
+            }
+
+            Integer offset = rowOffsets.get(ShortBuffer.wrap(row));
+            if (offset == null) {
+                offset = numDelays;
+                rowOffsets.put(ShortBuffer.wrap(row), offset);
+                rows.add(row);
+                numDelays += row.length;
+            }
+            wireEntries[wireIndex] = (offset << 1) | (horizontal ? 1 : 0);
+        }
+
+        short[] delays = new short[numDelays];
+        int offset = 0;
+        for (short[] row : rows) {
+            System.arraycopy(row, 0, delays, offset, row.length);
+            offset += row.length;
+        }
+        return new NodeDelayTable(estimator, wireEntries, delays);
+    }
+
+    /**
+     * Gets the table of node delays of a device, reading it from the routing graph cache directory if a valid
+     * file exists there, or otherwise building it (and writing it to that directory, if set).
+     * @param device The device.
+     * @param estimator The delay estimator used to compute node delays, and to compute those not in the table.
+     * @param config The router configuration.
+     * @return The node delay table.
+     */
+    public static NodeDelayTable get(Device device, DelayEstimatorBase estimator, RWRouteConfig config) {
+        if (config.getRouteNodeGraphCacheDir() == null) {
+            return build(device, estimator);
+        }
+        String optionsKey = getOptionsKey(config);
+        Path path = Paths.get(config.getRouteNodeGraphCacheDir())
+                .resolve(device.getName() + "_" + Integer.toHexString(optionsKey.hashCode()) + FILE_EXTENSION);
+        NodeDelayTable table = read(path, device, estimator, optionsKey);
+        if (table == null) {
+            table = build(device, estimator);
+            table.write(path, device, optionsKey);
+        }
+        return table;
+    }
+
+    /**
+     * Gets the string encoding all options that affect the delays in the table.
+     * @param config The router configuration.
+     * @return The options key.
+     */
+    public static String getOptionsKey(RWRouteConfig config) {
+        return "useUTurnNodes=" + config.isUseUTurnNodes();
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dos.writeShort(bytes.length);
+        dos.write(bytes);
+    }
+
+    /**
+     * Reads a node delay table from a file.
+     * @return The node delay table, or null if the file does not exist or does not match the given device,
+     * estimator and options.
+     */
+    private static NodeDelayTable read(Path path, Device device, DelayEstimatorBase estimator, String optionsKey) {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("file too large");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("unrecognized file or version");
+            }
+            if (!device.getName().equals(readString(buffer)) || !optionsKey.equals(readString(buffer))) {
+                throw new IOException("device or options mismatch");
+            }
+            Tile intTile = device.getArbitraryTileOfType(TileTypeEnum.INT);
+            int numWires = (intTile != null) ? intTile.getWireCount() : 0;
+            if (buffer.getInt() != estimator.getNumCol() || buffer.getInt() != estimator.getNumRow() ||
+                    buffer.getInt() != numWires) {
+                throw new IOException("device dimensions mismatch");
+            }
+            short[] delays = new short[buffer.getInt()];
+            int[] wireEntries = new int[numWires];
+            buffer.asIntBuffer().get(wireEntries);
+            buffer.position(buffer.position() + 4 * numWires);
+            buffer.asShortBuffer().get(delays);
+            return new NodeDelayTable(estimator, wireEntries, delays);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("WARNING: Ignoring node delay table file " + path + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Writes this table to a file. The table is written to a temporary file before replacing any
+     * existing one, so that concurrent readers never see a partially written file.
+     */
+    private void write(Path path, Device device, String optionsKey) {
+        Path tmpPath = null;
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            tmpPath = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                writeString(dos, device.getName());
+                writeString(dos, optionsKey);
+                dos.writeInt(numCol);
+                dos.writeInt(numRow);
+                dos.writeInt(wireEntries.length);
+                dos.writeInt(delays.length);
+                for (int wireEntry : wireEntries) {
+                    dos.writeInt(wireEntry);
+                }
+                for (short delay : delays) {
+                    dos.writeShort(delay);
+                }
+            }
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("WARNING: Unable to save node delay table file " + path + " (" + e.getMessage() + ")");
+            try {
+                if (tmpPath != null) {
+                    Files.deleteIfExists(tmpPath);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Gets the delay of a node, as would be returned by {@link RouterHelper#computeNodeDelay}.
+     * @param node The node in question.
+     * @return The delay of the node.
+     */
+    public short getDelay(Node node) {
+        Tile tile = node.getTile();
+        int wireIndex = node.getWireIndex();
+        if (tile.getTileTypeEnum() == TileTypeEnum.INT && wireIndex < wireEntries.length) {
+            int wireEntry = wireEntries[wireIndex];
+            if (wireEntry != NOT_TABULATED) {
+                boolean horizontal = (wireEntry & 1) != 0;
+                int coordinate = horizontal ? tile.getTileXCoordinate() : tile.getTileYCoordinate();
+                if (coordinate < (horizontal ? numCol : numRow)) {
+                    return delays[(wireEntry >>> 1) + coordinate];
+                }
+            }
+        }
+        return RouterHelper.computeNodeDelay(estimator, node);
+    }
+
+    /**
+     * @return The number of delays stored in the table.
+     */
+    public int getNumDelays() {
+        return delays.length;
+    }
+}
@@ -93,7 +93,7 @@ public class PartialCUFR extends PartialRouter {
 
     @Override
     protected ConnectionState getConnectionState() {
-        return connectionState.computeIfAbsent(Thread.currentThread(), (k) -> new ConnectionState());
+        return connectionState.computeIfAbsent(Thread.currentThread(), (k) -> createConnectionState());
     }
 
     @Override
@@ -144,11 +144,11 @@ public class PartialCUFR extends PartialRouter {
     }
 
     @Override
-    protected void printRoutingStatistics() {
-        routerTimer.getRuntimeTracker("route wire nets").addChild(partitionTimer);
+    protected void addRouteWireNetsChildTimers(RuntimeTracker routeWireNets) {
+        super.addRouteWireNetsChildTimers(routeWireNets);
+        routeWireNets.addChild(partitionTimer);
         RuntimeTracker routeConnectionsTimer = routerTimer.getRuntimeTracker("route connections");
         routeConnectionsTimer.setTime(routeConnectionsTimer.getTime() - partitionTimer.getTime());
-        super.printRoutingStatistics();
     }
 
     /**
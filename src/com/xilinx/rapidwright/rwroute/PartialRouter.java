@@ -32,6 +32,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -67,6 +68,9 @@ public class PartialRouter extends RWRoute {
 
     protected Map<Net, List<SitePinInst>> netToPins;
 
+    /** Number of nets preserved using the nodes recorded by a previously saved routing state */
+    protected final AtomicInteger numNetsPreservedFromRoutingState = new AtomicInteger();
+
     protected static class RouteNodeGraphPartial extends RouteNodeGraph {
 
         public RouteNodeGraphPartial(Design design, RWRouteConfig config) {
@@ -227,8 +231,13 @@ public class PartialRouter extends RWRoute {
 
     @Override
     protected void determineRoutingTargets() {
+        numNetsPreservedFromRoutingState.set(0);
         super.determineRoutingTargets();
 
+        if (routingState != null) {
+            System.out.println("INFO: Preserved " + numNetsPreservedFromRoutingState + " unchanged nets from routing state");
+        }
+
         // With all routingGraph.preserveAsync() calls having completed,
         // now check that no sinks are preserved by another net
         // (e.g. a pin was moved from one net to the other, but
@@ -333,6 +342,18 @@ public class PartialRouter extends RWRoute {
             // For signal nets, only preserve those pins that are not to be routed
             // All sink pins must be preserved for static nets since the static router does not resolve conflicts
             pinsToRoute = netToPins.get(net);
+
+            if (pinsToRoute == null && routingState != null) {
+                // A net with no pins to route, whose PIPs and pins are unchanged since the routing state
+                // was saved, can have its recorded nodes preserved without examining each of its PIPs;
+                // whether it is unchanged is only checked as part of preserving it
+                if (async) {
+                    routingGraph.preserveAsync(net, net.getPins(), routingState, numNetsPreservedFromRoutingState);
+                } else if (routingGraph.preserve(net, net.getPins(), routingState)) {
+                    numNetsPreservedFromRoutingState.incrementAndGet();
+                }
+                return;
+            }
         }
         List<SitePinInst> pinsToPreserve;
         if (pinsToRoute == null) {
@@ -58,6 +58,10 @@ import com.xilinx.rapidwright.util.RuntimeTracker;
 import com.xilinx.rapidwright.util.RuntimeTrackerTree;
 import com.xilinx.rapidwright.util.Utils;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -72,6 +76,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -142,6 +147,14 @@ public class RWRoute {
     private Set<RouteNode> overUsedRnodes;
     /** Class encapsulating the routing resource graph */
     protected RouteNodeGraph routingGraph;
+    /** A previously saved routing state to resume from, or null if not used */
+    protected RoutingState routingState;
+    /** The criticality snapshot loaded to warm start timing-driven routing, or null if not loaded */
+    protected CriticalitySnapshot criticalitySnapshot;
+    /** Precomputed estimates of the remaining wirelength and delay to a sink, or null to use the Manhattan distance */
+    protected RouterLookahead lookahead;
+    /** Per-tile congestion of the routing graph, or null if neither written nor used to select connections to re-route */
+    protected CongestionHeatMap congestionHeatMap;
     /** Count of rnodes created in the current routing iteration */
     protected long rnodesCreatedThisIteration;
     /** State necessary to route the included connection */
@@ -162,6 +175,16 @@ public class RWRoute {
     /** Total number of nodes pushed/popped from the queue */
     private final AtomicLong nodesPushed;
     private final AtomicLong nodesPopped;
+    /** Number of threads that are routing a connection right now */
+    private final AtomicInteger busyRoutingThreads;
+    /** The largest number of threads that were routing a connection at the same time in an iteration */
+    private final AtomicInteger peakBusyRoutingThreads;
+    /** Listeners notified of routing progress */
+    private final List<RWRouteListener> listeners;
+    /** Listener writing to the routing progress file, or null if not used */
+    private JsonLinesRWRouteListener progressFileListener;
+    /** Timed phases that have already been reported to the listeners */
+    private final Set<RuntimeTracker> reportedPhases;
 
     /** The maximum criticality constraint of connection */
     private static final float MAX_CRITICALITY = 0.99f;
@@ -195,6 +218,10 @@ public class RWRoute {
         connectionsRoutedThisIteration = new AtomicInteger();
         nodesPushed = new AtomicLong();
         nodesPopped = new AtomicLong();
+        busyRoutingThreads = new AtomicInteger();
+        peakBusyRoutingThreads = new AtomicInteger();
+        listeners = new ArrayList<>();
+        reportedPhases = Collections.newSetFromMap(new IdentityHashMap<>());
 
         if (design.getSeries() == Series.Versal) {
             if (config.isLutPinSwapping()) {
@@ -244,8 +271,33 @@ public class RWRoute {
         minRerouteCriticality = config.getMinRerouteCriticality();
         criticalConnections = new ArrayList<>();
 
-        connectionState = new ConnectionState();
+        connectionState = createConnectionState();
         routingGraph = createRouteNodeGraph();
+        routingState = null;
+        if (config.getLoadRoutingState() != null) {
+            routingState = RoutingState.load(Paths.get(config.getLoadRoutingState()), design);
+            // Seed the historical congestion cost of all rnodes created from now on
+            routingGraph.setRoutingState(routingState);
+            System.out.println("INFO: Loaded routing state with " + routingState.getNumNets() + " nets, " +
+                    routingState.getNumHistoricalCongestionCosts() + " historical congestion costs and " +
+                    routingState.getNumCriticalities() + " criticalities");
+        }
+        criticalitySnapshot = null;
+        if (config.isTimingDriven() && config.getLoadCriticalities() != null) {
+            criticalitySnapshot = CriticalitySnapshot.load(Paths.get(config.getLoadCriticalities()), design);
+            System.out.println("INFO: Loaded criticality snapshot with " + criticalitySnapshot.getNumConnections() +
+                    " connections");
+        }
+        closeRoutingProgressFile();
+        reportedPhases.clear();
+        if (config.getRoutingProgressFile() != null) {
+            progressFileListener = new JsonLinesRWRouteListener(Paths.get(config.getRoutingProgressFile()));
+            listeners.add(progressFileListener);
+        }
+        lookahead = (config.getRouterLookahead() != null) ?
+                RouterLookahead.load(Paths.get(config.getRouterLookahead()), design.getDevice()) : null;
+        congestionHeatMap = (config.isHotRegionReroute() || config.getCongestionHeatMapDir() != null) ?
+                new CongestionHeatMap(design.getDevice().getColumns(), design.getDevice().getRows()) : null;
         if (config.isTimingDriven()) {
             nodesDelays = new HashMap<>();
         }
@@ -255,7 +307,7 @@ public class RWRoute {
 
         routerTimer.createRuntimeTracker("determine route targets", "Initialization").start();
         determineRoutingTargets();
-        routerTimer.getRuntimeTracker("determine route targets").stop();
+        endPhase(routerTimer.getRuntimeTracker("determine route targets"));
 
         if (config.isTimingDriven()) {
             ClkRouteTiming clkTiming = createClkTimingData(config);
@@ -275,7 +327,7 @@ public class RWRoute {
         hus = config.isHus();
         husInitialCongested = false;
 
-        routerTimer.getRuntimeTracker("Initialization").stop();
+        endPhase(routerTimer.getRuntimeTracker("Initialization"));
     }
 
     /**
@@ -765,6 +817,14 @@ public class RWRoute {
         return connectionState;
     }
 
+    /**
+     * Creates a new ConnectionState object, using the type of routing queue selected by the configuration.
+     * @return New ConnectionState object.
+     */
+    protected ConnectionState createConnectionState() {
+        return new ConnectionState(config.isIndexedHeap());
+    }
+
     /**
      * Initializes routing.
      */
@@ -818,14 +878,14 @@ public class RWRoute {
 
         routerTimer.createRuntimeTracker("route clock", "Routing").start();
         routeGlobalClkNets();
-        routerTimer.getRuntimeTracker("route clock").stop();
+        endPhase(routerTimer.getRuntimeTracker("route clock"));
 
         routerTimer.createRuntimeTracker("route static nets", "Routing").start();
         // Routes static nets (VCC and GND) before signals for now.
         // All the used nodes by other nets should be marked as unavailable, if static nets are routed after signals.
         routeStaticNets();
         // Connection-based router for indirectly connected pairs of output pin and input pin */
-        routerTimer.getRuntimeTracker("route static nets").stop();
+        endPhase(routerTimer.getRuntimeTracker("route static nets"));
 
         RuntimeTracker routeWireNets = routerTimer.createRuntimeTracker("route wire nets", "Routing");
         routeWireNets.start();
@@ -836,23 +896,28 @@ public class RWRoute {
         // and those direct connections should be included to be routed
         routeDirectConnections();
         routeWireNets.stop();
-        // Adds child timers to "route wire nets" timer
-        routeWireNets.addChild(rnodesTimer);
-        // Do not time the cost evaluation method for routing connections, the timer itself takes time
-        routerTimer.createRuntimeTracker("route connections", "route wire nets").setTime(routeWireNets.getTime() - rnodesTimer.getTime() - updateTimingTimer.getTime() - updateCongestionCosts.getTime());
-        if (config.isTimingDriven()) {
-            routeWireNets.addChild(updateTimingTimer);
-        }
-        routeWireNets.addChild(updateCongestionCosts);
+        addRouteWireNetsChildTimers(routeWireNets);
+        notifyPhaseCompleted(routeWireNets);
 
         routerTimer.createRuntimeTracker("finalize routes", "Routing").start();
         // Assigns a list of nodes to each direct and indirect connection that has been routed and fix illegal routes if any
         postRouteProcess();
         // Assigns net PIPs based on lists of connections
         setPIPsOfNets();
-        routerTimer.getRuntimeTracker("finalize routes").stop();
+        endPhase(routerTimer.getRuntimeTracker("finalize routes"));
 
-        routerTimer.getRuntimeTracker("Routing").stop();
+        endPhase(routerTimer.getRuntimeTracker("Routing"));
+
+        // Persist any newly computed routing graph information for future runs on this device
+        routingGraph.saveCache();
+
+        if (config.getSaveRoutingState() != null) {
+            saveRoutingState();
+        }
+
+        if (config.isTimingDriven() && config.getSaveCriticalities() != null) {
+            saveCriticalities();
+        }
 
         if (config.getExportOutOfContext()) {
             getDesign().setAutoIOBuffers(false);
@@ -861,6 +926,116 @@ public class RWRoute {
 
         // Prints routing statistics, e.g. total wirelength, runtime and timing report
         printRoutingStatistics();
+
+        notifyRoutingCompleted();
+    }
+
+    /**
+     * Registers a listener to be notified of the progress of routing.
+     * @param listener The listener to be added.
+     */
+    public void addListener(RWRouteListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener previously added with {@link #addListener(RWRouteListener)}.
+     * @param listener The listener to be removed.
+     */
+    public void removeListener(RWRouteListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds the timers of the sub-phases of routing the wire nets, once they have been routed.
+     * @param routeWireNets The timer of routing the wire nets.
+     */
+    protected void addRouteWireNetsChildTimers(RuntimeTracker routeWireNets) {
+        routeWireNets.addChild(rnodesTimer);
+        // Do not time the cost evaluation method for routing connections, the timer itself takes time
+        routerTimer.createRuntimeTracker("route connections", "route wire nets").setTime(routeWireNets.getTime() - rnodesTimer.getTime() - updateTimingTimer.getTime() - updateCongestionCosts.getTime());
+        if (config.isTimingDriven()) {
+            routeWireNets.addChild(updateTimingTimer);
+        }
+        routeWireNets.addChild(updateCongestionCosts);
+    }
+
+    /**
+     * Stops the timer of a phase and reports it to all listeners.
+     * @param tracker The timer of the phase that has ended.
+     */
+    private void endPhase(RuntimeTracker tracker) {
+        tracker.stop();
+        notifyPhaseCompleted(tracker);
+    }
+
+    /**
+     * Reports a phase that has ended to all listeners, after any of its sub-phases not yet reported.
+     * @param tracker The timer of the phase that has ended.
+     */
+    private void notifyPhaseCompleted(RuntimeTracker tracker) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        for (RuntimeTracker child : tracker.getChildren()) {
+            notifyPhaseCompleted(child);
+        }
+        if (!reportedPhases.add(tracker)) {
+            return;
+        }
+        for (RWRouteListener listener : listeners) {
+            listener.phaseCompleted(tracker.getName(), tracker.getLevel(), tracker.getTime());
+        }
+    }
+
+    /**
+     * Reports the final outcome of routing to all listeners, and closes the routing progress file if used.
+     */
+    private void notifyRoutingCompleted() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        boolean success = overUsedRnodes.isEmpty() && getUnroutableConnections().isEmpty();
+        for (RWRouteListener listener : listeners) {
+            listener.routingCompleted(success);
+        }
+        closeRoutingProgressFile();
+    }
+
+    /**
+     * Closes the routing progress file if it is open, and stops writing to it.
+     */
+    private void closeRoutingProgressFile() {
+        if (progressFileListener != null) {
+            listeners.remove(progressFileListener);
+            progressFileListener.close();
+            progressFileListener = null;
+        }
+    }
+
+    /**
+     * Saves the end-of-run routing state (see {@link RoutingState}) to the file specified by
+     * {@link RWRouteConfig#getSaveRoutingState()}.
+     */
+    protected void saveRoutingState() {
+        RoutingState state = new RoutingState(design);
+        state.recordNets(design, routingGraph);
+        state.recordHistoricalCongestionCosts(routingGraph);
+        state.recordCriticalities(indirectConnections);
+        state.save(Paths.get(config.getSaveRoutingState()));
+        System.out.println("INFO: Saved routing state with " + state.getNumNets() + " nets to " + config.getSaveRoutingState());
+    }
+
+    /**
+     * Saves the criticality and route delay of each indirect connection (see {@link CriticalitySnapshot})
+     * to the file specified by {@link RWRouteConfig#getSaveCriticalities()}.
+     */
+    protected void saveCriticalities() {
+        CriticalitySnapshot snapshot = new CriticalitySnapshot(design);
+        snapshot.record(indirectConnections);
+        snapshot.save(Paths.get(config.getSaveCriticalities()));
+        System.out.println("INFO: Saved criticality snapshot with " + snapshot.getNumConnections() +
+                " connections to " + config.getSaveCriticalities());
     }
 
     /**
@@ -869,8 +1044,22 @@ public class RWRoute {
     private void preRoutingEstimation() {
         if (config.isTimingDriven()) {
             estimateDelayOfConnections();
+            if (criticalitySnapshot != null) {
+                // Route delays of the previous run are a far better estimate than the above
+                int numSeeded = criticalitySnapshot.seedRouteDelays(indirectConnections);
+                System.out.println("INFO: Seeded route delay of " + numSeeded + " connections from criticality snapshot");
+            }
             maxDelayAndTimingVertex = timingManager.calculateArrivalRequiredTimes();
             timingManager.calculateCriticality(indirectConnections, MAX_CRITICALITY, config.getCriticalityExponent());
+            if (routingState != null) {
+                // Connections that were critical at the end of the previous run are likely to still be critical
+                int numSeeded = routingState.seedCriticalities(indirectConnections);
+                System.out.println("INFO: Seeded criticality of " + numSeeded + " connections from routing state");
+            }
+            if (criticalitySnapshot != null) {
+                int numSeeded = criticalitySnapshot.seedCriticalities(indirectConnections);
+                System.out.println("INFO: Seeded criticality of " + numSeeded + " connections from criticality snapshot");
+            }
             System.out.printf("INFO: Estimated pre-routing max delay: %4d\n", (short) maxDelayAndTimingVertex.getFirst().floatValue());
         }
     }
@@ -926,15 +1115,19 @@ public class RWRoute {
      * Routes indirect connections iteratively.
      */
     public void routeIndirectConnectionsIteratively() {
-        sortConnections();
+        sortConnections(true);
         initializeRouting();
         long lastIterationRnodeCount = routingGraph.numNodes();
         long lastIterationRnodeTime = 0;
 
         boolean initialHus = this.hus;
+        long routingStart = RuntimeTracker.now();
+        long lastNodesPushed = nodesPushed.get();
+        long lastNodesPopped = nodesPopped.get();
         while (routeIteration < config.getMaxIterations()) {
             long start = RuntimeTracker.now();
             connectionsRoutedThisIteration.set(0);
+            peakBusyRoutingThreads.set(0);
             if (config.isTimingDriven()) {
                 setRerouteCriticality();
             }
@@ -943,6 +1136,7 @@ public class RWRoute {
             rnodesTimer.setTime(routingGraph.getCreateRnodeTime());
 
             updateCostFactors();
+            updateCongestionHeatMap();
 
             rnodesCreatedThisIteration = routingGraph.numNodes() - lastIterationRnodeCount;
             List<Connection> unroutableConnections = getUnroutableConnections();
@@ -956,7 +1150,7 @@ public class RWRoute {
                 needsResorting = handleCongestedConnection(connection) || needsResorting;
             }
             if (needsResorting) {
-                sortConnections();
+                sortConnections(false);
             }
 
             if (config.isTimingDriven()) {
@@ -965,6 +1159,27 @@ public class RWRoute {
 
             long elapsed = RuntimeTracker.elapsed(start);
             printRoutingIterationStatisticsInfo(elapsed, (float) ((rnodesTimer.getTime() - lastIterationRnodeTime) * 1e-9));
+            if (!listeners.isEmpty()) {
+                Runtime runtime = Runtime.getRuntime();
+                RoutingIterationStatistics statistics = new RoutingIterationStatistics(routeIteration,
+                        overUsedRnodes.size(),
+                        unroutableConnections.size(),
+                        connectionsRoutedThisIteration.get(),
+                        rnodesCreatedThisIteration,
+                        nodesPushed.get() - lastNodesPushed,
+                        nodesPopped.get() - lastNodesPopped,
+                        maxDelayAndTimingVertex == null ? Float.NaN : maxDelayAndTimingVertex.getFirst(),
+                        config.isTimingDriven() ? timingManager.getNumVerticesUpdated() : 0,
+                        elapsed,
+                        RuntimeTracker.elapsed(routingStart),
+                        runtime.totalMemory() - runtime.freeMemory(),
+                        peakBusyRoutingThreads.get());
+                for (RWRouteListener listener : listeners) {
+                    listener.iterationCompleted(statistics);
+                }
+                lastNodesPushed = nodesPushed.get();
+                lastNodesPopped = nodesPopped.get();
+            }
 
             if (overUsedRnodes.size() == 0) {
                 if (unroutableConnections.isEmpty()) {
@@ -1152,6 +1367,9 @@ public class RWRoute {
             if (connection.getCriticality() > minRerouteCriticality) {
                 return true;
             }
+            if (config.isHotRegionReroute() && congestionHeatMap.usesHotRegion(connection)) {
+                return true;
+            }
         }
 
         if (!connection.hasAltSinks()) {
@@ -1253,11 +1471,55 @@ public class RWRoute {
 
     /**
      * Sorts indirect connections for routing.
+     * @param initial True for the sort before the first routing iteration, which is the only one where
+     * connections are ordered by the criticality snapshot (if loaded).
      */
-    private void sortConnections() {
+    private void sortConnections(boolean initial) {
         sortedIndirectConnections.clear();
         sortedIndirectConnections.addAll(indirectConnections);
         Collections.sort(sortedIndirectConnections);
+        if (initial && criticalitySnapshot != null) {
+            // Route connections that were critical in the previous run first
+            criticalitySnapshot.sort(sortedIndirectConnections);
+        }
+        if (config.getMultiSinkFanoutThreshold() > 0) {
+            groupMultiSinkConnections(sortedIndirectConnections);
+        }
+    }
+
+    /**
+     * Reorders the connections of each net that is routed using multi-sink routing (see
+     * {@link #isMultiSinkRouted(Connection)}) so that they are consecutive, in ascending HPWL order,
+     * starting at the position of the net's first connection. All other connections keep their order.
+     * @param connections The sorted connections.
+     */
+    private void groupMultiSinkConnections(List<Connection> connections) {
+        Map<NetWrapper, List<Connection>> multiSinkConnections = new IdentityHashMap<>();
+        for (Connection connection : connections) {
+            if (isMultiSinkRouted(connection)) {
+                multiSinkConnections.computeIfAbsent(connection.getNetWrapper(), (k) -> new ArrayList<>()).add(connection);
+            }
+        }
+        if (multiSinkConnections.isEmpty()) {
+            return;
+        }
+
+        List<Connection> grouped = new ArrayList<>(connections.size());
+        for (Connection connection : connections) {
+            if (!isMultiSinkRouted(connection)) {
+                grouped.add(connection);
+                continue;
+            }
+            List<Connection> netConnections = multiSinkConnections.remove(connection.getNetWrapper());
+            if (netConnections != null) {
+                // Grow the tree outwards from the source
+                netConnections.sort((a, b) -> Short.compare(a.getHpwl(), b.getHpwl()));
+                grouped.addAll(netConnections);
+            }
+        }
+        assert(grouped.size() == connections.size());
+        connections.clear();
+        connections.addAll(grouped);
     }
 
     private void printIterationHeader(boolean timingDriven) {
@@ -1307,6 +1569,34 @@ public class RWRoute {
         if (overUsed == 0) System.out.printf("------------------------------------------------------------------------------\n");
     }
 
+    /**
+     * Marks the tiles that are still overused at the end of this iteration as hot and,
+     * if requested, writes the congestion heat map to a CSV file.
+     */
+    private void updateCongestionHeatMap() {
+        if (congestionHeatMap == null) {
+            return;
+        }
+        congestionHeatMap.endIteration(overUsedRnodes);
+        if (config.getCongestionHeatMapDir() != null) {
+            Path dir = Paths.get(config.getCongestionHeatMapDir());
+            try {
+                Files.createDirectories(dir);
+            } catch (IOException e) {
+                throw new RuntimeException("ERROR: Unable to create congestion heat map directory " + dir, e);
+            }
+            congestionHeatMap.writeCSV(dir.resolve("congestion_iter_" + routeIteration + ".csv"));
+        }
+    }
+
+    /**
+     * Gets the per-tile congestion heat map.
+     * @return The congestion heat map, or null if neither "--hotRegionReroute" nor "--congestionHeatMapDir" is used.
+     */
+    public CongestionHeatMap getCongestionHeatMap() {
+        return congestionHeatMap;
+    }
+
     /**
      * Updates the congestion cost factors.
      */
@@ -1637,7 +1927,9 @@ public class RWRoute {
      */
     protected static class ConnectionState {
         /** Priority queue of all candidate nodes to be considered for routing this connection */
-        protected final PriorityQueue<RouteNode> queue;
+        protected final Queue<RouteNode> queue;
+        /** The same object as queue when it is an indexed heap supporting decrease-key, otherwise null */
+        protected final RouteNodeHeap heap;
         /** The list of nodes marked as a target for this connection */
         protected final List<RouteNode> targets;
 
@@ -1654,8 +1946,9 @@ public class RWRoute {
         protected float dlyWeight;
         protected float estDlyWeight;
 
-        protected ConnectionState() {
-            this.queue = new PriorityQueue<>();
+        protected ConnectionState(boolean indexedHeap) {
+            this.heap = indexedHeap ? new RouteNodeHeap() : null;
+            this.queue = indexedHeap ? heap : new PriorityQueue<>();
             this.targets = new ArrayList<>();
         }
     }
@@ -1665,6 +1958,7 @@ public class RWRoute {
      * @param connection The connection to route.
      */
     protected void routeIndirectConnection(Connection connection) {
+        peakBusyRoutingThreads.accumulateAndGet(busyRoutingThreads.incrementAndGet(), Math::max);
         ConnectionState state = getConnectionState();
         state.connection = connection;
         state.sequence = connectionsRouted.incrementAndGet();
@@ -1676,7 +1970,7 @@ public class RWRoute {
         state.dlyWeight = connection.getCriticality() * oneMinusTimingWeight / 100f;
         state.estDlyWeight = connection.getCriticality() * timingWeight;
 
-        PriorityQueue<RouteNode> queue = state.queue;
+        Queue<RouteNode> queue = state.queue;
         assert(queue.isEmpty());
 
         prepareRouteConnection(state);
@@ -1719,6 +2013,7 @@ public class RWRoute {
             target.clearTarget();
         }
         targets.clear();
+        busyRoutingThreads.decrementAndGet();
     }
 
     protected void enlargeBoundingBox(Connection connection) {
@@ -1791,6 +2086,11 @@ public class RWRoute {
         connection.setRouted(routed);
         if (routed) {
             updateUsersAndPresentCongestionCost(connection);
+            NetWrapper netWrapper = connection.getNetWrapper();
+            if (netWrapper.getRoutingTreeIteration() == routeIteration && isMultiSinkRouted(connection)) {
+                // Grow the routing tree already built in this iteration by the new branch only
+                netWrapper.addRoutingTreeBranch(connection, config.isTimingDriven());
+            }
         }
     }
 
@@ -1834,7 +2134,8 @@ public class RWRoute {
         final boolean longParent = config.isTimingDriven() && DelayEstimatorBase.isLong(rnode);
         final Connection connection = state.connection;
         final int sequence = state.sequence;
-        final PriorityQueue<RouteNode> queue = state.queue;
+        final Queue<RouteNode> queue = state.queue;
+        final RouteNodeHeap heap = state.heap;
         for (RouteNode childRNode : rnode.getChildren(routingGraph)) {
             // Targets that are visited more than once must be overused
             assert(!childRNode.isTarget() || !childRNode.isVisited(sequence) || childRNode.willOverUse(connection.getNetWrapper()));
@@ -1844,13 +2145,22 @@ public class RWRoute {
             assert((preservedNet = routingGraph.getPreservedNet(childRNode)) == null ||
                     preservedNet == connection.getNet());
 
+            RouteNode queuedPrev = null;
+            float queuedTotalPathCost = 0;
             if (childRNode.isVisited(sequence)) {
-                // Node must be in queue already.
-
-                // Note: it is possible this is a cheaper path to childRNode; however, because the
-                // PriorityQueue class does not support (efficiently) reducing the cost of nodes
-                // already in the queue, this opportunity is discarded
-                continue;
+                // Node must be in queue already, or have been popped from it.
+
+                // Note: it is possible this is a cheaper path to childRNode. With the default
+                // PriorityQueue, which does not support (efficiently) reducing the cost of nodes
+                // already in the queue, this opportunity is discarded. With the indexed heap, a node
+                // that is still in the queue (and thus has not been expanded yet) is re-evaluated
+                // from this new parent below, and its key decreased if cheaper. Targets and nodes
+                // that have already been popped are skipped in both modes.
+                if (heap == null || childRNode.isTarget() || !heap.contains(childRNode)) {
+                    continue;
+                }
+                queuedPrev = childRNode.getPrev();
+                queuedTotalPathCost = childRNode.getLowerBoundTotalPathCost();
             }
 
             if (childRNode.isTarget()) {
@@ -1935,6 +2245,11 @@ public class RWRoute {
             }
 
             evaluateCostAndPush(state, rnode, longParent, childRNode);
+            if (queuedPrev != null && childRNode.getLowerBoundTotalPathCost() == queuedTotalPathCost) {
+                // Not a cheaper path, restore the prev pointer that was overwritten during cost evaluation
+                childRNode.setPrev(queuedPrev);
+                continue;
+            }
             if (childRNode.isTarget() && queue.size() == 1) {
                 // Target is uncongested and the only thing in the (previously cleared) queue, abandon immediately
                 break;
@@ -1998,6 +2313,20 @@ public class RWRoute {
             newPartialPathCost += state.dlyWeight * (childRnode.getDelay() + DelayEstimatorBase.getExtraDelay(childRnode, longParent));
         }
 
+        float newTotalPathCost = newPartialPathCost + getEstimatedRemainingCost(state, childRnode, sharingFactor);
+        push(state, childRnode, newPartialPathCost, newTotalPathCost);
+    }
+
+    /**
+     * Estimates the remaining cost from a rnode to the sink of the connection being routed.
+     * The prev pointer of the rnode must already be set.
+     * @param state State from the connection that is being routed.
+     * @param childRnode The rnode in question.
+     * @param sharingFactor The sharing factor of the rnode.
+     * @return The estimated remaining cost.
+     */
+    private float getEstimatedRemainingCost(ConnectionState state, RouteNode childRnode, float sharingFactor) {
+        final Connection connection = state.connection;
         int childX = childRnode.getEndTileXCoordinate();
         int childY = childRnode.getEndTileYCoordinate();
         RouteNode sinkRnode = connection.getSinkRnode();
@@ -2005,43 +2334,34 @@ public class RWRoute {
         int sinkY = sinkRnode.getBeginTileYCoordinate();
         int deltaX = Math.abs(childX - sinkX);
         int deltaY = Math.abs(childY - sinkY);
+        int deltaSLR = 0;
         if (connection.isCrossSLR()) {
-            int deltaSLR = Math.abs(sinkRnode.getSLRIndex(routingGraph) - childRnode.getSLRIndex(routingGraph));
+            deltaSLR = Math.abs(sinkRnode.getSLRIndex(routingGraph) - childRnode.getSLRIndex(routingGraph));
             if (deltaSLR != 0) {
                 // Check for overshooting which occurs when child and sink node are in
                 // adjacent SLRs and less than a SLL wire's length apart in the Y axis.
-                if (deltaSLR == 1) {
-                    int overshootByY = deltaY - RouteNodeGraph.SUPER_LONG_LINE_LENGTH_IN_TILES;
-                    if (overshootByY < 0) {
-                        assert(deltaY < RouteNodeGraph.SUPER_LONG_LINE_LENGTH_IN_TILES);
-                        deltaY = RouteNodeGraph.SUPER_LONG_LINE_LENGTH_IN_TILES - overshootByY;
-                    }
-                }
+                deltaY = RouteNodeGraph.getCrossSLRDeltaY(deltaY, deltaSLR);
 
                 // Account for any detours that must be taken to get to and back from the closest Laguna column
-                int nextLagunaColumn = routingGraph.nextLagunaColumn[childX];
-                int prevLagunaColumn = routingGraph.prevLagunaColumn[childX];
-                int nextLagunaColumnDeltaX = (nextLagunaColumn == Integer.MAX_VALUE) ? Integer.MAX_VALUE :
-                        Math.abs(nextLagunaColumn - childX) + Math.abs(sinkX - nextLagunaColumn);
-                int prevLagunaColumnDeltaX = (prevLagunaColumn == Integer.MIN_VALUE) ? Integer.MAX_VALUE :
-                        Math.abs(prevLagunaColumn - childX) + Math.abs(sinkX - prevLagunaColumn);
-                if (nextLagunaColumnDeltaX <= prevLagunaColumnDeltaX) {
-                    assert(deltaX <= nextLagunaColumnDeltaX);
-                    deltaX = nextLagunaColumnDeltaX;
-                } else {
-                    assert(deltaX <= prevLagunaColumnDeltaX);
-                    deltaX = prevLagunaColumnDeltaX;
-                }
-                assert(deltaX >= 0 && deltaX < Integer.MAX_VALUE);
+                deltaX = routingGraph.getLagunaDetourDeltaX(childX, sinkX);
             }
         }
 
-        int distanceToSink = deltaX + deltaY;
-        float newTotalPathCost = newPartialPathCost + state.estWlWeight * distanceToSink / sharingFactor;
-        if (config.isTimingDriven()) {
-            newTotalPathCost += state.estDlyWeight * (deltaX * 0.32 + deltaY * 0.16);
+        float estimatedCost;
+        if (lookahead != null) {
+            IntentCode intentCode = childRnode.getIntentCode();
+            estimatedCost = state.estWlWeight * lookahead.getWirelength(intentCode, deltaSLR, deltaX, deltaY) / sharingFactor;
+            if (config.isTimingDriven()) {
+                estimatedCost += state.estDlyWeight * lookahead.getDelay(intentCode, deltaSLR, deltaX, deltaY);
+            }
+        } else {
+            int distanceToSink = deltaX + deltaY;
+            estimatedCost = state.estWlWeight * distanceToSink / sharingFactor;
+            if (config.isTimingDriven()) {
+                estimatedCost += state.estDlyWeight * (deltaX * 0.32 + deltaY * 0.16);
+            }
         }
-        push(state, childRnode, newPartialPathCost, newTotalPathCost);
+        return estimatedCost;
     }
 
     /**
@@ -2079,6 +2399,8 @@ public class RWRoute {
 
     /**
      * Sets the costs of a rnode and pushes it to the queue.
+     * When using an indexed heap and the rnode is already in the queue, its costs are only updated
+     * (and its position in the queue adjusted) if the new total path cost is lower.
      * @param state State from the connection that is being routed.
      * @param childRnode A child rnode.
      * @param newPartialPathCost The upstream path cost from childRnode to the source.
@@ -2087,6 +2409,16 @@ public class RWRoute {
     protected void push(ConnectionState state, RouteNode childRnode, float newPartialPathCost, float newTotalPathCost) {
         // Pushed node must have a prev pointer, unless it is a source (with no upstream path cost)
         assert(childRnode.getPrev() != null || newPartialPathCost == 0);
+        if (childRnode.isVisited(state.sequence)) {
+            assert(state.heap != null && state.heap.contains(childRnode));
+            if (newTotalPathCost >= childRnode.getLowerBoundTotalPathCost()) {
+                return;
+            }
+            childRnode.setLowerBoundTotalPathCost(newTotalPathCost);
+            childRnode.setUpstreamPathCost(newPartialPathCost);
+            state.heap.decreaseKey(childRnode);
+            return;
+        }
         childRnode.setLowerBoundTotalPathCost(newTotalPathCost);
         childRnode.setUpstreamPathCost(newPartialPathCost);
         // Use the number-of-connections-routed-so-far as the identifier for whether a rnode
@@ -2116,6 +2448,70 @@ public class RWRoute {
         RouteNode sourceRnode = connection.getSourceRnode();
         assert(sourceRnode.getPrev() == null);
         push(state, sourceRnode, 0, 0);
+
+        if (isMultiSinkRouted(connection)) {
+            // Also start from the routing tree already built for this net's other sinks
+            pushRoutingTree(state);
+        }
+    }
+
+    /**
+     * Checks if a connection belongs to a high-fanout net whose sinks are routed using multi-sink routing,
+     * where the search for each sink is seeded with the routing tree already built for the net's other sinks
+     * rather than with its source alone.
+     * The connections of such a net are grouped together when sorted (see {@link #sortConnections(boolean)}), so
+     * its sinks are routed consecutively and in ascending HPWL order, and the tree grows outwards from the source.
+     * @param connection The connection in question.
+     * @return True if the connection is routed using multi-sink routing.
+     */
+    protected boolean isMultiSinkRouted(Connection connection) {
+        int threshold = config.getMultiSinkFanoutThreshold();
+        return threshold > 0 && connection.getNetWrapper().getConnections().size() >= threshold;
+    }
+
+    /**
+     * Pushes all uncongested routing wires used by other routed connections (from the same source) of the
+     * connection's net into the queue, with their prev pointers set to recover the path back to the source.
+     * Only the uncongested part of the routing tree closest to its source is pushed: a branch is cut at the first
+     * overused, local or target rnode, or at the first rnode no longer used by the net.
+     * The routing tree is kept on the {@link NetWrapper}: it is rebuilt from all routed connections once per
+     * routing iteration, and then grown by {@link #finishRouteConnection(Connection, RouteNode)} with the new
+     * branch of each connection of the net as it is routed.
+     * @param state State from the connection that is being routed.
+     */
+    protected void pushRoutingTree(ConnectionState state) {
+        final Connection connection = state.connection;
+        final NetWrapper netWrapper = connection.getNetWrapper();
+        final boolean timingDriven = config.isTimingDriven();
+        if (netWrapper.getRoutingTreeIteration() != routeIteration) {
+            netWrapper.resetRoutingTree(routeIteration);
+            for (Connection other : netWrapper.getConnections()) {
+                if (other == connection || !other.isRouted() || other.isDirect()) {
+                    continue;
+                }
+                netWrapper.addRoutingTreeBranch(other, timingDriven);
+            }
+        }
+        for (NetWrapper.RoutingTreeRnode entry : netWrapper.getRoutingTree()) {
+            RouteNode rnode = entry.rnode;
+            // Parents come first, so a parent that was not pushed (or is not this connection's source) cuts the branch
+            if (!entry.parent.isVisited(state.sequence) || rnode.isVisited(state.sequence)) {
+                continue;
+            }
+            if (rnode.getType() != RouteNodeType.NON_LOCAL || rnode.isOverUsed() || rnode.isTarget()) {
+                continue;
+            }
+            int connectionsOfUser = rnode.countConnectionsOfUser(netWrapper);
+            if (connectionsOfUser == 0) {
+                // Branch of a connection that has since been ripped up
+                continue;
+            }
+            rnode.setPrev(entry.parent);
+            float sharingFactor = 1 + state.shareWeight * connectionsOfUser;
+            // Wirelength and congestion of the existing tree are not charged again
+            float partialPathCost = timingDriven ? state.dlyWeight * entry.upstreamDelay : 0;
+            push(state, rnode, partialPathCost, partialPathCost + getEstimatedRemainingCost(state, rnode, sharingFactor));
+        }
     }
 
     /**
@@ -2228,6 +2624,11 @@ public class RWRoute {
             printFormattedString("Total INT tile nodes:", totalINTNodes);
             printFormattedString("Total rnodes created:", routingGraph.numNodes());
             printFormattedString("Average #children per node:", routingGraph.averageChildren());
+            RouteNodeGraphCache cache = routingGraph.getCache();
+            if (cache != null) {
+                printFormattedString("Routing graph cache hits:", cache.getHits());
+                printFormattedString("Routing graph cache misses:", cache.getMisses());
+            }
             System.out.printf("------------------------------------------------------------------------------\n");
             printFormattedString("Num iterations:", routeIteration);
             printFormattedString("Connections routed:", connectionsRouted.get());
@@ -2248,6 +2649,10 @@ public class RWRoute {
         // For testing
         System.setProperty("rapidwright.rwroute.nodesPopped", String.valueOf(nodesPopped));
         System.setProperty("rapidwright.rwroute.numStaticNetPins", String.valueOf(getNumStaticNetPins()));
+        System.setProperty("rapidwright.rwroute.totalWirelength", String.valueOf(totalWL));
+        if (maxDelayAndTimingVertex != null) {
+            System.setProperty("rapidwright.rwroute.maxDelay", String.valueOf(maxDelayAndTimingVertex.getFirst()));
+        }
     }
 
     /**
@@ -2295,11 +2700,16 @@ public class RWRoute {
     protected static Design routeDesign(RWRoute router) {
         router.preprocess();
 
-        // Initialize router object
-        router.initialize();
+        try {
+            // Initialize router object
+            router.initialize();
 
-        // Routes the design
-        router.route();
+            // Routes the design
+            router.route();
+        } finally {
+            // Do not leave the routing progress file open if routing failed
+            router.closeRoutingProgressFile();
+        }
 
         return router.getDesign();
     }
@@ -104,6 +104,42 @@ public class RWRouteConfig {
     private float husInitialCongestedThreshold;
     /* The threshold for determining whether to start using historical-centric updating in HUS */
     private float husActivateThreshold;
+    /* true to use an indexed heap supporting decrease-key as the routing queue */
+    private boolean indexedHeap;
+    /* The directory containing persistent routing graph caches, or null if not used */
+    private String routeNodeGraphCacheDir;
+    /* true to route arbitrary non-overlapping connections concurrently in CUFR, instead of using its partition tree */
+    private boolean regionLockedRouting;
+    /* The number of threads to use for region-locked routing, or 0 for all available */
+    private int regionLockedRoutingThreads;
+    /* The file to which the routing state is saved at the end of routing, or null if not saved */
+    private String saveRoutingState;
+    /* The file from which a previously saved routing state is loaded, or null if not loaded */
+    private String loadRoutingState;
+    /* The file to which connection criticalities and route delays are saved at the end of routing, or null if not saved */
+    private String saveCriticalities;
+    /* The file from which connection criticalities and route delays are loaded to warm start routing, or null if not loaded */
+    private String loadCriticalities;
+    /* The file containing a precomputed router lookahead, or null to use the Manhattan distance estimate */
+    private String routerLookahead;
+    /* The minimum number of connections of a net for its sinks to be routed using multi-sink routing, or 0 if not used */
+    private int multiSinkFanoutThreshold;
+    /* true to only re-route connections overlapping regions that were still congested at the end of the previous iteration */
+    private boolean hotRegionReroute;
+    /* The directory to write a per-tile congestion heat map to after each iteration, or null if not used */
+    private String congestionHeatMapDir;
+    /* The file to stream routing progress to as JSON lines, or null if not used */
+    private String routingProgressFile;
+    /* true to propagate timing using an array-based, levelized snapshot of the timing graph */
+    private boolean levelizedTimingGraph;
+    /* true to only update the timing affected by connections whose delay changed */
+    private boolean incrementalTiming;
+    /* true to propagate timing level by level using multiple threads */
+    private boolean parallelTiming;
+    /* true to look up node delays in a table precomputed for each INT tile wire and coordinate */
+    private boolean nodeDelayTable;
+    /* true to time each clock domain against its own requirement, in a single pass */
+    private boolean multiClockTiming;
 
     /** Constructs a Configuration Object */
     public RWRouteConfig(String[] arguments) {
@@ -140,6 +176,24 @@ public class RWRouteConfig {
         husBeta = 2f;
         husInitialCongestedThreshold = 0.5f;
         husActivateThreshold = 0.4f;
+        indexedHeap = false;
+        routeNodeGraphCacheDir = null;
+        regionLockedRouting = false;
+        regionLockedRoutingThreads = 0;
+        saveRoutingState = null;
+        loadRoutingState = null;
+        saveCriticalities = null;
+        loadCriticalities = null;
+        routerLookahead = null;
+        multiSinkFanoutThreshold = 0;
+        hotRegionReroute = false;
+        congestionHeatMapDir = null;
+        routingProgressFile = null;
+        levelizedTimingGraph = false;
+        incrementalTiming = false;
+        parallelTiming = false;
+        nodeDelayTable = false;
+        multiClockTiming = false;
         if (arguments != null) {
             parseArguments(arguments);
         }
@@ -263,6 +317,60 @@ public class RWRouteConfig {
             case "--husActivateThreshold":
                 setHusActivateThreshold(Float.parseFloat(arguments[++i]));
                 break;
+            case "--indexedHeap":
+                setIndexedHeap(true);
+                break;
+            case "--routeNodeGraphCacheDir":
+                setRouteNodeGraphCacheDir(arguments[++i]);
+                break;
+            case "--regionLockedRouting":
+                setRegionLockedRouting(true);
+                break;
+            case "--regionLockedRoutingThreads":
+                setRegionLockedRoutingThreads(Integer.parseInt(arguments[++i]));
+                break;
+            case "--saveRoutingState":
+                setSaveRoutingState(arguments[++i]);
+                break;
+            case "--loadRoutingState":
+                setLoadRoutingState(arguments[++i]);
+                break;
+            case "--saveCriticalities":
+                setSaveCriticalities(arguments[++i]);
+                break;
+            case "--loadCriticalities":
+                setLoadCriticalities(arguments[++i]);
+                break;
+            case "--routerLookahead":
+                setRouterLookahead(arguments[++i]);
+                break;
+            case "--multiSinkFanoutThreshold":
+                setMultiSinkFanoutThreshold(Integer.parseInt(arguments[++i]));
+                break;
+            case "--hotRegionReroute":
+                setHotRegionReroute(true);
+                break;
+            case "--congestionHeatMapDir":
+                setCongestionHeatMapDir(arguments[++i]);
+                break;
+            case "--routingProgressFile":
+                setRoutingProgressFile(arguments[++i]);
+                break;
+            case "--levelizedTimingGraph":
+                setLevelizedTimingGraph(true);
+                break;
+            case "--incrementalTiming":
+                setIncrementalTiming(true);
+                break;
+            case "--parallelTiming":
+                setParallelTiming(true);
+                break;
+            case "--nodeDelayTable":
+                setNodeDelayTable(true);
+                break;
+            case "--multiClockTiming":
+                setMultiClockTiming(true);
+                break;
             default:
                 throw new IllegalArgumentException("ERROR: RWRoute argument '" + arg + "' not recognized.");
             }
@@ -1012,6 +1120,406 @@ public class RWRouteConfig {
         this.husActivateThreshold = husActivateThreshold;
     }
 
+    /**
+     * Checks if an indexed heap (see {@link RouteNodeHeap}) is used as the routing queue.
+     * Unlike the default {@link java.util.PriorityQueue}, this heap supports decreasing the key of a queued rnode
+     * so that a cheaper path to an rnode that is already in the queue replaces the existing entry instead of being
+     * discarded.
+     * Default: false. Can be modified by adding "--indexedHeap" to the arguments.
+     * @return true, if an indexed heap is used as the routing queue.
+     */
+    public boolean isIndexedHeap() {
+        return indexedHeap;
+    }
+
+    /**
+     * Sets whether an indexed heap is used as the routing queue.
+     * Default: false. Can be modified by adding "--indexedHeap" to the arguments.
+     * @param indexedHeap true to use an indexed heap as the routing queue.
+     */
+    public void setIndexedHeap(boolean indexedHeap) {
+        this.indexedHeap = indexedHeap;
+    }
+
+    /**
+     * Gets the directory containing persistent, per-device routing graph cache files (see {@link RouteNodeGraphCache}).
+     * When set, the device-dependent parts of the routing resource graph are read from a memory-mapped cache file
+     * where available, and any newly computed parts are written back to this file once routing is complete.
+     * Default: null (not used).
+     * Can be modified by using "--routeNodeGraphCacheDir" option, e.g. "--routeNodeGraphCacheDir /tmp/rwroute".
+     * @return The cache directory, or null.
+     */
+    public String getRouteNodeGraphCacheDir() {
+        return routeNodeGraphCacheDir;
+    }
+
+    /**
+     * Sets the directory containing persistent, per-device routing graph cache files.
+     * Default: null (not used).
+     * Can be modified by using "--routeNodeGraphCacheDir" option, e.g. "--routeNodeGraphCacheDir /tmp/rwroute".
+     * @param routeNodeGraphCacheDir The cache directory, or null to not use a cache.
+     */
+    public void setRouteNodeGraphCacheDir(String routeNodeGraphCacheDir) {
+        this.routeNodeGraphCacheDir = routeNodeGraphCacheDir;
+    }
+
+    /**
+     * Checks if region-locked routing is used by {@link CUFR}.
+     * When enabled, instead of routing connections according to its recursive partitioning tree, CUFR workers
+     * take connections in sorted order and route each one only once they hold a lock on the region covered by its
+     * bounding box (see {@link ConnectionRegionLocks}), deferring (and retrying later) those whose region overlaps
+     * with that of a connection currently being routed by another worker.
+     * Since the locked region is the bounding box, this is ignored (and the partition tree used instead) when
+     * the bounding box constraint is disabled.
+     * Default: false. Can be modified by adding "--regionLockedRouting" to the arguments.
+     * @return true, if region-locked routing is used.
+     */
+    public boolean isRegionLockedRouting() {
+        return regionLockedRouting;
+    }
+
+    /**
+     * Sets whether region-locked routing is used by {@link CUFR}.
+     * Default: false. Can be modified by adding "--regionLockedRouting" to the arguments.
+     * @param regionLockedRouting true to use region-locked routing.
+     */
+    public void setRegionLockedRouting(boolean regionLockedRouting) {
+        this.regionLockedRouting = regionLockedRouting;
+    }
+
+    /**
+     * Gets the number of worker threads to use for region-locked routing.
+     * Default: 0 (use all available processors).
+     * Can be modified by using "--regionLockedRoutingThreads" option, e.g. "--regionLockedRoutingThreads 8".
+     * @return The number of worker threads, or 0 for all available.
+     */
+    public int getRegionLockedRoutingThreads() {
+        return regionLockedRoutingThreads;
+    }
+
+    /**
+     * Sets the number of worker threads to use for region-locked routing.
+     * Default: 0 (use all available processors).
+     * Can be modified by using "--regionLockedRoutingThreads" option, e.g. "--regionLockedRoutingThreads 8".
+     * @param regionLockedRoutingThreads The number of worker threads, or 0 for all available.
+     */
+    public void setRegionLockedRoutingThreads(int regionLockedRoutingThreads) {
+        if (regionLockedRoutingThreads < 0) {
+            throw new IllegalArgumentException("ERROR: regionLockedRoutingThreads cannot be negative.");
+        }
+        this.regionLockedRoutingThreads = regionLockedRoutingThreads;
+    }
+
+    /**
+     * Gets the file to which the end-of-run routing state (see {@link RoutingState}) is saved.
+     * The saved state can be loaded by a subsequent (partial) routing run of the same design
+     * using {@link #setLoadRoutingState(String)}.
+     * Default: null (not saved).
+     * Can be modified by using "--saveRoutingState" option, e.g. "--saveRoutingState design.rws".
+     * @return The routing state file, or null.
+     */
+    public String getSaveRoutingState() {
+        return saveRoutingState;
+    }
+
+    /**
+     * Sets the file to which the end-of-run routing state is saved.
+     * Default: null (not saved).
+     * Can be modified by using "--saveRoutingState" option, e.g. "--saveRoutingState design.rws".
+     * @param saveRoutingState The routing state file, or null to not save.
+     */
+    public void setSaveRoutingState(String saveRoutingState) {
+        this.saveRoutingState = saveRoutingState;
+    }
+
+    /**
+     * Gets the file from which a previously saved routing state (see {@link RoutingState}) is loaded.
+     * When set, historical congestion costs and connection criticalities are seeded from the saved state,
+     * and {@link PartialRouter} preserves nets whose routing and pins are unchanged since the state was saved
+     * without re-examining their PIPs.
+     * Default: null (not loaded).
+     * Can be modified by using "--loadRoutingState" option, e.g. "--loadRoutingState design.rws".
+     * @return The routing state file, or null.
+     */
+    public String getLoadRoutingState() {
+        return loadRoutingState;
+    }
+
+    /**
+     * Sets the file from which a previously saved routing state is loaded.
+     * Default: null (not loaded).
+     * Can be modified by using "--loadRoutingState" option, e.g. "--loadRoutingState design.rws".
+     * @param loadRoutingState The routing state file, or null to not load.
+     */
+    public void setLoadRoutingState(String loadRoutingState) {
+        this.loadRoutingState = loadRoutingState;
+    }
+
+    /**
+     * Gets the file to which the criticality and route delay of each connection (see {@link CriticalitySnapshot})
+     * are saved at the end of timing-driven routing.
+     * The saved snapshot can be loaded by a subsequent run of the same design using
+     * {@link #setLoadCriticalities(String)}.
+     * Default: null (not saved).
+     * Can be modified by using "--saveCriticalities" option, e.g. "--saveCriticalities design.rwcs".
+     * @return The criticality snapshot file, or null.
+     */
+    public String getSaveCriticalities() {
+        return saveCriticalities;
+    }
+
+    /**
+     * Sets the file to which the criticality and route delay of each connection are saved at the end of
+     * timing-driven routing.
+     * Default: null (not saved).
+     * Can be modified by using "--saveCriticalities" option, e.g. "--saveCriticalities design.rwcs".
+     * @param saveCriticalities The criticality snapshot file, or null to not save.
+     */
+    public void setSaveCriticalities(String saveCriticalities) {
+        this.saveCriticalities = saveCriticalities;
+    }
+
+    /**
+     * Gets the file from which a previously saved criticality snapshot (see {@link CriticalitySnapshot}) is loaded.
+     * When set, the pre-routing delay of each recorded connection is its recorded route delay, its initial
+     * criticality is raised to its recorded criticality, and the first routing iteration routes connections in
+     * order of recorded criticality.
+     * Default: null (not loaded).
+     * Can be modified by using "--loadCriticalities" option, e.g. "--loadCriticalities design.rwcs".
+     * @return The criticality snapshot file, or null.
+     */
+    public String getLoadCriticalities() {
+        return loadCriticalities;
+    }
+
+    /**
+     * Sets the file from which a previously saved criticality snapshot is loaded.
+     * Default: null (not loaded).
+     * Can be modified by using "--loadCriticalities" option, e.g. "--loadCriticalities design.rwcs".
+     * @param loadCriticalities The criticality snapshot file, or null to not load.
+     */
+    public void setLoadCriticalities(String loadCriticalities) {
+        this.loadCriticalities = loadCriticalities;
+    }
+
+    /**
+     * Gets the file containing a precomputed, per-device router lookahead (see {@link RouterLookahead}).
+     * When set, the remaining wirelength and delay from a node to the sink of a connection (within the same SLR
+     * or in an adjacent SLR) is estimated from the lookahead tables for the node's intent code, rather than from
+     * the Manhattan distance.
+     * Default: null (not used).
+     * Can be modified by using "--routerLookahead" option, e.g. "--routerLookahead xcvu3p.rwla".
+     * @return The router lookahead file, or null.
+     */
+    public String getRouterLookahead() {
+        return routerLookahead;
+    }
+
+    /**
+     * Sets the file containing a precomputed, per-device router lookahead.
+     * Default: null (not used).
+     * Can be modified by using "--routerLookahead" option, e.g. "--routerLookahead xcvu3p.rwla".
+     * @param routerLookahead The router lookahead file, or null to use the Manhattan distance estimate.
+     */
+    public void setRouterLookahead(String routerLookahead) {
+        this.routerLookahead = routerLookahead;
+    }
+
+    /**
+     * Gets the minimum number of connections of a net for its sinks to be routed using multi-sink routing.
+     * With multi-sink routing, the search for each sink of such a net is seeded with the routing tree already
+     * built for the net's other sinks instead of restarting from the source, which reduces the runtime of
+     * high-fanout nets. Not supported by {@link CUFR}, where connections of the same net may be routed concurrently.
+     * Default: 0 (not used).
+     * Can be modified by using "--multiSinkFanoutThreshold" option, e.g. "--multiSinkFanoutThreshold 64".
+     * @return The fanout threshold, or 0 if multi-sink routing is not used.
+     */
+    public int getMultiSinkFanoutThreshold() {
+        return multiSinkFanoutThreshold;
+    }
+
+    /**
+     * Sets the minimum number of connections of a net for its sinks to be routed using multi-sink routing.
+     * Default: 0 (not used).
+     * Can be modified by using "--multiSinkFanoutThreshold" option, e.g. "--multiSinkFanoutThreshold 64".
+     * @param multiSinkFanoutThreshold The fanout threshold, or 0 to not use multi-sink routing.
+     */
+    public void setMultiSinkFanoutThreshold(int multiSinkFanoutThreshold) {
+        if (multiSinkFanoutThreshold < 0) {
+            throw new IllegalArgumentException("ERROR: multiSinkFanoutThreshold cannot be negative.");
+        }
+        this.multiSinkFanoutThreshold = multiSinkFanoutThreshold;
+    }
+
+    /**
+     * Checks if the hot region re-route policy is used.
+     * When enabled, from the second iteration onwards, a per-tile {@link CongestionHeatMap} is used to
+     * re-route every connection that uses a rnode ending in a tile that was still overused at the end of the
+     * previous iteration (even if none of its own rnodes are overused), in addition to the congested connections
+     * and the critical connections that are re-routed in timing-driven mode.
+     * Default: false. Can be modified by adding "--hotRegionReroute" to the arguments.
+     * @return true, if the hot region re-route policy is used.
+     */
+    public boolean isHotRegionReroute() {
+        return hotRegionReroute;
+    }
+
+    /**
+     * Sets whether the hot region re-route policy is used.
+     * Default: false. Can be modified by adding "--hotRegionReroute" to the arguments.
+     * @param hotRegionReroute true to use the hot region re-route policy.
+     */
+    public void setHotRegionReroute(boolean hotRegionReroute) {
+        this.hotRegionReroute = hotRegionReroute;
+    }
+
+    /**
+     * Gets the directory to write a per-tile congestion heat map to after each routing iteration.
+     * Each iteration writes a CSV file named "congestion_iter_N.csv" (see {@link CongestionHeatMap#writeCSV}).
+     * Default: null (not used).
+     * Can be modified by using "--congestionHeatMapDir" option, e.g. "--congestionHeatMapDir /tmp/heatmap".
+     * @return The heat map directory, or null if not used.
+     */
+    public String getCongestionHeatMapDir() {
+        return congestionHeatMapDir;
+    }
+
+    /**
+     * Sets the directory to write a per-tile congestion heat map to after each routing iteration.
+     * Default: null (not used).
+     * Can be modified by using "--congestionHeatMapDir" option, e.g. "--congestionHeatMapDir /tmp/heatmap".
+     * @param congestionHeatMapDir The heat map directory, or null to not write heat maps.
+     */
+    public void setCongestionHeatMapDir(String congestionHeatMapDir) {
+        this.congestionHeatMapDir = congestionHeatMapDir;
+    }
+
+    /**
+     * Gets the file to stream routing progress to, with one JSON object per line for each routing iteration
+     * and each timed phase (see {@link JsonLinesRWRouteListener}).
+     * Default: null (not used).
+     * Can be modified by using "--routingProgressFile" option, e.g. "--routingProgressFile progress.jsonl".
+     * @return The routing progress file, or null if not used.
+     */
+    public String getRoutingProgressFile() {
+        return routingProgressFile;
+    }
+
+    /**
+     * Sets the file to stream routing progress to.
+     * Default: null (not used).
+     * Can be modified by using "--routingProgressFile" option, e.g. "--routingProgressFile progress.jsonl".
+     * @param routingProgressFile The routing progress file, or null to not write routing progress.
+     */
+    public void setRoutingProgressFile(String routingProgressFile) {
+        this.routingProgressFile = routingProgressFile;
+    }
+
+    /**
+     * Checks if timing is propagated using a {@link com.xilinx.rapidwright.timing.LevelizedTimingGraph}.
+     * When enabled, arrival and required times are computed over primitive arrays in level order,
+     * rather than by walking the edge sets of the {@link com.xilinx.rapidwright.timing.TimingGraph}.
+     * Default: false. Can be modified by adding "--levelizedTimingGraph" to the arguments.
+     * @return true, if timing is propagated using a levelized timing graph.
+     */
+    public boolean isLevelizedTimingGraph() {
+        return levelizedTimingGraph;
+    }
+
+    /**
+     * Sets whether timing is propagated using a {@link com.xilinx.rapidwright.timing.LevelizedTimingGraph}.
+     * Default: false. Can be modified by adding "--levelizedTimingGraph" to the arguments.
+     * @param levelizedTimingGraph true to propagate timing using a levelized timing graph.
+     */
+    public void setLevelizedTimingGraph(boolean levelizedTimingGraph) {
+        this.levelizedTimingGraph = levelizedTimingGraph;
+    }
+
+    /**
+     * Checks if timing is updated incrementally after each routing iteration.
+     * When enabled, only the arrival and required times affected by connections whose delay changed
+     * (because they were re-routed) are recomputed. Implies "--levelizedTimingGraph".
+     * Default: false. Can be modified by adding "--incrementalTiming" to the arguments.
+     * @return true, if timing is updated incrementally.
+     */
+    public boolean isIncrementalTiming() {
+        return incrementalTiming;
+    }
+
+    /**
+     * Sets whether timing is updated incrementally after each routing iteration.
+     * Default: false. Can be modified by adding "--incrementalTiming" to the arguments.
+     * @param incrementalTiming true to update timing incrementally.
+     */
+    public void setIncrementalTiming(boolean incrementalTiming) {
+        this.incrementalTiming = incrementalTiming;
+    }
+
+    /**
+     * Checks if timing is updated using multiple threads.
+     * When enabled, full timing updates process the vertices of each level of the levelized timing graph
+     * in parallel, and connection criticalities are computed in parallel. Implies "--levelizedTimingGraph".
+     * Default: false. Can be modified by adding "--parallelTiming" to the arguments.
+     * @return true, if timing is updated using multiple threads.
+     */
+    public boolean isParallelTiming() {
+        return parallelTiming;
+    }
+
+    /**
+     * Sets whether timing is updated using multiple threads.
+     * Default: false. Can be modified by adding "--parallelTiming" to the arguments.
+     * @param parallelTiming true to update timing using multiple threads.
+     */
+    public void setParallelTiming(boolean parallelTiming) {
+        this.parallelTiming = parallelTiming;
+    }
+
+    /**
+     * Checks if node delays are looked up in a {@link NodeDelayTable}.
+     * When enabled, the delay of every wire of the INT tile type is precomputed at each INT tile coordinate,
+     * so that the delay of a timing-driven rnode is read from an array when it is created instead of being
+     * recomputed by the delay estimator. If a routing graph cache directory is set, the table is also
+     * cached there.
+     * Default: false. Can be modified by adding "--nodeDelayTable" to the arguments.
+     * @return true, if node delays are looked up in a precomputed table.
+     */
+    public boolean isNodeDelayTable() {
+        return nodeDelayTable;
+    }
+
+    /**
+     * Sets whether node delays are looked up in a {@link NodeDelayTable}.
+     * Default: false. Can be modified by adding "--nodeDelayTable" to the arguments.
+     * @param nodeDelayTable true to look up node delays in a precomputed table.
+     */
+    public void setNodeDelayTable(boolean nodeDelayTable) {
+        this.nodeDelayTable = nodeDelayTable;
+    }
+
+    /**
+     * Checks if each clock domain is timed against its own requirement.
+     * When enabled, timing start points and endpoints are tagged with the clock net of their cell, and the
+     * arrival and required times of every clock domain are computed in a single pass over the levelized timing
+     * graph, with paths between different clocks left untimed. The requirement of each clock is taken from the
+     * "create_clock" constraints of the design. Connection criticalities are computed from the slack of each
+     * domain, against its own requirement. Implies "--levelizedTimingGraph".
+     * Default: false. Can be modified by adding "--multiClockTiming" to the arguments.
+     * @return true, if each clock domain is timed against its own requirement.
+     */
+    public boolean isMultiClockTiming() {
+        return multiClockTiming;
+    }
+
+    /**
+     * Sets whether each clock domain is timed against its own requirement.
+     * Default: false. Can be modified by adding "--multiClockTiming" to the arguments.
+     * @param multiClockTiming true to time each clock domain against its own requirement.
+     */
+    public void setMultiClockTiming(boolean multiClockTiming) {
+        this.multiClockTiming = multiClockTiming;
+    }
+
     @Override
     public String toString() {
         StringBuilder s = new StringBuilder();
@@ -1055,6 +1563,43 @@ public class RWRouteConfig {
             s.append(MessageGenerator.formatString("HUS initial congested threshold: ", husInitialCongestedThreshold));
             s.append(MessageGenerator.formatString("HUS activate threshold: ", husActivateThreshold));
         }
+        s.append(MessageGenerator.formatString("Indexed heap: ", isIndexedHeap()));
+        s.append(MessageGenerator.formatString("Region-locked routing: ", isRegionLockedRouting()));
+        if (multiSinkFanoutThreshold > 0) {
+            s.append(MessageGenerator.formatString("Multi-sink fanout threshold: ", multiSinkFanoutThreshold));
+        }
+        s.append(MessageGenerator.formatString("Hot region reroute: ", isHotRegionReroute()));
+        if (congestionHeatMapDir != null) {
+            s.append(MessageGenerator.formatString("Congestion heat map directory: ", congestionHeatMapDir));
+        }
+        if (routingProgressFile != null) {
+            s.append(MessageGenerator.formatString("Routing progress file: ", routingProgressFile));
+        }
+        if (isTimingDriven()) {
+            s.append(MessageGenerator.formatString("Levelized timing graph: ", isLevelizedTimingGraph()));
+            s.append(MessageGenerator.formatString("Incremental timing: ", isIncrementalTiming()));
+            s.append(MessageGenerator.formatString("Parallel timing: ", isParallelTiming()));
+            s.append(MessageGenerator.formatString("Node delay table: ", isNodeDelayTable()));
+            s.append(MessageGenerator.formatString("Multi-clock timing: ", isMultiClockTiming()));
+        }
+        if (routeNodeGraphCacheDir != null) {
+            s.append(MessageGenerator.formatString("Routing graph cache directory: ", routeNodeGraphCacheDir));
+        }
+        if (saveRoutingState != null) {
+            s.append(MessageGenerator.formatString("Save routing state: ", saveRoutingState));
+        }
+        if (loadRoutingState != null) {
+            s.append(MessageGenerator.formatString("Load routing state: ", loadRoutingState));
+        }
+        if (saveCriticalities != null) {
+            s.append(MessageGenerator.formatString("Save criticalities: ", saveCriticalities));
+        }
+        if (loadCriticalities != null) {
+            s.append(MessageGenerator.formatString("Load criticalities: ", loadCriticalities));
+        }
+        if (routerLookahead != null) {
+            s.append(MessageGenerator.formatString("Router lookahead: ", routerLookahead));
+        }
 
         return s.toString();
     }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+/**
+ * Receives progress events from a {@link RWRoute} run, as it happens.
+ * Listeners are registered using {@link RWRoute#addListener(RWRouteListener)} and are called from the routing
+ * thread; they should return quickly since routing does not continue until they do.
+ */
+public interface RWRouteListener {
+
+    /**
+     * Called at the end of each routing iteration of the wire nets.
+     * @param statistics Statistics of the completed iteration.
+     */
+    default void iterationCompleted(RoutingIterationStatistics statistics) {
+    }
+
+    /**
+     * Called as each timed phase of the run ends.
+     * A phase is reported after all of its sub-phases.
+     * @param name Name of the phase, e.g. "route wire nets".
+     * @param level Depth of the phase, where the whole run is at level 0.
+     * @param time Runtime of the phase, in nanoseconds.
+     */
+    default void phaseCompleted(String name, int level, long time) {
+    }
+
+    /**
+     * Called once routing has finished, after all phases have been reported.
+     * Not called if routing fails with an exception.
+     * @param success True if all connections were routed without any overused rnodes.
+     */
+    default void routingCompleted(boolean success) {
+    }
+}
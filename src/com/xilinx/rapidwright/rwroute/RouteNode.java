@@ -34,9 +34,12 @@ import com.xilinx.rapidwright.util.RuntimeTracker;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.IntFunction;
 
 /**
  * A RouteNode Object corresponds to a vertex of the routing resource graph.
@@ -51,6 +54,15 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
     public static final int initialPresentCongestionCost = 1;
     public static final int initialHistoricalCongestionCost = 1;
 
+    /** Value of {@link #users} when this rnode has no users */
+    private static final long NO_USERS = 0;
+    /** Value of {@link #users} when this rnode has more than one user, held in {@link #multipleUsers} */
+    private static final long MULTIPLE_USERS = -1;
+    private static final AtomicLongFieldUpdater<RouteNode> usersUpdater =
+            AtomicLongFieldUpdater.newUpdater(RouteNode.class, "users");
+
+    /** A dense, unique index assigned by the {@link RouteNodeGraph} on creation */
+    private int id;
     /** The type of a rnode*/
     private byte type;
     /** The tileXCoordinate and tileYCoordinate of the INT tile that the associated node stops at */
@@ -75,18 +87,25 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
     private int visited;
     /** A variable that stores the parent of a rnode during expansion to facilitate tracing back */
     private RouteNode prev;
+    /** Position of this rnode inside a {@link RouteNodeHeap}, or -1 if not currently in one */
+    private int heapIndex;
     /**
-     * A map that records users of a rnode based on all routed connections.
+     * Records the users of a rnode based on all routed connections.
      * Each user is a {@link NetWrapper} instance that corresponds to a {@link Net} instance.
      * It is often the case that multiple connections of the user are using a same rnode.
      * We count the number of connections from the net.
      * The number is used for the sharing mechanism of RWRoute.
+     * Since a rnode almost always has at most one user, that user is packed inline as
+     * (NetWrapper id + 1) in the upper 32 bits and its connection count in the lower 32 bits,
+     * and updated without locking using compare-and-set. Otherwise, this is {@link #MULTIPLE_USERS}.
      */
-    private Map<NetWrapper, Integer> usersConnectionCounts;
+    private volatile long users;
+    /** Users of this rnode when it has more than one; guarded by this rnode's monitor */
+    private RouteNodeUsers multipleUsers;
 
     protected RouteNode(RouteNodeGraph routingGraph, Node node, RouteNodeType type) {
         super(node);
-        RouteNodeInfo nodeInfo = RouteNodeInfo.get(node, routingGraph);
+        RouteNodeInfo nodeInfo = routingGraph.getRouteNodeInfo(node);
         this.type = (byte) ((type == null) ? nodeInfo.type : type).ordinal();
         endTileXCoordinate = nodeInfo.endTileXCoordinate;
         endTileYCoordinate = nodeInfo.endTileYCoordinate;
@@ -94,8 +113,10 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
         children = null;
         setBaseCost(routingGraph.design.getSeries());
         historicalCongestionCost = initialHistoricalCongestionCost;
-        usersConnectionCounts = null;
+        users = NO_USERS;
+        multipleUsers = null;
         visited = 0;
+        heapIndex = -1;
         assert(prev == null);
         assert(!isTarget);
     }
@@ -313,7 +334,7 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
         s.append(", ");
         s.append(String.format("user = %s", getOccupancy()));
         s.append(", ");
-        s.append(getUsersConnectionCounts());
+        s.append(getUserIdsConnectionCounts());
         return s.toString();
     }
 
@@ -443,7 +464,7 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
     public RouteNode[] getChildren(RouteNodeGraph routingGraph) {
         if (children == null) {
             long start = RuntimeTracker.now();
-            List<Node> allDownHillNodes = getAllDownhillNodes();
+            List<Node> allDownHillNodes = routingGraph.getAllDownhillNodes(this);
             List<RouteNode> childrenList = new ArrayList<>(allDownHillNodes.size());
             for (Node downhill : allDownHillNodes) {
                 if (isExcluded(routingGraph, downhill)) {
@@ -519,47 +540,167 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
      * Each user is a {@link NetWrapper} instance representing a {@link Net} instance.
      * It is often the case that multiple connections of a net are using a same rnode.
      * So we count connections of each user to facilitate the sharing mechanism of RWRoute.
-     * @return A map between users, i.e., {@link NetWrapper} instances representing by {@link Net} instances,
-     *  and numbers of connections from different users.
+     * An rnode only records the id of each user (see {@link NetWrapper#hashCode()}), which is mapped back to its
+     * {@link NetWrapper} instance by the provided function, e.g. {@code List::get} on a list of users indexed by id.
+     * @param netWrappersById Function that gets the {@link NetWrapper} instance with a given id.
+     * @return A newly created map between users, i.e., {@link NetWrapper} instances representing {@link Net}
+     *  instances, and numbers of connections from different users.
+     */
+    public Map<NetWrapper, Integer> getUsersConnectionCounts(IntFunction<NetWrapper> netWrappersById) {
+        Map<NetWrapper, Integer> usersConnectionCounts = new IdentityHashMap<>();
+        for (Map.Entry<Integer, Integer> e : getUserIdsConnectionCounts().entrySet()) {
+            usersConnectionCounts.put(netWrappersById.apply(e.getKey()), e.getValue());
+        }
+        return usersConnectionCounts;
+    }
+
+    /**
+     * Gets a map between the ids of the users of this rnode and their numbers of connections using it.
+     * @return A newly created map between user ids and numbers of connections.
      */
-    public Map<NetWrapper, Integer> getUsersConnectionCounts() {
+    protected Map<Integer, Integer> getUserIdsConnectionCounts() {
+        Map<Integer, Integer> usersConnectionCounts = new HashMap<>();
+        long current = users;
+        if (current == MULTIPLE_USERS) {
+            synchronized (this) {
+                if (users == MULTIPLE_USERS) {
+                    int[] array = multipleUsers.toArray();
+                    for (int i = 0; i < array.length; i += 2) {
+                        usersConnectionCounts.put(array[i], array[i + 1]);
+                    }
+                    return usersConnectionCounts;
+                }
+            }
+            // Deflated since, start again
+            return getUserIdsConnectionCounts();
+        }
+        if (current != NO_USERS) {
+            usersConnectionCounts.put(getSingleUserKey(current) - 1, getSingleUserCount(current));
+        }
         return usersConnectionCounts;
     }
 
+    private static long packSingleUser(int key, int count) {
+        assert(key > 0 && count > 0);
+        return ((long) key << 32) | count;
+    }
+
+    private static int getSingleUserKey(long users) {
+        return (int) (users >>> 32);
+    }
+
+    private static int getSingleUserCount(long users) {
+        return (int) users;
+    }
+
     /**
-     * Adds an user {@link NetWrapper} instance to the user map, of which a key is a {@link NetWrapper} instance and
-     * the value is the number of connections that are using a rnode.
-     * If the user is already stored in the map, increment the connection count of the user by 1. Otherwise, put the user
-     * into the map and initialize the connection count as 1.
+     * Adds an user {@link NetWrapper} instance to the users of this rnode, where each user records
+     * the number of connections that are using this rnode.
+     * If the user is already a user, increment the connection count of the user by 1. Otherwise, add the user
+     * and initialize the connection count as 1.
+     * This method is thread-safe.
      * @param user The user net in question.
      */
     public void incrementUser(NetWrapper user) {
-        if (usersConnectionCounts == null) {
-            usersConnectionCounts = new IdentityHashMap<>();
+        final int key = user.hashCode() + 1;
+        while (true) {
+            long current = users;
+            if (current == NO_USERS) {
+                if (usersUpdater.compareAndSet(this, current, packSingleUser(key, 1))) {
+                    return;
+                }
+            } else if (current != MULTIPLE_USERS && getSingleUserKey(current) == key) {
+                if (usersUpdater.compareAndSet(this, current, current + 1)) {
+                    return;
+                }
+            } else if (incrementMultipleUsers(current, key - 1)) {
+                return;
+            }
+            // Lost a race with another thread, try again
+        }
+    }
+
+    private synchronized boolean incrementMultipleUsers(long expected, int id) {
+        if (users != expected) {
+            return false;
+        }
+        if (expected == MULTIPLE_USERS) {
+            multipleUsers.add(id, 1);
+            return true;
         }
-        usersConnectionCounts.merge(user, 1, Integer::sum);
+        // Inflate from a different single user
+        if (multipleUsers == null) {
+            multipleUsers = new RouteNodeUsers();
+        }
+        assert(multipleUsers.size() == 0);
+        multipleUsers.add(getSingleUserKey(expected) - 1, getSingleUserCount(expected));
+        multipleUsers.add(id, 1);
+        if (usersUpdater.compareAndSet(this, expected, MULTIPLE_USERS)) {
+            return true;
+        }
+        // Single user was modified without locking in the meantime
+        multipleUsers.clear();
+        return false;
     }
 
     /**
      * Gets the number of unique users.
-     * @return The number of unique {@link NetWrapper} instances in the user map, i.e, the key set size of the user map.
+     * @return The number of unique {@link NetWrapper} instances using this rnode.
      */
     public int uniqueUserCount() {
-        if (usersConnectionCounts == null) {
-            return 0;
+        while (true) {
+            long current = users;
+            if (current == NO_USERS) {
+                return 0;
+            }
+            if (current != MULTIPLE_USERS) {
+                return 1;
+            }
+            int size = multipleUsers.size();
+            if (users == MULTIPLE_USERS) {
+                return size;
+            }
         }
-        return usersConnectionCounts.size();
     }
 
     /**
      * Decrements the connection count of a user that is represented by a
      * {@link NetWrapper} instance corresponding to a {@link Net} instance.
-     * If there is only one connection of the user that is using a RouteNode instance, remove the user from the map.
+     * If there is only one connection of the user that is using a RouteNode instance, remove the user.
      * Otherwise, decrement the connection count by 1.
-     * @param user The user to be decremented from the user map.
+     * This method is thread-safe.
+     * @param user The user to be decremented.
      */
     public void decrementUser(NetWrapper user) {
-        usersConnectionCounts.compute(user, (k,v) -> (v == 1) ? null : v - 1);
+        final int key = user.hashCode() + 1;
+        while (true) {
+            long current = users;
+            if (current != MULTIPLE_USERS) {
+                assert(current != NO_USERS && getSingleUserKey(current) == key);
+                long next = (getSingleUserCount(current) == 1) ? NO_USERS : current - 1;
+                if (usersUpdater.compareAndSet(this, current, next)) {
+                    return;
+                }
+            } else if (decrementMultipleUsers(key - 1)) {
+                return;
+            }
+        }
+    }
+
+    private synchronized boolean decrementMultipleUsers(int id) {
+        if (users != MULTIPLE_USERS) {
+            return false;
+        }
+        multipleUsers.decrement(id);
+        if (multipleUsers.size() <= 1) {
+            // Deflate back to the inline representation; no compare-and-set needed since
+            // the multiple users state is only ever modified while holding this monitor
+            int remainingId = multipleUsers.anyId();
+            users = (remainingId == -1) ? NO_USERS :
+                    packSingleUser(remainingId + 1, multipleUsers.get(remainingId));
+            multipleUsers.clear();
+        }
+        return true;
     }
 
     /**
@@ -568,10 +709,20 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
      * @return The total number of connections of the user.
      */
     public int countConnectionsOfUser(NetWrapper user) {
-        if (usersConnectionCounts == null) {
+        long current = users;
+        if (current == NO_USERS) {
             return 0;
         }
-        return usersConnectionCounts.getOrDefault(user, 0);
+        if (current != MULTIPLE_USERS) {
+            return (getSingleUserKey(current) == user.hashCode() + 1) ? getSingleUserCount(current) : 0;
+        }
+        synchronized (this) {
+            if (users == MULTIPLE_USERS) {
+                return multipleUsers.get(user.hashCode());
+            }
+        }
+        // Deflated since, start again
+        return countConnectionsOfUser(user);
     }
 
     /**
@@ -631,6 +782,22 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
         return children != null ? children.length : 0;
     }
 
+    /**
+     * Gets the dense id of this rnode, assigned by its {@link RouteNodeGraph} in creation order.
+     * @return The rnode id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the dense id of this rnode. Only to be called by {@link RouteNodeGraph} on creation.
+     * @param id The rnode id.
+     */
+    protected void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Checks if a RouteNode instance has been visited by a specific connection sequence.
      * @param seq Connection sequence int.
@@ -657,13 +824,39 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
         visited = seq;
     }
 
+    /**
+     * Gets the position of this rnode inside the {@link RouteNodeHeap} that it is currently in.
+     * @return Heap index, or -1 if not in a heap.
+     */
+    public int getHeapIndex() {
+        return heapIndex;
+    }
+
+    /**
+     * Sets the position of this rnode inside a {@link RouteNodeHeap}.
+     * @param heapIndex Heap index, or -1 if no longer in a heap.
+     */
+    protected void setHeapIndex(int heapIndex) {
+        this.heapIndex = heapIndex;
+    }
+
     /**
      * Checks if a node is an exit node of a NodeGroup
      * @param node The node in question
      * @return true, if the node is a S/D/Q/L node or a local node with a GLOBAL and CTRL wire
      */
     public static boolean isExitNode(Node node) {
-        switch(node.getIntentCode()) {
+        return isExitNode(node.getIntentCode(), node.getWireName());
+    }
+
+    /**
+     * Checks if a node is an exit node of a NodeGroup, given the intent code and name of its base wire
+     * @param ic The intent code of the node
+     * @param wireName The base wire name of the node
+     * @return true, if the node is a S/D/Q/L node or a local node with a GLOBAL and CTRL wire
+     */
+    public static boolean isExitNode(IntentCode ic, String wireName) {
+        switch(ic) {
             case NODE_SINGLE:
             case NODE_DOUBLE:
             case NODE_HQUAD:
@@ -674,7 +867,7 @@ public class RouteNode extends Node implements Comparable<RouteNode> {
             case NODE_PINFEED:
                 return true;
             case NODE_LOCAL:
-                if (node.getWireName().contains("GLOBAL") || node.getWireName().contains("CTRL")) {
+                if (wireName.contains("GLOBAL") || wireName.contains("CTRL")) {
                     return true;
                 }
             default:
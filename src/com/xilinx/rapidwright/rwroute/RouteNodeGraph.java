@@ -23,6 +23,7 @@
 
 package com.xilinx.rapidwright.rwroute;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.EnumMap;
@@ -36,6 +37,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -70,6 +72,18 @@ public class RouteNodeGraph {
     protected final RouteNode[][] nodesMap;
     private final AtomicInteger nodesMapSize;
 
+    /**
+     * Persistent cache of device-dependent rnode information and downhill nodes,
+     * or null if not enabled
+     */
+    protected final RouteNodeGraphCache cache;
+
+    /**
+     * A previously saved routing state from which the historical congestion cost of
+     * newly created rnodes is seeded, or null if not used
+     */
+    private RoutingState routingState;
+
     /**
      * A map of preserved nodes to their nets
      */
@@ -133,6 +147,9 @@ public class RouteNodeGraph {
 
         this.nodesMap = new RouteNode[getTileCount(design)][];
         nodesMapSize = new AtomicInteger();
+        cache = (config.getRouteNodeGraphCacheDir() != null) ?
+                new RouteNodeGraphCache(design.getDevice(), config, Paths.get(config.getRouteNodeGraphCacheDir())) : null;
+        routingState = null;
         preservedMap = new AtomicReferenceArray<>(getTileCount(design));
         preservedMapSize = new AtomicInteger();
         asyncPreserveOutstanding = new CountUpDownLatch();
@@ -415,6 +432,40 @@ public class RouteNodeGraph {
     public void initialize() {
     }
 
+    /**
+     * Gets the X distance travelled between two tile columns via the closest Laguna column, which is the
+     * shortest X distance of any path that crosses an SLR boundary.
+     * @param fromX The tile column of the start.
+     * @param toX The tile column of the end.
+     * @return The X distance of the shortest detour via a Laguna column.
+     */
+    public int getLagunaDetourDeltaX(int fromX, int toX) {
+        int nextColumn = nextLagunaColumn[fromX];
+        int prevColumn = prevLagunaColumn[fromX];
+        int nextColumnDeltaX = (nextColumn == Integer.MAX_VALUE) ? Integer.MAX_VALUE :
+                Math.abs(nextColumn - fromX) + Math.abs(toX - nextColumn);
+        int prevColumnDeltaX = (prevColumn == Integer.MIN_VALUE) ? Integer.MAX_VALUE :
+                Math.abs(prevColumn - fromX) + Math.abs(toX - prevColumn);
+        int deltaX = Math.min(nextColumnDeltaX, prevColumnDeltaX);
+        assert(deltaX >= Math.abs(toX - fromX) && deltaX < Integer.MAX_VALUE);
+        return deltaX;
+    }
+
+    /**
+     * Gets the Y distance travelled between two tiles in different SLRs.
+     * When the tiles are in adjacent SLRs and less than a Super Long Line's length apart in the Y axis,
+     * the SLL overshoots the end tile and the overshoot must be travelled back.
+     * @param deltaY The absolute Y distance between the two tiles.
+     * @param deltaSLR The absolute difference between the SLR indices of the two tiles.
+     * @return The Y distance of the shortest path between the two tiles.
+     */
+    public static int getCrossSLRDeltaY(int deltaY, int deltaSLR) {
+        if (deltaSLR == 1 && deltaY < SUPER_LONG_LINE_LENGTH_IN_TILES) {
+            return 2 * SUPER_LONG_LINE_LENGTH_IN_TILES - deltaY;
+        }
+        return deltaY;
+    }
+
     /*
      * Return the maximum base wire index across all Nodes in this tile
      */
@@ -462,9 +513,20 @@ public class RouteNodeGraph {
     }
 
     public void preserve(Net net, List<SitePinInst> pins) {
+        forEachNodeToPreserve(net, pins, (node) -> preserve(node, net));
+    }
+
+    /**
+     * Visits all nodes that {@link #preserve(Net, List)} would preserve for the given net and pins:
+     * the nodes connected to each pin and the start and end nodes of all the net's PIPs.
+     * @param net The net.
+     * @param pins The pins of the net to be preserved.
+     * @param action The action to be performed on each node (nodes may be visited more than once).
+     */
+    public void forEachNodeToPreserve(Net net, List<SitePinInst> pins, Consumer<Node> action) {
         boolean isStaticNet = net.isStaticNet();
         for (SitePinInst pin : pins) {
-            preserve(pin.getConnectedNode(), net);
+            action.accept(pin.getConnectedNode());
 
             if (isStaticNet && pin.isOutPin()) {
                 // When a LUT output is used as a static source, also preserve the other pin
@@ -487,21 +549,75 @@ public class RouteNodeGraph {
                 }
 
                 Node otherNode = si.getSite().getConnectedNode(otherPinName);
-                preserve(otherNode, net);
+                action.accept(otherNode);
             }
         }
 
         for (PIP pip : net.getPIPs()) {
-            preserve(pip.getStartNode(), net);
-            preserve(pip.getEndNode(), net);
+            action.accept(pip.getStartNode());
+            action.accept(pip.getEndNode());
+        }
+    }
+
+    /**
+     * Preserves the given nodes, as previously recorded by a {@link RoutingState}, for a net.
+     * This avoids re-examining the net's pins and PIPs when these are known to be unchanged.
+     * @param net The net to be preserved.
+     * @param state The routing state from which the node keys were obtained.
+     * @param nodeKeys The keys of the (base wire of the) nodes to be preserved.
+     */
+    public void preserve(Net net, RoutingState state, long[] nodeKeys) {
+        for (long key : nodeKeys) {
+            if (preserve(state.getTile(key), RoutingState.getWireIndex(key), net) == null) {
+                preservedMapSize.incrementAndGet();
+            }
         }
     }
 
+    /**
+     * Preserves a net using the nodes recorded for it by a {@link RoutingState} if its PIPs and pins
+     * are unchanged since the state was saved, or else from its pins and PIPs.
+     * @param net The net to be preserved.
+     * @param pins The pins of the net to be preserved.
+     * @param state The routing state.
+     * @return True if the nodes recorded by the routing state were used.
+     */
+    public boolean preserve(Net net, List<SitePinInst> pins, RoutingState state) {
+        long[] nodeKeys = state.getPreservedNodes(net);
+        if (nodeKeys == null) {
+            preserve(net, pins);
+            return false;
+        }
+        preserve(net, state, nodeKeys);
+        return true;
+    }
+
+    /**
+     * Asynchronous version of {@link #preserve(Net, List, RoutingState)}, which also checks whether the net
+     * is unchanged asynchronously.
+     * @param net The net to be preserved.
+     * @param pins The pins of the net to be preserved.
+     * @param state The routing state.
+     * @param numPreservedFromState Counter incremented if the nodes recorded by the routing state were used.
+     */
+    public void preserveAsync(Net net, List<SitePinInst> pins, RoutingState state,
+                              AtomicInteger numPreservedFromState) {
+        submitPreserve(() -> {
+            if (preserve(net, pins, state)) {
+                numPreservedFromState.incrementAndGet();
+            }
+        });
+    }
+
     public void preserveAsync(Net net, List<SitePinInst> pins) {
+        submitPreserve(() -> preserve(net, pins));
+    }
+
+    private void submitPreserve(Runnable preserve) {
         asyncPreserveOutstanding.countUp();
         ParallelismTools.submit(() -> {
             try {
-                preserve(net, pins);
+                preserve.run();
             } catch (Throwable t) {
                 t.printStackTrace();
             } finally {
@@ -739,12 +855,76 @@ public class RouteNodeGraph {
         RouteNode rnode = rnodes[wireIndex];
         if (rnode == null) {
             rnode = create(node, type);
+            // Ids are dense and allocated in creation order
+            rnode.setId(nodesMapSize.getAndIncrement());
+            if (routingState != null) {
+                rnode.setHistoricalCongestionCost(routingState.getHistoricalCongestionCost(tileAddress, wireIndex));
+            }
             rnodes[wireIndex] = rnode;
-            nodesMapSize.incrementAndGet();
         }
         return rnode;
     }
 
+    /**
+     * Sets a previously saved routing state, from which the historical congestion cost of
+     * all rnodes created from now on is seeded.
+     * @param routingState The routing state, or null to not seed historical congestion costs.
+     */
+    public void setRoutingState(RoutingState routingState) {
+        this.routingState = routingState;
+    }
+
+    /**
+     * Gets the {@link RouteNodeInfo} of a node, from the persistent cache if enabled and available.
+     * @param node The node in question.
+     * @return The RouteNodeInfo of this node.
+     */
+    protected RouteNodeInfo getRouteNodeInfo(Node node) {
+        if (cache == null) {
+            return RouteNodeInfo.get(node, this);
+        }
+        RouteNodeInfo info = cache.getRouteNodeInfo(node);
+        if (info == null) {
+            info = RouteNodeInfo.get(node, this);
+            cache.putRouteNodeInfo(node, info);
+        }
+        return info;
+    }
+
+    /**
+     * Gets all downhill nodes of a node, from the persistent cache if enabled and available.
+     * @param node The node in question.
+     * @return A list of all downhill nodes.
+     */
+    protected List<Node> getAllDownhillNodes(Node node) {
+        if (cache == null) {
+            return node.getAllDownhillNodes();
+        }
+        List<Node> downhillNodes = cache.getDownhillNodes(node);
+        if (downhillNodes == null) {
+            downhillNodes = node.getAllDownhillNodes();
+            cache.putDownhillNodes(node, downhillNodes);
+        }
+        return downhillNodes;
+    }
+
+    /**
+     * Gets the persistent cache used by this graph.
+     * @return The cache, or null if not enabled.
+     */
+    public RouteNodeGraphCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Writes any newly computed entries back to the persistent cache, if enabled.
+     */
+    public void saveCache() {
+        if (cache != null) {
+            cache.save();
+        }
+    }
+
     public int averageChildren() {
         int sum = 0;
         for (RouteNode rnode : getRnodes()) {
@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.device.Device;
+import com.xilinx.rapidwright.device.Node;
+import com.xilinx.rapidwright.device.Tile;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A persistent, per-device cache of the device-dependent parts of the routing resource graph:
+ * the {@link RouteNodeInfo} of each node and its (unfiltered) downhill nodes.
+ * The cache file is memory-mapped when opened and queried lazily; any node not found in the file
+ * is computed live by the caller and recorded via {@link #putRouteNodeInfo(Node, RouteNodeInfo)} and
+ * {@link #putDownhillNodes(Node, List)} so that {@link #save()} can write a new file containing the union
+ * of the existing and newly computed entries.
+ * The file is versioned, and records the device name and those {@link RWRouteConfig} options that affect the
+ * routing resource graph; a file that does not match is ignored (and replaced on save).
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   int magic, int version, short+bytes deviceName, short+bytes optionsKey, int numEntries, int tableCapacity
+ *   tableCapacity * (long nodeKey, int recordOffset)   -- open-addressed hash table, nodeKey -1 is empty
+ *   records: byte flags,
+ *            [byte type, short endTileXCoordinate, short endTileYCoordinate, short length] if HAS_INFO,
+ *            [int numDownhill, numDownhill * long nodeKey] if HAS_DOWNHILL
+ * </pre>
+ * where each nodeKey is the unique address of the node's base tile in the upper 32 bits and its base wire index
+ * in the lower 32 bits.
+ */
+public class RouteNodeGraphCache {
+    private static final int MAGIC = 0x52574743; // "RWGC"
+    /** Version of the file format, to be incremented on any change to the format or to what is cached */
+    public static final int VERSION = 1;
+    public static final String FILE_EXTENSION = ".rwgc";
+
+    private static final long EMPTY_KEY = -1L;
+    private static final int TABLE_ENTRY_BYTES = 12;
+    private static final byte HAS_INFO = 1;
+    private static final byte HAS_DOWNHILL = 2;
+    private static final int INFO_BYTES = 7;
+    private static final RouteNodeType[] ROUTE_NODE_TYPES = RouteNodeType.values();
+
+    private final Path path;
+    private final String deviceName;
+    private final String optionsKey;
+    /** Tiles indexed by their unique address, for decoding node keys */
+    private final Tile[] tiles;
+
+    /** The memory-mapped contents of an existing, valid cache file, or null */
+    private final MappedByteBuffer buffer;
+    private final int numEntries;
+    private final int tableCapacity;
+    private final int tableStart;
+
+    /** Entries computed live during this session that are not (fully) present in the mapped file */
+    private final Map<Long, Entry> added;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    private static class Entry {
+        volatile RouteNodeInfo info;
+        volatile long[] downhill;
+    }
+
+    /**
+     * Opens (or prepares to create) the cache file for the given device and options.
+     * @param device The device.
+     * @param config The router configuration, from which options affecting the routing resource graph are taken.
+     * @param directory The directory in which cache files are kept.
+     */
+    public RouteNodeGraphCache(Device device, RWRouteConfig config, Path directory) {
+        deviceName = device.getName();
+        optionsKey = getOptionsKey(config);
+        path = directory.resolve(deviceName + "_" + Integer.toHexString(optionsKey.hashCode()) + FILE_EXTENSION);
+        tiles = new Tile[device.getColumns() * device.getRows()];
+        for (Tile tile : device.getAllTiles()) {
+            tiles[tile.getUniqueAddress()] = tile;
+        }
+        added = new ConcurrentHashMap<>();
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+
+        MappedByteBuffer mapped = null;
+        int entries = 0;
+        int capacity = 0;
+        int start = 0;
+        if (Files.exists(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("file too large");
+                }
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int pos = 0;
+                if (mapped.getInt(pos) != MAGIC || mapped.getInt(pos + 4) != VERSION) {
+                    throw new IOException("unrecognized file or version");
+                }
+                pos += 8;
+                String fileDeviceName = readString(mapped, pos);
+                pos += 2 + mapped.getShort(pos);
+                String fileOptionsKey = readString(mapped, pos);
+                pos += 2 + mapped.getShort(pos);
+                if (!deviceName.equals(fileDeviceName) || !optionsKey.equals(fileOptionsKey)) {
+                    throw new IOException("device or options mismatch");
+                }
+                entries = mapped.getInt(pos);
+                capacity = mapped.getInt(pos + 4);
+                start = pos + 8;
+            } catch (IOException | RuntimeException e) {
+                System.out.println("WARNING: Ignoring routing graph cache file " + path + " (" + e.getMessage() + ")");
+                mapped = null;
+                entries = 0;
+                capacity = 0;
+                start = 0;
+            }
+        }
+        buffer = mapped;
+        numEntries = entries;
+        tableCapacity = capacity;
+        tableStart = start;
+    }
+
+    /**
+     * Gets the string encoding all options that affect the contents of the routing resource graph.
+     * @param config The router configuration.
+     * @return The options key.
+     */
+    public static String getOptionsKey(RWRouteConfig config) {
+        return "lutRoutethru=" + config.isLutRoutethru() + ";useUTurnNodes=" + config.isUseUTurnNodes();
+    }
+
+    private static String readString(MappedByteBuffer buffer, int pos) {
+        byte[] bytes = new byte[buffer.getShort(pos)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(pos + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dos.writeShort(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static long getKey(Tile tile, int wireIndex) {
+        return ((long) tile.getUniqueAddress() << 32) | wireIndex;
+    }
+
+    private static int hash(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private Node getNode(long key) {
+        return Node.getNode(tiles[(int) (key >>> 32)], (int) key);
+    }
+
+    /**
+     * Looks up a node key in the mapped hash table.
+     * @return Offset of its record, or -1 if not present.
+     */
+    private int find(long key) {
+        if (buffer == null) {
+            return -1;
+        }
+        int mask = tableCapacity - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            int pos = tableStart + slot * TABLE_ENTRY_BYTES;
+            long k = buffer.getLong(pos);
+            if (k == key) {
+                return buffer.getInt(pos + 8);
+            }
+            if (k == EMPTY_KEY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private RouteNodeInfo readInfo(int offset) {
+        if ((buffer.get(offset) & HAS_INFO) == 0) {
+            return null;
+        }
+        return new RouteNodeInfo(ROUTE_NODE_TYPES[buffer.get(offset + 1)],
+                buffer.getShort(offset + 2),
+                buffer.getShort(offset + 4),
+                buffer.getShort(offset + 6));
+    }
+
+    private long[] readDownhill(int offset) {
+        byte flags = buffer.get(offset);
+        if ((flags & HAS_DOWNHILL) == 0) {
+            return null;
+        }
+        int pos = offset + 1 + (((flags & HAS_INFO) != 0) ? INFO_BYTES : 0);
+        long[] downhill = new long[buffer.getInt(pos)];
+        pos += 4;
+        for (int i = 0; i < downhill.length; i++, pos += 8) {
+            downhill[i] = buffer.getLong(pos);
+        }
+        return downhill;
+    }
+
+    /**
+     * Gets the cached {@link RouteNodeInfo} of a node.
+     * @param node The node in question.
+     * @return The cached RouteNodeInfo, or null if not cached.
+     */
+    public RouteNodeInfo getRouteNodeInfo(Node node) {
+        long key = getKey(node.getTile(), node.getWireIndex());
+        Entry entry = added.get(key);
+        RouteNodeInfo info = (entry != null) ? entry.info : null;
+        if (info == null) {
+            int offset = find(key);
+            if (offset != -1) {
+                info = readInfo(offset);
+            }
+        }
+        (info != null ? hits : misses).incrementAndGet();
+        return info;
+    }
+
+    /**
+     * Records the {@link RouteNodeInfo} of a node that was computed live.
+     * @param node The node in question.
+     * @param info Its RouteNodeInfo.
+     */
+    public void putRouteNodeInfo(Node node, RouteNodeInfo info) {
+        added.computeIfAbsent(getKey(node.getTile(), node.getWireIndex()), k -> new Entry()).info = info;
+    }
+
+    /**
+     * Gets the cached downhill nodes of a node, as would be returned by {@link Node#getAllDownhillNodes()}.
+     * @param node The node in question.
+     * @return A list of downhill nodes, or null if not cached.
+     */
+    public List<Node> getDownhillNodes(Node node) {
+        long key = getKey(node.getTile(), node.getWireIndex());
+        Entry entry = added.get(key);
+        long[] downhill = (entry != null) ? entry.downhill : null;
+        if (downhill == null) {
+            int offset = find(key);
+            if (offset != -1) {
+                downhill = readDownhill(offset);
+            }
+        }
+        if (downhill == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        List<Node> nodes = new ArrayList<>(downhill.length);
+        for (long k : downhill) {
+            nodes.add(getNode(k));
+        }
+        return nodes;
+    }
+
+    /**
+     * Records the downhill nodes of a node that were computed live.
+     * @param node The node in question.
+     * @param downhillNodes Its downhill nodes.
+     */
+    public void putDownhillNodes(Node node, List<Node> downhillNodes) {
+        long[] downhill = new long[downhillNodes.size()];
+        for (int i = 0; i < downhill.length; i++) {
+            Node downhillNode = downhillNodes.get(i);
+            downhill[i] = getKey(downhillNode.getTile(), downhillNode.getWireIndex());
+        }
+        added.computeIfAbsent(getKey(node.getTile(), node.getWireIndex()), k -> new Entry()).downhill = downhill;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private static int getRecordSize(RouteNodeInfo info, long[] downhill) {
+        int size = 1;
+        if (info != null) {
+            size += INFO_BYTES;
+        }
+        if (downhill != null) {
+            size += 4 + 8 * downhill.length;
+        }
+        return size;
+    }
+
+    /**
+     * Writes a new cache file containing all entries from the existing file together with those
+     * computed during this session, if any. The new file is written to a temporary file before
+     * replacing the existing one, so that concurrent readers never see a partially written file.
+     */
+    public void save() {
+        if (added.isEmpty()) {
+            return;
+        }
+
+        // Gather the union of all keys, with those from the existing file first
+        List<Long> keys = new ArrayList<>(numEntries + added.size());
+        for (int slot = 0; slot < tableCapacity; slot++) {
+            long key = buffer.getLong(tableStart + slot * TABLE_ENTRY_BYTES);
+            if (key != EMPTY_KEY) {
+                keys.add(key);
+            }
+        }
+        for (Long key : added.keySet()) {
+            if (find(key) == -1) {
+                keys.add(key);
+            }
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(keys.size(), 1)) << 2;
+        long[] tableKeys = new long[capacity];
+        int[] tableOffsets = new int[capacity];
+        Arrays.fill(tableKeys, EMPTY_KEY);
+
+        byte[] deviceNameBytes = deviceName.getBytes(StandardCharsets.UTF_8);
+        byte[] optionsKeyBytes = optionsKey.getBytes(StandardCharsets.UTF_8);
+        long offset = 8 + 2 + deviceNameBytes.length + 2 + optionsKeyBytes.length + 8 + (long) capacity * TABLE_ENTRY_BYTES;
+        RouteNodeInfo[] infos = new RouteNodeInfo[keys.size()];
+        long[][] downhills = new long[keys.size()][];
+        for (int i = 0; i < keys.size(); i++) {
+            long key = keys.get(i);
+            Entry entry = added.get(key);
+            int fileOffset = find(key);
+            RouteNodeInfo info = (entry != null) ? entry.info : null;
+            long[] downhill = (entry != null) ? entry.downhill : null;
+            if (info == null && fileOffset != -1) {
+                info = readInfo(fileOffset);
+            }
+            if (downhill == null && fileOffset != -1) {
+                downhill = readDownhill(fileOffset);
+            }
+            infos[i] = info;
+            downhills[i] = downhill;
+
+            int slot = hash(key) & (capacity - 1);
+            while (tableKeys[slot] != EMPTY_KEY) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            tableKeys[slot] = key;
+            tableOffsets[slot] = (int) offset;
+            offset += getRecordSize(info, downhill);
+            if (offset > Integer.MAX_VALUE) {
+                System.out.println("WARNING: Routing graph cache exceeds maximum size, not saving " + path);
+                return;
+            }
+        }
+
+        Path tmpPath = null;
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            tmpPath = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath), 1 << 20))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                writeString(dos, deviceName);
+                writeString(dos, optionsKey);
+                dos.writeInt(keys.size());
+                dos.writeInt(capacity);
+                for (int slot = 0; slot < capacity; slot++) {
+                    dos.writeLong(tableKeys[slot]);
+                    dos.writeInt(tableOffsets[slot]);
+                }
+                for (int i = 0; i < keys.size(); i++) {
+                    RouteNodeInfo info = infos[i];
+                    long[] downhill = downhills[i];
+                    dos.writeByte((info != null ? HAS_INFO : 0) | (downhill != null ? HAS_DOWNHILL : 0));
+                    if (info != null) {
+                        dos.writeByte(info.type.ordinal());
+                        dos.writeShort(info.endTileXCoordinate);
+                        dos.writeShort(info.endTileYCoordinate);
+                        dos.writeShort(info.length);
+                    }
+                    if (downhill != null) {
+                        dos.writeInt(downhill.length);
+                        for (long k : downhill) {
+                            dos.writeLong(k);
+                        }
+                    }
+                }
+            }
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("WARNING: Unable to save routing graph cache file " + path + " (" + e.getMessage() + ")");
+            try {
+                if (tmpPath != null) {
+                    Files.deleteIfExists(tmpPath);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
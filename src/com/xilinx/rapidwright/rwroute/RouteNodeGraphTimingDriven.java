@@ -41,6 +41,8 @@ import java.util.Set;
 public class RouteNodeGraphTimingDriven extends RouteNodeGraph {
     /** The instantiated delayEstimator to compute delays */
     protected final DelayEstimatorBase delayEstimator;
+    /** The table of precomputed node delays, or null if delays are computed by the delayEstimator */
+    protected final NodeDelayTable nodeDelayTable;
     /** A flag to indicate if the routing resource exclusion should disable exclusion of nodes cross RCLK */
     protected final boolean maskNodesCrossRCLK;
 
@@ -80,6 +82,7 @@ public class RouteNodeGraphTimingDriven extends RouteNodeGraph {
         excludeAboveRclk = new HashSet<>();
         excludeBelowRclk = new HashSet<>();
         Device device = design.getDevice();
+        nodeDelayTable = config.isNodeDelayTable() ? NodeDelayTable.get(device, delayEstimator, config) : null;
         Tile intTile = device.getArbitraryTileOfType(TileTypeEnum.INT);
         String[] wireNames = intTile.getWireNames();
         for (int wireIndex = 0; wireIndex < intTile.getWireCount(); wireIndex++) {
@@ -103,7 +106,8 @@ public class RouteNodeGraphTimingDriven extends RouteNodeGraph {
 
         protected RouteNodeTimingDriven(RouteNodeGraphTimingDriven routingGraph, Node node, RouteNodeType type) {
             super(routingGraph, node, type);
-            delay = RouterHelper.computeNodeDelay(routingGraph.delayEstimator, node);
+            delay = (routingGraph.nodeDelayTable != null) ? routingGraph.nodeDelayTable.getDelay(node) :
+                    RouterHelper.computeNodeDelay(routingGraph.delayEstimator, node);
         }
 
         @Override
@@ -126,7 +130,7 @@ public class RouteNodeGraphTimingDriven extends RouteNodeGraph {
             s.append(", ");
             s.append(String.format("user = %s", getOccupancy()));
             s.append(", ");
-            s.append(getUsersConnectionCounts());
+            s.append(getUserIdsConnectionCounts());
             return s.toString();
         }
     }
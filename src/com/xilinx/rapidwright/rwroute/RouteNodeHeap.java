@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed 4-ary min-heap of {@link RouteNode} objects keyed on their lower bound total path cost,
+ * supporting an efficient decrease-key operation.
+ * Keys are captured into a primitive float array when a rnode is inserted (or has its key decreased)
+ * so that sifting does not need to dereference any rnodes, and each rnode records its current position
+ * inside the heap (see {@link RouteNode#getHeapIndex()}) so that it can be located in constant time.
+ * Backing arrays are grown on demand and retained across {@link #clear()} calls so that, once warmed up,
+ * pushing and polling do not allocate.
+ * As with {@link RouteNode#getVisited()}, the heap index is stored on the rnode itself, so an rnode must
+ * only be present in one heap at any one time.
+ */
+public class RouteNodeHeap extends AbstractQueue<RouteNode> {
+    private static final int ARITY = 4;
+    private static final int LOG2_ARITY = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private RouteNode[] rnodes;
+    private float[] keys;
+    private int size;
+
+    public RouteNodeHeap() {
+        rnodes = new RouteNode[INITIAL_CAPACITY];
+        keys = new float[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = rnodes.length << 1;
+        rnodes = Arrays.copyOf(rnodes, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    private void place(RouteNode rnode, float key, int index) {
+        rnodes[index] = rnode;
+        keys[index] = key;
+        rnode.setHeapIndex(index);
+    }
+
+    private void siftUp(RouteNode rnode, float key, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> LOG2_ARITY;
+            if (keys[parent] <= key) {
+                break;
+            }
+            place(rnodes[parent], keys[parent], index);
+            index = parent;
+        }
+        place(rnode, key, index);
+    }
+
+    private void siftDown(RouteNode rnode, float key, int index) {
+        while (true) {
+            int firstChild = (index << LOG2_ARITY) + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int minChild = firstChild;
+            float minKey = keys[firstChild];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (keys[child] < minKey) {
+                    minKey = keys[child];
+                    minChild = child;
+                }
+            }
+            if (key <= minKey) {
+                break;
+            }
+            place(rnodes[minChild], minKey, index);
+            index = minChild;
+        }
+        place(rnode, key, index);
+    }
+
+    /**
+     * Inserts an rnode (that is not already in this heap) using its current lower bound total path cost as key.
+     * @param rnode The rnode to insert.
+     * @return Always true.
+     */
+    @Override
+    public boolean offer(RouteNode rnode) {
+        assert(!contains(rnode));
+        if (size == rnodes.length) {
+            grow();
+        }
+        siftUp(rnode, rnode.getLowerBoundTotalPathCost(), size++);
+        return true;
+    }
+
+    /**
+     * Updates the position of an rnode already in this heap after its lower bound total path cost has been
+     * lowered.
+     * @param rnode The rnode whose key was decreased.
+     */
+    public void decreaseKey(RouteNode rnode) {
+        int index = rnode.getHeapIndex();
+        assert(index >= 0 && index < size && rnodes[index] == rnode);
+        float key = rnode.getLowerBoundTotalPathCost();
+        assert(key <= keys[index]);
+        siftUp(rnode, key, index);
+    }
+
+    @Override
+    public RouteNode poll() {
+        if (size == 0) {
+            return null;
+        }
+        RouteNode min = rnodes[0];
+        min.setHeapIndex(-1);
+        int last = --size;
+        if (last > 0) {
+            siftDown(rnodes[last], keys[last], 0);
+        }
+        rnodes[last] = null;
+        return min;
+    }
+
+    @Override
+    public RouteNode peek() {
+        return (size == 0) ? null : rnodes[0];
+    }
+
+    /**
+     * Checks if the given rnode is currently in this heap.
+     * @param o The rnode in question.
+     * @return True if present.
+     */
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof RouteNode)) {
+            return false;
+        }
+        RouteNode rnode = (RouteNode) o;
+        int index = rnode.getHeapIndex();
+        return index >= 0 && index < size && rnodes[index] == rnode;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            rnodes[i].setHeapIndex(-1);
+            rnodes[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Iterates over all rnodes in this heap, in no particular order.
+     */
+    @Override
+    public Iterator<RouteNode> iterator() {
+        return new Iterator<RouteNode>() {
+            int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public RouteNode next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return rnodes[index++];
+            }
+        };
+    }
+}
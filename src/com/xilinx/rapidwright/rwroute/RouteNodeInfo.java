@@ -36,10 +36,10 @@ public class RouteNodeInfo {
     public final short endTileYCoordinate;
     public final short length;
 
-    private RouteNodeInfo(RouteNodeType type,
-                          short endTileXCoordinate,
-                          short endTileYCoordinate,
-                          short length) {
+    RouteNodeInfo(RouteNodeType type,
+                  short endTileXCoordinate,
+                  short endTileYCoordinate,
+                  short length) {
         this.type = type;
         this.endTileXCoordinate = endTileXCoordinate;
         this.endTileYCoordinate = endTileYCoordinate;
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import java.util.Arrays;
+
+/**
+ * A small open-addressed table mapping {@link NetWrapper} ids to the number of connections of that net
+ * using a {@link RouteNode}, used by an rnode only once it has more than one user.
+ * Keys and counts are held in primitive arrays that are probed linearly and removed from using
+ * backward-shift deletion, so that no tombstones accumulate as users come and go during rip-up and reroute.
+ * This class is not thread-safe: it is guarded by the monitor of the rnode that owns it.
+ */
+class RouteNodeUsers {
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** NetWrapper id + 1 of each slot, or 0 if empty */
+    private int[] keys;
+    /** Connection count of each slot */
+    private int[] counts;
+    /** Number of occupied slots (i.e. unique users) */
+    private volatile int size;
+
+    RouteNodeUsers() {
+        keys = new int[INITIAL_CAPACITY];
+        counts = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    private static int hash(int key) {
+        return key * 0x9E3779B9;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == key || k == 0) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new int[oldKeys.length << 1];
+        counts = new int[oldKeys.length << 1];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int j = indexOf(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                counts[j] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Gets the connection count of a user.
+     * @param id The NetWrapper id of the user.
+     * @return Connection count, or 0 if not a user.
+     */
+    int get(int id) {
+        int i = indexOf(id + 1);
+        return (keys[i] == 0) ? 0 : counts[i];
+    }
+
+    /**
+     * Adds to the connection count of a user, inserting it if not present.
+     * @param id The NetWrapper id of the user.
+     * @param delta Number of connections to add (must be positive).
+     */
+    void add(int id, int delta) {
+        assert(delta > 0);
+        int key = id + 1;
+        int i = indexOf(key);
+        if (keys[i] == key) {
+            counts[i] += delta;
+            return;
+        }
+        // Keep the load factor at or below 1/2
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            i = indexOf(key);
+        }
+        keys[i] = key;
+        counts[i] = delta;
+        size++;
+    }
+
+    /**
+     * Decrements the connection count of a user, removing it if this was its last connection.
+     * @param id The NetWrapper id of the user, which must be present.
+     */
+    void decrement(int id) {
+        int key = id + 1;
+        int i = indexOf(key);
+        assert(keys[i] == key);
+        if (--counts[i] > 0) {
+            return;
+        }
+        // Backward-shift deletion
+        int mask = keys.length - 1;
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            int k = keys[j];
+            if (k == 0) {
+                break;
+            }
+            int home = hash(k) & mask;
+            // Move entry j into the hole if its home slot does not lie cyclically within (hole, j]
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = k;
+                counts[hole] = counts[j];
+                hole = j;
+            }
+        }
+        keys[hole] = 0;
+        counts[hole] = 0;
+        size--;
+    }
+
+    /**
+     * Gets the number of unique users.
+     * May be read without holding the owning rnode's monitor.
+     * @return Number of unique users.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the id of any one of the users, for use when only one remains.
+     * @return NetWrapper id of a user, or -1 if there are no users.
+     */
+    int anyId() {
+        for (int key : keys) {
+            if (key != 0) {
+                return key - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes all users, retaining the allocated capacity.
+     */
+    void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    /**
+     * Gets all users and their connection counts.
+     * @return An array of alternating NetWrapper ids and connection counts.
+     */
+    int[] toArray() {
+        int[] array = new int[size * 2];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                array[n++] = keys[i] - 1;
+                array[n++] = counts[i];
+            }
+        }
+        return array;
+    }
+}
@@ -0,0 +1,532 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.design.Design;
+import com.xilinx.rapidwright.device.Device;
+import com.xilinx.rapidwright.device.IntentCode;
+import com.xilinx.rapidwright.device.Node;
+import com.xilinx.rapidwright.device.Tile;
+import com.xilinx.rapidwright.device.TileTypeEnum;
+import com.xilinx.rapidwright.timing.delayestimator.DelayEstimatorBase;
+import com.xilinx.rapidwright.timing.delayestimator.InterconnectInfo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A precomputed, per-device router lookahead that estimates the remaining wirelength and delay
+ * from a routing node to a sink, in place of the Manhattan distance estimate used by default.
+ * For each {@link IntentCode} and each SLR distance (deltaSLR) up to {@link #MAX_DELTA_SLR}, the lookahead
+ * holds a table of the minimum wirelength and delay needed to reach a node beginning in a tile
+ * (deltaX, deltaY) tiles away from the end tile of a node with that intent code, for deltas up to a fixed range.
+ * Within an SLR, deltaX and deltaY are the absolute tile distances. Across adjacent SLRs, they are the
+ * distances used by {@link RWRoute} for SLR crossings (see {@link RouteNodeGraph#getLagunaDetourDeltaX(int, int)}
+ * and {@link RouteNodeGraph#getCrossSLRDeltaY(int, int)}), with deltaY offset by the length of a Super Long Line.
+ * Tables are built offline by running Dijkstra searches over the {@link RouteNodeGraph} from a sample
+ * of nodes of each intent code in INT tiles near the center of the first SLR and, on multi-SLR devices, near its
+ * Laguna columns at the boundary with the second SLR: one search minimizing wirelength and one minimizing delay,
+ * each recording the minimum cost to reach each tile. The minimum over all samples is stored (rather than the mean)
+ * so that, for the sampled nodes, the estimate never exceeds the true remaining cost and the A* search in
+ * {@link RWRoute} stays admissible. Delays are stored in the unit of the delay estimate in {@link RWRoute}
+ * (see {@link #DELAY_SCALE}).
+ * Beyond the range of the table, the estimate is extended by the Manhattan distance estimate; for intent codes,
+ * SLR distances or deltas that were not sampled, it falls back to the Manhattan distance estimate.
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   int magic, int version, UTF deviceName, int range, int numDeltaSLRs, int numIntentCodes
+ *   numDeltaSLRs * numIntentCodes * (byte present, [(range+1)^2 * float wirelength, (range+1)^2 * float delay] if present)
+ * </pre>
+ * where each table is indexed by deltaY * (range + 1) + deltaX.
+ */
+public class RouterLookahead {
+    private static final int MAGIC = 0x52574c41; // "RWLA"
+    /** Version of the file format, to be incremented on any change to the format or to how tables are built */
+    public static final int VERSION = 3;
+    public static final String FILE_EXTENSION = ".rwla";
+
+    /** Default maximum deltaX/deltaY covered by the tables */
+    public static final int DEFAULT_RANGE = 12;
+    /** Default maximum number of sampled nodes per intent code */
+    public static final int DEFAULT_SAMPLES = 8;
+    /** Maximum number of INT tiles from which nodes are sampled */
+    private static final int MAX_SAMPLE_TILES = 16;
+    /** Maximum deltaSLR covered by the tables */
+    public static final int MAX_DELTA_SLR = 1;
+
+    /** Estimated delay per tile travelled in the X and Y directions, used when no table entry exists */
+    public static final float DELAY_PER_TILE_X = 0.32f;
+    public static final float DELAY_PER_TILE_Y = 0.16f;
+    /**
+     * Scale from the delay of rnodes (in ps) to the unit of the delay estimate, which is the unit that
+     * {@link #DELAY_PER_TILE_X} and {@link #DELAY_PER_TILE_Y} are expressed in: {@link RWRoute} weighs
+     * the delay of the partial path per 100 ps.
+     */
+    public static final float DELAY_SCALE = 0.01f;
+
+    private static final IntentCode[] INTENT_CODES = IntentCode.values();
+
+    private final String deviceName;
+    private final int range;
+    /** Minimum wirelength, indexed by deltaSLR, intent code ordinal then table index; null if not sampled */
+    private final float[][][] wirelength;
+    /** Minimum delay, indexed by deltaSLR, intent code ordinal then table index; null if not sampled */
+    private final float[][][] delay;
+
+    private RouterLookahead(String deviceName, int range) {
+        this.deviceName = deviceName;
+        this.range = range;
+        wirelength = new float[MAX_DELTA_SLR + 1][INTENT_CODES.length][];
+        delay = new float[MAX_DELTA_SLR + 1][INTENT_CODES.length][];
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public int getRange() {
+        return range;
+    }
+
+    /**
+     * Checks if a table exists for the given intent code and SLR distance.
+     * @param intentCode The intent code.
+     * @param deltaSLR The absolute difference between the SLR indices of the node and the sink.
+     * @return True if nodes of this intent code were sampled at this SLR distance.
+     */
+    public boolean hasTable(IntentCode intentCode, int deltaSLR) {
+        return deltaSLR <= MAX_DELTA_SLR && wirelength[deltaSLR][intentCode.ordinal()] != null;
+    }
+
+    private int getIndex(int deltaX, int deltaY) {
+        return deltaY * (range + 1) + deltaX;
+    }
+
+    /**
+     * Gets the deltaY at which the tables for an SLR distance start.
+     */
+    private static int getBaseDeltaY(int deltaSLR) {
+        return (deltaSLR == 0) ? 0 : RouteNodeGraph.SUPER_LONG_LINE_LENGTH_IN_TILES;
+    }
+
+    /**
+     * Looks up a table, extending the value found by the given per-tile cost beyond its range.
+     * @return The estimate, or NaN if there is no table or table entry.
+     */
+    private float lookup(float[][][] tables, IntentCode intentCode, int deltaSLR, int deltaX, int deltaY,
+                         float perTileX, float perTileY) {
+        if (deltaSLR > MAX_DELTA_SLR) {
+            return Float.NaN;
+        }
+        float[] table = tables[deltaSLR][intentCode.ordinal()];
+        deltaY -= getBaseDeltaY(deltaSLR);
+        if (table == null || deltaY < 0) {
+            return Float.NaN;
+        }
+        int x = Math.min(deltaX, range);
+        int y = Math.min(deltaY, range);
+        return table[getIndex(x, y)] + (deltaX - x) * perTileX + (deltaY - y) * perTileY;
+    }
+
+    /**
+     * Gets a lower bound on the wirelength from the end of a node to a sink.
+     * @param intentCode Intent code of the node.
+     * @param deltaSLR Absolute difference between the SLR indices of the node and the sink.
+     * @param deltaX X distance (in tiles) between the node's end tile and the sink's begin tile, including
+     * any detour via a Laguna column when crossing SLRs.
+     * @param deltaY Y distance (in tiles) between the node's end tile and the sink's begin tile, including
+     * any overshoot of a Super Long Line when crossing SLRs.
+     * @return The estimated wirelength.
+     */
+    public float getWirelength(IntentCode intentCode, int deltaSLR, int deltaX, int deltaY) {
+        float value = lookup(wirelength, intentCode, deltaSLR, deltaX, deltaY, 1, 1);
+        return Float.isNaN(value) ? deltaX + deltaY : value;
+    }
+
+    /**
+     * Gets a lower bound on the delay from the end of a node to a sink, in the unit of {@link #DELAY_PER_TILE_X}.
+     * @param intentCode Intent code of the node.
+     * @param deltaSLR Absolute difference between the SLR indices of the node and the sink.
+     * @param deltaX X distance (in tiles) between the node's end tile and the sink's begin tile, including
+     * any detour via a Laguna column when crossing SLRs.
+     * @param deltaY Y distance (in tiles) between the node's end tile and the sink's begin tile, including
+     * any overshoot of a Super Long Line when crossing SLRs.
+     * @return The estimated delay.
+     */
+    public float getDelay(IntentCode intentCode, int deltaSLR, int deltaX, int deltaY) {
+        float value = lookup(delay, intentCode, deltaSLR, deltaX, deltaY, DELAY_PER_TILE_X, DELAY_PER_TILE_Y);
+        return Float.isNaN(value) ? deltaX * DELAY_PER_TILE_X + deltaY * DELAY_PER_TILE_Y : value;
+    }
+
+    private static class SearchEntry {
+        final RouteNode rnode;
+        final float cost;
+
+        SearchEntry(RouteNode rnode, float cost) {
+            this.rnode = rnode;
+            this.cost = cost;
+        }
+    }
+
+    private static final Comparator<SearchEntry> SEARCH_ENTRY_COMPARATOR = (a, b) -> Float.compare(a.cost, b.cost);
+
+    /**
+     * Scratch state for the Dijkstra searches used to build the tables, indexed by rnode id.
+     */
+    private static class SearchState {
+        int[] stamp = new int[0];
+        float[] cost = new float[0];
+        int currentStamp = 0;
+
+        void ensureCapacity(int size) {
+            if (stamp.length < size) {
+                int newSize = Math.max(size, stamp.length * 2);
+                stamp = Arrays.copyOf(stamp, newSize);
+                cost = Arrays.copyOf(cost, newSize);
+            }
+        }
+    }
+
+    private static int getSLRIndex(RouteNodeGraph routingGraph, int y) {
+        return (y >= 0 && y < routingGraph.intYToSLRIndex.length) ? routingGraph.intYToSLRIndex[y] : -1;
+    }
+
+    /**
+     * Gets the index into the table of the given SLR distance for a tile reached from the origin.
+     * @return The table index, or -1 if the tile is not covered by the tables.
+     */
+    private int getTableIndex(RouteNodeGraph routingGraph, int deltaSLR, int originX, int originY, int x, int y) {
+        int deltaX = Math.abs(x - originX);
+        int deltaY = Math.abs(y - originY);
+        if (deltaSLR != 0) {
+            if (routingGraph.nextLagunaColumn == null) {
+                return -1;
+            }
+            deltaX = routingGraph.getLagunaDetourDeltaX(originX, x);
+            deltaY = RouteNodeGraph.getCrossSLRDeltaY(deltaY, deltaSLR) - getBaseDeltaY(deltaSLR);
+        }
+        return (deltaX <= range && deltaY >= 0 && deltaY <= range) ? getIndex(deltaX, deltaY) : -1;
+    }
+
+    /**
+     * Checks if the search may expand into a tile, i.e. if it is within range of the origin (or, in an adjacent SLR,
+     * within range of where a Super Long Line from near the origin lands).
+     */
+    private boolean isWithinSearchRegion(int deltaSLR, int originX, int originY, int x, int y) {
+        if (deltaSLR > MAX_DELTA_SLR || Math.abs(x - originX) > range) {
+            return false;
+        }
+        return Math.abs(Math.abs(y - originY) - getBaseDeltaY(deltaSLR)) <= range;
+    }
+
+    /**
+     * Runs a Dijkstra search minimizing either wirelength or delay from the given source rnode, confined to
+     * tiles within range of the source's end tile, and records the minimum cost to reach each tile
+     * (relative to the source's end tile) into the given tables, indexed by deltaSLR.
+     */
+    private void search(RouteNodeGraph routingGraph, RouteNode source, SearchState state,
+                        boolean minimizeDelay, float[][] minCost) {
+        final int originX = source.getEndTileXCoordinate();
+        final int originY = source.getEndTileYCoordinate();
+        final int originSLR = getSLRIndex(routingGraph, originY);
+        final int stamp = ++state.currentStamp;
+        for (float[] table : minCost) {
+            Arrays.fill(table, Float.NaN);
+        }
+
+        PriorityQueue<SearchEntry> queue = new PriorityQueue<>(SEARCH_ENTRY_COMPARATOR);
+        state.ensureCapacity(routingGraph.numNodes());
+        state.stamp[source.getId()] = stamp;
+        state.cost[source.getId()] = 0;
+        queue.add(new SearchEntry(source, 0));
+        while (!queue.isEmpty()) {
+            SearchEntry entry = queue.poll();
+            RouteNode rnode = entry.rnode;
+            if (entry.cost != state.cost[rnode.getId()]) {
+                // Stale entry
+                continue;
+            }
+
+            if (rnode != source) {
+                int x = rnode.getBeginTileXCoordinate();
+                int y = rnode.getBeginTileYCoordinate();
+                int deltaSLR = Math.abs(getSLRIndex(routingGraph, y) - originSLR);
+                int index = (deltaSLR <= MAX_DELTA_SLR) ?
+                        getTableIndex(routingGraph, deltaSLR, originX, originY, x, y) : -1;
+                if (index >= 0 && !(minCost[deltaSLR][index] <= entry.cost)) {
+                    minCost[deltaSLR][index] = entry.cost;
+                }
+            }
+
+            // The source's own wirelength and delay are accounted for by the router before the lookahead
+            float childCost = entry.cost;
+            if (rnode != source) {
+                childCost += minimizeDelay ? rnode.getDelay() * DELAY_SCALE : rnode.getLength();
+            }
+            for (RouteNode child : rnode.getChildren(routingGraph)) {
+                int x = child.getBeginTileXCoordinate();
+                int y = child.getBeginTileYCoordinate();
+                int deltaSLR = Math.abs(getSLRIndex(routingGraph, y) - originSLR);
+                if (!isWithinSearchRegion(deltaSLR, originX, originY, x, y)) {
+                    continue;
+                }
+                int childId = child.getId();
+                state.ensureCapacity(childId + 1);
+                if (state.stamp[childId] == stamp && state.cost[childId] <= childCost) {
+                    continue;
+                }
+                state.stamp[childId] = stamp;
+                state.cost[childId] = childCost;
+                queue.add(new SearchEntry(child, childCost));
+            }
+        }
+    }
+
+    /**
+     * Gets INT tiles in the first SLR, in order of increasing distance from the center of that SLR
+     * (or from the center of its top edge).
+     * @param lagunaColumnsOnly True to only get tiles in columns next to Laguna tiles.
+     * @param atTopOfSLR True to order by distance from the center of the top edge of the SLR.
+     */
+    private static List<Tile> getSampleTiles(Device device, RouteNodeGraph routingGraph, boolean lagunaColumnsOnly,
+                                             boolean atTopOfSLR) {
+        List<Tile> intTiles = new ArrayList<>();
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+        for (Tile tile : device.getAllTiles()) {
+            if (tile.getTileTypeEnum() != TileTypeEnum.INT || tile.getSLR().getId() != 0) {
+                continue;
+            }
+            minX = Math.min(minX, tile.getTileXCoordinate());
+            maxX = Math.max(maxX, tile.getTileXCoordinate());
+            minY = Math.min(minY, tile.getTileYCoordinate());
+            maxY = Math.max(maxY, tile.getTileYCoordinate());
+            if (lagunaColumnsOnly && routingGraph.nextLagunaColumn[tile.getTileXCoordinate()] != tile.getTileXCoordinate()) {
+                continue;
+            }
+            intTiles.add(tile);
+        }
+        final int centerX = (minX + maxX) / 2;
+        final int centerY = atTopOfSLR ? maxY : (minY + maxY) / 2;
+        intTiles.sort(Comparator.comparingInt((t) ->
+                Math.abs(t.getTileXCoordinate() - centerX) + Math.abs(t.getTileYCoordinate() - centerY)));
+        return intTiles.subList(0, Math.min(intTiles.size(), MAX_SAMPLE_TILES));
+    }
+
+    /**
+     * Samples nodes of each intent code in the given tiles, and merges the minimum costs found from each into
+     * the tables.
+     * @param deltaSLR The SLR distance that samples are counted against (others are merged but not counted).
+     */
+    private void sample(RouteNodeGraph routingGraph, List<Tile> tiles, int maxSamples, int deltaSLR) {
+        final int tableSize = (range + 1) * (range + 1);
+        int[] numSamples = new int[INTENT_CODES.length];
+        float[][] minWirelength = new float[MAX_DELTA_SLR + 1][tableSize];
+        float[][] minDelay = new float[MAX_DELTA_SLR + 1][tableSize];
+        SearchState state = new SearchState();
+
+        for (Tile tile : tiles) {
+            for (int wireIndex = 0; wireIndex < tile.getWireCount(); wireIndex++) {
+                Node node = Node.getNode(tile, wireIndex);
+                if (node == null || node.isInvalidNode() || !node.getTile().equals(tile) || node.isTiedToVcc()) {
+                    continue;
+                }
+                int ic = node.getIntentCode().ordinal();
+                if (numSamples[ic] == maxSamples) {
+                    continue;
+                }
+                RouteNode source = routingGraph.getOrCreate(node);
+                search(routingGraph, source, state, false, minWirelength);
+                search(routingGraph, source, state, true, minDelay);
+                for (int dSLR = 0; dSLR <= MAX_DELTA_SLR; dSLR++) {
+                    merge(wirelength[dSLR], ic, minWirelength[dSLR]);
+                    merge(delay[dSLR], ic, minDelay[dSLR]);
+                }
+                for (float value : minWirelength[deltaSLR]) {
+                    if (!Float.isNaN(value)) {
+                        numSamples[ic]++;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps the minimum (not the mean) over all samples, so that the table remains a lower bound.
+     */
+    private static void merge(float[][] tables, int ic, float[] minCost) {
+        float[] table = tables[ic];
+        for (int i = 0; i < minCost.length; i++) {
+            if (Float.isNaN(minCost[i])) {
+                continue;
+            }
+            if (table == null) {
+                table = tables[ic] = new float[minCost.length];
+                Arrays.fill(table, Float.NaN);
+            }
+            if (!(table[i] <= minCost[i])) {
+                table[i] = minCost[i];
+            }
+        }
+    }
+
+    /**
+     * Builds the lookahead tables for a device.
+     * @param partName Name of a part of the device.
+     * @param range Maximum deltaX/deltaY to be covered by the tables.
+     * @param maxSamples Maximum number of nodes to sample for each intent code (and SLR distance).
+     * @return The lookahead.
+     */
+    public static RouterLookahead build(String partName, int range, int maxSamples) {
+        if (range < 0 || maxSamples <= 0) {
+            throw new IllegalArgumentException("ERROR: Invalid lookahead range " + range + " or samples " + maxSamples);
+        }
+        Design design = new Design("lookahead", partName);
+        Device device = design.getDevice();
+        RWRouteConfig config = new RWRouteConfig(null);
+        DelayEstimatorBase estimator = new DelayEstimatorBase(device, new InterconnectInfo(), config.isUseUTurnNodes(), 0);
+        RouteNodeGraph routingGraph = new RouteNodeGraphTimingDriven(design, config, estimator);
+        RouterLookahead lookahead = new RouterLookahead(device.getName(), range);
+
+        lookahead.sample(routingGraph, getSampleTiles(device, routingGraph, false, false), maxSamples, 0);
+        if (routingGraph.nextLagunaColumn != null && device.getNumOfSLRs() > 1) {
+            // Sample near the Laguna columns at the top of the first SLR to cover crossings into the second
+            lookahead.sample(routingGraph, getSampleTiles(device, routingGraph, true, true), maxSamples, 1);
+        }
+        return lookahead;
+    }
+
+    /**
+     * Writes this lookahead to a file.
+     * @param path The file to write.
+     */
+    public void save(Path path) {
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeUTF(deviceName);
+            dos.writeInt(range);
+            dos.writeInt(MAX_DELTA_SLR + 1);
+            dos.writeInt(INTENT_CODES.length);
+            for (int deltaSLR = 0; deltaSLR <= MAX_DELTA_SLR; deltaSLR++) {
+                for (int ic = 0; ic < INTENT_CODES.length; ic++) {
+                    dos.writeBoolean(wirelength[deltaSLR][ic] != null);
+                    if (wirelength[deltaSLR][ic] == null) {
+                        continue;
+                    }
+                    for (float value : wirelength[deltaSLR][ic]) {
+                        dos.writeFloat(value);
+                    }
+                    for (float value : delay[deltaSLR][ic]) {
+                        dos.writeFloat(value);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("ERROR: Unable to save router lookahead file " + path, e);
+        }
+    }
+
+    /**
+     * Reads a lookahead from a file.
+     * @param path The file to read.
+     * @param device The device that the lookahead is to be used with.
+     * @return The lookahead.
+     */
+    public static RouterLookahead load(Path path, Device device) {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (dis.readInt() != MAGIC) {
+                throw new RuntimeException("ERROR: " + path + " is not a router lookahead file.");
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new RuntimeException("ERROR: Router lookahead file " + path + " has version " + version +
+                        " but version " + VERSION + " is expected.");
+            }
+            String deviceName = dis.readUTF();
+            if (!deviceName.equals(device.getName())) {
+                throw new RuntimeException("ERROR: Router lookahead file " + path + " is for device " + deviceName +
+                        " but design targets device " + device.getName() + ".");
+            }
+            int range = dis.readInt();
+            int numDeltaSLRs = dis.readInt();
+            if (numDeltaSLRs != MAX_DELTA_SLR + 1) {
+                throw new RuntimeException("ERROR: Router lookahead file " + path + " was built with " +
+                        numDeltaSLRs + " SLR distances but " + (MAX_DELTA_SLR + 1) + " are expected.");
+            }
+            int numIntentCodes = dis.readInt();
+            if (numIntentCodes != INTENT_CODES.length) {
+                throw new RuntimeException("ERROR: Router lookahead file " + path + " was built with " +
+                        numIntentCodes + " intent codes but " + INTENT_CODES.length + " are expected.");
+            }
+            RouterLookahead lookahead = new RouterLookahead(deviceName, range);
+            final int tableSize = (range + 1) * (range + 1);
+            for (int deltaSLR = 0; deltaSLR < numDeltaSLRs; deltaSLR++) {
+                for (int ic = 0; ic < numIntentCodes; ic++) {
+                    if (!dis.readBoolean()) {
+                        continue;
+                    }
+                    float[] wirelength = new float[tableSize];
+                    for (int i = 0; i < tableSize; i++) {
+                        wirelength[i] = dis.readFloat();
+                    }
+                    float[] delay = new float[tableSize];
+                    for (int i = 0; i < tableSize; i++) {
+                        delay[i] = dis.readFloat();
+                    }
+                    lookahead.wirelength[deltaSLR][ic] = wirelength;
+                    lookahead.delay[deltaSLR][ic] = delay;
+                }
+            }
+            return lookahead;
+        } catch (IOException e) {
+            throw new RuntimeException("ERROR: Unable to load router lookahead file " + path, e);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 4) {
+            System.out.println("USAGE: <part name> <output" + FILE_EXTENSION + "> [range (default: " + DEFAULT_RANGE +
+                    ")] [samples per intent code (default: " + DEFAULT_SAMPLES + ")]");
+            return;
+        }
+        int range = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_RANGE;
+        int samples = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_SAMPLES;
+
+        long start = System.nanoTime();
+        RouterLookahead lookahead = build(args[0], range, samples);
+        lookahead.save(Paths.get(args[1]));
+        System.out.printf("INFO: Wrote router lookahead for %s to %s in %.2fs\n", lookahead.getDeviceName(), args[1],
+                (System.nanoTime() - start) / 1e9);
+    }
+}
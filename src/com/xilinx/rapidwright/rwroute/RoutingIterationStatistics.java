@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+/**
+ * Statistics of a single {@link RWRoute} routing iteration, as passed to {@link RWRouteListener#iterationCompleted}.
+ */
+public class RoutingIterationStatistics {
+    private final int iteration;
+    private final int overUsedRnodes;
+    private final int unroutableConnections;
+    private final int connectionsRouted;
+    private final long rnodesCreated;
+    private final long nodesPushed;
+    private final long nodesPopped;
+    private final float maxDelay;
+    private final int timingVerticesUpdated;
+    private final long iterationTime;
+    private final long elapsedTime;
+    private final long heapUsed;
+    private final int busyThreads;
+
+    public RoutingIterationStatistics(int iteration, int overUsedRnodes, int unroutableConnections,
+                                      int connectionsRouted, long rnodesCreated, long nodesPushed, long nodesPopped,
+                                      float maxDelay, int timingVerticesUpdated, long iterationTime,
+                                      long elapsedTime, long heapUsed, int busyThreads) {
+        this.iteration = iteration;
+        this.overUsedRnodes = overUsedRnodes;
+        this.unroutableConnections = unroutableConnections;
+        this.connectionsRouted = connectionsRouted;
+        this.rnodesCreated = rnodesCreated;
+        this.nodesPushed = nodesPushed;
+        this.nodesPopped = nodesPopped;
+        this.maxDelay = maxDelay;
+        this.timingVerticesUpdated = timingVerticesUpdated;
+        this.iterationTime = iterationTime;
+        this.elapsedTime = elapsedTime;
+        this.heapUsed = heapUsed;
+        this.busyThreads = busyThreads;
+    }
+
+    /**
+     * @return The routing iteration, starting from 1.
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * @return The number of overused rnodes at the end of this iteration.
+     */
+    public int getOverUsedRnodes() {
+        return overUsedRnodes;
+    }
+
+    /**
+     * @return The number of connections that could not be routed in this iteration.
+     */
+    public int getUnroutableConnections() {
+        return unroutableConnections;
+    }
+
+    /**
+     * @return The number of connections (re-)routed in this iteration.
+     */
+    public int getConnectionsRouted() {
+        return connectionsRouted;
+    }
+
+    /**
+     * @return The number of rnodes created in this iteration.
+     */
+    public long getRnodesCreated() {
+        return rnodesCreated;
+    }
+
+    /**
+     * @return The number of nodes pushed into the queue in this iteration.
+     */
+    public long getNodesPushed() {
+        return nodesPushed;
+    }
+
+    /**
+     * @return The number of nodes popped from the queue in this iteration.
+     */
+    public long getNodesPopped() {
+        return nodesPopped;
+    }
+
+    /**
+     * @return The maximum delay (in ps) after this iteration, or NaN if not timing-driven.
+     */
+    public float getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * @return The number of timing graph vertex updates during the timing update of this iteration
+     * (see {@link com.xilinx.rapidwright.timing.TimingManager#getNumVerticesUpdated()}), or 0 if not timing-driven.
+     */
+    public int getTimingVerticesUpdated() {
+        return timingVerticesUpdated;
+    }
+
+    /**
+     * @return The wall time of this iteration, in nanoseconds.
+     */
+    public long getIterationTime() {
+        return iterationTime;
+    }
+
+    /**
+     * @return The wall time since the first iteration started, in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * @return The used JVM heap at the end of this iteration, in bytes.
+     */
+    public long getHeapUsed() {
+        return heapUsed;
+    }
+
+    /**
+     * @return The largest number of threads that were routing connections at the same time during this iteration.
+     */
+    public int getBusyThreads() {
+        return busyThreads;
+    }
+}
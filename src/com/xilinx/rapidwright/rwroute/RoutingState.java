@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.design.Design;
+import com.xilinx.rapidwright.design.Net;
+import com.xilinx.rapidwright.design.SitePinInst;
+import com.xilinx.rapidwright.device.Device;
+import com.xilinx.rapidwright.device.Node;
+import com.xilinx.rapidwright.device.PIP;
+import com.xilinx.rapidwright.device.Tile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compact snapshot of RWRoute's end-of-run state for a design, allowing a subsequent (partial) routing run,
+ * e.g. following a small ECO edit, to resume from it rather than starting from scratch.
+ * The state records:
+ * <ul>
+ *   <li>for each routed (non-static) net, a signature of its PIPs and pins and the nodes that would be preserved
+ *   for it, so that a net whose signature is unchanged can be preserved without re-examining its PIPs;</li>
+ *   <li>the historical congestion cost of every rnode whose cost was raised during routing;</li>
+ *   <li>the criticality of every indirect connection, keyed by the name of its sink pin.</li>
+ * </ul>
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   int magic, int version, UTF deviceName, UTF designName
+ *   int numNets, numNets * (UTF netName, int numPIPs, int numPins, long signature, int numNodes, numNodes * long nodeKey)
+ *   int numCosts, numCosts * (long nodeKey, float historicalCongestionCost)
+ *   int numCriticalities, numCriticalities * (UTF sinkPinName, float criticality)
+ * </pre>
+ * where each nodeKey is the unique address of the node's base tile in the upper 32 bits and its base wire index
+ * in the lower 32 bits.
+ */
+public class RoutingState {
+    private static final int MAGIC = 0x52575253; // "RWRS"
+    /** Version of the file format, to be incremented on any change to the format */
+    public static final int VERSION = 2;
+
+    private final String deviceName;
+    private final String designName;
+    /** Tiles indexed by their unique address, for decoding node keys */
+    private final Tile[] tiles;
+
+    private final Map<String, NetState> nets;
+    private final Map<Long, Float> historicalCongestionCosts;
+    private final Map<String, Float> criticalities;
+
+    private static class NetState {
+        final int numPIPs;
+        final int numPins;
+        final long signature;
+        final long[] nodeKeys;
+
+        NetState(int numPIPs, int numPins, long signature, long[] nodeKeys) {
+            this.numPIPs = numPIPs;
+            this.numPins = numPins;
+            this.signature = signature;
+            this.nodeKeys = nodeKeys;
+        }
+    }
+
+    /**
+     * Creates an empty routing state for the given design.
+     * @param design The design.
+     */
+    public RoutingState(Design design) {
+        this(design.getDevice(), design.getName());
+    }
+
+    private RoutingState(Device device, String designName) {
+        deviceName = device.getName();
+        this.designName = designName;
+        tiles = new Tile[device.getColumns() * device.getRows()];
+        for (Tile tile : device.getAllTiles()) {
+            tiles[tile.getUniqueAddress()] = tile;
+        }
+        nets = new HashMap<>();
+        historicalCongestionCosts = new HashMap<>();
+        criticalities = new HashMap<>();
+    }
+
+    public static long getKey(Tile tile, int wireIndex) {
+        return ((long) tile.getUniqueAddress() << 32) | (wireIndex & 0xFFFFFFFFL);
+    }
+
+    public static int getWireIndex(long key) {
+        return (int) key;
+    }
+
+    public Tile getTile(long key) {
+        return tiles[(int) (key >>> 32)];
+    }
+
+    private static long mix(long x) {
+        // Finalizer from SplitMix64
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Computes a signature of a net's PIPs and pins, used to detect whether its routing or pins have changed
+     * since a routing state was saved. The signature does not depend on the order of PIPs or pins, and
+     * is computed without creating any {@link Node} objects.
+     * @param net The net.
+     * @return The signature.
+     */
+    public static long getSignature(Net net) {
+        long signature = mix(((long) net.getPIPs().size() << 32) | net.getPins().size());
+        for (PIP pip : net.getPIPs()) {
+            long x = mix(((long) pip.getTile().getUniqueAddress() << 32) | pip.getStartWireIndex());
+            x = mix(x ^ (((long) pip.getEndWireIndex() << 1) | (pip.isReversed() ? 1 : 0)));
+            signature += x;
+        }
+        for (SitePinInst pin : net.getPins()) {
+            signature += mix(((long) pin.getSiteName().hashCode() << 32) ^ pin.getName().hashCode());
+        }
+        return signature;
+    }
+
+    /**
+     * Records all routed, non-static nets of the design along with the nodes that would be preserved for them.
+     * @param design The design.
+     * @param routingGraph The routing graph.
+     */
+    public void recordNets(Design design, RouteNodeGraph routingGraph) {
+        for (Net net : design.getNets()) {
+            if (net.isStaticNet() || !net.hasPIPs()) {
+                continue;
+            }
+            long[] keys = new long[2 * net.getPIPs().size() + net.getPins().size()];
+            int[] numKeys = new int[1];
+            routingGraph.forEachNodeToPreserve(net, net.getPins(), (node) -> {
+                if (numKeys[0] == keys.length) {
+                    // Only possible for static nets (which are skipped) but guard nonetheless
+                    throw new RuntimeException("ERROR: Unexpected number of nodes to preserve for net " + net);
+                }
+                keys[numKeys[0]++] = getKey(node.getTile(), node.getWireIndex());
+            });
+            nets.put(net.getName(), new NetState(net.getPIPs().size(), net.getPins().size(), getSignature(net),
+                    unique(keys, numKeys[0])));
+        }
+    }
+
+    private static long[] unique(long[] keys, int length) {
+        Arrays.sort(keys, 0, length);
+        int numUnique = 0;
+        for (int i = 0; i < length; i++) {
+            if (numUnique == 0 || keys[numUnique - 1] != keys[i]) {
+                keys[numUnique++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, numUnique);
+    }
+
+    /**
+     * Records the historical congestion cost of all rnodes for which it is raised above its initial value.
+     * @param routingGraph The routing graph.
+     */
+    public void recordHistoricalCongestionCosts(RouteNodeGraph routingGraph) {
+        for (RouteNode rnode : routingGraph.getRnodes()) {
+            float cost = rnode.getHistoricalCongestionCost();
+            if (cost > RouteNode.initialHistoricalCongestionCost) {
+                historicalCongestionCosts.put(getKey(rnode.getTile(), rnode.getWireIndex()), cost);
+            }
+        }
+    }
+
+    private static String getSinkName(Connection connection) {
+        SitePinInst sink = connection.getSink();
+        return sink.getSiteName() + "/" + sink.getName();
+    }
+
+    /**
+     * Records the criticality of all given connections with a non-zero criticality.
+     * @param connections The connections.
+     */
+    public void recordCriticalities(Collection<Connection> connections) {
+        for (Connection connection : connections) {
+            if (connection.getCriticality() > 0) {
+                criticalities.put(getSinkName(connection), connection.getCriticality());
+            }
+        }
+    }
+
+    /**
+     * Gets the keys of the nodes to be preserved for a net, if the net is recorded in this state
+     * and its PIPs and pins are unchanged. The signature of the net is only computed if its number of
+     * PIPs and pins are unchanged.
+     * @param net The net.
+     * @return The node keys, or null if the net is not recorded or has changed.
+     */
+    public long[] getPreservedNodes(Net net) {
+        NetState netState = nets.get(net.getName());
+        if (netState == null || netState.numPIPs != net.getPIPs().size() || netState.numPins != net.getPins().size()
+                || netState.signature != getSignature(net)) {
+            return null;
+        }
+        return netState.nodeKeys;
+    }
+
+    /**
+     * Gets the recorded historical congestion cost of a node.
+     * @param tileAddress The unique address of the node's base tile.
+     * @param wireIndex The node's base wire index.
+     * @return The recorded cost, or the initial historical congestion cost if not recorded.
+     */
+    public float getHistoricalCongestionCost(int tileAddress, int wireIndex) {
+        Float cost = historicalCongestionCosts.get(((long) tileAddress << 32) | (wireIndex & 0xFFFFFFFFL));
+        return (cost != null) ? cost : RouteNode.initialHistoricalCongestionCost;
+    }
+
+    /**
+     * Raises the criticality of each given connection to its recorded criticality, if higher.
+     * @param connections The connections.
+     * @return The number of connections whose criticality was raised.
+     */
+    public int seedCriticalities(Collection<Connection> connections) {
+        int numSeeded = 0;
+        for (Connection connection : connections) {
+            Float criticality = criticalities.get(getSinkName(connection));
+            if (criticality != null && criticality > connection.getCriticality()) {
+                connection.setCriticality(criticality);
+                numSeeded++;
+            }
+        }
+        return numSeeded;
+    }
+
+    public String getDesignName() {
+        return designName;
+    }
+
+    public int getNumNets() {
+        return nets.size();
+    }
+
+    public int getNumHistoricalCongestionCosts() {
+        return historicalCongestionCosts.size();
+    }
+
+    public int getNumCriticalities() {
+        return criticalities.size();
+    }
+
+    /**
+     * Writes this routing state to a file.
+     * @param path The file to write.
+     */
+    public void save(Path path) {
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 20))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeUTF(deviceName);
+            dos.writeUTF(designName);
+            dos.writeInt(nets.size());
+            for (Map.Entry<String, NetState> e : nets.entrySet()) {
+                NetState netState = e.getValue();
+                dos.writeUTF(e.getKey());
+                dos.writeInt(netState.numPIPs);
+                dos.writeInt(netState.numPins);
+                dos.writeLong(netState.signature);
+                dos.writeInt(netState.nodeKeys.length);
+                for (long key : netState.nodeKeys) {
+                    dos.writeLong(key);
+                }
+            }
+            dos.writeInt(historicalCongestionCosts.size());
+            for (Map.Entry<Long, Float> e : historicalCongestionCosts.entrySet()) {
+                dos.writeLong(e.getKey());
+                dos.writeFloat(e.getValue());
+            }
+            dos.writeInt(criticalities.size());
+            for (Map.Entry<String, Float> e : criticalities.entrySet()) {
+                dos.writeUTF(e.getKey());
+                dos.writeFloat(e.getValue());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("ERROR: Unable to save routing state file " + path, e);
+        }
+    }
+
+    /**
+     * Reads a routing state from a file.
+     * @param path The file to read.
+     * @param design The design that the routing state is to be applied to.
+     * @return The routing state.
+     */
+    public static RoutingState load(Path path, Design design) {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 20))) {
+            if (dis.readInt() != MAGIC) {
+                throw new RuntimeException("ERROR: " + path + " is not a routing state file.");
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new RuntimeException("ERROR: Routing state file " + path + " has version " + version +
+                        " but version " + VERSION + " is expected.");
+            }
+            String deviceName = dis.readUTF();
+            Device device = design.getDevice();
+            if (!deviceName.equals(device.getName())) {
+                throw new RuntimeException("ERROR: Routing state file " + path + " is for device " + deviceName +
+                        " but design targets device " + device.getName() + ".");
+            }
+            RoutingState state = new RoutingState(device, dis.readUTF());
+            int numNets = dis.readInt();
+            for (int i = 0; i < numNets; i++) {
+                String netName = dis.readUTF();
+                int numPIPs = dis.readInt();
+                int numPins = dis.readInt();
+                long signature = dis.readLong();
+                long[] nodeKeys = new long[dis.readInt()];
+                for (int j = 0; j < nodeKeys.length; j++) {
+                    nodeKeys[j] = dis.readLong();
+                }
+                state.nets.put(netName, new NetState(numPIPs, numPins, signature, nodeKeys));
+            }
+            int numCosts = dis.readInt();
+            for (int i = 0; i < numCosts; i++) {
+                state.historicalCongestionCosts.put(dis.readLong(), dis.readFloat());
+            }
+            int numCriticalities = dis.readInt();
+            for (int i = 0; i < numCriticalities; i++) {
+                state.criticalities.put(dis.readUTF(), dis.readFloat());
+            }
+            return state;
+        } catch (IOException e) {
+            throw new RuntimeException("ERROR: Unable to load routing state file " + path, e);
+        }
+    }
+}
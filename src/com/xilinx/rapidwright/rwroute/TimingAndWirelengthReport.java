@@ -68,14 +68,22 @@ public class TimingAndWirelengthReport{
     }
 
     /**
-     * Computes the wirelength and delay for each net and reports the total wirelength and critical path delay.
+     * Computes the wirelength and delay for each net and reports the total wirelength and critical path delay,
+     * as well as a summary of the worst timing paths.
+     * @param maxPaths The maximum number of worst paths to report, or 0 to only report the critical path.
+     * @param maxPathsPerEndpoint The maximum number of worst paths to report for each timing endpoint,
+     * or 0 for no limit.
+     * @param maxPathsPerClock The maximum number of worst paths to report for each clock domain, or 0 for no limit.
      */
-    private void computeStatisticsAndReport() {
+    private void computeStatisticsAndReport(int maxPaths, int maxPathsPerEndpoint, int maxPathsPerClock) {
         computeNetsWirelengthAndDelay();
 
         Pair<Float, TimingVertex> maxDelayAndTimingVertex = timingManager.calculateArrivalRequiredTimes();
         System.out.println();
         timingManager.getCriticalPathInfo(maxDelayAndTimingVertex, false, routingGraph);
+        if (maxPaths > 0) {
+            timingManager.printWorstPaths(maxPaths, maxPathsPerEndpoint, maxPathsPerClock);
+        }
 
         System.out.println("\n");
         System.out.println("Total nodes: " + usedNodes);
@@ -163,7 +171,7 @@ public class TimingAndWirelengthReport{
 
     public static void main(String[] args) {
         if (args.length < 1) {
-            System.out.println("USAGE:\n <input.dcp>");
+            System.out.println("USAGE:\n <input.dcp> [max_paths] [max_paths_per_endpoint] [max_paths_per_clock]");
         }
         Design design = Design.readCheckpoint(args[0]);
         //design manipulations are necessary, otherwise there will be problems in associating timing edges with connections.
@@ -173,7 +181,10 @@ public class TimingAndWirelengthReport{
         config.setTimingDriven(true);
         final boolean isPartialRouting = false;
         TimingAndWirelengthReport reporter = new TimingAndWirelengthReport(design, config, isPartialRouting);
-        reporter.computeStatisticsAndReport();
+        int maxPaths = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int maxPathsPerEndpoint = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        int maxPathsPerClock = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        reporter.computeStatisticsAndReport(maxPaths, maxPathsPerEndpoint, maxPathsPerClock);
     }
 
 }
@@ -0,0 +1,508 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.timing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.xilinx.rapidwright.device.SiteTypeEnum;
+
+/**
+ * Implement DelayModel using integer-keyed tables, compiled from a {@link DelayModelSource} and
+ * stored in a binary file that can be loaded with a single memory-mapped read.
+ *
+ * Every pin name used by the model (site pins, bel pins with or without their bel name) is interned to an id,
+ * so that, using {@link #getSiteTypeIndex(SiteTypeEnum)}, {@link #getPinId(String)} and
+ * {@link #getBELPinId(String, String)} ahead of time, each intra-site or logic delay lookup is a probe into
+ * an open-addressed hash table of long keys, with no strings being built.
+ *
+ * Never construct CompiledDelayModel directly. Use DelayModelBuilder to guarantee that there is at most one
+ * DelayModel.
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   int magic, int version, long sourceSize, long sourceLastModified,
+ *   int numPins, numPins * (short+bytes pinName),
+ *   int numSites, numSites * (short+bytes siteName, short siteIdx),
+ *   int numBELs, numBELs * (short+bytes belName, short belIdx),
+ *   int numConfigs, numConfigs * (short+bytes config, int code),
+ *   int numIntraSiteDelays, numIntraSiteDelays * (short siteIdx, int frPinId, int toPinId, short delay),
+ *   int numLogicDelays, numLogicDelays * (short belIdx, int frPinId, int toPinId, short delay, int config)
+ * </pre>
+ * where the size and last modified time of the text source are recorded so that a stale file can be detected.
+ */
+public class CompiledDelayModel implements DelayModel {
+    private static final int MAGIC = 0x52574454; // "RWDT"
+    /** Version of the file format, to be incremented on any change to the format */
+    public static final int VERSION = 1;
+    public static final String FILE_EXTENSION = ".bin";
+
+    private static final long EMPTY_KEY = -1L;
+    /** Delay returned when a timing arc does not exist, matching {@link SmallDelayModel} */
+    private static final short NO_ARC = -2;
+
+    private final String[] pinNames;
+    private final Map<String, Integer> pinIds;
+    /** Pin ids of "bel/pin" names, by bel name then pin name */
+    private final Map<String, Map<String, Integer>> belPinIds;
+    private final Map<String, Short> site2IdxMap;
+    /** Site index of each SiteTypeEnum, by ordinal, or -1 if not part of the model */
+    private final short[] siteTypeIdx;
+    private final Map<String, Short> bel2IdxMap;
+    private final Map<String, Integer> configCodeMap;
+
+    /** Intra-site delay entries, in source order */
+    private final short[] intraSiteIdx;
+    private final int[] intraFr;
+    private final int[] intraTo;
+    private final short[] intraDelay;
+    /** Open-addressed hash table from (site index, fr pin, to pin) to intra-site delay */
+    private final long[] intraKeys;
+    private final short[] intraValues;
+
+    /** Logic delay entries, in source order, which is also the order in which their configs are matched */
+    private final short[] logicBELIdx;
+    private final int[] logicFr;
+    private final int[] logicTo;
+    private final short[] logicDelay;
+    private final int[] logicConfig;
+    /** Open-addressed hash table from (bel index, fr pin, to pin) to the range of its entries in logicOrder */
+    private final long[] logicKeys;
+    private final int[] logicStart;
+    private final int[] logicEnd;
+    /** Logic delay entry indices, grouped by key */
+    private final int[] logicOrder;
+
+    private CompiledDelayModel(String[] pinNames, Map<String, Short> site2IdxMap, Map<String, Short> bel2IdxMap,
+                               Map<String, Integer> configCodeMap,
+                               short[] intraSiteIdx, int[] intraFr, int[] intraTo, short[] intraDelay,
+                               short[] logicBELIdx, int[] logicFr, int[] logicTo, short[] logicDelay,
+                               int[] logicConfig) {
+        this.pinNames = pinNames;
+        this.site2IdxMap = site2IdxMap;
+        this.bel2IdxMap = bel2IdxMap;
+        this.configCodeMap = configCodeMap;
+        this.intraSiteIdx = intraSiteIdx;
+        this.intraFr = intraFr;
+        this.intraTo = intraTo;
+        this.intraDelay = intraDelay;
+        this.logicBELIdx = logicBELIdx;
+        this.logicFr = logicFr;
+        this.logicTo = logicTo;
+        this.logicDelay = logicDelay;
+        this.logicConfig = logicConfig;
+
+        pinIds = new HashMap<>();
+        belPinIds = new HashMap<>();
+        for (int i = 0; i < pinNames.length; i++) {
+            String name = pinNames[i];
+            pinIds.put(name, i);
+            int slash = name.indexOf('/');
+            if (slash >= 0) {
+                belPinIds.computeIfAbsent(name.substring(0, slash), (k) -> new HashMap<>())
+                        .put(name.substring(slash + 1), i);
+            }
+        }
+
+        SiteTypeEnum[] siteTypes = SiteTypeEnum.values();
+        siteTypeIdx = new short[siteTypes.length];
+        for (SiteTypeEnum siteType : siteTypes) {
+            Short idx = site2IdxMap.get(siteType.name());
+            siteTypeIdx[siteType.ordinal()] = (idx == null) ? -1 : idx;
+        }
+
+        intraKeys = newTable(intraDelay.length);
+        intraValues = new short[intraKeys.length];
+        for (int i = 0; i < intraDelay.length; i++) {
+            long key = getKey(intraSiteIdx[i], intraFr[i], intraTo[i]);
+            int slot = findSlot(intraKeys, key);
+            if (intraKeys[slot] == key) {
+                throw new IllegalArgumentException("CompiledDelayModel: Duplicate entry found for site index " +
+                        intraSiteIdx[i] + "  fr " + pinNames[intraFr[i]] + "  to " + pinNames[intraTo[i]] + " .");
+            }
+            intraKeys[slot] = key;
+            intraValues[slot] = intraDelay[i];
+        }
+
+        // Group the logic delay entries of each key, preserving their order
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < logicDelay.length; i++) {
+            groups.computeIfAbsent(getKey(logicBELIdx[i], logicFr[i], logicTo[i]), (k) -> new ArrayList<>()).add(i);
+        }
+        logicKeys = newTable(groups.size());
+        logicStart = new int[logicKeys.length];
+        logicEnd = new int[logicKeys.length];
+        logicOrder = new int[logicDelay.length];
+        int next = 0;
+        for (Map.Entry<Long, List<Integer>> e : groups.entrySet()) {
+            int slot = findSlot(logicKeys, e.getKey());
+            logicKeys[slot] = e.getKey();
+            logicStart[slot] = next;
+            for (int i : e.getValue()) {
+                logicOrder[next++] = i;
+            }
+            logicEnd[slot] = next;
+        }
+    }
+
+    /**
+     * Compiles a delay model from a source.
+     * @param src The source for the delay model.
+     * @return The compiled delay model.
+     */
+    static CompiledDelayModel compile(DelayModelSource src) {
+        Map<String, Integer> pinIds = new LinkedHashMap<>();
+        Map<String, Short> site2IdxMap = src.getSite2IdxMap();
+        Map<String, Short> bel2IdxMap = src.getBEL2IdxMap();
+
+        List<DelayEntry> intraSiteDelayEntries = src.getIntraSiteDelayEntries();
+        int numIntra = intraSiteDelayEntries.size();
+        short[] intraSiteIdx = new short[numIntra];
+        int[] intraFr = new int[numIntra];
+        int[] intraTo = new int[numIntra];
+        short[] intraDelay = new short[numIntra];
+        for (int i = 0; i < numIntra; i++) {
+            DelayEntry e = intraSiteDelayEntries.get(i);
+            // Assumption 2 of DelayModelSource is satisfied by equivalent mapping in site2IdxMap.
+            Short siteIdx = site2IdxMap.get(e.scope);
+            if (siteIdx == null) {
+                throw new IllegalArgumentException("CompiledDelayModel: Unknown siteName " +
+                        e.scope + " in constructing intra-site delay database.");
+            }
+            intraSiteIdx[i] = siteIdx;
+            intraFr[i] = pinIds.computeIfAbsent(e.fr, (k) -> pinIds.size());
+            intraTo[i] = pinIds.computeIfAbsent(e.to, (k) -> pinIds.size());
+            intraDelay[i] = e.delay;
+        }
+
+        List<DelayEntry> logicDelayEntries = src.getLogicDelayEntries();
+        int numLogic = logicDelayEntries.size();
+        short[] logicBELIdx = new short[numLogic];
+        int[] logicFr = new int[numLogic];
+        int[] logicTo = new int[numLogic];
+        short[] logicDelay = new short[numLogic];
+        int[] logicConfig = new int[numLogic];
+        for (int i = 0; i < numLogic; i++) {
+            DelayEntry e = logicDelayEntries.get(i);
+            // Assumption 1 of DelayModelSource is satisfied by equivalent mapping in bel2IdxMap.
+            Short belIdx = bel2IdxMap.get(e.scope);
+            if (belIdx == null) {
+                throw new IllegalArgumentException("CompiledDelayModel: Unknown belName to " +
+                        e.scope + " in constructing logic delay database.");
+            }
+            logicBELIdx[i] = belIdx;
+            logicFr[i] = pinIds.computeIfAbsent(e.fr, (k) -> pinIds.size());
+            logicTo[i] = pinIds.computeIfAbsent(e.to, (k) -> pinIds.size());
+            logicDelay[i] = e.delay;
+            logicConfig[i] = e.config;
+        }
+
+        return new CompiledDelayModel(pinIds.keySet().toArray(new String[0]), new HashMap<>(site2IdxMap),
+                new HashMap<>(bel2IdxMap), new HashMap<>(src.getConfigCodeMap()),
+                intraSiteIdx, intraFr, intraTo, intraDelay,
+                logicBELIdx, logicFr, logicTo, logicDelay, logicConfig);
+    }
+
+    /**
+     * Reads a compiled delay model from a binary file.
+     * @param path The binary file.
+     * @param sourcePath The text source that the binary file was compiled from. If it exists, its size and
+     * last modified time must match those recorded in the binary file.
+     * @return The delay model, or null if the file does not exist, is not a valid or current compiled delay model.
+     */
+    static CompiledDelayModel read(Path path, Path sourcePath) {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("unrecognized file or version");
+            }
+            long sourceSize = buffer.getLong();
+            long sourceLastModified = buffer.getLong();
+            if (Files.exists(sourcePath) && (Files.size(sourcePath) != sourceSize ||
+                    Files.getLastModifiedTime(sourcePath).toMillis() != sourceLastModified)) {
+                // Stale, to be recompiled
+                return null;
+            }
+
+            String[] pinNames = new String[buffer.getInt()];
+            for (int i = 0; i < pinNames.length; i++) {
+                pinNames[i] = readString(buffer);
+            }
+            Map<String, Short> site2IdxMap = new HashMap<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                site2IdxMap.put(readString(buffer), buffer.getShort());
+            }
+            Map<String, Short> bel2IdxMap = new HashMap<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                bel2IdxMap.put(readString(buffer), buffer.getShort());
+            }
+            Map<String, Integer> configCodeMap = new HashMap<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                configCodeMap.put(readString(buffer), buffer.getInt());
+            }
+
+            int numIntra = buffer.getInt();
+            short[] intraSiteIdx = new short[numIntra];
+            int[] intraFr = new int[numIntra];
+            int[] intraTo = new int[numIntra];
+            short[] intraDelay = new short[numIntra];
+            for (int i = 0; i < numIntra; i++) {
+                intraSiteIdx[i] = buffer.getShort();
+                intraFr[i] = buffer.getInt();
+                intraTo[i] = buffer.getInt();
+                intraDelay[i] = buffer.getShort();
+            }
+
+            int numLogic = buffer.getInt();
+            short[] logicBELIdx = new short[numLogic];
+            int[] logicFr = new int[numLogic];
+            int[] logicTo = new int[numLogic];
+            short[] logicDelay = new short[numLogic];
+            int[] logicConfig = new int[numLogic];
+            for (int i = 0; i < numLogic; i++) {
+                logicBELIdx[i] = buffer.getShort();
+                logicFr[i] = buffer.getInt();
+                logicTo[i] = buffer.getInt();
+                logicDelay[i] = buffer.getShort();
+                logicConfig[i] = buffer.getInt();
+            }
+
+            return new CompiledDelayModel(pinNames, site2IdxMap, bel2IdxMap, configCodeMap,
+                    intraSiteIdx, intraFr, intraTo, intraDelay,
+                    logicBELIdx, logicFr, logicTo, logicDelay, logicConfig);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("WARNING: Ignoring compiled delay model file " + path + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Writes this delay model to a binary file, to be read by {@link #read(Path, Path)}.
+     * @param path The binary file.
+     * @param sourcePath The text source that this delay model was compiled from.
+     * @return True if the file was written.
+     */
+    boolean write(Path path, Path sourcePath) {
+        Path tmpPath = null;
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            tmpPath = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                dos.writeLong(Files.size(sourcePath));
+                dos.writeLong(Files.getLastModifiedTime(sourcePath).toMillis());
+                dos.writeInt(pinNames.length);
+                for (String name : pinNames) {
+                    writeString(dos, name);
+                }
+                dos.writeInt(site2IdxMap.size());
+                for (Map.Entry<String, Short> e : site2IdxMap.entrySet()) {
+                    writeString(dos, e.getKey());
+                    dos.writeShort(e.getValue());
+                }
+                dos.writeInt(bel2IdxMap.size());
+                for (Map.Entry<String, Short> e : bel2IdxMap.entrySet()) {
+                    writeString(dos, e.getKey());
+                    dos.writeShort(e.getValue());
+                }
+                dos.writeInt(configCodeMap.size());
+                for (Map.Entry<String, Integer> e : configCodeMap.entrySet()) {
+                    writeString(dos, e.getKey());
+                    dos.writeInt(e.getValue());
+                }
+                dos.writeInt(intraDelay.length);
+                for (int i = 0; i < intraDelay.length; i++) {
+                    dos.writeShort(intraSiteIdx[i]);
+                    dos.writeInt(intraFr[i]);
+                    dos.writeInt(intraTo[i]);
+                    dos.writeShort(intraDelay[i]);
+                }
+                dos.writeInt(logicDelay.length);
+                for (int i = 0; i < logicDelay.length; i++) {
+                    dos.writeShort(logicBELIdx[i]);
+                    dos.writeInt(logicFr[i]);
+                    dos.writeInt(logicTo[i]);
+                    dos.writeShort(logicDelay[i]);
+                    dos.writeInt(logicConfig[i]);
+                }
+            }
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.out.println("WARNING: Unable to save compiled delay model file " + path + " (" + e.getMessage() + ")");
+            try {
+                if (tmpPath != null) {
+                    Files.deleteIfExists(tmpPath);
+                }
+            } catch (IOException ignored) {
+            }
+            return false;
+        }
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dos.writeShort(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static long getKey(short scope, int frPinId, int toPinId) {
+        return ((long) scope << 48) | ((long) frPinId << 24) | toPinId;
+    }
+
+    private static long[] newTable(int numEntries) {
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, numEntries)) << 2);
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        return keys;
+    }
+
+    private static int hash(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Gets the slot of a key in an open-addressed hash table.
+     * @return The slot containing the key, or the empty slot where it would be inserted.
+     */
+    private static int findSlot(long[] keys, long key) {
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != key && keys[slot] != EMPTY_KEY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public int getEncodedConfigCode(String value) {
+        return configCodeMap.getOrDefault(value, 0);
+    }
+
+    public short getBELIndex(String belName) {
+        return bel2IdxMap.get(belName);
+    }
+
+    public short getSiteTypeIndex(SiteTypeEnum siteType) {
+        return siteTypeIdx[siteType.ordinal()];
+    }
+
+    public int getPinId(String pinName) {
+        Integer id = pinIds.get(pinName);
+        return id == null ? -1 : id;
+    }
+
+    public int getBELPinId(String belName, String pinName) {
+        Map<String, Integer> pins = belPinIds.get(belName);
+        if (pins == null) {
+            return -1;
+        }
+        Integer id = pins.get(pinName);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     *  Implement the method with the same signature defined in DelayModel interface.
+     */
+    public Short getIntraSiteDelay(SiteTypeEnum siteTypeName, String frBelPin, String toBelPin) {
+        short idx = getSiteTypeIndex(siteTypeName);
+        if (idx < 0) {
+            return null;
+        }
+        return getIntraSiteDelay(idx, getPinId(frBelPin), getPinId(toBelPin));
+    }
+
+    /**
+     *  Implement the method with the same signature defined in DelayModel interface.
+     */
+    public short getIntraSiteDelay(short siteTypeIdx, int frPinId, int toPinId) {
+        if (frPinId < 0 || toPinId < 0) {
+            return NO_ARC;
+        }
+        long key = getKey(siteTypeIdx, frPinId, toPinId);
+        int slot = findSlot(intraKeys, key);
+        return intraKeys[slot] == key ? intraValues[slot] : NO_ARC;
+    }
+
+    /**
+     *  Implement the method with the same signature defined in DelayModel interface.
+     */
+    public short getLogicDelay(short belIdx, String frBelPin, String toBelPin) {
+        return getLogicDelay(belIdx, frBelPin, toBelPin, 0);
+    }
+
+    /**
+     *  Implement the method with the same signature defined in DelayModel interface.
+     */
+    public short getLogicDelay(short belIdx, String frBelPin, String toBelPin, int encodedConfig) {
+        return getLogicDelay(belIdx, getPinId(frBelPin), getPinId(toBelPin), encodedConfig);
+    }
+
+    /**
+     *  Implement the method with the same signature defined in DelayModel interface.
+     */
+    public short getLogicDelay(short belIdx, int frPinId, int toPinId, int encodedConfig) {
+        if (frPinId < 0 || toPinId < 0) {
+            return NO_ARC;
+        }
+        long key = getKey(belIdx, frPinId, toPinId);
+        int slot = findSlot(logicKeys, key);
+        if (logicKeys[slot] != key) {
+            return NO_ARC;
+        }
+        for (int i = logicStart[slot]; i < logicEnd[slot]; i++) {
+            int entry = logicOrder[i];
+            if ((encodedConfig & logicConfig[entry]) == encodedConfig) {
+                return logicDelay[entry];
+            }
+        }
+        return NO_ARC;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.timing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Enumerates the timing paths with the largest delay (i.e. the worst setup slack) ending at the super sink of a
+ * {@link LevelizedTimingGraph}, in order of non-increasing delay, without enumerating all paths.
+ * Paths are grown backwards from the super sink. The arrival time of a vertex is the largest delay of any path
+ * reaching it, so the delay of the worst path that extends a partial path (from some vertex to the super sink)
+ * is exactly the arrival time of that vertex plus the delay of the partial path, and following the critical fan-in
+ * edge of each vertex from there completes that worst path.
+ * Each candidate in the priority queue is a partial path together with the fan-in edge of its first vertex by
+ * which it is to be extended; the fan-in edges of each vertex are sorted by the delay of the worst path through
+ * them, and the next fan-in edge (its sibling) is only queued once a candidate is taken. Each candidate taken
+ * yields the next worst path, and queues at most one candidate per vertex of that path, so the queue is bounded
+ * by the number of paths requested times the length of the longest path. Partial paths share their common
+ * suffixes, so they are not materialized either.
+ * The number of paths reported can also be limited per endpoint and per clock domain (as given by a
+ * {@link MultiClockTiming} on the same graph), so that one critical endpoint or clock does not take up all of them.
+ */
+public class CriticalPathEnumerator {
+    private final LevelizedTimingGraph graph;
+    private final int superSinkId;
+    /** Fan-in edge ids of each vertex that has been visited, sorted by the delay of the worst path through them */
+    private final int[][] sortedFanIn;
+
+    /** A partial path, from a vertex to the super sink */
+    private static class PartialPath {
+        final int vertex;
+        /** Id of the edge from the vertex to the next one along the path, or -1 at the super sink */
+        final int edge;
+        final PartialPath next;
+        /** Delay from the vertex to the super sink */
+        final float delay;
+        /** Id of the edge from the endpoint (the vertex connected to the super sink) to the super sink, or -1 at
+         * the super sink */
+        final int endpointEdge;
+
+        PartialPath(int vertex, int edge, PartialPath next, float delay, int endpointEdge) {
+            this.vertex = vertex;
+            this.edge = edge;
+            this.next = next;
+            this.delay = delay;
+            this.endpointEdge = endpointEdge;
+        }
+    }
+
+    /** A partial path to be extended by the fan-in edge of its vertex at the given sorted index */
+    private static class Candidate {
+        final PartialPath path;
+        final int index;
+        /** Delay of the worst complete path that this candidate can be extended to */
+        final float delay;
+
+        Candidate(PartialPath path, int index, float delay) {
+            this.path = path;
+            this.index = index;
+            this.delay = delay;
+        }
+    }
+
+    /**
+     * Creates an enumerator of the worst paths of a levelized timing graph.
+     * @param graph The levelized timing graph, whose arrival times must be up to date.
+     * @param superSink The super sink vertex of the timing graph, at which all paths end.
+     */
+    public CriticalPathEnumerator(LevelizedTimingGraph graph, TimingVertex superSink) {
+        if (!graph.isArrivalTimesValid()) {
+            throw new RuntimeException("ERROR: Arrival times must be computed before enumerating critical paths.");
+        }
+        this.graph = graph;
+        superSinkId = graph.getVertexId(superSink);
+        if (superSinkId == -1) {
+            throw new RuntimeException("ERROR: Super sink " + superSink + " is not part of the timing graph.");
+        }
+        sortedFanIn = new int[graph.getNumVertices()][];
+    }
+
+    private float getWorstDelayThrough(int e) {
+        return graph.getArrivalTime(graph.getEdgeSrc(e)) + graph.getEdgeDelay(e);
+    }
+
+    /**
+     * Maps a float to an int such that the ints compare in the same order as the floats by
+     * {@link Float#compare(float, float)}.
+     */
+    private static int toOrderedBits(float f) {
+        int bits = Float.floatToIntBits(f);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+
+    private int[] getSortedFanIn(int v) {
+        int[] sorted = sortedFanIn[v];
+        if (sorted == null) {
+            int start = graph.getFanInStart(v);
+            int end = graph.getFanInStart(v + 1);
+            // Each key holds the (inverted) delay through an edge above its id, so that sorting the keys orders
+            // the edges by non-increasing delay, then by increasing id, without boxing them
+            long[] keys = new long[end - start];
+            for (int e = start; e < end; e++) {
+                keys[e - start] = ((long) ~toOrderedBits(getWorstDelayThrough(e)) << 32) | e;
+            }
+            Arrays.sort(keys);
+            sorted = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                sorted[i] = (int) keys[i];
+            }
+            sortedFanIn[v] = sorted;
+        }
+        return sorted;
+    }
+
+    private Candidate newCandidate(PartialPath path, int index) {
+        int e = getSortedFanIn(path.vertex)[index];
+        return new Candidate(path, index, path.delay + getWorstDelayThrough(e));
+    }
+
+    private PartialPath extend(PartialPath path, int e) {
+        int src = graph.getEdgeSrc(e);
+        return new PartialPath(src, e, path, path.delay + graph.getEdgeDelay(e),
+                (path.vertex == superSinkId) ? e : path.endpointEdge);
+    }
+
+    private TimingPath toTimingPath(PartialPath path, float requirement) {
+        List<TimingEdge> edges = new ArrayList<>();
+        for (PartialPath p = path; p.next != null; p = p.next) {
+            edges.add(graph.getEdge(p.edge));
+        }
+        return new TimingPath(edges, path.delay, requirement - path.delay);
+    }
+
+    /**
+     * Gets the worst paths ending at the super sink, in order of non-increasing delay.
+     * @param maxPaths The maximum number of paths to report.
+     * @param maxPathsPerEndpoint The maximum number of paths to report for each timing endpoint (the vertices
+     * connected to the super sink), or 0 for no limit.
+     * @param requirement The timing requirement, against which the slack of each path is computed.
+     * @return The list of paths, with at most maxPaths entries.
+     */
+    public List<TimingPath> getWorstPaths(int maxPaths, int maxPathsPerEndpoint, float requirement) {
+        return getWorstPaths(maxPaths, maxPathsPerEndpoint, null, 0, requirement);
+    }
+
+    /**
+     * Gets the worst paths ending at the super sink, in order of non-increasing delay.
+     * @param maxPaths The maximum number of paths to report.
+     * @param maxPathsPerEndpoint The maximum number of paths to report for each timing endpoint (the vertices
+     * connected to the super sink), or 0 for no limit.
+     * @param domains The clock domains of the timing endpoints, on the same graph, or null if maxPathsPerDomain is 0.
+     * @param maxPathsPerDomain The maximum number of paths to report for each clock domain, as captured at their
+     * endpoint, or 0 for no limit. Endpoints of an unknown clock count as one more domain.
+     * @param requirement The timing requirement, against which the slack of each path is computed.
+     * @return The list of paths, with at most maxPaths entries.
+     */
+    public List<TimingPath> getWorstPaths(int maxPaths, int maxPathsPerEndpoint, MultiClockTiming domains,
+                                          int maxPathsPerDomain, float requirement) {
+        if (maxPathsPerDomain > 0 && (domains == null || domains.getGraph() != graph)) {
+            throw new RuntimeException("ERROR: Limiting the paths per clock domain needs the clock domains of the " +
+                    "same timing graph.");
+        }
+        List<TimingPath> paths = new ArrayList<>();
+        if (maxPaths <= 0 || graph.getFanInStart(superSinkId) == graph.getFanInStart(superSinkId + 1)) {
+            return paths;
+        }
+        Map<Integer, Integer> pathsPerEndpoint = new HashMap<>();
+        // Indexed by domain plus one, so that endpoints of an unknown clock (ALL_DOMAINS) are at index 0
+        int[] pathsPerDomain = (maxPathsPerDomain > 0) ? new int[domains.getNumDomains() + 1] : null;
+        PriorityQueue<Candidate> queue = new PriorityQueue<>((a, b) -> Float.compare(b.delay, a.delay));
+        PartialPath root = new PartialPath(superSinkId, -1, null, 0, -1);
+        queue.add(newCandidate(root, 0));
+        while (!queue.isEmpty() && paths.size() < maxPaths) {
+            Candidate candidate = queue.poll();
+            PartialPath path = candidate.path;
+            int[] fanIn = getSortedFanIn(path.vertex);
+            int e = fanIn[candidate.index];
+            if (maxPathsPerEndpoint > 0 || maxPathsPerDomain > 0) {
+                int endpointEdge = (path.vertex == superSinkId) ? e : path.endpointEdge;
+                int endpoint = graph.getEdgeSrc(endpointEdge);
+                int domain = (maxPathsPerDomain > 0) ? domains.getEdgeDomain(endpointEdge) + 1 : 0;
+                if ((maxPathsPerEndpoint > 0 && pathsPerEndpoint.getOrDefault(endpoint, 0) >= maxPathsPerEndpoint) ||
+                        (maxPathsPerDomain > 0 && pathsPerDomain[domain] >= maxPathsPerDomain)) {
+                    // All siblings share this endpoint (and so its domain), except at the super sink
+                    if (path.vertex == superSinkId && candidate.index + 1 < fanIn.length) {
+                        queue.add(newCandidate(path, candidate.index + 1));
+                    }
+                    continue;
+                }
+                if (maxPathsPerEndpoint > 0) {
+                    pathsPerEndpoint.merge(endpoint, 1, Integer::sum);
+                }
+                if (maxPathsPerDomain > 0) {
+                    pathsPerDomain[domain]++;
+                }
+            }
+            if (candidate.index + 1 < fanIn.length) {
+                queue.add(newCandidate(path, candidate.index + 1));
+            }
+
+            // Complete the worst path through this edge by following critical fan-in edges,
+            // queuing the next alternative at each vertex along the way
+            path = extend(path, e);
+            while (true) {
+                fanIn = getSortedFanIn(path.vertex);
+                if (fanIn.length == 0) {
+                    break;
+                }
+                if (fanIn.length > 1) {
+                    queue.add(newCandidate(path, 1));
+                }
+                path = extend(path, fanIn[0]);
+            }
+            paths.add(toTimingPath(path, requirement));
+        }
+        return paths;
+    }
+}
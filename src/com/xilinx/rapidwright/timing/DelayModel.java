@@ -106,6 +106,51 @@ public interface DelayModel {
       * @return The unique BEL timing model index
       */
      public short getBELIndex(String belName);
+
+    /**
+     * Gets the index of a site type for {@link #getIntraSiteDelay(short, int, int)}.
+     * Equivalent site types map to the same index.
+     * @param siteType The site type.
+     * @return The site type index, or -1 if the site type is not recognized by the model.
+     */
+    public short getSiteTypeIndex(SiteTypeEnum siteType);
+
+    /**
+     * Gets the id of a site pin, a bel pin (without its bel name) or a bel pin with its bel name (ie., AFF2/D),
+     * for {@link #getIntraSiteDelay(short, int, int)} and {@link #getLogicDelay(short, int, int, int)}.
+     * @param pinName The pin name.
+     * @return The pin id, or -1 if the pin is not part of any timing arc.
+     */
+    public int getPinId(String pinName);
+
+    /**
+     * Gets the id of a bel pin with its bel name, without building the "bel/pin" string.
+     * @param belName The bel name, ie., AFF2.
+     * @param pinName The bel pin name, ie., D.
+     * @return The pin id, or -1 if the pin is not part of any timing arc.
+     */
+    public int getBELPinId(String belName, String pinName);
+
+    /**
+     * Get the delay in ps between two pins within a site, as {@link #getIntraSiteDelay(SiteTypeEnum, String, String)}
+     * but using the ids of the site type and pins.
+     * @param siteTypeIdx The site type index, see {@link #getSiteTypeIndex(SiteTypeEnum)}. Must not be negative.
+     * @param frPinId The pin id of the driver of the connection, see {@link #getPinId(String)}.
+     * @param toPinId The pin id of the sink of the connection.
+     * @return Intra-site delay in ps. Return a negative value if the connection does not exist.
+     */
+    public short getIntraSiteDelay(short siteTypeIdx, int frPinId, int toPinId);
+
+    /**
+     * Get the delay between input and output pins of a bel, as {@link #getLogicDelay(short, String, String, int)}
+     * but using the ids of the pins.
+     * @param belIdx The unique BEL timing model index, see {@link #getBELIndex(String)}.
+     * @param frPinId The pin id of an input bel pin, see {@link #getPinId(String)}.
+     * @param toPinId The pin id of an output bel pin.
+     * @param encodedConfig The encoded config of the bel.
+     * @return Logic delay in ps. Return a negative value if the connection does not exist.
+     */
+    public short getLogicDelay(short belIdx, int frPinId, int toPinId, int encodedConfig);
 }
 
 
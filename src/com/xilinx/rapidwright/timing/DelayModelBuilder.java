@@ -28,9 +28,13 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.xilinx.rapidwright.util.FileTools;
+
 /**
  * Build a delay model.
  *
@@ -46,22 +50,24 @@ class DelayModelBuilder {
      * List all the valid modes to store the model. Adding new modes require appending them to the
      * end of valid_mode or valid_source. Never change the order of existing entries.
      */
-    private static String[]   valid_mode   = {"small"};
+    private static String[]   valid_mode   = {"small", "compiled"};
     /**
      * List all the valid sources to store the model. Adding new sources require appending them to
      * the end of valid_mode or valid_source. Never change the order of existing entries.
      */
-    private static String[]   valid_source = {"text"};
+    private static String[]   valid_source = {"text", "binary"};
 
     private static DelayModel aModel       = null;
 
     /**
-     * Prepare the appropriate input file for {@link #getDelayModel(String, String, String)}
+     * Prepare the appropriate input file for {@link #getDelayModel(String, String, String)}.
+     * The model is loaded from its compiled binary form next to the text file, which is (re)created from the
+     * text file whenever it is missing or out of date.
      */
     public static DelayModel getDelayModel(String series) {
         String fileName = TimingModel.TIMING_DATA_DIR + File.separator +series+
                 File.separator + "intrasite_delay_terms.txt";
-        return getDelayModel("small", "text", fileName);
+        return getDelayModel("compiled", "binary", fileName);
     }
 
     /**
@@ -82,13 +88,22 @@ class DelayModelBuilder {
     /**
      * The method to build DelayModel and DelayModelSource according to the given parameters.
      * @param mode      The type of delay model. It defines how data are stored which will affect
-     * the memory requirement and how fast the lookup is. Currently, the only valid entry is "small".
-     * @param source    The source of delay model. Currently, the only valid entry is "text".
+     * the memory requirement and how fast the lookup is. Valid entries are "small" and "compiled".
+     * @param source    The source of delay model. Valid entries are "text", and "binary" which requires
+     * the "compiled" mode.
      * @param fileName  The text file describing the delay model.
      * @throws IllegalArgumentException  This method throw IllegalArgumentException if the fileName
      *  does not exist.
      */
     private static void newDelayModel(String mode, String source, String fileName) {
+        if (source.equalsIgnoreCase(valid_source[1])) {
+            if (!mode.equalsIgnoreCase(valid_mode[1])) {
+                throw new IllegalArgumentException("DelayModelBuilder: The binary source requires the compiled mode.");
+            }
+            aModel = getCompiledDelayModel(fileName);
+            return;
+        }
+
         DelayModelSource src;
         if (source.equalsIgnoreCase(valid_source[0])) {
             src = new DelayModelSourceFromText(fileName);
@@ -98,11 +113,42 @@ class DelayModelBuilder {
 
         if (mode.equalsIgnoreCase(valid_mode[0])) {
             aModel = new SmallDelayModel(src);
+        } else if (mode.equalsIgnoreCase(valid_mode[1])) {
+            aModel = CompiledDelayModel.compile(src);
         } else {
             throw new IllegalArgumentException("DelayModelBuilder: Unknown mode to newDelayModel.");
         }
     }
 
+    /**
+     * Gets the path of the compiled binary form of a delay model text file.
+     * @param fileName The text file describing the delay model, relative to the RapidWright path.
+     * @return The path of the binary file, next to the text file.
+     */
+    static Path getCompiledDelayModelPath(String fileName) {
+        Path textPath = Paths.get(FileTools.getRapidWrightPath(), fileName);
+        String name = textPath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return textPath.resolveSibling((dot < 0 ? name : name.substring(0, dot)) + CompiledDelayModel.FILE_EXTENSION);
+    }
+
+    /**
+     * Loads a compiled delay model from the binary form of a text file, compiling it (and saving the binary form,
+     * if possible) if the binary form does not exist or is older than the text file.
+     * @param fileName The text file describing the delay model, relative to the RapidWright path.
+     * @return The compiled delay model.
+     */
+    private static CompiledDelayModel getCompiledDelayModel(String fileName) {
+        Path textPath = Paths.get(FileTools.getRapidWrightPath(), fileName);
+        Path binaryPath = getCompiledDelayModelPath(fileName);
+        CompiledDelayModel model = CompiledDelayModel.read(binaryPath, textPath);
+        if (model == null) {
+            model = CompiledDelayModel.compile(new DelayModelSourceFromText(fileName));
+            model.write(binaryPath, textPath);
+        }
+        return model;
+    }
+
 
     // ************************    for testing     ***********************
     private static int testLogicDelay(DelayModel delayModel, List<String> config, String belName, String[] src, String[] dst
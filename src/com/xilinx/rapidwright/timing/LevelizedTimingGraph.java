@@ -0,0 +1,587 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.timing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.xilinx.rapidwright.util.ParallelismTools;
+
+/**
+ * A compact, array-based snapshot of the structure of a {@link TimingGraph}, used to propagate arrival
+ * and required times without walking the (hash-based) JGraphT adjacency sets or boxed vertex fields.
+ * Vertices are numbered in level order, where the level of a vertex is the length of the longest path to it
+ * from any vertex without fan-in, so that iterating over vertex ids in increasing (decreasing) order is a
+ * topological (reverse topological) order and all vertices in the same level are independent of one another.
+ * Edges are numbered such that the fan-in edges of each vertex are contiguous, and are stored in
+ * compressed-sparse-row form alongside a second index of the fan-out edges of each vertex.
+ * Each {@link TimingEdge} of the graph records its edge id, so that its delay can be read or updated.
+ * Arrival times, required times and the critical fan-in vertex of each vertex are stored in primitive
+ * arrays and only copied back to the {@link TimingVertex} objects on request, using {@link #writeBack()}.
+ * Once computed, times can also be updated incrementally: only the fan-out cones (for arrival times) and
+ * fan-in cones (for required times) of the edges whose delay changed are visited, in level order, stopping
+ * wherever a vertex's time is unchanged.
+ * Full updates can also be performed in parallel, one level at a time: each vertex only reads the times of
+ * vertices in other levels and only writes its own, so the vertices of a level can be split among threads
+ * without any synchronization.
+ */
+public class LevelizedTimingGraph {
+    /** Vertices, indexed by vertex id */
+    private final TimingVertex[] vertices;
+    /** Map from each vertex to its id */
+    private final Map<TimingVertex, Integer> vertexIds;
+    /** Index of the first vertex of each level, plus the total number of vertices */
+    private final int[] levelStart;
+    /** Index of the first fan-in edge of each vertex, plus the total number of edges */
+    private final int[] inStart;
+    /** Index into outEdges of the first fan-out edge of each vertex, plus the total number of edges */
+    private final int[] outStart;
+    /** Fan-out edge ids, grouped by source vertex */
+    private final int[] outEdges;
+    /** Source and destination vertex ids of each edge */
+    private final int[] edgeSrc;
+    private final int[] edgeDst;
+    /** Edges, indexed by edge id */
+    private final TimingEdge[] edges;
+    /** Delay of each edge, as of the last call to {@link #updateEdgeDelays()} */
+    private final float[] edgeDelay;
+    private final float[] arrival;
+    private final float[] required;
+    /** Id of the fan-in vertex that leads to the maximum arrival time of each vertex, or -1 if none */
+    private final int[] prev;
+    /** Minimum number of vertices per thread when a level is processed in parallel */
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+    /** Version of the TimingGraph structure that this snapshot was built from */
+    private final int structureVersion;
+
+    /** Ids of the edges whose delay changed during the last call to {@link #updateEdgeDelays()} */
+    private final int[] changedEdges;
+    private int numChangedEdges;
+    /** Ids of the edges marked by {@link #markEdgeDelayChanged(TimingEdge)} since the last {@link #updateEdgeDelays()} */
+    private final int[] dirtyEdges;
+    private final AtomicInteger numDirtyEdges;
+    /** 1 if an edge is in {@link #dirtyEdges}, 0 otherwise */
+    private final AtomicIntegerArray isDirtyEdge;
+    /** True once the arrival (required) times of all vertices have been computed */
+    private boolean arrivalTimesValid;
+    private boolean requiredTimesValid;
+    /** Super sink id and requirement that the required times were last computed with */
+    private int lastSuperSinkId;
+    private float lastRequirement;
+    /** Vertices waiting to be updated incrementally, as a binary min-heap (of negated ids for required times) */
+    private final int[] heap;
+    private int heapSize;
+    private final boolean[] queued;
+
+    /**
+     * Builds a levelized snapshot of the current structure of a timing graph.
+     * @param timingGraph The timing graph, which must be acyclic.
+     */
+    public LevelizedTimingGraph(TimingGraph timingGraph) {
+        structureVersion = timingGraph.getStructureVersion();
+        int numVertices = timingGraph.vertexSet().size();
+        int numEdges = timingGraph.edgeSet().size();
+
+        // Levelize the graph using Kahn's algorithm, one level at a time
+        Map<TimingVertex, Integer> remainingInDegree = new HashMap<>();
+        List<TimingVertex> order = new ArrayList<>(numVertices);
+        List<Integer> levelStarts = new ArrayList<>();
+        for (TimingVertex v : timingGraph.vertexSet()) {
+            int inDegree = timingGraph.inDegreeOf(v);
+            if (inDegree == 0) {
+                order.add(v);
+            } else {
+                remainingInDegree.put(v, inDegree);
+            }
+        }
+        int levelBegin = 0;
+        while (levelBegin < order.size()) {
+            levelStarts.add(levelBegin);
+            int levelEnd = order.size();
+            for (int i = levelBegin; i < levelEnd; i++) {
+                for (TimingEdge e : timingGraph.outgoingEdgesOf(order.get(i))) {
+                    TimingVertex dst = e.getDst();
+                    int inDegree = remainingInDegree.get(dst) - 1;
+                    if (inDegree == 0) {
+                        remainingInDegree.remove(dst);
+                        order.add(dst);
+                    } else {
+                        remainingInDegree.put(dst, inDegree);
+                    }
+                }
+            }
+            levelBegin = levelEnd;
+        }
+        if (order.size() != numVertices) {
+            throw new RuntimeException("ERROR: Timing graph is not acyclic, " + (numVertices - order.size()) +
+                    " vertices could not be levelized.");
+        }
+
+        vertices = order.toArray(new TimingVertex[0]);
+        vertexIds = new HashMap<>();
+        for (int i = 0; i < numVertices; i++) {
+            vertexIds.put(vertices[i], i);
+        }
+        levelStart = new int[levelStarts.size() + 1];
+        for (int i = 0; i < levelStarts.size(); i++) {
+            levelStart[i] = levelStarts.get(i);
+        }
+        levelStart[levelStarts.size()] = numVertices;
+
+        // Fan-in edges, contiguous for each destination vertex
+        inStart = new int[numVertices + 1];
+        edgeSrc = new int[numEdges];
+        edgeDst = new int[numEdges];
+        edges = new TimingEdge[numEdges];
+        edgeDelay = new float[numEdges];
+        int edgeId = 0;
+        for (int v = 0; v < numVertices; v++) {
+            inStart[v] = edgeId;
+            for (TimingEdge e : timingGraph.incomingEdgesOf(vertices[v])) {
+                edges[edgeId] = e;
+                edgeSrc[edgeId] = vertexIds.get(e.getSrc());
+                edgeDst[edgeId] = v;
+                edgeDelay[edgeId] = e.getDelay();
+                e.setIndex(edgeId);
+                edgeId++;
+            }
+        }
+        inStart[numVertices] = edgeId;
+        assert(edgeId == numEdges);
+
+        // Fan-out edges, using a counting sort on the source vertex
+        outStart = new int[numVertices + 1];
+        outEdges = new int[numEdges];
+        for (int e = 0; e < numEdges; e++) {
+            outStart[edgeSrc[e] + 1]++;
+        }
+        for (int v = 0; v < numVertices; v++) {
+            outStart[v + 1] += outStart[v];
+        }
+        int[] next = Arrays.copyOf(outStart, numVertices);
+        for (int e = 0; e < numEdges; e++) {
+            outEdges[next[edgeSrc[e]]++] = e;
+        }
+
+        arrival = new float[numVertices];
+        required = new float[numVertices];
+        prev = new int[numVertices];
+        Arrays.fill(prev, -1);
+
+        changedEdges = new int[numEdges];
+        dirtyEdges = new int[numEdges];
+        numDirtyEdges = new AtomicInteger();
+        isDirtyEdge = new AtomicIntegerArray(numEdges);
+        heap = new int[numVertices];
+        queued = new boolean[numVertices];
+    }
+
+    /**
+     * Checks if this snapshot still reflects the structure of its timing graph.
+     * @param timingGraph The timing graph that this snapshot was built from.
+     * @return True if no vertices or edges have been added to or removed from the timing graph since.
+     */
+    public boolean isCurrent(TimingGraph timingGraph) {
+        return structureVersion == timingGraph.getStructureVersion();
+    }
+
+    public int getNumVertices() {
+        return vertices.length;
+    }
+
+    public int getNumEdges() {
+        return edges.length;
+    }
+
+    public int getNumLevels() {
+        return levelStart.length - 1;
+    }
+
+    /**
+     * Gets the id of a vertex.
+     * @param v The vertex in question.
+     * @return The id of the vertex, or -1 if it is not part of this graph.
+     */
+    public int getVertexId(TimingVertex v) {
+        Integer id = vertexIds.get(v);
+        return id == null ? -1 : id;
+    }
+
+    public TimingVertex getVertex(int id) {
+        return vertices[id];
+    }
+
+    public float getArrivalTime(TimingVertex v) {
+        return arrival[vertexIds.get(v)];
+    }
+
+    float getArrivalTime(int v) {
+        return arrival[v];
+    }
+
+    boolean isArrivalTimesValid() {
+        return arrivalTimesValid;
+    }
+
+    /**
+     * @return The id of the first fan-in edge of a vertex; its fan-in edges are those up to
+     * (and excluding) the first fan-in edge of the next vertex.
+     */
+    int getFanInStart(int v) {
+        return inStart[v];
+    }
+
+    /**
+     * @return The index of the first fan-out edge of a vertex in the fan-out edge index (see
+     * {@link #getFanOutEdge(int)}); its fan-out edges are those up to (and excluding) the first fan-out edge of the
+     * next vertex.
+     */
+    int getFanOutStart(int v) {
+        return outStart[v];
+    }
+
+    int getFanOutEdge(int i) {
+        return outEdges[i];
+    }
+
+    /**
+     * @return The id of the first vertex of a level, or the number of vertices for the level after the last one.
+     */
+    int getLevelStart(int level) {
+        return levelStart[level];
+    }
+
+    int getEdgeSrc(int e) {
+        return edgeSrc[e];
+    }
+
+    int getEdgeDst(int e) {
+        return edgeDst[e];
+    }
+
+    float getEdgeDelay(int e) {
+        return edgeDelay[e];
+    }
+
+    TimingEdge getEdge(int e) {
+        return edges[e];
+    }
+
+    public float getRequiredTime(TimingVertex v) {
+        return required[vertexIds.get(v)];
+    }
+
+    public float getSlack(TimingVertex v) {
+        int id = vertexIds.get(v);
+        return required[id] - arrival[id];
+    }
+
+    /**
+     * Marks an edge of this graph whose delay may have changed, to be re-read by the next call to
+     * {@link #updateEdgeDelays()}. Called by the {@link TimingEdge} delay setters (through its
+     * {@link TimingGraph}), possibly from multiple threads; each edge is only recorded once.
+     * @param e The edge in question; ignored if it is not part of this graph.
+     */
+    void markEdgeDelayChanged(TimingEdge e) {
+        int id = e.getIndex();
+        if (id < 0 || id >= edges.length || edges[id] != e) {
+            return;
+        }
+        if (isDirtyEdge.compareAndSet(id, 0, 1)) {
+            dirtyEdges[numDirtyEdges.getAndIncrement()] = id;
+        }
+    }
+
+    /**
+     * Re-reads the delay of every edge marked by {@link #markEdgeDelayChanged(TimingEdge)} since the last call
+     * from its {@link TimingEdge} object, recording those that changed for the next incremental update.
+     * Must not be called concurrently with {@link #markEdgeDelayChanged(TimingEdge)}.
+     * @return The number of edges whose delay changed.
+     */
+    public int updateEdgeDelays() {
+        numChangedEdges = 0;
+        final int numDirty = numDirtyEdges.getAndSet(0);
+        for (int i = 0; i < numDirty; i++) {
+            int e = dirtyEdges[i];
+            isDirtyEdge.set(e, 0);
+            float delay = edges[e].getDelay();
+            if (delay != edgeDelay[e]) {
+                edgeDelay[e] = delay;
+                changedEdges[numChangedEdges++] = e;
+            }
+        }
+        return numChangedEdges;
+    }
+
+    /**
+     * Computes the arrival time of a vertex as the maximum over its fan-in edges, assuming those
+     * of its fan-in vertices are up to date. Vertices without fan-in have an arrival time of zero.
+     * @param v The vertex id.
+     */
+    private void computeArrivalTime(int v) {
+        final int start = inStart[v];
+        final int end = inStart[v + 1];
+        if (start == end) {
+            arrival[v] = 0;
+            prev[v] = -1;
+            return;
+        }
+        int maxSrc = edgeSrc[start];
+        float max = arrival[maxSrc] + edgeDelay[start];
+        for (int e = start + 1; e < end; e++) {
+            int src = edgeSrc[e];
+            float a = arrival[src] + edgeDelay[e];
+            if (a > max) {
+                max = a;
+                maxSrc = src;
+            }
+        }
+        arrival[v] = max;
+        prev[v] = maxSrc;
+    }
+
+    /**
+     * Computes the required time of a vertex as the minimum over its fan-out edges, assuming those
+     * of its fan-out vertices are up to date. Vertices without fan-out have a required time of the given
+     * requirement if they are the super sink, or Short.MAX_VALUE otherwise (since they are not timed).
+     * @param v The vertex id.
+     * @param superSink The vertex id of the super sink.
+     * @param requirement The required time at the super sink.
+     */
+    private void computeRequiredTime(int v, int superSink, float requirement) {
+        final int start = outStart[v];
+        final int end = outStart[v + 1];
+        if (start == end) {
+            required[v] = (v == superSink) ? requirement : Short.MAX_VALUE;
+            return;
+        }
+        float min = Float.MAX_VALUE;
+        for (int i = start; i < end; i++) {
+            int e = outEdges[i];
+            min = Math.min(min, required[edgeDst[e]] - edgeDelay[e]);
+        }
+        required[v] = min;
+    }
+
+    /**
+     * Computes the arrival time of all vertices, in level order.
+     */
+    public void computeArrivalTimes() {
+        computeArrivalTimes(false);
+    }
+
+    /**
+     * Computes the arrival time of all vertices, in level order.
+     * @param parallel True to process the vertices of each level in parallel, using {@link ParallelismTools}.
+     */
+    public void computeArrivalTimes(boolean parallel) {
+        if (parallel) {
+            for (int level = 0; level < getNumLevels(); level++) {
+                ParallelismTools.invokeAllRange(levelStart[level], levelStart[level + 1], MIN_PARALLEL_CHUNK_SIZE,
+                        this::computeArrivalTime);
+            }
+        } else {
+            for (int v = 0; v < vertices.length; v++) {
+                computeArrivalTime(v);
+            }
+        }
+        arrivalTimesValid = true;
+    }
+
+    /**
+     * Computes the required time of all vertices, in reverse level order.
+     * @param superSink The super sink vertex of the timing graph.
+     * @param requirement The required time at the super sink.
+     */
+    public void computeRequiredTimes(TimingVertex superSink, float requirement) {
+        computeRequiredTimes(superSink, requirement, false);
+    }
+
+    /**
+     * Computes the required time of all vertices, in reverse level order.
+     * @param superSink The super sink vertex of the timing graph.
+     * @param requirement The required time at the super sink.
+     * @param parallel True to process the vertices of each level in parallel, using {@link ParallelismTools}.
+     */
+    public void computeRequiredTimes(TimingVertex superSink, float requirement, boolean parallel) {
+        final int superSinkId = getVertexId(superSink);
+        if (parallel) {
+            for (int level = getNumLevels() - 1; level >= 0; level--) {
+                ParallelismTools.invokeAllRange(levelStart[level], levelStart[level + 1], MIN_PARALLEL_CHUNK_SIZE,
+                        (v) -> computeRequiredTime(v, superSinkId, requirement));
+            }
+        } else {
+            for (int v = vertices.length - 1; v >= 0; v--) {
+                computeRequiredTime(v, superSinkId, requirement);
+            }
+        }
+        requiredTimesValid = true;
+        lastSuperSinkId = superSinkId;
+        lastRequirement = requirement;
+    }
+
+    private void enqueue(int key, int v) {
+        if (queued[v]) {
+            return;
+        }
+        queued[v] = true;
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    private int poll() {
+        int min = heap[0];
+        int last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return min;
+    }
+
+    /**
+     * Updates the arrival times affected by the edges whose delay changed during the last call to
+     * {@link #updateEdgeDelays()}, visiting their fan-out cones in level order and stopping at vertices
+     * whose arrival time is unchanged. If arrival times have not been computed yet, computes all of them.
+     * @return The number of vertices whose arrival time was recomputed.
+     */
+    public int updateArrivalTimes() {
+        if (!arrivalTimesValid) {
+            computeArrivalTimes();
+            return vertices.length;
+        }
+        for (int i = 0; i < numChangedEdges; i++) {
+            int v = edgeDst[changedEdges[i]];
+            enqueue(v, v);
+        }
+        int numUpdated = 0;
+        while (heapSize > 0) {
+            int v = poll();
+            queued[v] = false;
+            float oldArrival = arrival[v];
+            computeArrivalTime(v);
+            numUpdated++;
+            if (arrival[v] != oldArrival) {
+                // Fan-out vertices are always in a later level, so are yet to be visited
+                for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+                    int dst = edgeDst[outEdges[i]];
+                    enqueue(dst, dst);
+                }
+            }
+        }
+        return numUpdated;
+    }
+
+    /**
+     * Updates the required times affected by the edges whose delay changed during the last call to
+     * {@link #updateEdgeDelays()} and by any change to the requirement, visiting their fan-in cones in reverse
+     * level order and stopping at vertices whose required time is unchanged. If required times have not been
+     * computed yet, computes all of them.
+     * @param superSink The super sink vertex of the timing graph.
+     * @param requirement The required time at the super sink.
+     * @return The number of vertices whose required time was recomputed.
+     */
+    public int updateRequiredTimes(TimingVertex superSink, float requirement) {
+        final int superSinkId = getVertexId(superSink);
+        if (!requiredTimesValid || superSinkId != lastSuperSinkId) {
+            computeRequiredTimes(superSink, requirement);
+            return vertices.length;
+        }
+        for (int i = 0; i < numChangedEdges; i++) {
+            int v = edgeSrc[changedEdges[i]];
+            enqueue(-v, v);
+        }
+        if (requirement != lastRequirement) {
+            enqueue(-superSinkId, superSinkId);
+            lastRequirement = requirement;
+        }
+        int numUpdated = 0;
+        while (heapSize > 0) {
+            int v = -poll();
+            queued[v] = false;
+            float oldRequired = required[v];
+            computeRequiredTime(v, superSinkId, requirement);
+            numUpdated++;
+            if (required[v] != oldRequired) {
+                // Fan-in vertices are always in an earlier level, so are yet to be visited
+                for (int e = inStart[v]; e < inStart[v + 1]; e++) {
+                    int src = edgeSrc[e];
+                    enqueue(-src, src);
+                }
+            }
+        }
+        return numUpdated;
+    }
+
+    /**
+     * Gets the minimum slack over a set of edges, where the slack of an edge is the required time at its
+     * destination less its delay and the arrival time at its source.
+     * @param timingEdges The edges in question, which must be part of this graph.
+     * @return The minimum slack of the edges.
+     */
+    public float getMinSlack(List<TimingEdge> timingEdges) {
+        float minSlack = Float.MAX_VALUE;
+        for (TimingEdge edge : timingEdges) {
+            int e = edge.getIndex();
+            assert(edges[e] == edge);
+            minSlack = Math.min(minSlack, required[edgeDst[e]] - arrival[edgeSrc[e]] - edgeDelay[e]);
+        }
+        return minSlack;
+    }
+
+    /**
+     * Copies the arrival time, required time and critical fan-in vertex of every vertex in this graph
+     * back to its {@link TimingVertex} object.
+     */
+    public void writeBack() {
+        for (int v = 0; v < vertices.length; v++) {
+            TimingVertex vertex = vertices[v];
+            vertex.setArrivalTime(arrival[v]);
+            vertex.setRequiredTime(required[v]);
+            vertex.setPrev(prev[v] == -1 ? null : vertices[prev[v]]);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.timing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.xilinx.rapidwright.util.ParallelismTools;
+
+/**
+ * Clock-domain-aware arrival and required times on a {@link LevelizedTimingGraph}, computed for all clock
+ * domains in a single sweep over the graph.
+ * Each timing start point (fan-out of the super source) is tagged with the clock that launches it, and each
+ * timing endpoint (fan-in of the super sink) with the clock that captures it. Every vertex holds a vector of
+ * arrival times and a vector of required times, with one entry per clock domain: the arrival time for a domain
+ * only considers paths launched by that clock, and the required time for a domain only considers paths captured
+ * by that clock, against the requirement of that clock. Paths between different clocks are treated as
+ * asynchronous and are not timed. Start points and endpoints whose clock is unknown belong to every domain, so a
+ * design with a single clock (or none) gives the same times as a single-clock analysis.
+ * The vectors of each vertex are contiguous, so that a sweep costs little more than a single-clock one when the
+ * number of domains is small; like the latter, each level can be processed in parallel.
+ */
+public class MultiClockTiming {
+    /** Domain of the edges that propagate times of all clock domains */
+    public static final int ALL_DOMAINS = -1;
+
+    private final LevelizedTimingGraph graph;
+    private final int superSourceId;
+    private final int superSinkId;
+    /** Names of the clock domains, indexed by domain */
+    private final List<String> domainNames;
+    private final int numDomains;
+    /** Clock domain of each edge: the launching (capturing) clock of the edges from the super source (to the
+     * super sink), or ALL_DOMAINS */
+    private final int[] edgeDomain;
+    /** Arrival and required times, indexed by vertex id times the number of domains plus the domain */
+    private final float[] arrival;
+    private final float[] required;
+    /** Id of the fan-in vertex that leads to the maximum arrival time of each vertex over all domains, or -1 */
+    private final int[] prev;
+    /** Requirement of each domain at the super sink, as of the last call to {@link #computeRequiredTimes} */
+    private final float[] requirements;
+    private boolean arrivalTimesValid;
+    private boolean requiredTimesValid;
+    /** Minimum number of vertices per thread when a level is processed in parallel */
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+
+    /**
+     * Tags the start points and endpoints of a levelized timing graph with their clock domains.
+     * @param graph The levelized timing graph.
+     * @param superSource The super source vertex, from which all timing paths start.
+     * @param superSink The super sink vertex, at which all timing paths end.
+     * @param clockOf Function giving the name of the clock of a start point or endpoint, or null if unknown.
+     */
+    public MultiClockTiming(LevelizedTimingGraph graph, TimingVertex superSource, TimingVertex superSink,
+                            Function<TimingVertex, String> clockOf) {
+        this.graph = graph;
+        superSourceId = graph.getVertexId(superSource);
+        superSinkId = graph.getVertexId(superSink);
+        if (superSourceId == -1 || superSinkId == -1) {
+            throw new RuntimeException("ERROR: Super source and super sink must be part of the timing graph.");
+        }
+
+        domainNames = new ArrayList<>();
+        Map<String, Integer> domainIds = new HashMap<>();
+        edgeDomain = new int[graph.getNumEdges()];
+        Arrays.fill(edgeDomain, ALL_DOMAINS);
+        for (int i = graph.getFanOutStart(superSourceId); i < graph.getFanOutStart(superSourceId + 1); i++) {
+            int e = graph.getFanOutEdge(i);
+            edgeDomain[e] = getDomainId(clockOf.apply(graph.getVertex(graph.getEdgeDst(e))), domainIds);
+        }
+        for (int e = graph.getFanInStart(superSinkId); e < graph.getFanInStart(superSinkId + 1); e++) {
+            edgeDomain[e] = getDomainId(clockOf.apply(graph.getVertex(graph.getEdgeSrc(e))), domainIds);
+        }
+        numDomains = Math.max(1, domainNames.size());
+
+        arrival = new float[graph.getNumVertices() * numDomains];
+        required = new float[graph.getNumVertices() * numDomains];
+        prev = new int[graph.getNumVertices()];
+        requirements = new float[numDomains];
+    }
+
+    private int getDomainId(String clock, Map<String, Integer> domainIds) {
+        if (clock == null) {
+            return ALL_DOMAINS;
+        }
+        return domainIds.computeIfAbsent(clock, (k) -> {
+            domainNames.add(k);
+            return domainNames.size() - 1;
+        });
+    }
+
+    public LevelizedTimingGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the number of clock domains, which is at least one: if no start point or endpoint has a known clock,
+     * there is a single domain, without a name.
+     * @return The number of clock domains.
+     */
+    public int getNumDomains() {
+        return numDomains;
+    }
+
+    /**
+     * Gets the name of the clock of a domain.
+     * @param domain The domain index.
+     * @return The clock name, or null for the single domain of a graph without any known clock.
+     */
+    public String getDomainName(int domain) {
+        return domain < domainNames.size() ? domainNames.get(domain) : null;
+    }
+
+    /**
+     * Gets the clock domain of a timing edge from the super source or to the super sink.
+     * @param edge The timing edge in question, which must be part of the graph.
+     * @return The domain index, or ALL_DOMAINS if the clock of the edge is unknown or it is any other edge.
+     */
+    public int getEdgeDomain(TimingEdge edge) {
+        return getEdgeDomain(edge.getIndex());
+    }
+
+    /**
+     * Gets the clock domain of a timing edge from the super source or to the super sink.
+     * @param e The id of the edge in the levelized timing graph.
+     * @return The domain index, or ALL_DOMAINS if the clock of the edge is unknown or it is any other edge.
+     */
+    public int getEdgeDomain(int e) {
+        return edgeDomain[e];
+    }
+
+    /**
+     * Computes the arrival times of a vertex in each domain as the maximum over its fan-in edges that propagate
+     * that domain, assuming those of its fan-in vertices are up to date. Vertices without fan-in have an arrival
+     * time of zero in every domain; other vertices not reached by any path launched by a clock have an arrival
+     * time of negative infinity in its domain.
+     * @param v The vertex id.
+     */
+    private void computeArrivalTime(int v) {
+        final int base = v * numDomains;
+        final int start = graph.getFanInStart(v);
+        final int end = graph.getFanInStart(v + 1);
+        if (start == end) {
+            Arrays.fill(arrival, base, base + numDomains, 0);
+            prev[v] = -1;
+            return;
+        }
+        Arrays.fill(arrival, base, base + numDomains, Float.NEGATIVE_INFINITY);
+        float max = Float.NEGATIVE_INFINITY;
+        int maxSrc = graph.getEdgeSrc(start);
+        for (int e = start; e < end; e++) {
+            int src = graph.getEdgeSrc(e);
+            int srcBase = src * numDomains;
+            float delay = graph.getEdgeDelay(e);
+            int domain = edgeDomain[e];
+            int first = (domain == ALL_DOMAINS) ? 0 : domain;
+            int last = (domain == ALL_DOMAINS) ? numDomains - 1 : domain;
+            for (int d = first; d <= last; d++) {
+                float a = arrival[srcBase + d] + delay;
+                if (a > arrival[base + d]) {
+                    arrival[base + d] = a;
+                }
+                if (a > max) {
+                    max = a;
+                    maxSrc = src;
+                }
+            }
+        }
+        prev[v] = maxSrc;
+    }
+
+    /**
+     * Computes the required times of a vertex in each domain as the minimum over its fan-out edges that
+     * propagate that domain, assuming those of its fan-out vertices are up to date. The super sink has the
+     * requirement of each domain; other vertices without fan-out have a required time of Short.MAX_VALUE (since
+     * they are not timed), and vertices that do not reach any endpoint captured by a clock have a required time
+     * of positive infinity in its domain.
+     * @param v The vertex id.
+     */
+    private void computeRequiredTime(int v) {
+        final int base = v * numDomains;
+        final int start = graph.getFanOutStart(v);
+        final int end = graph.getFanOutStart(v + 1);
+        if (start == end) {
+            if (v == superSinkId) {
+                System.arraycopy(requirements, 0, required, base, numDomains);
+            } else {
+                Arrays.fill(required, base, base + numDomains, Short.MAX_VALUE);
+            }
+            return;
+        }
+        Arrays.fill(required, base, base + numDomains, Float.POSITIVE_INFINITY);
+        for (int i = start; i < end; i++) {
+            int e = graph.getFanOutEdge(i);
+            int dstBase = graph.getEdgeDst(e) * numDomains;
+            float delay = graph.getEdgeDelay(e);
+            int domain = edgeDomain[e];
+            int first = (domain == ALL_DOMAINS) ? 0 : domain;
+            int last = (domain == ALL_DOMAINS) ? numDomains - 1 : domain;
+            for (int d = first; d <= last; d++) {
+                float r = required[dstBase + d] - delay;
+                if (r < required[base + d]) {
+                    required[base + d] = r;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the arrival times of all vertices in all domains, in level order, using the edge delays of the
+     * levelized graph (see {@link LevelizedTimingGraph#updateEdgeDelays()}).
+     * @param parallel True to process the vertices of each level in parallel, using {@link ParallelismTools}.
+     */
+    public void computeArrivalTimes(boolean parallel) {
+        if (parallel) {
+            for (int level = 0; level < graph.getNumLevels(); level++) {
+                ParallelismTools.invokeAllRange(graph.getLevelStart(level), graph.getLevelStart(level + 1),
+                        MIN_PARALLEL_CHUNK_SIZE, this::computeArrivalTime);
+            }
+        } else {
+            for (int v = 0; v < graph.getNumVertices(); v++) {
+                computeArrivalTime(v);
+            }
+        }
+        arrivalTimesValid = true;
+    }
+
+    /**
+     * Computes the required times of all vertices in all domains, in reverse level order.
+     * @param domainRequirements The required time of each domain at the super sink.
+     * @param parallel True to process the vertices of each level in parallel, using {@link ParallelismTools}.
+     */
+    public void computeRequiredTimes(float[] domainRequirements, boolean parallel) {
+        if (domainRequirements.length != numDomains) {
+            throw new RuntimeException("ERROR: Expected " + numDomains + " domain requirements, got " +
+                    domainRequirements.length + ".");
+        }
+        System.arraycopy(domainRequirements, 0, requirements, 0, numDomains);
+        if (parallel) {
+            for (int level = graph.getNumLevels() - 1; level >= 0; level--) {
+                ParallelismTools.invokeAllRange(graph.getLevelStart(level), graph.getLevelStart(level + 1),
+                        MIN_PARALLEL_CHUNK_SIZE, this::computeRequiredTime);
+            }
+        } else {
+            for (int v = graph.getNumVertices() - 1; v >= 0; v--) {
+                computeRequiredTime(v);
+            }
+        }
+        requiredTimesValid = true;
+    }
+
+    /**
+     * Gets the largest delay of any path launched and captured by the clock of a domain.
+     * @param domain The domain index.
+     * @return The maximum arrival time at the super sink in that domain, or negative infinity if it has no paths.
+     */
+    public float getMaxArrivalTime(int domain) {
+        assert(arrivalTimesValid);
+        return arrival[superSinkId * numDomains + domain];
+    }
+
+    public float getArrivalTime(TimingVertex v, int domain) {
+        return arrival[graph.getVertexId(v) * numDomains + domain];
+    }
+
+    public float getRequiredTime(TimingVertex v, int domain) {
+        return required[graph.getVertexId(v) * numDomains + domain];
+    }
+
+    /**
+     * Gets the requirement of a domain at the super sink, as used by the last call to
+     * {@link #computeRequiredTimes(float[], boolean)}.
+     * @param domain The domain index.
+     * @return The requirement.
+     */
+    public float getRequirement(int domain) {
+        return requirements[domain];
+    }
+
+    /**
+     * Gets the minimum slack in a domain over a set of edges, where the slack of an edge is the required time at
+     * its destination less its delay and the arrival time at its source.
+     * @param timingEdges The edges in question, which must be part of the graph.
+     * @param domain The domain index.
+     * @return The minimum slack of the edges, or positive infinity if none of them is timed in that domain.
+     */
+    public float getMinSlack(List<TimingEdge> timingEdges, int domain) {
+        assert(arrivalTimesValid && requiredTimesValid);
+        float minSlack = Float.POSITIVE_INFINITY;
+        for (TimingEdge edge : timingEdges) {
+            int e = edge.getIndex();
+            assert(graph.getEdge(e) == edge);
+            float slack = required[graph.getEdgeDst(e) * numDomains + domain] -
+                    arrival[graph.getEdgeSrc(e) * numDomains + domain] - graph.getEdgeDelay(e);
+            minSlack = Math.min(minSlack, slack);
+        }
+        return minSlack;
+    }
+
+    /**
+     * Copies the maximum arrival time and minimum required time over all domains, and the critical fan-in
+     * vertex, of every vertex back to its {@link TimingVertex} object.
+     */
+    public void writeBack() {
+        for (int v = 0; v < graph.getNumVertices(); v++) {
+            int base = v * numDomains;
+            float maxArrival = arrival[base];
+            float minRequired = required[base];
+            for (int d = 1; d < numDomains; d++) {
+                maxArrival = Math.max(maxArrival, arrival[base + d]);
+                minRequired = Math.min(minRequired, required[base + d]);
+            }
+            TimingVertex vertex = graph.getVertex(v);
+            vertex.setArrivalTime(maxArrival);
+            vertex.setRequiredTime(minRequired);
+            vertex.setPrev(prev[v] == -1 ? null : graph.getVertex(prev[v]));
+        }
+    }
+}
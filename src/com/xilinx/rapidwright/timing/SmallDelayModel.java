@@ -53,6 +53,11 @@ public class SmallDelayModel implements DelayModel {
      * Mapping between config value of a bel to a one-hot binary.
      */
     private Map<String, Integer> configCodeMap;
+    /**
+     * Names of all pins in timing arcs, indexed by their pin id.
+     */
+    private List<String> pinNames;
+    private Map<String, Integer> pinIds;
 
     public int getEncodedConfigCode(String value) {
         return configCodeMap.getOrDefault(value, 0);
@@ -62,6 +67,41 @@ public class SmallDelayModel implements DelayModel {
         return bel2IdxMap.get(belName);
     }
 
+    public short getSiteTypeIndex(SiteTypeEnum siteType) {
+        Short idx = site2IdxMap.get(siteType.name());
+        return idx == null ? -1 : idx;
+    }
+
+    public int getPinId(String pinName) {
+        Integer id = pinIds.get(pinName);
+        return id == null ? -1 : id;
+    }
+
+    public int getBELPinId(String belName, String pinName) {
+        return getPinId(belName + "/" + pinName);
+    }
+
+    /**
+     *  Implement the method with the same signature defined in DelayModel interface.
+     */
+    public short getIntraSiteDelay(short siteTypeIdx, int frPinId, int toPinId) {
+        if (frPinId < 0 || toPinId < 0) {
+            return -2;
+        }
+        Short delay = intraSiteDelays.get(siteTypeIdx + pinNames.get(frPinId) + pinNames.get(toPinId));
+        return delay == null ? -2 : delay;
+    }
+
+    /**
+     *  Implement the method with the same signature defined in DelayModel interface.
+     */
+    public short getLogicDelay(short belIdx, int frPinId, int toPinId, int encodedConfig) {
+        if (frPinId < 0 || toPinId < 0) {
+            return -2;
+        }
+        return getLogicDelay(belIdx, pinNames.get(frPinId), pinNames.get(toPinId), encodedConfig);
+    }
+
     /**
      *  Implement the method with the same signature defined in DelayModel interface.
      */
@@ -118,6 +158,17 @@ public class SmallDelayModel implements DelayModel {
         return delay;
     }
 
+    /**
+     * Assign a pin id to the given pin name, if it does not have one yet.
+     * @param pinName a bel or site pin name
+     */
+    private void storePinName(String pinName) {
+        if (!pinIds.containsKey(pinName)) {
+            pinIds.put(pinName, pinNames.size());
+            pinNames.add(pinName);
+        }
+    }
+
     /**
      * Store the given timing arc for intra-site delay.
      * @param idx      a short integer specifying a site
@@ -127,6 +178,8 @@ public class SmallDelayModel implements DelayModel {
      * @param siteName the site name to be used in case of exception
      */
     private void storeIntraSiteDelay(Short idx, String fr, String to, short delay, String siteName) {
+        storePinName(fr);
+        storePinName(to);
         String key = idx + fr + to;
         if (intraSiteDelays.containsKey(key)) {
             throw new IllegalArgumentException("SmallDelayModel: Duplicate entry found for " +
@@ -160,6 +213,8 @@ public class SmallDelayModel implements DelayModel {
     // As a result, there is a small runtime overhead to go through the list.
     // However, the size of these lists is only 3. Thus, the overhead of this is much less than 2x.
     private void storeLogicDelay(short idx, String fr, String to, short delay, int config) {
+        storePinName(fr);
+        storePinName(to);
         String key = idx + fr + to;
         // Is there a shortcut for this?
         int[] t = new int[2];
@@ -186,6 +241,8 @@ public class SmallDelayModel implements DelayModel {
         intraSiteDelays = new HashMap<>();
         bel2IdxMap      = src.getBEL2IdxMap();
         site2IdxMap     = src.getSite2IdxMap();
+        pinNames        = new ArrayList<>();
+        pinIds          = new HashMap<>();
 
         // populate logic delay.
         configCodeMap   = src.getConfigCodeMap();
@@ -58,6 +58,8 @@ public class TimingEdge extends DefaultEdge {
 
     private SitePinInst first;
     private SitePinInst second;
+    /** Id of this edge within the {@link LevelizedTimingGraph} of its TimingGraph, or -1 if none */
+    private int index = -1;
 
     /**
      * Constructs a TimingEdge based only on specifying two vertices.
@@ -261,6 +263,14 @@ public class TimingEdge extends DefaultEdge {
         this.intraSiteDelay = intraSiteDelay;
     }
 
+    int getIndex() {
+        return index;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
+    }
+
     public String toStringOnSitePinInsts() {
         return this.getFirstPin().toString() + " -> " + this.getSecondPin().toString();
     }
@@ -272,9 +282,10 @@ public class TimingEdge extends DefaultEdge {
     public void setRouteDelay(float routeDelay) {
         this.netDelay = this.intraSiteDelay + routeDelay;
         this.delay = logicDelay + this.netDelay;
-        if (timingGraph.containsEdge(this))
+        if (timingGraph.containsEdge(this)) {
             timingGraph.setEdgeWeight(this, this.delay);
-        else
+            timingGraph.markEdgeDelayChanged(this);
+        } else
             System.err.println("timing graph does not contain timing edge");
     }
 
@@ -285,8 +296,10 @@ public class TimingEdge extends DefaultEdge {
     public void setNetDelay(float netDelay) {
         this.netDelay = netDelay;
         this.delay = logicDelay + netDelay;
-        if (timingGraph.containsEdge(this))
+        if (timingGraph.containsEdge(this)) {
             timingGraph.setEdgeWeight(this, this.delay);
+            timingGraph.markEdgeDelayChanged(this);
+        }
     }
 
     /**
@@ -296,8 +309,10 @@ public class TimingEdge extends DefaultEdge {
     public void setLogicDelay(float logicDelay) {
         this.logicDelay = logicDelay;
         this.delay = logicDelay+netDelay;
-        if (timingGraph.containsEdge(this))
+        if (timingGraph.containsEdge(this)) {
             timingGraph.setEdgeWeight(this, this.delay);
+            timingGraph.markEdgeDelayChanged(this);
+        }
     }
 
     @Override
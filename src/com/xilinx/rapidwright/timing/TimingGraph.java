@@ -24,6 +24,7 @@ package com.xilinx.rapidwright.timing;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -45,17 +46,22 @@ import com.xilinx.rapidwright.design.SitePinInst;
 import com.xilinx.rapidwright.design.tools.LUTTools;
 import com.xilinx.rapidwright.device.BEL;
 import com.xilinx.rapidwright.device.BELPin;
+import com.xilinx.rapidwright.device.Node;
+import com.xilinx.rapidwright.device.PIP;
 import com.xilinx.rapidwright.edif.EDIFCell;
 import com.xilinx.rapidwright.edif.EDIFCellInst;
 import com.xilinx.rapidwright.edif.EDIFHierCellInst;
+import com.xilinx.rapidwright.edif.EDIFHierNet;
 import com.xilinx.rapidwright.edif.EDIFHierPortInst;
 import com.xilinx.rapidwright.edif.EDIFNet;
+import com.xilinx.rapidwright.edif.EDIFNetlist;
 import com.xilinx.rapidwright.edif.EDIFPortInst;
 import com.xilinx.rapidwright.edif.EDIFPropertyValue;
 import com.xilinx.rapidwright.edif.EDIFTools;
 import com.xilinx.rapidwright.rwroute.Connection;
 import com.xilinx.rapidwright.rwroute.RouterHelper;
 import com.xilinx.rapidwright.util.Pair;
+import com.xilinx.rapidwright.util.ParallelismTools;
 import com.xilinx.rapidwright.util.RuntimeTrackerTree;
 
 import org.jgrapht.GraphPath;
@@ -98,6 +104,10 @@ public class TimingGraph extends DefaultDirectedWeightedGraph<TimingVertex, Timi
     private List<TimingVertex> reversedOrderedTimingVertices = new ArrayList<>();
     private ClkRouteTiming clkRouteTiming = null;
     private RuntimeTrackerTree routerTimer;
+    /** Incremented whenever a vertex or an edge is added or removed */
+    private int structureVersion;
+    /** A levelized snapshot of this graph, or null if not yet built */
+    private LevelizedTimingGraph levelizedGraph;
     
     /** DSP timing data related variables */
     private String dspTimingDataFolder;
@@ -164,23 +174,24 @@ public class TimingGraph extends DefaultDirectedWeightedGraph<TimingVertex, Timi
         
         if (routerTimer != null) routerTimer.createRuntimeTracker("add net dly edges", "build timing graph").start();
         // for (Net net : design.getNets()) {
+        List<Net> nets = new ArrayList<>();
         for (Net net : targetNets) {
             if (net.isClockNet()) continue;//this is for getting rid of the problem in addNetDelayEdges() of clock net
             if (net.isStaticNet()) continue;
-            addNetDelayEdges(net);
+            nets.add(net);
         }
+        List<NetDelayEdges> netDelayEdges = addNetDelayEdges(nets);
         
-        addTimingEdgesOfNets(isPartialRouting, targetNets);
+        addTimingEdgesOfNets(isPartialRouting, netDelayEdges);
         
         if (routerTimer != null) routerTimer.getRuntimeTracker("add net dly edges").stop();
     }
     
-    private void addTimingEdgesOfNets(boolean isPartialRouting, Collection<Net> assignedNets) {
-        for (Net net : assignedNets) {
-            if (net.isClockNet()) continue;//this is for getting rid of the problem in addNetDelayEdges() of clock net
-            if (net.isStaticNet()) continue;
-            if (!isPartialRouting || !net.hasPIPs()) {
-                addNetDelayEdges(net);
+    private void addTimingEdgesOfNets(boolean isPartialRouting, List<NetDelayEdges> netDelayEdges) {
+        // The edges of a net do not depend on the graph, so there is no need to compute them again
+        for (NetDelayEdges edges : netDelayEdges) {
+            if (!isPartialRouting || !edges.net.hasPIPs()) {
+                mergeNetDelayEdges(edges);
             }
         }
     }
@@ -348,6 +359,75 @@ public class TimingGraph extends DefaultDirectedWeightedGraph<TimingVertex, Timi
         }
     }
     
+    /**
+     * Gets the version of the structure of this graph, which changes whenever a vertex or an edge is added or removed.
+     * @return The structure version.
+     */
+    int getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * Gets a levelized, array-based snapshot of this graph, (re)building it if the graph has changed structure
+     * since it was last built.
+     * @return The levelized timing graph.
+     */
+    public LevelizedTimingGraph getLevelizedGraph() {
+        if (levelizedGraph == null || !levelizedGraph.isCurrent(this)) {
+            levelizedGraph = new LevelizedTimingGraph(this);
+        }
+        return levelizedGraph;
+    }
+
+    /**
+     * Records that the delay of an edge has changed, so that the next
+     * {@link LevelizedTimingGraph#updateEdgeDelays()} only needs to re-read the edges that were marked.
+     * May be called concurrently.
+     * @param e The edge whose delay has changed.
+     */
+    void markEdgeDelayChanged(TimingEdge e) {
+        LevelizedTimingGraph graph = levelizedGraph;
+        if (graph != null) {
+            graph.markEdgeDelayChanged(e);
+        }
+    }
+
+    @Override
+    public boolean addVertex(TimingVertex v) {
+        structureVersion++;
+        return super.addVertex(v);
+    }
+
+    @Override
+    public boolean removeVertex(TimingVertex v) {
+        structureVersion++;
+        return super.removeVertex(v);
+    }
+
+    @Override
+    public TimingEdge addEdge(TimingVertex sourceVertex, TimingVertex targetVertex) {
+        structureVersion++;
+        return super.addEdge(sourceVertex, targetVertex);
+    }
+
+    @Override
+    public boolean addEdge(TimingVertex sourceVertex, TimingVertex targetVertex, TimingEdge e) {
+        structureVersion++;
+        return super.addEdge(sourceVertex, targetVertex, e);
+    }
+
+    @Override
+    public TimingEdge removeEdge(TimingVertex sourceVertex, TimingVertex targetVertex) {
+        structureVersion++;
+        return super.removeEdge(sourceVertex, targetVertex);
+    }
+
+    @Override
+    public boolean removeEdge(TimingEdge e) {
+        structureVersion++;
+        return super.removeEdge(e);
+    }
+
     /**
      * Get the maximum delay, i.e., the maximum arrival time, and corresponding timing path sink of the design
      */
@@ -956,6 +1036,41 @@ public class TimingGraph extends DefaultDirectedWeightedGraph<TimingVertex, Timi
         return result;
     }
 
+    /**
+     * Gets the clock net of the cell of a timing vertex, i.e. the parent net connected to the first clock input
+     * of the cell ("C" for flip flops, "CLK*" or "WCLK" for others).
+     * This is used by {@link MultiClockTiming} to tag the start points and endpoints of timing paths.
+     * @param v The timing vertex, named after a cell pin.
+     * @return The hierarchical name of the clock net, or null if the vertex is not a pin of a clocked cell.
+     */
+    public String getClockNetName(TimingVertex v) {
+        String name = v.getName();
+        int slash = name.lastIndexOf('/');
+        if (slash < 0) {
+            return null;
+        }
+        String cellName = name.substring(0, slash);
+        EDIFCellInst cellInst = myCellMap.get(cellName);
+        if (cellInst == null) {
+            return null;
+        }
+        EDIFNetlist netlist = design.getNetlist();
+        for (EDIFPortInst portInst : cellInst.getPortInsts()) {
+            String portName = portInst.getName();
+            if (!portInst.isInput() ||
+                    !(portName.equals("C") || portName.startsWith("CLK") || portName.equals("WCLK"))) {
+                continue;
+            }
+            EDIFHierPortInst ehpi = netlist.getHierPortInstFromName(cellName + "/" + portName);
+            if (ehpi == null || ehpi.getHierarchicalNet() == null) {
+                continue;
+            }
+            EDIFHierNet parentNet = netlist.getParentNet(ehpi.getHierarchicalNet());
+            return (parentNet != null ? parentNet : ehpi.getHierarchicalNet()).getHierarchicalNetName();
+        }
+        return null;
+    }
+
     /**
      * Checks if the provided string is a supported unisim flop flop type.
      * @param cellType The cell type name to query.
@@ -1489,14 +1604,6 @@ public class TimingGraph extends DefaultDirectedWeightedGraph<TimingVertex, Timi
         }
     }
     
-    private Cell srcCell;
-    private Cell dstCell;
-    private BELPin source;
-    private BELPin sink;
-    private SiteInst si;
-    
-    private float intraSiteDelay = 0.0f;
-
     /**
      * This method is called per physical "Net" object for adding TimingEdges into the TimingGraph 
      * representing the net delays.
@@ -1520,20 +1627,100 @@ public class TimingGraph extends DefaultDirectedWeightedGraph<TimingVertex, Timi
         return delay;
     }
     
-    public boolean overwriteBUGCEDelay = false;
+    /** Minimum number of nets per thread when computing net delay edges in parallel */
+    private static final int MIN_PARALLEL_NETS = 256;
+
+    /**
+     * A net delay edge between two named vertices, as computed by {@link #computeNetDelayEdges(Net)}
+     * before it is inserted into the graph.
+     */
+    private static class NetDelayEdge {
+        String srcName;
+        String dstName;
+        boolean srcFlopOutput;
+        boolean dstFlopInput;
+        /** False if only the vertices are to be added, since no delay could be determined */
+        boolean hasDelay;
+        float netDelay;
+        float logicDelay;
+        float intraSiteDelay;
+        boolean updateLogicDelay;
+        SitePinInst firstSitePinInst;
+        SitePinInst secondSitePinInst;
+    }
+
+    /**
+     * All net delay edges of a net, as computed by {@link #computeNetDelayEdges(Net)} independently of the
+     * rest of the graph, so that they can be computed in parallel and then merged in a deterministic order.
+     */
+    private static class NetDelayEdges {
+        Net net;
+        EDIFNet edifNet;
+        /** Return value of {@link #addNetDelayEdges(Net)} */
+        int result;
+        List<Pair<EDIFHierPortInst, SitePinInst>> hportPins = new ArrayList<>();
+        List<NetDelayEdge> edges = new ArrayList<>();
+    }
+
+    /**
+     * Adds the TimingEdges representing the delays of a net to the TimingGraph.
+     * @param net Physical "Net" to be analyzed.
+     * @return Returns -1 or 0 on failure.  Returns 1 on success.
+     */
     public int addNetDelayEdges(Net net) {
+        return mergeNetDelayEdges(computeNetDelayEdges(net));
+    }
+
+    /**
+     * Adds the TimingEdges representing the delays of many nets to the TimingGraph, equivalent to calling
+     * {@link #addNetDelayEdges(Net)} on each net in turn. The edges of each net are computed in parallel using
+     * {@link ParallelismTools}, then inserted in the order of the nets so that the resulting graph does not depend
+     * on the number of threads.
+     * @param nets Physical nets to be analyzed.
+     * @return The edges computed for each net, in the same order, so that they can be merged again.
+     */
+    private List<NetDelayEdges> addNetDelayEdges(List<Net> nets) {
+        // Build the lazily-computed netlist pin map up front, rather than racing to build it
+        design.getNetlist().getPhysicalNetPinMap();
+        NetDelayEdges[] results = new NetDelayEdges[nets.size()];
+        ParallelismTools.invokeAllRange(0, nets.size(), MIN_PARALLEL_NETS,
+                (i) -> results[i] = computeNetDelayEdges(nets.get(i)));
+        for (NetDelayEdges result : results) {
+            mergeNetDelayEdges(result);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Computes the TimingEdges representing the delays of a net without modifying the TimingGraph.
+     * May be called concurrently on different nets.
+     * @param net Physical "Net" to be analyzed.
+     * @return The edges to be added to the graph by {@link #mergeNetDelayEdges(NetDelayEdges)}.
+     */
+    private NetDelayEdges computeNetDelayEdges(Net net) {
+        NetDelayEdges result = new NetDelayEdges();
+        result.net = net;
         EDIFNet edifNet = net.getLogicalNet();
+        result.edifNet = edifNet;
         boolean haveIntrasiteNet = (net.getSinkPins().size() == 0);
         SitePinInst spi_source = net.getSource();
         float logicDelay;
         SitePinInst local_spi_source = null;
         List<SitePinInst> spi_sources = new ArrayList<>();
-        
+        Cell srcCell;
+        Cell dstCell;
+        BELPin source = null;
+        BELPin sink;
+        SiteInst si = null;
+        float intraSiteDelay = 0.0f;
+        boolean overwriteBUGCEDelay;
+
         List<EDIFHierPortInst> hports = null;
         hports = design.getNetlist().getPhysicalPins(net);
 
         if (hports == null) {
-            return 0;
+            result.result = 0;
+            return result;
         }
 
         HashMap<String, SitePinInst> stringSources = new HashMap<>();
@@ -1647,73 +1834,56 @@ public class TimingGraph extends DefaultDirectedWeightedGraph<TimingVertex, Timi
                 stringSinks.put(fullName, mypin);
                 sink_belpins.put(fullName, belpin);
             }
-            edifHPortMap.put(hport, mypin);// added to get corresponding timing edges of connections
+            result.hportPins.add(new Pair<>(hport, mypin));// added to get corresponding timing edges of connections
         }
         
         if (stringSinks.size() == 0 || stringSources.size() == 0) {
             int nPins = net.getPins().size();
             if (hports.size() != nPins) {
-                return 0;
+                result.result = 0;
             } else
-                return -1;
+                result.result = -1;
+            return result;
         }
         String S = stringSources.keySet().iterator().next();
         
         local_spi_source = spi_sources.size() > 0? spi_sources.get(0) : net.getSource() != null ? net.getSource() : local_spi_source;
 
+        // Built on first use and shared by all the sinks of this net
+        Map<Node, PIP> pipsByEndNode = null;
         for (String D : stringSinks.keySet()) {
             SitePinInst spi_sink = stringSinks.get(D);
             srcCell = testSourceCell;
             dstCell = testDestCells.get(D);
             sink = sink_belpins.get(D);
-            TimingVertex vS = safeVertexCheck.get(S);
-            if (vS == null)
-                vS = new TimingVertex(S);
 
+            NetDelayEdge edge = new NetDelayEdge();
+            edge.srcName = S;
+            edge.dstName = D;
             String vs_type = (srcCell != null) ? srcCell.getType() : null;
-            if (vs_type != null && isUnisimFlipFlopType(vs_type)) {
-                vS.setFlopOutput();
-            }
-
-            TimingVertex vD = safeVertexCheck.get(D);
-            if (vD == null)
-                vD = new TimingVertex(D);
-
+            edge.srcFlopOutput = vs_type != null && isUnisimFlipFlopType(vs_type);
             String vd_type = (dstCell != null) ? dstCell.getType() : null;
-            if (vd_type != null && isUnisimFlipFlopType(vd_type)) {
-                //String destClk = "";
-                vD.setFlopInput();
-            }
-            vS = safeAddVertex(vS);
-            vD = safeAddVertex(vD);
-            TimingEdge e;
-            e = getEdge(vS, vD);
-            if (e == null)
-                e = new TimingEdge(this, vS, vD, edifNet, net);
+            edge.dstFlopInput = vd_type != null && isUnisimFlipFlopType(vd_type);
+            // The vertices are added even if no delay can be determined for the edge between them
+            result.edges.add(edge);
 
-            boolean forceUpdateEdge = false;
             float netDelay = 0f;
             if (haveIntrasiteNet) {//LUT driving a FF is here
-                String param2 = srcCell.getBELName()+"/"+ source.getName();
-                String param3 = null;
+                short siteTypeIdx = intrasiteAndLogicDelayModel.getSiteTypeIndex(si.getSiteTypeEnum());
+                if (siteTypeIdx < 0) {
+                    continue;
+                }
+                int param2 = intrasiteAndLogicDelayModel.getBELPinId(srcCell.getBELName(), source.getName());
+                int param3;
                 if (sink_belpins.get(D) == null) {
-                    param3 =  dstCell.getBELName() +"/" + stringSinks.get(D).getName();
+                    param3 = intrasiteAndLogicDelayModel.getBELPinId(dstCell.getBELName(), stringSinks.get(D).getName());
                 } else {
-                    param3 =  dstCell.getBELName() +"/" +sink_belpins.get(D).getName();
+                    param3 = intrasiteAndLogicDelayModel.getBELPinId(dstCell.getBELName(), sink_belpins.get(D).getName());
                 }
-                float tmpNetDelay;
-                Short returnValue = intrasiteAndLogicDelayModel.getIntraSiteDelay(
-                            si.getSiteTypeEnum(),
-                            param2,
-                            param3);
-                if (returnValue == null) {
-                    continue;
-                }
-                tmpNetDelay = (float) returnValue;
+                float tmpNetDelay = intrasiteAndLogicDelayModel.getIntraSiteDelay(siteTypeIdx, param2, param3);
                 
                 intraSiteDelay = Math.max(0f, tmpNetDelay);// YZhou: for intrasite net, its intrasite delay is equal to net delay
                 netDelay = Math.max(0f, tmpNetDelay);
-                forceUpdateEdge = true;
                 
             } else {
                 if (srcCell == null)
@@ -1722,24 +1892,24 @@ public class TimingGraph extends DefaultDirectedWeightedGraph<TimingVertex, Timi
                     continue;
                 if (local_spi_source == null || spi_sink == null) {
                     if (local_spi_source == null && spi_sink == null) {//source and sink are null
-                        String param2 = srcCell.getBELName()+"/"+ source.getName();
-                        String param3 =  dstCell.getBELName() +"/" +sink_belpins.get(D).getName();
-                        float tmpNetDelay = intrasiteAndLogicDelayModel.getIntraSiteDelay(
-                                si.getSiteTypeEnum(),
-                                param2,
-                                param3);
+                        short siteTypeIdx = intrasiteAndLogicDelayModel.getSiteTypeIndex(si.getSiteTypeEnum());
+                        if (siteTypeIdx < 0) {
+                            continue;
+                        }
+                        int param2 = intrasiteAndLogicDelayModel.getBELPinId(srcCell.getBELName(), source.getName());
+                        int param3 = intrasiteAndLogicDelayModel.getBELPinId(dstCell.getBELName(), sink_belpins.get(D).getName());
+                        float tmpNetDelay = intrasiteAndLogicDelayModel.getIntraSiteDelay(siteTypeIdx, param2, param3);
                         netDelay = tmpNetDelay;
                         intraSiteDelay = tmpNetDelay;
-                        forceUpdateEdge = true;
                     } else {
-                        netDelay = timingModel.calcDelay(local_spi_source, spi_sink, source, sink, net); 
-                        intraSiteDelay = timingModel.getIntraSiteDelay();
-                        forceUpdateEdge = true;
+                        intraSiteDelay = timingModel.calcIntraSiteDelay(local_spi_source, spi_sink, source, sink);
+                        if (pipsByEndNode == null) pipsByEndNode = timingModel.getPIPsByEndNode(net);
+                        netDelay = timingModel.calcDelay(local_spi_source, spi_sink, source, sink, net, pipsByEndNode, intraSiteDelay);
                     }
-                } else {                    
-                    netDelay = timingModel.calcDelay(local_spi_source, spi_sink, source, sink, net);
-                    intraSiteDelay = timingModel.getIntraSiteDelay();
-                    forceUpdateEdge = true;
+                } else {
+                    intraSiteDelay = timingModel.calcIntraSiteDelay(local_spi_source, spi_sink, source, sink);
+                    if (pipsByEndNode == null) pipsByEndNode = timingModel.getPIPsByEndNode(net);
+                    netDelay = timingModel.calcDelay(local_spi_source, spi_sink, source, sink, net, pipsByEndNode, intraSiteDelay);
                     if (clkRouteTiming == null) {
                         overwriteBUGCEDelay = false;
                     } else {
@@ -1752,25 +1922,75 @@ public class TimingGraph extends DefaultDirectedWeightedGraph<TimingVertex, Timi
                 }
             }
             
-            if (e.getNetDelay() != 0f || forceUpdateEdge) {
-                 if (overwriteBUGCEDelay) {
-                     if (spi_sink.getName().equals("CLK_IN")) {
-                         logicDelay += getRouteDelayToSinkINTTile(RouterHelper.getUpstreamINTTileOfClkIn(spi_sink).getName());
-                     } else {
-                         netDelay = getRouteDelayToSinkINTTile(spi_sink.getConnectedNode().getTile().getName());
-                         logicDelay = 0;
-                         intraSiteDelay = 0;
-                     }
-                 }
-                e.setNetDelay(netDelay);
-                if (updateLogicDelay) e.setLogicDelay(logicDelay);
-                e.setIntraSiteDelay(intraSiteDelay);
+            if (overwriteBUGCEDelay) {
+                if (spi_sink.getName().equals("CLK_IN")) {
+                    logicDelay += getRouteDelayToSinkINTTile(RouterHelper.getUpstreamINTTileOfClkIn(spi_sink).getName());
+                } else {
+                    netDelay = getRouteDelayToSinkINTTile(spi_sink.getConnectedNode().getTile().getName());
+                    logicDelay = 0;
+                    intraSiteDelay = 0;
+                }
             }
-            e.setFirstSitePinInst(local_spi_source);
-            e.setSecondSitePinInst(spi_sink);
+            edge.hasDelay = true;
+            edge.netDelay = netDelay;
+            edge.logicDelay = logicDelay;
+            edge.updateLogicDelay = updateLogicDelay;
+            edge.intraSiteDelay = intraSiteDelay;
+            edge.firstSitePinInst = local_spi_source;
+            edge.secondSitePinInst = spi_sink;
+        }
+
+        result.result = 1;
+        return result;
+    }
+
+    /**
+     * Inserts the TimingEdges computed by {@link #computeNetDelayEdges(Net)} into the TimingGraph,
+     * reusing any existing vertices and edges.
+     * @param netDelayEdges The edges of a net.
+     * @return Returns -1 or 0 on failure.  Returns 1 on success.
+     */
+    private int mergeNetDelayEdges(NetDelayEdges netDelayEdges) {
+        for (Pair<EDIFHierPortInst, SitePinInst> hportPin : netDelayEdges.hportPins) {
+            edifHPortMap.put(hportPin.getFirst(), hportPin.getSecond());
+        }
+        if (netDelayEdges.result != 1) {
+            return netDelayEdges.result;
+        }
+
+        for (NetDelayEdge edge : netDelayEdges.edges) {
+            TimingVertex vS = safeVertexCheck.get(edge.srcName);
+            if (vS == null)
+                vS = new TimingVertex(edge.srcName);
+            if (edge.srcFlopOutput) {
+                vS.setFlopOutput();
+            }
+
+            TimingVertex vD = safeVertexCheck.get(edge.dstName);
+            if (vD == null)
+                vD = new TimingVertex(edge.dstName);
+            if (edge.dstFlopInput) {
+                vD.setFlopInput();
+            }
+            vS = safeAddVertex(vS);
+            vD = safeAddVertex(vD);
+            if (!edge.hasDelay) {
+                continue;
+            }
+
+            TimingEdge e;
+            e = getEdge(vS, vD);
+            if (e == null)
+                e = new TimingEdge(this, vS, vD, netDelayEdges.edifNet, netDelayEdges.net);
+            e.setNetDelay(edge.netDelay);
+            if (edge.updateLogicDelay) e.setLogicDelay(edge.logicDelay);
+            e.setIntraSiteDelay(edge.intraSiteDelay);
+            e.setFirstSitePinInst(edge.firstSitePinInst);
+            e.setSecondSitePinInst(edge.secondSitePinInst);
             safeAddEdge(vS, vD, e);
             setEdgeWeight(e, e.getDelay());
             
+            SitePinInst spi_sink = edge.secondSitePinInst;
             if (spi_sink != null) {
                 List<TimingEdge> connectionEdges = sinkSitePinInstTimingEdges.get(spi_sink);
                 if (connectionEdges == null) {
@@ -242,42 +242,8 @@ public class TimingGroup implements Comparable<TimingGroup> {
      * @return The D term used by the TimingModel delay calculation.
      */
     int computeD(Node n) {
-        int result = 0;
-        int minRow = 1<<20;
-        int maxRow = 0;
-        int minCol = 1<<20;
-        int maxCol = 0;
-        List<Wire> wList = new LinkedList<>();
-        for (Wire w : n.getAllWiresInNode()) {
-            if (w.getWireName().contains("BEG")) {
-                wList.add(0,w);
-            }
-            if (w.getWireName().contains("END")) {
-                wList.add(w);
-            }
-        }
-        for (Wire w1 : wList) {
-            if (w1.getTile().getColumn() < minCol)
-                minCol = w1.getTile().getColumn();
-            if (w1.getTile().getColumn() > maxCol)
-                maxCol = w1.getTile().getColumn();
-            if (w1.getTile().getRow() < minRow)
-                minRow = w1.getTile().getRow();
-            if (w1.getTile().getRow() > maxRow)
-                maxRow = w1.getTile().getRow();
-        }
-        int col1 = minCol;
-        int row1 = minRow;
-        int col2 = maxCol;
-        int row2 = maxRow;
-        if (groupWireDir == GroupWireDirection.HORIZONTAL && col1 < col2) {
-            result += timingModel.computeHorizontalDistFromArray(col1, col2, groupDelayType);
-        }
-        if (groupWireDir == GroupWireDirection.VERTICAL && row1 < row2) {
-            result += timingModel.computeVerticalDistFromArray(row1, row2, groupDelayType);
-        }
-        d = result;
-        return result;
+        d = timingModel.getDist(n, groupDelayType, groupWireDir);
+        return d;
     }
 
     /**
@@ -22,15 +22,23 @@
 package com.xilinx.rapidwright.timing;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import com.xilinx.rapidwright.design.ConstraintGroup;
 import com.xilinx.rapidwright.design.Design;
 import com.xilinx.rapidwright.design.Net;
 import com.xilinx.rapidwright.device.Device;
 import com.xilinx.rapidwright.device.Node;
+import com.xilinx.rapidwright.edif.EDIFCellInst;
+import com.xilinx.rapidwright.edif.EDIFHierCellInst;
+import com.xilinx.rapidwright.edif.EDIFHierNet;
+import com.xilinx.rapidwright.edif.EDIFHierPortInst;
+import com.xilinx.rapidwright.edif.EDIFNetlist;
+import com.xilinx.rapidwright.edif.EDIFPropertyValue;
 import com.xilinx.rapidwright.rwroute.Connection;
 import com.xilinx.rapidwright.rwroute.NetWrapper;
 import com.xilinx.rapidwright.rwroute.RWRouteConfig;
@@ -39,6 +47,7 @@ import com.xilinx.rapidwright.rwroute.RouteNodeGraph;
 import com.xilinx.rapidwright.timing.delayestimator.DelayEstimatorBase;
 import com.xilinx.rapidwright.util.MessageGenerator;
 import com.xilinx.rapidwright.util.Pair;
+import com.xilinx.rapidwright.util.ParallelismTools;
 import com.xilinx.rapidwright.util.RuntimeTrackerTree;
 
 
@@ -60,6 +69,32 @@ public class TimingManager {
     private float timingRequirement;
     private float pessimismA = (float) 1.03;
     private float pessimismB = 100;
+    /** True to propagate arrival and required times using a {@link LevelizedTimingGraph} */
+    private boolean useLevelizedGraph;
+    /** The levelized timing graph that times were last computed on, or null if not used */
+    private LevelizedTimingGraph levelizedGraph;
+    /** True if the TimingVertex objects do not reflect the latest times computed on the levelized graph */
+    private boolean timingVerticesStale;
+    /** True to only update the times affected by edges whose delay changed (requires the levelized graph) */
+    private boolean incremental;
+    /** Number of vertex arrival and required time updates during the last timing update */
+    private int numVerticesUpdated;
+    /** True to propagate times level by level and compute criticalities using multiple threads */
+    private boolean parallel;
+    /** Minimum number of connections per thread when criticalities are computed in parallel */
+    private static final int MIN_PARALLEL_CONNECTIONS = 1024;
+    /** True to time each clock domain against its own requirement (requires the levelized graph) */
+    private boolean multiClock;
+    /** The clock-domain-aware times last computed on the levelized graph, or null if not used */
+    private MultiClockTiming multiClockTiming;
+    /** Requirements of individual clocks in picoseconds, by clock net name, overriding the design constraints */
+    private final Map<String, Float> clockRequirements = new HashMap<>();
+    /** Periods of the clocks created on top-level ports by the design constraints, parsed on demand */
+    private Map<String, Float> clockPeriods;
+    /** Requirements of individual clocks in picoseconds, by clock net name, as traced from the design constraints */
+    private final Map<String, Float> tracedClockRequirements = new HashMap<>();
+    /** Maximum number of clock buffers and clock generators traced through from a clock net to its source */
+    private static final int MAX_CLOCK_TRACE_DEPTH = 16;
     
     /**
      * Default constructor: creates the TimingManager object, which the user needs to create for 
@@ -94,6 +129,11 @@ public class TimingManager {
         setTimingRequirement();
         verbose = config.isVerbose();
         setPessimismFactors(config.getPessimismA(), config.getPessimismB());
+        useLevelizedGraph = config.isLevelizedTimingGraph() || config.isIncrementalTiming() || config.isParallelTiming() ||
+                config.isMultiClockTiming();
+        incremental = config.isIncrementalTiming();
+        parallel = config.isParallelTiming();
+        multiClock = config.isMultiClockTiming();
         routerTimer = timer;
         timingModel = new TimingModel(design.getDevice());
         timingGraph = new TimingGraph(design, routerTimer, clkTiming, config.getDspTimingDataFolder());
@@ -149,10 +189,14 @@ public class TimingManager {
      * Calculates and returns the maximum arrival time and the associated TimingVertex
      */
     public Pair<Float,TimingVertex> calculateArrivalRequiredTimes() {
+        if (useLevelizedGraph) {
+            return multiClock ? calculateArrivalRequiredTimesMultiClock() : calculateArrivalRequiredTimesLevelized();
+        }
         Pair<Float, TimingVertex> maxs;
 
         timingGraph.resetRequiredAndArrivalTime();
         timingGraph.computeArrivalTimesTopologicalOrder();
+        numVerticesUpdated = 2 * timingGraph.vertexSet().size();
 
         maxs = timingGraph.getMaxDelay();
         float maxArrival = maxs.getFirst();
@@ -168,6 +212,169 @@ public class TimingManager {
         return maxs;
     }
     
+    /**
+     * Calculates the arrival and required times on the levelized timing graph, leaving the TimingVertex objects
+     * to be updated on demand.
+     * @return The maximum arrival time and the associated TimingVertex.
+     */
+    private Pair<Float,TimingVertex> calculateArrivalRequiredTimesLevelized() {
+        levelizedGraph = timingGraph.getLevelizedGraph();
+        levelizedGraph.updateEdgeDelays();
+        if (incremental) {
+            numVerticesUpdated = levelizedGraph.updateArrivalTimes();
+        } else {
+            levelizedGraph.computeArrivalTimes(parallel);
+            numVerticesUpdated = levelizedGraph.getNumVertices();
+        }
+        float maxArrival = levelizedGraph.getArrivalTime(timingGraph.superSink);
+        // See calculateArrivalRequiredTimes() for the normalization of the required time
+        float normalizedRequired = Float.max(maxArrival, timingRequirement);
+        if (incremental) {
+            numVerticesUpdated += levelizedGraph.updateRequiredTimes(timingGraph.superSink, normalizedRequired);
+        } else {
+            levelizedGraph.computeRequiredTimes(timingGraph.superSink, normalizedRequired, parallel);
+            numVerticesUpdated += levelizedGraph.getNumVertices();
+        }
+        timingVerticesStale = true;
+        return new Pair<>(maxArrival, timingGraph.superSink);
+    }
+
+    /**
+     * Calculates the arrival and required times of every clock domain on the levelized timing graph in a single
+     * pass, each domain against its own requirement, leaving the TimingVertex objects to be updated on demand.
+     * These updates are always full.
+     * @return The maximum arrival time over all clock domains, and the super sink.
+     */
+    private Pair<Float,TimingVertex> calculateArrivalRequiredTimesMultiClock() {
+        levelizedGraph = timingGraph.getLevelizedGraph();
+        levelizedGraph.updateEdgeDelays();
+        if (multiClockTiming == null || multiClockTiming.getGraph() != levelizedGraph) {
+            multiClockTiming = new MultiClockTiming(levelizedGraph, timingGraph.superSource, timingGraph.superSink,
+                    timingGraph::getClockNetName);
+        }
+        multiClockTiming.computeArrivalTimes(parallel);
+        int numDomains = multiClockTiming.getNumDomains();
+        float[] normalizedRequired = new float[numDomains];
+        float maxArrival = 0;
+        for (int d = 0; d < numDomains; d++) {
+            float domainArrival = multiClockTiming.getMaxArrivalTime(d);
+            // See calculateArrivalRequiredTimes() for the normalization of the required time
+            normalizedRequired[d] = Float.max(domainArrival, getClockRequirementPs(multiClockTiming.getDomainName(d)));
+            maxArrival = Float.max(maxArrival, domainArrival);
+        }
+        multiClockTiming.computeRequiredTimes(normalizedRequired, parallel);
+        numVerticesUpdated = 2 * levelizedGraph.getNumVertices();
+        timingVerticesStale = true;
+        return new Pair<>(maxArrival, timingGraph.superSink);
+    }
+
+    /**
+     * Copies the times last computed on the levelized timing graph back to the TimingVertex objects, if needed.
+     */
+    private void updateTimingVertices() {
+        if (timingVerticesStale) {
+            if (multiClock) {
+                multiClockTiming.writeBack();
+            } else {
+                levelizedGraph.writeBack();
+            }
+            timingVerticesStale = false;
+        }
+    }
+
+    /**
+     * Sets whether arrival and required times are propagated using a {@link LevelizedTimingGraph}
+     * (primitive arrays in level order) instead of the TimingGraph and its TimingVertex objects.
+     * @param useLevelizedGraph True to use the levelized timing graph.
+     */
+    public void setUseLevelizedGraph(boolean useLevelizedGraph) {
+        updateTimingVertices();
+        this.useLevelizedGraph = useLevelizedGraph;
+        if (!useLevelizedGraph) {
+            incremental = false;
+            parallel = false;
+            multiClock = false;
+        }
+    }
+
+    public boolean isUseLevelizedGraph() {
+        return useLevelizedGraph;
+    }
+
+    /**
+     * Sets whether timing updates are incremental: only the arrival times in the fan-out cones and the required
+     * times in the fan-in cones of edges whose delay changed since the last update are recomputed, giving the
+     * same times as a full update. Enabling incremental updates also enables the levelized timing graph.
+     * @param incremental True to use incremental timing updates.
+     */
+    public void setIncremental(boolean incremental) {
+        if (incremental) {
+            setUseLevelizedGraph(true);
+        }
+        this.incremental = incremental;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Sets whether full timing updates propagate arrival and required times one level at a time, with the
+     * vertices of each level split among the threads of {@link com.xilinx.rapidwright.util.ParallelismTools},
+     * and whether connection criticalities are computed in parallel. Incremental updates remain single-threaded.
+     * Enabling parallel updates also enables the levelized timing graph.
+     * @param parallel True to use parallel timing updates.
+     */
+    public void setParallel(boolean parallel) {
+        if (parallel) {
+            setUseLevelizedGraph(true);
+        }
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets whether each clock domain is timed against its own requirement: timing start points and endpoints are
+     * tagged with the clock net of their cell (see {@link TimingGraph#getClockNetName(TimingVertex)}), and the
+     * arrival and required times of all domains are computed in a single pass using {@link MultiClockTiming},
+     * with paths between different clocks left untimed. Connection criticalities are then the maximum over the
+     * domains of each connection. Multi-clock updates are always full, and the times written back to the
+     * TimingVertex objects are the worst over all domains. Enabling multi-clock timing also enables the
+     * levelized timing graph.
+     * @param multiClock True to time each clock domain against its own requirement.
+     */
+    public void setMultiClock(boolean multiClock) {
+        updateTimingVertices();
+        if (multiClock) {
+            setUseLevelizedGraph(true);
+        }
+        this.multiClock = multiClock;
+    }
+
+    public boolean isMultiClock() {
+        return multiClock;
+    }
+
+    /**
+     * Gets the clock-domain-aware times last computed with multi-clock timing.
+     * @return The multi-clock timing, or null if it has not been used.
+     */
+    public MultiClockTiming getMultiClockTiming() {
+        return multiClockTiming;
+    }
+
+    /**
+     * Gets the number of vertices visited during the last call to {@link #calculateArrivalRequiredTimes()},
+     * counting arrival and required time updates separately (a full update visits every vertex twice).
+     * @return The number of vertex updates.
+     */
+    public int getNumVerticesUpdated() {
+        return numVerticesUpdated;
+    }
+
     /**
      * Sets critical path delay pessimism factors.
      */
@@ -181,6 +388,7 @@ public class TimingManager {
     }
     
     public void getCriticalPathInfo(Pair<Float, TimingVertex> maxDelayTimingVertex, boolean useRoutable, RouteNodeGraph routingGraph) {
+        updateTimingVertices();
         TimingVertex maxV = maxDelayTimingVertex.getSecond();
         float maxDelay = maxDelayTimingVertex.getFirst();
         System.out.printf(MessageGenerator.formatString("Timing requirement (ps):", timingRequirement));
@@ -198,12 +406,119 @@ public class TimingManager {
         System.out.printf(MessageGenerator.formatString("Slack (ps):", (int)(timingRequirement - adjusted)));
         
         printPathDelayBreakDown(arr, criticalEdges, timingGraph.getTimingEdgeConnectionMap(), useRoutable, routingGraph);
+        if (multiClock && multiClockTiming != null) {
+            printClockDomainSummary();
+        }
+    }
+
+    /**
+     * Prints the requirement, maximum delay and worst slack of each clock domain, as last computed with
+     * multi-clock timing.
+     */
+    public void printClockDomainSummary() {
+        System.out.println("\nClock domains:");
+        System.out.println("------------------------------------------------------------------------------");
+        System.out.printf("%16s  %14s  %10s    %-25s\n", "Requirement (ps)", "Max delay (ps)", "Slack (ps)", "Clock");
+        System.out.printf("----------------  --------------  ----------    ------------------------\n");
+        for (int d = 0; d < multiClockTiming.getNumDomains(); d++) {
+            String clock = multiClockTiming.getDomainName(d);
+            String label = (clock == null) ? "(all)" : clock;
+            float requirement = getClockRequirementPs(clock);
+            float maxDelay = multiClockTiming.getMaxArrivalTime(d);
+            if (maxDelay == Float.NEGATIVE_INFINITY) {
+                System.out.printf("%16d  %14s  %10s    %-25s\n", (int) requirement, "-", "-", label);
+            } else {
+                System.out.printf("%16d  %14d  %10d    %-25s\n", (int) requirement, (int) maxDelay,
+                        (int) (requirement - maxDelay), label);
+            }
+        }
+        System.out.println("------------------------------------------------------------------------------");
     }
     
+    /**
+     * Gets the worst timing paths of the design, i.e. those with the largest delay to the super sink, in order of
+     * non-increasing delay, using a {@link CriticalPathEnumerator} on the levelized timing graph.
+     * Arrival times are brought up to date first, using the levelized timing graph.
+     * @param maxPaths The maximum number of paths to report.
+     * @param maxPathsPerEndpoint The maximum number of paths to report for each timing endpoint, or 0 for no limit.
+     * @return The list of worst paths, with their slack computed against the timing requirement.
+     */
+    public List<TimingPath> getWorstPaths(int maxPaths, int maxPathsPerEndpoint) {
+        return getWorstPaths(maxPaths, maxPathsPerEndpoint, 0);
+    }
+
+    /**
+     * Gets the worst timing paths of the design, as {@link #getWorstPaths(int, int)} does, but with at most
+     * maxPathsPerClock paths captured by each clock (see {@link TimingGraph#getClockNetName(TimingVertex)}),
+     * so that the paths of every clock domain are reported.
+     * @param maxPaths The maximum number of paths to report.
+     * @param maxPathsPerEndpoint The maximum number of paths to report for each timing endpoint, or 0 for no limit.
+     * @param maxPathsPerClock The maximum number of paths to report for each clock domain, or 0 for no limit.
+     * Endpoints of an unknown clock count as one more domain.
+     * @return The list of worst paths, with their slack computed against the timing requirement.
+     */
+    public List<TimingPath> getWorstPaths(int maxPaths, int maxPathsPerEndpoint, int maxPathsPerClock) {
+        LevelizedTimingGraph graph;
+        if (useLevelizedGraph && !multiClock) {
+            calculateArrivalRequiredTimes();
+            graph = levelizedGraph;
+        } else {
+            // The levelized graph is not otherwise used, so it can be updated independently
+            graph = timingGraph.getLevelizedGraph();
+            graph.updateEdgeDelays();
+            graph.computeArrivalTimes(parallel);
+        }
+        MultiClockTiming domains = null;
+        if (maxPathsPerClock > 0) {
+            // Only the clock domains of the endpoints are needed, not their times
+            domains = (multiClockTiming != null && multiClockTiming.getGraph() == graph) ? multiClockTiming :
+                    new MultiClockTiming(graph, timingGraph.superSource, timingGraph.superSink,
+                            timingGraph::getClockNetName);
+        }
+        return new CriticalPathEnumerator(graph, timingGraph.superSink)
+                .getWorstPaths(maxPaths, maxPathsPerEndpoint, domains, maxPathsPerClock, timingRequirement);
+    }
+
+    /**
+     * Prints a summary of the worst timing paths of the design, one line per path, followed by the
+     * detailed delays of the worst path if verbose.
+     * @param maxPaths The maximum number of paths to report.
+     * @param maxPathsPerEndpoint The maximum number of paths to report for each timing endpoint, or 0 for no limit.
+     */
+    public void printWorstPaths(int maxPaths, int maxPathsPerEndpoint) {
+        printWorstPaths(maxPaths, maxPathsPerEndpoint, 0);
+    }
+
+    /**
+     * Prints a summary of the worst timing paths of the design, as {@link #printWorstPaths(int, int)} does, with
+     * at most maxPathsPerClock paths for each clock domain.
+     * @param maxPaths The maximum number of paths to report.
+     * @param maxPathsPerEndpoint The maximum number of paths to report for each timing endpoint, or 0 for no limit.
+     * @param maxPathsPerClock The maximum number of paths to report for each clock domain, or 0 for no limit.
+     */
+    public void printWorstPaths(int maxPaths, int maxPathsPerEndpoint, int maxPathsPerClock) {
+        List<TimingPath> paths = getWorstPaths(maxPaths, maxPathsPerEndpoint, maxPathsPerClock);
+        System.out.println("\nWorst " + paths.size() + " timing paths:");
+        System.out.println("------------------------------------------------------------------------------");
+        System.out.printf("%8s  %10s  %10s  %6s    %-25s\n", "Path", "Delay (ps)", "Slack (ps)", "Edges", "Endpoint");
+        System.out.printf("--------  ----------  ----------  ------    ------------------------\n");
+        int id = 0;
+        for (TimingPath path : paths) {
+            System.out.printf("%8d  %10d  %10d  %6d    %-25s\n", id++, (int) path.getDelay(), (int) path.getSlack(),
+                    path.getEdges().size(), path.getEndpoint());
+        }
+        System.out.println("------------------------------------------------------------------------------");
+        if (verbose && !paths.isEmpty()) {
+            TimingPath worst = paths.get(0);
+            printTimingPathInTable(worst.getEdges(), (short) worst.getDelay());
+        }
+    }
+
     /**
      * Gets and prints the given path from the TimingGraph
      */
     public void getSamplePathDelayInfo(List<String> verticesOfVivadoPath, Map<TimingEdge, Connection> timingEdgeConnctionMap, boolean routableBased, RouteNodeGraph routingGraph) {
+        updateTimingVertices();
         List<TimingEdge> edges = timingGraph.getTimingEdgeOfPath(verticesOfVivadoPath);
         short totalDelay = 0;
         for (TimingEdge edge : edges) {
@@ -291,6 +606,186 @@ public class TimingManager {
         return timingRequirement;
     }
 
+    /**
+     * Sets the requirement of an individual clock, overriding the one derived from the design constraints.
+     * @param clockNetName The hierarchical name of the clock net, as given by
+     * {@link TimingGraph#getClockNetName(TimingVertex)}.
+     * @param ps The requirement in picoseconds.
+     */
+    public void setClockRequirementPs(String clockNetName, float ps) {
+        clockRequirements.put(clockNetName, ps);
+    }
+
+    /**
+     * Gets the requirement of an individual clock, as used by multi-clock timing. Unless set using
+     * {@link #setClockRequirementPs(String, float)}, it is derived from the "create_clock" constraints on the
+     * top-level ports of the design (see {@link #getDesignClockPeriods(Design)}) by tracing the clock net back to
+     * its source: through clock buffers (e.g. IBUF, BUFG, BUFGCE, or BUFGCE_DIV, applying its divide), and through
+     * MMCM or PLL clock generators, applying their multiply and divide attributes to the period of the clock
+     * driving their CLKIN1 input. If no requirement can be derived this way, a warning is printed (once per clock)
+     * and the timing requirement of the design is used instead.
+     * @param clockNetName The hierarchical name of the clock net, or null for the design requirement.
+     * @return The requirement in picoseconds.
+     */
+    public float getClockRequirementPs(String clockNetName) {
+        if (clockNetName == null) {
+            return timingRequirement;
+        }
+        Float ps = clockRequirements.get(clockNetName);
+        if (ps != null) {
+            return ps;
+        }
+        ps = tracedClockRequirements.get(clockNetName);
+        if (ps == null) {
+            if (clockPeriods == null) {
+                clockPeriods = getDesignClockPeriods(design);
+            }
+            EDIFNetlist netlist = design.getNetlist();
+            EDIFHierNet net = netlist.getHierNetFromName(clockNetName);
+            Float periodNs = (net != null) ? traceClockPeriod(netlist, net, 0) : clockPeriods.get(clockNetName);
+            if (periodNs != null) {
+                ps = periodNs * 1000;
+            } else {
+                System.out.println("WARNING: No requirement could be derived for clock " + clockNetName +
+                        ", using the design requirement of " + timingRequirement + " ps instead.");
+                ps = timingRequirement;
+            }
+            tracedClockRequirements.put(clockNetName, ps);
+        }
+        return ps;
+    }
+
+    /**
+     * Traces a clock net back to a top-level port with a "create_clock" constraint.
+     * @param netlist The netlist of the design.
+     * @param net The clock net.
+     * @param depth The number of clock buffers and generators traced through so far.
+     * @return The period of the clock in nanoseconds, or null if it could not be derived.
+     */
+    private Float traceClockPeriod(EDIFNetlist netlist, EDIFHierNet net, int depth) {
+        if (depth > MAX_CLOCK_TRACE_DEPTH) {
+            return null;
+        }
+        EDIFHierNet parentNet = netlist.getParentNet(net);
+        if (parentNet == null) {
+            parentNet = net;
+        }
+        List<EDIFHierPortInst> sources = parentNet.getSourcePortInsts(true);
+        if (sources.size() != 1) {
+            return null;
+        }
+        EDIFHierPortInst source = sources.get(0);
+        if (source.getPortInst().isTopLevelPort()) {
+            return clockPeriods.get(source.getPortInst().getName());
+        }
+        EDIFHierCellInst cellInst = source.getHierarchicalInst().getChild(source.getPortInst().getCellInst());
+        String cellType = cellInst.getCellName();
+        EDIFCellInst inst = cellInst.getInst();
+        if (cellType.startsWith("IBUF") || cellType.equals("BUFG") || cellType.startsWith("BUFGCE")) {
+            Float inputPeriod = traceClockInput(netlist, cellInst, "I", depth);
+            if (inputPeriod == null || !cellType.equals("BUFGCE_DIV")) {
+                return inputPeriod;
+            }
+            Float divide = getNumericProperty(inst, "BUFGCE_DIVIDE", 1);
+            return divide != null ? inputPeriod * divide : null;
+        }
+        if (cellType.startsWith("MMCM") || cellType.startsWith("PLL")) {
+            String output = source.getPortInst().getName();
+            if (output.endsWith("B")) {
+                // Inverted outputs have the same period
+                output = output.substring(0, output.length() - 1);
+            }
+            Float inputPeriod = traceClockInput(netlist, cellInst, "CLKIN1", depth);
+            if (inputPeriod == null) {
+                return null;
+            }
+            boolean isMMCM = cellType.startsWith("MMCM");
+            Float multiply = getNumericProperty(inst, isMMCM ? "CLKFBOUT_MULT_F" : "CLKFBOUT_MULT", 5);
+            Float divClkDivide = getNumericProperty(inst, "DIVCLK_DIVIDE", 1);
+            Float outputDivide;
+            if (output.equals("CLKFBOUT")) {
+                outputDivide = 1f;
+            } else if (output.startsWith("CLKOUT")) {
+                outputDivide = (isMMCM && output.equals("CLKOUT0")) ?
+                        getNumericProperty(inst, "CLKOUT0_DIVIDE_F", 1) :
+                        getNumericProperty(inst, output + "_DIVIDE", 1);
+            } else {
+                return null;
+            }
+            if (multiply == null || divClkDivide == null || outputDivide == null || multiply <= 0) {
+                return null;
+            }
+            return inputPeriod * divClkDivide * outputDivide / multiply;
+        }
+        return null;
+    }
+
+    private Float traceClockInput(EDIFNetlist netlist, EDIFHierCellInst cellInst, String portName, int depth) {
+        EDIFHierPortInst input = cellInst.getPortInst(portName);
+        if (input == null || input.getHierarchicalNet() == null) {
+            return null;
+        }
+        return traceClockPeriod(netlist, input.getHierarchicalNet(), depth + 1);
+    }
+
+    /**
+     * Gets the value of a numeric property of a cell instance.
+     * @param inst The cell instance.
+     * @param key The property name.
+     * @param defaultValue The value to return if the property is not set.
+     * @return The value of the property, or null if it is not a number.
+     */
+    private static Float getNumericProperty(EDIFCellInst inst, String key, float defaultValue) {
+        EDIFPropertyValue value = inst.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Float.parseFloat(value.getValue().replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the period of each clock created on a top-level port by the "create_clock" constraints of a design.
+     * Clocks created on anything other than a named port are ignored.
+     * @param design The design.
+     * @return Map from port name to clock period in nanoseconds.
+     */
+    public static Map<String, Float> getDesignClockPeriods(Design design) {
+        Map<String, Float> periods = new HashMap<>();
+        ConstraintGroup[] constraintGroups = {ConstraintGroup.NORMAL, ConstraintGroup.LATE};
+        for (ConstraintGroup group : constraintGroups) {
+            for (String constraint : design.getXDCConstraints(group)) {
+                if (constraint.contains("#")) {
+                    constraint = constraint.substring(0, constraint.indexOf('#'));
+                }
+                String[] tokens = constraint.trim().split("\\s+");
+                if (!tokens[0].equals("create_clock")) {
+                    continue;
+                }
+                Float period = null;
+                String port = null;
+                for (int i = 1; i + 1 < tokens.length; i++) {
+                    if (tokens[i].equals("-period")) {
+                        try {
+                            period = Float.parseFloat(tokens[i + 1]);
+                        } catch (NumberFormatException e) {
+                            period = null;
+                        }
+                    } else if (tokens[i].equals("[get_ports")) {
+                        port = tokens[i + 1].replaceAll("[\\[\\]{}\"]", "");
+                    }
+                }
+                if (period != null && port != null && !port.isEmpty() && !port.startsWith("-")) {
+                    periods.merge(port, period, Float::max);
+                }
+            }
+        }
+        return periods;
+    }
+
     public static float getDesignTimingRequirement(Design design) {
         float treq = 0;
         
@@ -319,13 +814,53 @@ public class TimingManager {
      * @param criticalityExponent The criticality exponent to use. For more information, please refer to the {@link RWRouteConfig} class file.
      */
     public void calculateCriticality(List<Connection> connections, float maxCriticality, float criticalityExponent) {
-        for (Connection connection:connections) {
-            connection.resetCriticality();
+        if (useLevelizedGraph && multiClock) {
+            assert(multiClockTiming != null && levelizedGraph.isCurrent(timingGraph));
+            final int numDomains = multiClockTiming.getNumDomains();
+            forEachConnection(connections, (connection) -> {
+                connection.resetCriticality();
+                // The criticality of a connection is its maximum over the domains in which it is timed
+                for (int d = 0; d < numDomains; d++) {
+                    float minSlack = multiClockTiming.getMinSlack(connection.getTimingEdges(), d);
+                    if (minSlack != Float.POSITIVE_INFINITY) {
+                        connection.calculateCriticality(minSlack, multiClockTiming.getRequirement(d),
+                                maxCriticality, criticalityExponent);
+                    }
+                }
+            });
+            return;
+        }
+        if (useLevelizedGraph) {
+            assert(levelizedGraph != null && levelizedGraph.isCurrent(timingGraph));
+            float maxRequired = levelizedGraph.getRequiredTime(timingGraph.superSink);
+            forEachConnection(connections, (connection) -> {
+                connection.resetCriticality();
+                float minSlack = levelizedGraph.getMinSlack(connection.getTimingEdges());
+                connection.calculateCriticality(minSlack, maxRequired, maxCriticality, criticalityExponent);
+            });
+            return;
         }
         float maxRequired = timingGraph.superSink.getRequiredTime();
-        for (Connection connection : connections) {
+        forEachConnection(connections, (connection) -> {
+            connection.resetCriticality();
             connection.calculateCriticality(maxRequired, maxCriticality, criticalityExponent);
+        });
+    }
+
+    /**
+     * Applies a task to each connection, in parallel if parallel timing updates are enabled.
+     * Each connection is visited exactly once, so tasks that only modify the connection they are given
+     * need no synchronization.
+     */
+    private void forEachConnection(List<Connection> connections, Consumer<Connection> task) {
+        if (!parallel) {
+            for (Connection connection : connections) {
+                task.accept(connection);
+            }
+            return;
         }
+        ParallelismTools.invokeAllRange(0, connections.size(), MIN_PARALLEL_CONNECTIONS,
+                (i) -> task.accept(connections.get(i)));
     }
 
     /**
@@ -354,10 +889,11 @@ public class TimingManager {
     }
 
     /**
-     * Gets the TimingGraph object.
+     * Gets the TimingGraph object, with the times stored at its TimingVertex objects up to date.
      * @return TimingGraph
      */
     public TimingGraph getTimingGraph() {
+        updateTimingVertices();
         return timingGraph;
     }
 
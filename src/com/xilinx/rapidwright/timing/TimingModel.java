@@ -30,7 +30,6 @@ import com.xilinx.rapidwright.device.Device;
 import com.xilinx.rapidwright.device.IntentCode;
 import com.xilinx.rapidwright.device.Node;
 import com.xilinx.rapidwright.device.PIP;
-import com.xilinx.rapidwright.device.PIPType;
 import com.xilinx.rapidwright.device.Site;
 import com.xilinx.rapidwright.device.SiteTypeEnum;
 import com.xilinx.rapidwright.device.Tile;
@@ -57,6 +56,7 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.regex.Pattern;
 
 /**
@@ -75,6 +75,8 @@ public class TimingModel {
     boolean adjustDoubleConnectedToDoubleDelays = false;
 
     private DelayModel intrasiteAndLogicDelayModel;
+    /** Index of the SLICEL site type in the intrasiteAndLogicDelayModel */
+    private short slicelIdx;
 
     // some default values, these can be overwritten later by reading in a delay_terms.dat file
     // the code is using hard coded enumerated types, and this will be switched over to use these variables
@@ -244,6 +246,7 @@ public class TimingModel {
             throw new RuntimeException("Error reading file:" + fileName);
         }
         intrasiteAndLogicDelayModel = DelayModelBuilder.getDelayModel(series);
+        slicelIdx = intrasiteAndLogicDelayModel.getSiteTypeIndex(SiteTypeEnum.SLICEL);
 
         // create a good row for netDelay model, in terms of capturing resource types within a row
         Tile[][] tiles = device.getTiles();
@@ -293,9 +296,6 @@ public class TimingModel {
         return calcDelay(startPinInst, endPinInst, null, null, net);
     }
 
-    private List<Node> nodeList;
-    private List<PIP> relevantPIPs;
-
 
     /**
      * Calculates the delay in picoseconds between a pair of pins on a physical "Net" object.
@@ -309,53 +309,67 @@ public class TimingModel {
      */
     public float calcDelay(SitePinInst startPinInst, SitePinInst endPinInst, BELPin sourceBELPin,
                            BELPin sinkBELPin, Net net) {
-        ArrayList<IntentCode> intentCodes = new ArrayList<>();
-        HashMap<PIPType, Integer> pipTypes = new LinkedHashMap<>();
-
-        nodeList = new ArrayList<>();
-        relevantPIPs = new ArrayList<>();
+        float intraSiteDelay = calcIntraSiteDelay(startPinInst, endPinInst, sourceBELPin, sinkBELPin);
+        lastIntraSiteDelay = intraSiteDelay;
+        return calcDelay(startPinInst, endPinInst, sourceBELPin, sinkBELPin, net, intraSiteDelay);
+    }
 
-        determineNodeList(net, startPinInst, endPinInst);
+    /**
+     * Calculates the delay in picoseconds between a pair of pins on a physical "Net" object, given the
+     * intra-site delay of those pins as computed by
+     * {@link #calcIntraSiteDelay(SitePinInst, SitePinInst, BELPin, BELPin)}, for callers that need both.
+     * Unlike the other overloads, this does not update {@link #getIntraSiteDelay()}, so that concurrent
+     * callers do not write to any state shared between them.
+     *
+     * @param startPinInst Source SitePinInst from the Net.
+     * @param endPinInst   A selected sink SitePinInst from the Net.
+     * @param sourceBELPin    The site BELPin connected to the source SitePinInst.
+     * @param sinkBELPin      The site BELPin connected to the sink SitePinInst.
+     * @param net          RapidWright physical "Net" object.
+     * @param intraSiteDelay The intra-site delay of the pins.
+     * @return The estimated delay in picoseconds, including the intra-site delay, or 0 if the pins are not
+     * connected by any routed node.
+     */
+    public float calcDelay(SitePinInst startPinInst, SitePinInst endPinInst, BELPin sourceBELPin,
+                           BELPin sinkBELPin, Net net, float intraSiteDelay) {
+        return calcDelay(startPinInst, endPinInst, sourceBELPin, sinkBELPin, net, getPIPsByEndNode(net),
+                intraSiteDelay);
+    }
 
-        for (PIP p : relevantPIPs) {
-            int tmp;
-            if (pipTypes.get(p.getPIPType()) != null) {
-                tmp = pipTypes.get(p.getPIPType());
-                pipTypes.put(p.getPIPType(), ++tmp);
-            } else {
-                pipTypes.put(p.getPIPType(), 1);
-            }
+    /**
+     * Same as {@link #calcDelay(SitePinInst, SitePinInst, BELPin, BELPin, Net, float)}, but reuses the
+     * map of the net's PIPs from {@link #getPIPsByEndNode(Net)}, so that callers computing the delay to
+     * every sink of a net only need to build it once per net.
+     *
+     * @param startPinInst Source SitePinInst from the Net.
+     * @param endPinInst   A selected sink SitePinInst from the Net.
+     * @param sourceBELPin    The site BELPin connected to the source SitePinInst.
+     * @param sinkBELPin      The site BELPin connected to the sink SitePinInst.
+     * @param net          RapidWright physical "Net" object.
+     * @param pipsByEndNode The net's PIPs, keyed by their end node.
+     * @param intraSiteDelay The intra-site delay of the pins.
+     * @return The estimated delay in picoseconds, including the intra-site delay, or 0 if the pins are not
+     * connected by any routed node.
+     */
+    public float calcDelay(SitePinInst startPinInst, SitePinInst endPinInst, BELPin sourceBELPin,
+                           BELPin sinkBELPin, Net net, Map<Node, PIP> pipsByEndNode, float intraSiteDelay) {
+        List<Node> nodeList = new ArrayList<>();
+        List<PIP> relevantPIPs = new ArrayList<>();
+        determineNodeList(net, startPinInst, endPinInst, pipsByEndNode, nodeList, relevantPIPs);
+        if (nodeList.isEmpty()) {
+            return 0f;
         }
 
-        List<IntentCode> nodeIntents = new ArrayList<>();
-        List<Wire> node_start_wires = new ArrayList<>();
-
+        List<IntentCode> nodeIntents = new ArrayList<>(nodeList.size());
         for (Node node : nodeList) {
-            node_start_wires.add(node.getAllWiresInNode()[0]);
-        }
-
-        for (Wire w : node_start_wires) {
-            IntentCode code = w.getIntentCode();
-            nodeIntents.add(code);
-            if (!intentCodes.contains(code)) {
-                intentCodes.add(code);
-            }
+            nodeIntents.add(node.getAllWiresInNode()[0].getIntentCode());
         }
 
-
-        List<TimingGroup> groups = null;
-
-        if (nodeList.size() > 0)
-            groups = determineGroups(nodeList, nodeIntents, relevantPIPs);
-
-        float result = 0f;
-        if (groups != null) {
-            result = calcDelay(startPinInst, endPinInst, sourceBELPin, sinkBELPin, groups);
-        } else {
-            checkForIntrasiteDelay();
+        List<TimingGroup> groups = determineGroups(nodeList, nodeIntents, relevantPIPs);
+        if (groups == null) {
+            return 0f;
         }
-
-        return result;
+        return calcGroupsDelay(groups, intraSiteDelay);
     }
 
     /**
@@ -619,6 +633,33 @@ public class TimingModel {
     int[] lDistVertical;
 
 
+    /**
+     * Prefix sums of the distance arrays above, indexed by GroupDelayType ordinal (null for types without
+     * distance terms), such that the distance from coordinate i to j inclusive is prefix[j+1] - prefix[i].
+     */
+    private int[][] horizontalDistPrefixSums;
+    private int[][] verticalDistPrefixSums;
+
+    /** Number of entries of the memo of distance terms of nodes, a power of two */
+    private static final int DIST_CACHE_SIZE = 1 << 16;
+
+    /**
+     * Memo of the distance terms of nodes (see {@link #getDist(Node, GroupDelayType, GroupWireDirection)}).
+     * This is a direct-mapped table: entries are immutable and replaced whole, with a new entry evicting the one
+     * mapped to the same slot, so lookups are thread-safe and do not allocate.
+     */
+    private final AtomicReferenceArray<DistEntry> distCache = new AtomicReferenceArray<>(DIST_CACHE_SIZE);
+
+    private static class DistEntry {
+        final long key;
+        final int d;
+
+        DistEntry(long key, int d) {
+            this.key = key;
+            this.d = d;
+        }
+    }
+
     /**
      * Computes the Horizontal Distance used later by the delay calculation. Please note the initial
      * distance terms are integers.
@@ -628,32 +669,11 @@ public class TimingModel {
      * @return Distance term used by the delay calculation.
      */
      public int computeHorizontalDistFromArray(int left, int right, GroupDelayType swt) {
-        int result = 0;
-        switch (swt) {
-            case SINGLE:
-                for (int i=left; i<=right; i++) {
-                    result += sDistHorizontal[i];
-                }
-                break;
-            case DOUBLE:
-                for (int i=left; i<=right; i++) {
-                    result += dDistHorizontal[i];
-                }
-                break;
-            case QUAD:
-                for (int i=left; i<=right; i++) {
-                    result += qDistHorizontal[i];
-                }
-                break;
-            case LONG:
-                for (int i=left; i<=right; i++) {
-                    result += lDistHorizontal[i];
-                }
-                break;
-            default:
-                break;
+        int[] prefixSums = horizontalDistPrefixSums[swt.ordinal()];
+        if (prefixSums == null || left > right) {
+            return 0;
         }
-        return result;
+        return prefixSums[right + 1] - prefixSums[left];
     }
 
     /**
@@ -665,32 +685,66 @@ public class TimingModel {
      * @return Distance term used by the delay calculation.
      */
     public int computeVerticalDistFromArray(int top, int bottom, GroupDelayType swt) {
-        int result = 0;
-        switch (swt) {
-            case SINGLE:
-                for (int i=top; i<=bottom; i++) {
-                    result += sDistVertical[i];
-                }
-                break;
-            case DOUBLE:
-                for (int i=top; i<=bottom; i++) {
-                    result += dDistVertical[i];
-                }
-                break;
-            case QUAD:
-                for (int i=top; i<=bottom; i++) {
-                    result += qDistVertical[i];
-                }
-                break;
-            case LONG:
-                for (int i=top; i<=bottom; i++) {
-                    result += lDistVertical[i];
-                }
-                break;
-            default:
-                break;
+        int[] prefixSums = verticalDistPrefixSums[swt.ordinal()];
+        if (prefixSums == null || top > bottom) {
+            return 0;
         }
-        return result;
+        return prefixSums[bottom + 1] - prefixSums[top];
+    }
+
+    private static int[] computePrefixSums(int[] dist) {
+        int[] prefixSums = new int[dist.length + 1];
+        for (int i = 0; i < dist.length; i++) {
+            prefixSums[i + 1] = prefixSums[i] + dist[i];
+        }
+        return prefixSums;
+    }
+
+    /**
+     * Gets the distance term ("D") of a node of a TimingGroup: the distance, for the given type and direction,
+     * between the outermost tiles of the BEG and END wires of the node. Since it only depends on the node (as
+     * identified by its base tile and wire), the type and the direction, it is memoized.
+     * @param node The node in question.
+     * @param swt Type of TimingGroup, for example SINGLE, DOUBLE, etc.
+     * @param dir Direction of the TimingGroup.
+     * @return Distance term used by the delay calculation.
+     */
+    int getDist(Node node, GroupDelayType swt, GroupWireDirection dir) {
+        long key = ((long) node.getTile().getUniqueAddress() << 32) | ((long) node.getWireIndex() << 8) |
+                (swt.ordinal() << 1) | dir.ordinal();
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & (DIST_CACHE_SIZE - 1);
+        DistEntry entry = distCache.get(slot);
+        if (entry != null && entry.key == key) {
+            return entry.d;
+        }
+        int d = computeDist(node, swt, dir);
+        distCache.set(slot, new DistEntry(key, d));
+        return d;
+    }
+
+    private int computeDist(Node node, GroupDelayType swt, GroupWireDirection dir) {
+        int minRow = 1<<20;
+        int maxRow = 0;
+        int minCol = 1<<20;
+        int maxCol = 0;
+        for (Wire w : node.getAllWiresInNode()) {
+            String wireName = w.getWireName();
+            if (!wireName.contains("BEG") && !wireName.contains("END")) {
+                continue;
+            }
+            Tile t = w.getTile();
+            minCol = Math.min(minCol, t.getColumn());
+            maxCol = Math.max(maxCol, t.getColumn());
+            minRow = Math.min(minRow, t.getRow());
+            maxRow = Math.max(maxRow, t.getRow());
+        }
+        if (dir == GroupWireDirection.HORIZONTAL && minCol < maxCol) {
+            return computeHorizontalDistFromArray(minCol, maxCol, swt);
+        }
+        if (dir == GroupWireDirection.VERTICAL && minRow < maxRow) {
+            return computeVerticalDistFromArray(minRow, maxRow, swt);
+        }
+        return 0;
     }
 
     /**
@@ -739,6 +793,17 @@ public class TimingModel {
             }
         }
 
+        horizontalDistPrefixSums = new int[GroupDelayType.values().length][];
+        horizontalDistPrefixSums[GroupDelayType.SINGLE.ordinal()] = computePrefixSums(sDistHorizontal);
+        horizontalDistPrefixSums[GroupDelayType.DOUBLE.ordinal()] = computePrefixSums(dDistHorizontal);
+        horizontalDistPrefixSums[GroupDelayType.QUAD.ordinal()] = computePrefixSums(qDistHorizontal);
+        horizontalDistPrefixSums[GroupDelayType.LONG.ordinal()] = computePrefixSums(lDistHorizontal);
+        verticalDistPrefixSums = new int[GroupDelayType.values().length][];
+        verticalDistPrefixSums[GroupDelayType.SINGLE.ordinal()] = computePrefixSums(sDistVertical);
+        verticalDistPrefixSums[GroupDelayType.DOUBLE.ordinal()] = computePrefixSums(dDistVertical);
+        verticalDistPrefixSums[GroupDelayType.QUAD.ordinal()] = computePrefixSums(qDistVertical);
+        verticalDistPrefixSums[GroupDelayType.LONG.ordinal()] = computePrefixSums(lDistVertical);
+
         getVerDistArrayInIntTileGrid();
     }
 
@@ -1094,7 +1159,8 @@ public class TimingModel {
     public float calcDelay (TimingGroup tGroup) {
         List<TimingGroup> tGroups = new LinkedList<>();
         tGroups.add(tGroup);
-        return calcDelay(null, null, null, null, tGroups);
+        lastIntraSiteDelay = 0f;
+        return calcGroupsDelay(tGroups, 0f);
     }
 
     /**
@@ -1103,22 +1169,30 @@ public class TimingModel {
      * @return Estimated delay in picoseconds.
      */
     public float calcDelay (List<TimingGroup> groups) {
-        return calcDelay(null, null, null, null, groups);
+        lastIntraSiteDelay = 0f;
+        return calcGroupsDelay(groups, 0f);
     }
 
-    //TODO check
+    /**
+     * Intra-site delay of the most recent delay calculation, kept only for
+     * {@link #getIntraSiteDelay()}.  Not written by the overload of calcDelay() used by
+     * {@link TimingGraph}, which calculates delays in parallel.
+     */
+    private float lastIntraSiteDelay;
+
+    /**
+     * Gets the intra-site delay of the most recent delay calculation by this model.  The result is
+     * unreliable when delays are calculated from several threads.
+     * @return The intra-site delay in picoseconds of the most recent calculation.
+     * @deprecated Use {@link #calcIntraSiteDelay(SitePinInst, SitePinInst, BELPin, BELPin)} instead.
+     */
+    @Deprecated
     public float getIntraSiteDelay() {
-        return intrasiteDelay;
+        return lastIntraSiteDelay;
     }
 
     public DelayModel getDelayModel() { return intrasiteAndLogicDelayModel; }
 
-    private float intrasiteDelay;
-    private SitePinInst startPinInst;
-    private SitePinInst endPinInst;
-    private BELPin sourceBELPin;
-    private BELPin sinkBELPin;
-
     /**
      * Estimates the delay of a timing group in picoseconds.
      * @param startPinInst Source pin as a SitePinInst for the physical Net.
@@ -1128,19 +1202,23 @@ public class TimingModel {
      */
     public float calcDelay (SitePinInst startPinInst, SitePinInst endPinInst, BELPin sourceBELPin, 
                             BELPin sinkBELPin, List<TimingGroup> groups) {
+        float intraSiteDelay = calcIntraSiteDelay(startPinInst, endPinInst, sourceBELPin, sinkBELPin);
+        lastIntraSiteDelay = intraSiteDelay;
+        return calcGroupsDelay(groups, intraSiteDelay);
+    }
+
+    /**
+     * Estimates the delay of a list of timing groups in picoseconds, plus the given intra-site delay.
+     * All state of the calculation is local (besides that of the groups themselves), so that the delays of
+     * different groups can be estimated concurrently.
+     */
+    private float calcGroupsDelay(List<TimingGroup> groups, float intrasiteDelay) {
         for (TimingGroup g : groups) {
             if (g.getNodes().size() == 0) {
                 throw new RuntimeException("Invalid group passed into calcDelay:" + g);
             }
         }
 
-        // set these member variables for use in method: "checkForSomeIntrasiteDelays()" down below
-        intrasiteDelay = 0;
-        this.startPinInst = startPinInst;
-        this.endPinInst = endPinInst;
-        this.sourceBELPin = sourceBELPin;
-        this.sinkBELPin = sinkBELPin;
-
         float netDelayCalc = 0;
 
         for (TimingGroup group : groups) {
@@ -1256,8 +1334,6 @@ public class TimingModel {
         }
 
         netDelayCalc += checkForSitePinDelay(groups);
-        
-        checkForIntrasiteDelay();  // implementation refactored into a helper method below
 
         for (int i =1 ; i < groups.size(); i++) {
             TimingGroup gprev = groups.get(i-1);
@@ -1483,27 +1559,33 @@ public class TimingModel {
         return result.toArray(TimingGroup.EMPTY_ARRAY);
     }
 
-    private HashMap<String, PIP> pipEndNodeHashMap;
-
-    private void determineNodeListInitHelper(Net net) {
-        pipEndNodeHashMap = new HashMap<>();
+    /**
+     * Maps each end node of a net's PIPs to the PIP driving it, so that the path back from any sink to
+     * the source can be walked without searching the net's PIPs again.
+     * @param net Physical net.
+     * @return The net's PIPs, keyed by their end node.
+     */
+    public Map<Node, PIP> getPIPsByEndNode(Net net) {
+        Map<Node, PIP> pipsByEndNode = new HashMap<>();
         for (PIP p : net.getPIPs()) {
-            if (p.getEndNode() != null) pipEndNodeHashMap.put(p.getEndNode().toString(), p);
+            Node endNode = p.getEndNode();
+            if (endNode != null) pipsByEndNode.put(endNode, p);
         }
+        return pipsByEndNode;
     }
 
-
     /**
      * This method basically creates an ordered list of nodes from the source to selected sink.
      * This is computed based on the randomly ordered set of PIPs returned by the net.
-     * This is currently one of the performance bottlenecks within the timing library.
      * @param net Physical net.
      * @param startPinInst The source (SitePinInst) from the net.
      * @param endPinInst  The selected sink (SitePinInst) from the net.
+     * @param pipsByEndNode The net's PIPs, keyed by their end node, from {@link #getPIPsByEndNode(Net)}.
+     * @param nodeList The list to which the ordered nodes are added.
+     * @param relevantPIPs The list to which the ordered PIPs are added.
      */
-    private void determineNodeList(Net net, SitePinInst startPinInst, SitePinInst endPinInst) {
-        determineNodeListInitHelper(net);
-
+    private void determineNodeList(Net net, SitePinInst startPinInst, SitePinInst endPinInst,
+                                   Map<Node, PIP> pipsByEndNode, List<Node> nodeList, List<PIP> relevantPIPs) {
         Node sourcePinNode = null;
         if (startPinInst != null)
             sourcePinNode = startPinInst.getConnectedNode();
@@ -1523,7 +1605,7 @@ public class TimingModel {
             node = endPinInst.getConnectedNode();
 
         while (node != null && !node.equals(sourcePinNode)) {
-            PIP p = pipEndNodeHashMap.get(node.toString());
+            PIP p = pipsByEndNode.get(node);
             if (p != null) {
                 relevantPIPs.add(relevantPIPs.size(), p);
                 nodeList.add(nodeList.size(), node);
@@ -1537,7 +1619,18 @@ public class TimingModel {
         }
     }
     
-    private void checkForIntrasiteDelay() {
+    /**
+     * Calculates the intra-site delay in picoseconds at the source and sink pins of a connection, e.g. from a LUT
+     * output through a MUX to the source site pin, and from the sink site pin to a flip-flop input.
+     * @param startPinInst Source pin as a SitePinInst for the physical Net.
+     * @param endPinInst Sink pin as a SitePinInst for the physical Net.
+     * @param sourceBELPin The site BELPin connected to the source SitePinInst.
+     * @param sinkBELPin The site BELPin connected to the sink SitePinInst.
+     * @return The intra-site delay in picoseconds.
+     */
+    public float calcIntraSiteDelay(SitePinInst startPinInst, SitePinInst endPinInst, BELPin sourceBELPin,
+                                    BELPin sinkBELPin) {
+        float intrasiteDelay = 0;
         String sourceType = "";
         String sinkType = "";
         if (endPinInst != null) {
@@ -1602,16 +1695,18 @@ public class TimingModel {
                         !sourcepin.startsWith("CLK2") &&
                         !sourcepin.startsWith("SRST")) {
 
-                    short tmpIntrasiteDelay = intrasiteAndLogicDelayModel.getIntraSiteDelay(SiteTypeEnum.SLICEL,
-                                            sourcepin, sinkType + "/" + "D");
+                    short tmpIntrasiteDelay = intrasiteAndLogicDelayModel.getIntraSiteDelay(slicelIdx,
+                            intrasiteAndLogicDelayModel.getPinId(sourcepin),
+                            intrasiteAndLogicDelayModel.getBELPinId(sinkType, "D"));
                     intrasiteDelay += tmpIntrasiteDelay;
                 } else if (sourcepin.startsWith("CKEN")) {
                     intrasiteDelay += INTRASITE_DELAY_SITEPIN_TO_FF_INPUT;
                 }
             }
         } else if (endPinInst != null && endPinInst.getName().startsWith("CIN")) {
-            intrasiteDelay += intrasiteAndLogicDelayModel.getIntraSiteDelay(SiteTypeEnum.SLICEL, 
-                    endPinInst.getName(), sinkType + "/" + "CIN");
+            intrasiteDelay += intrasiteAndLogicDelayModel.getIntraSiteDelay(slicelIdx,
+                    intrasiteAndLogicDelayModel.getPinId(endPinInst.getName()),
+                    intrasiteAndLogicDelayModel.getBELPinId(sinkType, "CIN"));
         }
 
         /**
@@ -1620,24 +1715,26 @@ public class TimingModel {
         
         if ((startPinInst == null || sourceType == null) || 
                 (tmpPin == null && sourceBELPin == null)) {
-                return;
+                return intrasiteDelay;
         }
         
         //TODO cleaning up: remove if-else, call the intrasiteAndLogicDelayModel.getIntraSiteDelay() instead
         if (startPinInst.getName().endsWith("MUX")) {
-            String fromPinName = sourceType + "/";
+            String fromPinName;
             if ((sourceBELPin == null || sinkBELPin == null) && tmpPin != null)
-                fromPinName += tmpPin.getName();
+                fromPinName = tmpPin.getName();
             else {
-                fromPinName += sourceBELPin.getName();
+                fromPinName = sourceBELPin.getName();
             }
-            short tmpIntrasiteDelay = intrasiteAndLogicDelayModel.getIntraSiteDelay(
-                    SiteTypeEnum.SLICEL, fromPinName, startPinInst.getName());
+            short tmpIntrasiteDelay = intrasiteAndLogicDelayModel.getIntraSiteDelay(slicelIdx,
+                    intrasiteAndLogicDelayModel.getBELPinId(sourceType, fromPinName),
+                    intrasiteAndLogicDelayModel.getPinId(startPinInst.getName()));
             intrasiteDelay += tmpIntrasiteDelay;
            
         } else if (startPinInst.getName().endsWith("_O")) {
             intrasiteDelay += INTRASITE_DELAY_LUT_OUTPUT_TO_O_SITEPIN;   
         }
+        return intrasiteDelay;
     }
 
     /**
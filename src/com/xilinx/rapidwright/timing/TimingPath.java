@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.timing;
+
+import java.util.List;
+
+/**
+ * A timing path reported by {@link CriticalPathEnumerator}: the edges of a path through the {@link TimingGraph}
+ * from a vertex without fan-in to the super sink, together with its delay and slack.
+ */
+public class TimingPath {
+    private final List<TimingEdge> edges;
+    private final float delay;
+    private final float slack;
+
+    public TimingPath(List<TimingEdge> edges, float delay, float slack) {
+        this.edges = edges;
+        this.delay = delay;
+        this.slack = slack;
+    }
+
+    /**
+     * Gets the edges of this path, in order from its start to the super sink.
+     * @return The list of edges.
+     */
+    public List<TimingEdge> getEdges() {
+        return edges;
+    }
+
+    /**
+     * Gets the delay of this path, i.e. the sum of the delays of its edges.
+     * @return Delay in picoseconds.
+     */
+    public float getDelay() {
+        return delay;
+    }
+
+    /**
+     * Gets the slack of this path, i.e. the timing requirement less its delay.
+     * @return Slack in picoseconds.
+     */
+    public float getSlack() {
+        return slack;
+    }
+
+    /**
+     * Gets the timing endpoint of this path, i.e. the vertex connected to the super sink.
+     * @return The endpoint vertex.
+     */
+    public TimingVertex getEndpoint() {
+        return edges.get(edges.size() - 1).getSrc();
+    }
+
+    @Override
+    public String toString() {
+        return "delay = " + delay + ", slack = " + slack + ", endpoint = " + getEndpoint() + ", edges = " + edges.size();
+    }
+}
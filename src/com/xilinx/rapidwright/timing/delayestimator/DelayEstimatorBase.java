@@ -127,16 +127,58 @@ public class DelayEstimatorBase<T extends InterconnectInfo> implements java.io.S
      * @return delay in ps
      */
     public short getDelayOf(Node exitNode) {
-        TermInfo termInfo = getTermInfo(exitNode);
+        Tile tile = exitNode.getTile();
+        return getDelayOf(exitNode.getWireName(), exitNode.getIntentCode(),
+                (short) tile.getTileXCoordinate(), (short) tile.getTileYCoordinate());
+    }
+
+    /**
+     * Get delay of the node group of an exit node, given the name and intent code of its base wire
+     * and the coordinate of its base tile.
+     *
+     * @param wireName the base wire name of the exit node
+     * @param ic       the intent code of the exit node
+     * @param x        the X coordinate of the base tile of the exit node
+     * @param y        the Y coordinate of the base tile of the exit node
+     * @return delay in ps
+     */
+    public short getDelayOf(String wireName, IntentCode ic, short x, short y) {
+        TermInfo termInfo = getTermInfo(wireName, ic, x, y);
 
         // Don't put this in calcTimingGroupDelay because it is called many times to estimate delay.
         if (termInfo.ng == T.NodeGroupType.CLE_IN) {
-            return inputSitePinDelay.getOrDefault(exitNode.getWireName(), (short) 0);
+            return inputSitePinDelay.getOrDefault(wireName, (short) 0);
         }
 
         return calcNodeGroupDelay(termInfo.ng, termInfo.begin(), termInfo.end());
     }
 
+    /**
+     * Check whether the delay of the node group of an exit node depends on the X (rather than the Y)
+     * coordinate of its base tile.
+     *
+     * @param wireName the base wire name of the exit node
+     * @param ic       the intent code of the exit node
+     * @return true if the delay varies along the horizontal axis
+     */
+    public boolean isHorizontal(String wireName, IntentCode ic) {
+        return getTermInfo(wireName, ic, (short) 0, (short) 0).ng.orientation() == T.Orientation.HORIZONTAL;
+    }
+
+    /**
+     * @return the number of INT tile columns covered by the distance arrays
+     */
+    public int getNumCol() {
+        return numCol;
+    }
+
+    /**
+     * @return the number of INT tile rows covered by the distance arrays
+     */
+    public int getNumRow() {
+        return numRow;
+    }
+
     /**
      * Represent a routing resource in the delay graph
      */
@@ -206,18 +248,15 @@ public class DelayEstimatorBase<T extends InterconnectInfo> implements java.io.S
     }
 
 
-    private TermInfo getTermInfo(Node node) {
+    private TermInfo getTermInfo(String wireName, IntentCode ic, short x, short y) {
 
-        String nodeType = node.getWireName();
+        String nodeType = wireName;
         // Based on its name, WW1_E should go be horizontal single. However, it go to the north like NN1_E.
         if (nodeType.contains("WW1_E")) {
             nodeType = "NN1_E";
         }
 
         TermInfo termInfo = null;
-        short x = (short) node.getTile().getTileXCoordinate();
-        short y = (short) node.getTile().getTileYCoordinate();
-        IntentCode ic = node.getIntentCode();
 
         if (nodeType.startsWith("INT") && (ic == IntentCode.NODE_SINGLE)) {
             // Special for internal single such as INT_X0Y0/INT_INT_SDQ_33_INT_OUT1  - NODE_SINGLE
@@ -0,0 +1,640 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of access points into a gzip file, allowing decompression to start close to any offset of the
+ * uncompressed data rather than only at its beginning (see {@link IndexedGzipInputStream}).
+ * Each access point is the start of a deflate block, identified by its bit offset in the gzip file, along with the
+ * uncompressed offset at which it starts and the (up to) 32KB of uncompressed data preceding it, which the block
+ * may refer back to. The start of each gzip member is also an access point, with no preceding data.
+ *
+ * Deflate block boundaries can only be found by decoding the whole file, so the index is built by a single
+ * decoding pass. Building is never done on demand by a reader: an index is only used once it has been stored
+ * alongside the gzip file (with the {@link #FILE_EXTENSION} extension appended), either by
+ * {@link #buildAndWrite(Path)} or by {@link #main(String[])}. File layout (big-endian):
+ * <pre>
+ *   int magic, int version, long compressedSize, long lastModified, long uncompressedSize, int numPoints,
+ *   numPoints * (long bitOffset, long uncompressedOffset, boolean memberStart, int windowLength, bytes window)
+ * </pre>
+ */
+public class GzipIndex {
+    private static final int MAGIC = 0x5257475A; // "RWGZ"
+    /** Version of the file format, to be incremented on any change to the format */
+    public static final int VERSION = 1;
+    public static final String FILE_EXTENSION = ".rwgzi";
+    /** Default minimum distance, in uncompressed bytes, between access points */
+    public static final long DEFAULT_SPACING = 32L << 20;
+    /** Maximum distance of a deflate back-reference */
+    static final int WINDOW_SIZE = 32768;
+
+    public static class AccessPoint {
+        final long bitOffset;
+        final long uncompressedOffset;
+        final boolean memberStart;
+        final byte[] window;
+
+        AccessPoint(long bitOffset, long uncompressedOffset, boolean memberStart, byte[] window) {
+            this.bitOffset = bitOffset;
+            this.uncompressedOffset = uncompressedOffset;
+            this.memberStart = memberStart;
+            this.window = window;
+        }
+
+        public long getUncompressedOffset() {
+            return uncompressedOffset;
+        }
+    }
+
+    private final long compressedSize;
+    private final long lastModified;
+    private final long uncompressedSize;
+    /** Access points, in order of (non-decreasing) bit and uncompressed offset */
+    private final List<AccessPoint> points;
+
+    private GzipIndex(long compressedSize, long lastModified, long uncompressedSize, List<AccessPoint> points) {
+        this.compressedSize = compressedSize;
+        this.lastModified = lastModified;
+        this.uncompressedSize = uncompressedSize;
+        this.points = points;
+    }
+
+    public static Path getIndexFileName(Path gzipFile) {
+        return Paths.get(gzipFile.toString() + FILE_EXTENSION);
+    }
+
+    /**
+     * Loads the index of a gzip file from the index file alongside it.
+     * @param gzipFile The gzip file.
+     * @return The index, or null if no valid index file exists for the current contents of the gzip file.
+     */
+    public static GzipIndex load(Path gzipFile) throws IOException {
+        long size = Files.size(gzipFile);
+        long lastModified = Files.getLastModifiedTime(gzipFile).toMillis();
+        return read(getIndexFileName(gzipFile), size, lastModified);
+    }
+
+    /**
+     * Builds the index of a gzip file and writes it alongside the gzip file (if possible), so that it can be
+     * loaded by {@link #load(Path)}.
+     * @param gzipFile The gzip file.
+     * @return The index.
+     */
+    public static GzipIndex buildAndWrite(Path gzipFile) throws IOException {
+        GzipIndex index = build(gzipFile, DEFAULT_SPACING);
+        index.write(getIndexFileName(gzipFile));
+        return index;
+    }
+
+    /**
+     * Builds the index of a gzip file by decoding it.
+     * @param gzipFile The gzip file.
+     * @param spacing The minimum distance, in uncompressed bytes, between access points within a gzip member.
+     * @return The index.
+     */
+    public static GzipIndex build(Path gzipFile, long spacing) throws IOException {
+        long size = Files.size(gzipFile);
+        long lastModified = Files.getLastModifiedTime(gzipFile).toMillis();
+        try (InputStream in = Files.newInputStream(gzipFile)) {
+            Scanner scanner = new Scanner(in, spacing);
+            scanner.scan();
+            return new GzipIndex(size, lastModified, scanner.outPos, scanner.points);
+        } catch (IOException e) {
+            throw new IOException("ERROR: Unable to index gzip file " + gzipFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static GzipIndex read(Path indexFile, long compressedSize, long lastModified) {
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile), 1 << 20))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+                throw new IOException("unrecognized file or version");
+            }
+            if (dis.readLong() != compressedSize || dis.readLong() != lastModified) {
+                // The gzip file has changed since it was indexed
+                return null;
+            }
+            long uncompressedSize = dis.readLong();
+            int numPoints = dis.readInt();
+            List<AccessPoint> points = new ArrayList<>(numPoints);
+            for (int i = 0; i < numPoints; i++) {
+                long bitOffset = dis.readLong();
+                long uncompressedOffset = dis.readLong();
+                boolean memberStart = dis.readBoolean();
+                byte[] window = new byte[dis.readInt()];
+                dis.readFully(window);
+                points.add(new AccessPoint(bitOffset, uncompressedOffset, memberStart, window));
+            }
+            return new GzipIndex(compressedSize, lastModified, uncompressedSize, points);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("WARNING: Ignoring gzip index file " + indexFile + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Writes this index to a file. The index is written to a temporary file before replacing any
+     * existing one, so that concurrent readers never see a partially written file.
+     */
+    private void write(Path indexFile) {
+        Path tmpPath = null;
+        try {
+            Path directory = indexFile.toAbsolutePath().getParent();
+            tmpPath = Files.createTempFile(directory, indexFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath), 1 << 20))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                dos.writeLong(compressedSize);
+                dos.writeLong(lastModified);
+                dos.writeLong(uncompressedSize);
+                dos.writeInt(points.size());
+                for (AccessPoint point : points) {
+                    dos.writeLong(point.bitOffset);
+                    dos.writeLong(point.uncompressedOffset);
+                    dos.writeBoolean(point.memberStart);
+                    dos.writeInt(point.window.length);
+                    dos.write(point.window);
+                }
+            }
+            Files.move(tmpPath, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("WARNING: Unable to save gzip index file " + indexFile + " (" + e.getMessage() + ")");
+            try {
+                if (tmpPath != null) {
+                    Files.deleteIfExists(tmpPath);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    public long getUncompressedSize() {
+        return uncompressedSize;
+    }
+
+    public int getNumAccessPoints() {
+        return points.size();
+    }
+
+    public AccessPoint getAccessPoint(int i) {
+        return points.get(i);
+    }
+
+    /**
+     * Gets the last access point at or before an uncompressed offset.
+     * @param uncompressedOffset The uncompressed offset.
+     * @return Position of the access point in this index.
+     */
+    public int getAccessPointIndex(long uncompressedOffset) {
+        int lo = 0;
+        int hi = points.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (points.get(mid).uncompressedOffset <= uncompressedOffset) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Gets the first gzip member start after an access point.
+     * @param i Position of the access point in this index.
+     * @return Position of the member start access point, or -1 if none.
+     */
+    public int getNextMemberStartIndex(int i) {
+        for (int j = i + 1; j < points.size(); j++) {
+            if (points.get(j).memberStart) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /** A canonical Huffman code, decoded through a table of its codes of up to FAST_BITS bits */
+    private static class Huffman {
+        static final int MAX_BITS = 15;
+        static final int FAST_BITS = 10;
+        /** (symbol << 4) | length, indexed by the next FAST_BITS bits, or 0 if the code is longer */
+        final short[] fast = new short[1 << FAST_BITS];
+        /** Number of codes of each length */
+        final short[] count = new short[MAX_BITS + 1];
+        /** Symbols ordered by code */
+        final short[] symbol;
+
+        Huffman(int maxSymbols) {
+            symbol = new short[maxSymbols];
+        }
+
+        void build(byte[] lengths, int offset, int n) throws IOException {
+            Arrays.fill(count, (short) 0);
+            for (int i = 0; i < n; i++) {
+                count[lengths[offset + i]]++;
+            }
+            count[0] = 0;
+            int left = 1;
+            for (int len = 1; len <= MAX_BITS; len++) {
+                left = (left << 1) - count[len];
+                if (left < 0) {
+                    throw new IOException("invalid Huffman code lengths");
+                }
+            }
+            short[] offsets = new short[MAX_BITS + 2];
+            for (int len = 1; len <= MAX_BITS; len++) {
+                offsets[len + 1] = (short) (offsets[len] + count[len]);
+            }
+            for (int i = 0; i < n; i++) {
+                int len = lengths[offset + i];
+                if (len != 0) {
+                    symbol[offsets[len]++] = (short) i;
+                }
+            }
+
+            Arrays.fill(fast, (short) 0);
+            int code = 0;
+            int index = 0;
+            for (int len = 1; len <= FAST_BITS; len++) {
+                for (int k = 0; k < count[len]; k++) {
+                    // Codes are stored most significant bit first, in a stream read least significant bit first
+                    int reversed = Integer.reverse(code) >>> (32 - len);
+                    short entry = (short) ((symbol[index] << 4) | len);
+                    for (int j = reversed; j < fast.length; j += 1 << len) {
+                        fast[j] = entry;
+                    }
+                    code++;
+                    index++;
+                }
+                code <<= 1;
+            }
+        }
+    }
+
+    private static final short[] LENGTH_BASE = {
+            3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31, 35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195,
+            227, 258};
+    private static final byte[] LENGTH_EXTRA = {
+            0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0};
+    private static final int[] DIST_BASE = {
+            1, 2, 3, 4, 5, 7, 9, 13, 17, 25, 33, 49, 65, 97, 129, 193, 257, 385, 513, 769, 1025, 1537, 2049, 3073,
+            4097, 6145, 8193, 12289, 16385, 24577};
+    private static final byte[] DIST_EXTRA = {
+            0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 8, 8, 9, 9, 10, 10, 11, 11, 12, 12, 13, 13};
+    private static final byte[] CODE_LENGTH_ORDER = {
+            16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15};
+
+    /**
+     * Decodes a gzip file, only keeping the last 32KB of uncompressed data, and records access points
+     * at deflate block boundaries.
+     */
+    private static class Scanner {
+        private static final int HISTORY_MASK = 2 * WINDOW_SIZE - 1;
+
+        private final InputStream in;
+        private final long spacing;
+        private final byte[] buffer = new byte[1 << 16];
+        private int bufferPos;
+        private int bufferLength;
+        private long bytesRead;
+        private long bitBuffer;
+        private int bitCount;
+
+        private final byte[] history = new byte[HISTORY_MASK + 1];
+        private long outPos;
+        private final List<AccessPoint> points = new ArrayList<>();
+
+        private final Huffman litLen = new Huffman(288);
+        private final Huffman dist = new Huffman(32);
+        private final Huffman codeLen = new Huffman(19);
+        private final Huffman fixedLitLen = new Huffman(288);
+        private final Huffman fixedDist = new Huffman(32);
+        private final byte[] lengths = new byte[288 + 32];
+
+        Scanner(InputStream in, long spacing) throws IOException {
+            this.in = in;
+            this.spacing = spacing;
+            byte[] fixed = new byte[288];
+            Arrays.fill(fixed, 0, 144, (byte) 8);
+            Arrays.fill(fixed, 144, 256, (byte) 9);
+            Arrays.fill(fixed, 256, 280, (byte) 7);
+            Arrays.fill(fixed, 280, 288, (byte) 8);
+            fixedLitLen.build(fixed, 0, 288);
+            Arrays.fill(fixed, 0, 30, (byte) 5);
+            fixedDist.build(fixed, 0, 30);
+        }
+
+        private int nextByte() throws IOException {
+            if (bufferPos == bufferLength) {
+                bufferLength = in.read(buffer);
+                bufferPos = 0;
+                if (bufferLength <= 0) {
+                    bufferLength = 0;
+                    return -1;
+                }
+            }
+            bytesRead++;
+            return buffer[bufferPos++] & 0xff;
+        }
+
+        private void need(int n) throws IOException {
+            while (bitCount < n) {
+                int b = nextByte();
+                if (b < 0) {
+                    throw new EOFException("unexpected end of file");
+                }
+                bitBuffer |= (long) b << bitCount;
+                bitCount += 8;
+            }
+        }
+
+        private int bits(int n) throws IOException {
+            need(n);
+            int value = (int) (bitBuffer & ((1L << n) - 1));
+            bitBuffer >>>= n;
+            bitCount -= n;
+            return value;
+        }
+
+        private long getBitOffset() {
+            return bytesRead * 8 - bitCount;
+        }
+
+        private void alignToByte() {
+            int n = bitCount & 7;
+            bitBuffer >>>= n;
+            bitCount -= n;
+        }
+
+        private byte[] getWindow() {
+            int length = (int) Math.min(outPos, WINDOW_SIZE);
+            byte[] window = new byte[length];
+            for (int i = 0; i < length; i++) {
+                window[i] = history[(int) (outPos - length + i) & HISTORY_MASK];
+            }
+            return window;
+        }
+
+        private int decode(Huffman h) throws IOException {
+            if (bitCount < Huffman.MAX_BITS) {
+                // Near the end of the file, fewer bits may remain than the longest code
+                try {
+                    need(Huffman.MAX_BITS);
+                } catch (EOFException e) {
+                    if (bitCount == 0) {
+                        throw e;
+                    }
+                }
+            }
+            int entry = h.fast[(int) bitBuffer & ((1 << Huffman.FAST_BITS) - 1)];
+            if (entry != 0) {
+                int len = entry & 15;
+                bitBuffer >>>= len;
+                bitCount -= len;
+                return entry >>> 4;
+            }
+            int code = 0;
+            int first = 0;
+            int index = 0;
+            for (int len = 1; len <= Huffman.MAX_BITS; len++) {
+                code |= bits(1);
+                int count = h.count[len];
+                if (code - count < first) {
+                    return h.symbol[index + (code - first)];
+                }
+                index += count;
+                first += count;
+                first <<= 1;
+                code <<= 1;
+            }
+            throw new IOException("invalid Huffman code");
+        }
+
+        private void readDynamicTables() throws IOException {
+            int numLitLen = bits(5) + 257;
+            int numDist = bits(5) + 1;
+            int numCodeLen = bits(4) + 4;
+            Arrays.fill(lengths, 0, 19, (byte) 0);
+            for (int i = 0; i < numCodeLen; i++) {
+                lengths[CODE_LENGTH_ORDER[i]] = (byte) bits(3);
+            }
+            codeLen.build(lengths, 0, 19);
+            int i = 0;
+            while (i < numLitLen + numDist) {
+                int sym = decode(codeLen);
+                if (sym < 16) {
+                    lengths[i++] = (byte) sym;
+                    continue;
+                }
+                byte len = 0;
+                int repeat;
+                if (sym == 16) {
+                    if (i == 0) {
+                        throw new IOException("repeat with no previous code length");
+                    }
+                    len = lengths[i - 1];
+                    repeat = 3 + bits(2);
+                } else if (sym == 17) {
+                    repeat = 3 + bits(3);
+                } else {
+                    repeat = 11 + bits(7);
+                }
+                if (i + repeat > numLitLen + numDist) {
+                    throw new IOException("too many code lengths");
+                }
+                Arrays.fill(lengths, i, i + repeat, len);
+                i += repeat;
+            }
+            litLen.build(lengths, 0, numLitLen);
+            dist.build(lengths, numLitLen, numDist);
+        }
+
+        private void inflateCodes(Huffman litLen, Huffman dist) throws IOException {
+            byte[] history = this.history;
+            int pos = (int) outPos & HISTORY_MASK;
+            long count = 0;
+            while (true) {
+                int sym = decode(litLen);
+                if (sym < 256) {
+                    history[pos] = (byte) sym;
+                    pos = (pos + 1) & HISTORY_MASK;
+                    count++;
+                } else if (sym == 256) {
+                    break;
+                } else {
+                    sym -= 257;
+                    if (sym >= LENGTH_BASE.length) {
+                        throw new IOException("invalid length symbol");
+                    }
+                    int len = LENGTH_BASE[sym] + bits(LENGTH_EXTRA[sym]);
+                    int dsym = decode(dist);
+                    if (dsym >= DIST_BASE.length) {
+                        throw new IOException("invalid distance symbol");
+                    }
+                    int distance = DIST_BASE[dsym] + bits(DIST_EXTRA[dsym]);
+                    if (distance > outPos + count) {
+                        throw new IOException("distance too far back");
+                    }
+                    for (int i = 0; i < len; i++) {
+                        history[pos] = history[(pos - distance) & HISTORY_MASK];
+                        pos = (pos + 1) & HISTORY_MASK;
+                    }
+                    count += len;
+                }
+            }
+            outPos += count;
+        }
+
+        private void inflateStored() throws IOException {
+            alignToByte();
+            int len = bits(16);
+            int nlen = bits(16);
+            if (len != (~nlen & 0xffff)) {
+                throw new IOException("invalid stored block length");
+            }
+            for (int i = 0; i < len; i++) {
+                history[(int) outPos & HISTORY_MASK] = (byte) bits(8);
+                outPos++;
+            }
+        }
+
+        private void skipZeroTerminated() throws IOException {
+            while (bits(8) != 0) {
+            }
+        }
+
+        /**
+         * Reads a gzip member header.
+         * @return False if there is no further member.
+         */
+        private boolean readHeader(boolean first) throws IOException {
+            if (bitCount == 0) {
+                int b = nextByte();
+                if (b < 0) {
+                    if (first) {
+                        throw new EOFException("empty file");
+                    }
+                    return false;
+                }
+                bitBuffer = b;
+                bitCount = 8;
+            }
+            if ((bitBuffer & 0xff) != 0x1f) {
+                if (first) {
+                    throw new IOException("not in gzip format");
+                }
+                // Trailing garbage, ignored like gzip does
+                return false;
+            }
+            if (bits(8) != 0x1f || bits(8) != 0x8b || bits(8) != 8) {
+                throw new IOException("not in gzip format");
+            }
+            int flags = bits(8);
+            bits(16); // MTIME
+            bits(16);
+            bits(8); // XFL
+            bits(8); // OS
+            if ((flags & 4) != 0) { // FEXTRA
+                int length = bits(16);
+                for (int i = 0; i < length; i++) {
+                    bits(8);
+                }
+            }
+            if ((flags & 8) != 0) { // FNAME
+                skipZeroTerminated();
+            }
+            if ((flags & 16) != 0) { // FCOMMENT
+                skipZeroTerminated();
+            }
+            if ((flags & 2) != 0) { // FHCRC
+                bits(16);
+            }
+            return true;
+        }
+
+        void scan() throws IOException {
+            boolean first = true;
+            while (readHeader(first)) {
+                first = false;
+                long memberStart = outPos;
+                points.add(new AccessPoint(getBitOffset(), outPos, true, new byte[0]));
+                long lastPoint = outPos;
+                boolean finalBlock;
+                do {
+                    if (outPos - lastPoint >= spacing) {
+                        points.add(new AccessPoint(getBitOffset(), outPos, false, getWindow()));
+                        lastPoint = outPos;
+                    }
+                    finalBlock = bits(1) == 1;
+                    int type = bits(2);
+                    if (type == 0) {
+                        inflateStored();
+                    } else if (type == 1) {
+                        inflateCodes(fixedLitLen, fixedDist);
+                    } else if (type == 2) {
+                        readDynamicTables();
+                        inflateCodes(litLen, dist);
+                    } else {
+                        throw new IOException("invalid block type");
+                    }
+                } while (!finalBlock);
+                alignToByte();
+                bits(16); // CRC32
+                bits(16);
+                long size = bits(16) | ((long) bits(16) << 16);
+                if (size != ((outPos - memberStart) & 0xffffffffL)) {
+                    throw new IOException("uncompressed size mismatch");
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("USAGE: <file.gz> [file.gz ...]");
+            System.out.println("  Writes an index alongside each gzip file, with the " + FILE_EXTENSION + " extension appended");
+            return;
+        }
+        for (String arg : args) {
+            long start = System.nanoTime();
+            GzipIndex index = buildAndWrite(Paths.get(arg));
+            System.out.printf("INFO: Indexed %s (%d access points) in %.2fs\n", arg, index.getNumAccessPoints(),
+                    (System.nanoTime() - start) / 1e9);
+        }
+    }
+}
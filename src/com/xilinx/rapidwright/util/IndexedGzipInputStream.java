@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * An InputStream of the uncompressed contents of a gzip file, which uses a {@link GzipIndex} of the file
+ * so that {@link #skip(long)} resumes decompression at the last access point before the target offset,
+ * rather than decompressing all data up to it. Several such streams can thus decompress different regions
+ * of the same file in parallel.
+ *
+ * Access points are deflate block boundaries, which are generally not byte-aligned. Since {@link Inflater}
+ * can only start at a byte boundary, the compressed data following an access point is shifted by its bit
+ * offset on the fly, and the data preceding the access point is set as the inflater's dictionary.
+ */
+public class IndexedGzipInputStream extends InputStream {
+
+    private final Path fileName;
+    private final GzipIndex index;
+    private final FileChannel channel;
+    private final Inflater inflater = new Inflater(true);
+
+    private final byte[] raw = new byte[1 << 16];
+    private final ByteBuffer rawBuffer = ByteBuffer.wrap(raw);
+    private final byte[] shifted = new byte[1 << 16];
+    private final byte[] single = new byte[1];
+    private byte[] skipBuffer;
+
+    /** Position of the current access point in the index, or -1 if not yet positioned */
+    private int currentPoint = -1;
+    /** Number of bits by which the compressed data is shifted */
+    private int shift;
+    private int previous;
+    private boolean hasPrevious;
+    private boolean flushedPrevious;
+    /** Uncompressed offset of the next byte to be read */
+    private long position;
+    private boolean eof;
+
+    public IndexedGzipInputStream(Path fileName, GzipIndex index) throws IOException {
+        this.fileName = fileName;
+        this.index = index;
+        this.channel = FileChannel.open(fileName, StandardOpenOption.READ);
+    }
+
+    private void seekTo(int i) throws IOException {
+        GzipIndex.AccessPoint point = index.getAccessPoint(i);
+        inflater.reset();
+        if (point.window.length > 0) {
+            inflater.setDictionary(point.window);
+        }
+        channel.position(point.bitOffset >>> 3);
+        shift = (int) (point.bitOffset & 7);
+        hasPrevious = false;
+        flushedPrevious = false;
+        position = point.uncompressedOffset;
+        currentPoint = i;
+        eof = false;
+    }
+
+    /**
+     * Provides the inflater with more compressed data, shifted if necessary.
+     * @return False if the end of the file has been reached.
+     */
+    private boolean fill() throws IOException {
+        while (true) {
+            rawBuffer.clear();
+            int n = channel.read(rawBuffer);
+            if (shift == 0) {
+                if (n <= 0) {
+                    return false;
+                }
+                inflater.setInput(raw, 0, n);
+                return true;
+            }
+            if (n <= 0) {
+                if (!hasPrevious || flushedPrevious) {
+                    return false;
+                }
+                // Remaining bits of the last byte of the file
+                shifted[0] = (byte) (previous >>> shift);
+                flushedPrevious = true;
+                inflater.setInput(shifted, 0, 1);
+                return true;
+            }
+            int start = 0;
+            if (!hasPrevious) {
+                previous = raw[0] & 0xff;
+                hasPrevious = true;
+                start = 1;
+            }
+            int length = 0;
+            for (int i = start; i < n; i++) {
+                shifted[length++] = (byte) ((previous >>> shift) | (raw[i] << (8 - shift)));
+                previous = raw[i] & 0xff;
+            }
+            if (length > 0) {
+                inflater.setInput(shifted, 0, length);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (currentPoint == -1) {
+            seekTo(0);
+        }
+        while (!eof) {
+            int n;
+            try {
+                n = inflater.inflate(b, off, len);
+            } catch (DataFormatException e) {
+                throw new IOException("ERROR: Invalid compressed data in " + fileName, e);
+            }
+            if (n > 0) {
+                position += n;
+                return n;
+            }
+            if (inflater.finished()) {
+                // Continue with the next gzip member, if any
+                int next = index.getNextMemberStartIndex(currentPoint);
+                if (next == -1) {
+                    eof = true;
+                } else {
+                    seekTo(next);
+                }
+            } else if (inflater.needsDictionary()) {
+                throw new IOException("ERROR: Unexpected dictionary request in " + fileName);
+            } else if (inflater.needsInput() && !fill()) {
+                throw new EOFException("ERROR: Unexpected end of gzip file " + fileName);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int n = read(single, 0, 1);
+        return (n == -1) ? -1 : (single[0] & 0xff);
+    }
+
+    /**
+     * Skips ahead by resuming decompression at the last access point before the target offset, if that is
+     * after the current position, and then decompressing up to the target offset.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        long start = (currentPoint == -1) ? 0 : position;
+        long target = Math.min(start + n, index.getUncompressedSize());
+        int i = index.getAccessPointIndex(target);
+        if (currentPoint == -1 || index.getAccessPoint(i).getUncompressedOffset() > position) {
+            seekTo(i);
+        }
+        if (skipBuffer == null) {
+            skipBuffer = new byte[1 << 16];
+        }
+        while (position < target) {
+            if (read(skipBuffer, 0, (int) Math.min(skipBuffer.length, target - position)) == -1) {
+                break;
+            }
+        }
+        return position - start;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+}
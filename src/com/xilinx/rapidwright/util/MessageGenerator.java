@@ -199,4 +199,8 @@ public class MessageGenerator{
     public static String formatString(String s, long value) {
         return String.format("%-35s %10d\n", s, value);
     }
+
+    public static String formatString(String s, String value) {
+        return String.format("%-35s %10s\n", s, value);
+    }
 }
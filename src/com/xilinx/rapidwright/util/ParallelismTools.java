@@ -43,6 +43,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -338,6 +339,37 @@ public class ParallelismTools {
         }
     }
 
+    /**
+     * Run the specified task on every index of a range, split into as many contiguous chunks as there
+     * are threads (but no smaller than the given size), and block until all chunks have been completed.
+     * Ranges too small to be split, or when parallel processing is disabled, are run on the calling thread.
+     * @param begin First index of the range (inclusive).
+     * @param end Last index of the range (exclusive).
+     * @param minChunkSize Minimum number of indices in each chunk.
+     * @param task The task that should be executed for every index.
+     */
+    public static void invokeAllRange(int begin, int end, int minChunkSize, IntConsumer task) {
+        final int size = end - begin;
+        final int numChunks = getParallel() ? Math.min(maxParallelism(), size / Math.max(1, minChunkSize)) : 1;
+        if (numChunks <= 1) {
+            for (int i = begin; i < end; i++) {
+                task.accept(i);
+            }
+            return;
+        }
+        Runnable[] tasks = new Runnable[numChunks];
+        for (int c = 0; c < numChunks; c++) {
+            final int chunkBegin = begin + (int) ((long) size * c / numChunks);
+            final int chunkEnd = begin + (int) ((long) size * (c + 1) / numChunks);
+            tasks[c] = () -> {
+                for (int i = chunkBegin; i < chunkEnd; i++) {
+                    task.accept(i);
+                }
+            };
+        }
+        invokeAll(tasks);
+    }
+
     /**
      * Run the specified task on all items
      * @param items the items to call the task with
@@ -38,6 +38,10 @@ public class Params {
 
     public static String RW_DISABLE_WRITING_ADV_FLOW_DCPS_NAME = "RW_DISABLE_WRITING_ADV_FLOW_DCPS";
 
+    public static String RW_DISABLE_GZIP_INDEX_NAME = "RW_DISABLE_GZIP_INDEX";
+
+    public static String RW_WRITE_GZIP_INDEX_NAME = "RW_WRITE_GZIP_INDEX";
+
     /**
      * Flag to have RapidWright decompress gzipped EDIF files to disk prior to
      * parsing. This is a tradeoff where pre-decompression improves runtime over the
@@ -70,6 +74,22 @@ public class Params {
      */
     public static boolean RW_DISABLE_WRITING_ADV_FLOW_DCPS = isParamSet(RW_DISABLE_WRITING_ADV_FLOW_DCPS_NAME);
 
+    /**
+     * Flag to disable RapidWright from using the index of a gzipped EDIF file (see
+     * {@link GzipIndex}), stored alongside it, so that parallel EDIF parser threads can
+     * each decompress their own region of the file. When disabled, or when no index
+     * exists, each thread decompresses the file from its beginning up to its region.
+     */
+    public static boolean RW_DISABLE_GZIP_INDEX = isParamSet(RW_DISABLE_GZIP_INDEX_NAME);
+
+    /**
+     * Flag to have RapidWright build the index of a gzipped EDIF file (see
+     * {@link GzipIndex}) in the background while the file is first parsed, and write
+     * it alongside the file so that later reads can use it. Off by default so that
+     * no files are written next to user input files.
+     */
+    public static boolean RW_WRITE_GZIP_INDEX = isParamSet(RW_WRITE_GZIP_INDEX_NAME);
+
     /**
      * Checks if the named RapidWright parameter is set via an environment variable
      * or by a JVM parameter of the same name.
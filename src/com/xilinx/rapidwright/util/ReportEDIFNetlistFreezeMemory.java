@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.util;
+
+import com.xilinx.rapidwright.edif.EDIFNetlist;
+import com.xilinx.rapidwright.edif.EDIFTools;
+import com.xilinx.rapidwright.tests.CodePerfTracker;
+
+/**
+ * Reports the heap used by an EDIF netlist before and after {@link EDIFNetlist#freeze()}.
+ * Run with a single, fixed heap size (e.g. -Xms and -Xmx set to the same value) for stable figures.
+ */
+public class ReportEDIFNetlistFreezeMemory {
+
+    private static final String READ = "Read EDIF";
+    private static final String FREEZE = "Freeze";
+
+    private static double toMB(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("USAGE: <input.edf>");
+            return;
+        }
+        CodePerfTracker t = new CodePerfTracker("Freeze " + args[0], false);
+        t.useGCToTrackMemory(true);
+
+        t.start(READ);
+        EDIFNetlist netlist = EDIFTools.readEdifFile(args[0]);
+        t.stop();
+        t.start(FREEZE);
+        netlist.freeze();
+        t.stop();
+
+        long before = t.getMemUsage(READ);
+        long after = before + t.getMemUsage(FREEZE);
+        System.out.printf("%20s: %10.3f MBs\n", "Before freeze()", toMB(before));
+        System.out.printf("%20s: %10.3f MBs\n", "After freeze()", toMB(after));
+        System.out.printf("%20s: %10.1f %%\n", "Reduction", 100.0 * (before - after) / before);
+        System.out.printf("%20s: %10.3f s\n", "freeze() runtime", t.getRuntime(FREEZE) / 1e9);
+        // Keep the netlist reachable until all figures have been taken
+        System.out.println("Top cell: " + netlist.getTopCell().getName());
+    }
+}
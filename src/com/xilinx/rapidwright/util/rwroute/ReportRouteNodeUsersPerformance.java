@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.util.rwroute;
+
+import com.xilinx.rapidwright.design.Design;
+import com.xilinx.rapidwright.device.Node;
+import com.xilinx.rapidwright.device.Tile;
+import com.xilinx.rapidwright.device.TileTypeEnum;
+import com.xilinx.rapidwright.rwroute.NetWrapper;
+import com.xilinx.rapidwright.rwroute.RWRouteConfig;
+import com.xilinx.rapidwright.rwroute.RouteNode;
+import com.xilinx.rapidwright.rwroute.RouteNodeGraph;
+import com.xilinx.rapidwright.util.ParallelismTools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Microbenchmark reporting the throughput of the {@link RouteNode} user accounting methods
+ * ({@link RouteNode#incrementUser(NetWrapper)}, {@link RouteNode#countConnectionsOfUser(NetWrapper)}
+ * and {@link RouteNode#decrementUser(NetWrapper)}), both from a single thread and from multiple threads
+ * operating on a shared set of rnodes, as happens when routing with CUFR.
+ */
+public class ReportRouteNodeUsersPerformance {
+
+    private static final int ITERATIONS = 20;
+
+    private static List<RouteNode> createRouteNodes(Design design, int maxTiles) {
+        RouteNodeGraph routingGraph = new RouteNodeGraph(design, new RWRouteConfig(null));
+        List<RouteNode> rnodes = new ArrayList<>();
+        int numTiles = 0;
+        for (Tile tile : design.getDevice().getAllTiles()) {
+            if (tile.getTileTypeEnum() != TileTypeEnum.INT) {
+                continue;
+            }
+            for (int wireIndex = 0; wireIndex < tile.getWireCount(); wireIndex++) {
+                Node node = Node.getNode(tile, wireIndex);
+                if (node == null || node.isInvalidNode() || !node.getTile().equals(tile)) {
+                    continue;
+                }
+                rnodes.add(routingGraph.getOrCreate(node));
+            }
+            if (++numTiles == maxTiles) {
+                break;
+            }
+        }
+        return rnodes;
+    }
+
+    /**
+     * Performs one round of accounting: each user is added (twice) to every rnode, counted, then removed.
+     * @return Number of user accounting operations performed.
+     */
+    private static long runRound(List<RouteNode> rnodes, NetWrapper[] users) {
+        long checksum = 0;
+        for (RouteNode rnode : rnodes) {
+            for (NetWrapper user : users) {
+                rnode.incrementUser(user);
+                rnode.incrementUser(user);
+            }
+            for (NetWrapper user : users) {
+                checksum += rnode.countConnectionsOfUser(user);
+            }
+            for (NetWrapper user : users) {
+                rnode.decrementUser(user);
+                rnode.decrementUser(user);
+            }
+        }
+        if (checksum != 2L * rnodes.size() * users.length) {
+            throw new RuntimeException("ERROR: Unexpected checksum " + checksum);
+        }
+        return 5L * rnodes.size() * users.length;
+    }
+
+    private static void report(String name, long operations, long nanos) {
+        System.out.printf("%40s: %8.3f Mops/s\n", name, operations * 1000.0 / nanos);
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 2) {
+            System.out.println("USAGE: [part name (default: xcvu3p)] [number of INT tiles (default: 100)]");
+            return;
+        }
+        String partName = args.length > 0 ? args[0] : "xcvu3p";
+        int maxTiles = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        Design design = new Design("benchmark", partName);
+        List<RouteNode> rnodes = createRouteNodes(design, maxTiles);
+        System.out.println("Rnodes: " + rnodes.size());
+
+        int numThreads = ParallelismTools.maxParallelism();
+        NetWrapper[] allUsers = new NetWrapper[Math.max(numThreads, 4)];
+        for (int i = 0; i < allUsers.length; i++) {
+            allUsers[i] = new NetWrapper(i, design.createNet("net" + i));
+        }
+
+        for (int usersPerRnode : new int[]{1, 2, 4}) {
+            NetWrapper[] users = new NetWrapper[usersPerRnode];
+            System.arraycopy(allUsers, 0, users, 0, usersPerRnode);
+            // Warm up
+            runRound(rnodes, users);
+            long operations = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                operations += runRound(rnodes, users);
+            }
+            report("1 thread, " + usersPerRnode + " user(s) per rnode", operations, System.nanoTime() - start);
+        }
+
+        // Every thread accounts for its own distinct user on the same shared rnodes, so that
+        // both the inline (single user) and inflated (multiple user) paths are exercised concurrently
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            NetWrapper[] users = new NetWrapper[]{allUsers[t]};
+            tasks.add(() -> {
+                long operations = 0;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    operations += runRound(rnodes, users);
+                }
+                return operations;
+            });
+        }
+        long start = System.nanoTime();
+        List<Future<Long>> futures = new ArrayList<>();
+        for (Callable<Long> task : tasks) {
+            futures.add(ParallelismTools.submit(task));
+        }
+        long operations = 0;
+        for (Future<Long> future : futures) {
+            operations += ParallelismTools.get(future);
+        }
+        report(numThreads + " threads, shared rnodes", operations, System.nanoTime() - start);
+    }
+}
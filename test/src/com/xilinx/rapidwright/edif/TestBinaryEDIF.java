@@ -86,4 +86,39 @@ public class TestBinaryEDIF {
 
         Assertions.assertTrue(EquivalentEDIF.compareEDIFFiles(goldenPath, testPath));
     }
+
+    @Test
+    public void testChunkedBinaryEDIF(@TempDir Path tempDir) {
+        Design design = Design.readCheckpoint(RapidWrightDCP.getPath("optical-flow.dcp"), true);
+        EDIFNetlist netlist = design.getNetlist();
+        netlist.collapseMacroUnisims(design.getDevice().getSeries());
+        Path goldenPath = tempDir.resolve("golden.edf");
+        netlist.exportEDIF(goldenPath);
+        EDIFNetlist golden = EDIFTools.readEdifFile(goldenPath);
+
+        Path binaryPath = tempDir.resolve("test.bedf");
+        netlist.writeChunkedBinaryEDIF(binaryPath);
+
+        EDIFNetlist test = EDIFNetlist.readBinaryEDIF(binaryPath);
+        Assertions.assertFalse(test.getTopCell().hasLazyContents());
+        Assertions.assertTrue(EquivalentEDIF.equivalentEDIFNetlists(golden, test));
+
+        EDIFNetlist lazy = EDIFNetlist.readBinaryEDIF(binaryPath, true);
+        EDIFCell top = lazy.getTopCell();
+        Assertions.assertTrue(top.hasLazyContents());
+        Assertions.assertEquals(netlist.getTopCell().getPorts().size(), top.getPorts().size());
+        Assertions.assertEquals(netlist.getTopCell().getCellInsts().size(), top.getCellInsts().size());
+        Assertions.assertFalse(top.hasLazyContents());
+        for (EDIFLibrary lib : netlist.getLibraries()) {
+            for (EDIFCell cell : lib.getCells()) {
+                Assertions.assertEquals(cell.getNonHierInstantiationCount(),
+                        lazy.getLibrary(lib.getName()).getCell(cell.getName()).getNonHierInstantiationCount());
+            }
+        }
+        Assertions.assertTrue(EquivalentEDIF.equivalentEDIFNetlists(golden, lazy));
+
+        Path testPath = tempDir.resolve("test.edf");
+        lazy.exportEDIF(testPath);
+        Assertions.assertTrue(EquivalentEDIF.compareEDIFFiles(goldenPath, testPath));
+    }
 }
@@ -24,7 +24,11 @@
 package com.xilinx.rapidwright.edif;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -639,4 +643,178 @@ class TestEDIFNetlist {
             Assertions.assertEquals("[ob/P/O]", netlist.getPhysicalPins("ob/O").toString());
         }
     }
+
+    @Test
+    public void testFreezeAndThaw(@TempDir Path tempDir) {
+        Design design = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+        EDIFNetlist netlist = design.getNetlist();
+        Path goldenPath = tempDir.resolve("golden.edf");
+        netlist.exportEDIF(goldenPath);
+        List<EDIFHierCellInst> leaves = netlist.getAllLeafHierCellInstances();
+
+        netlist.freeze();
+        Assertions.assertTrue(netlist.isFrozen());
+        EDIFCell top = netlist.getTopCell();
+        Assertions.assertTrue(top.getNets().iterator().next().getEDIFPortInstList().isFrozen());
+        for (EDIFHierCellInst leaf : leaves) {
+            EDIFHierCellInst frozen = netlist.getHierCellInstFromName(leaf.getFullHierarchicalInstName());
+            Assertions.assertNotNull(frozen);
+            Assertions.assertSame(leaf.getInst(), frozen.getInst());
+        }
+
+        // Identical property maps are shared
+        Set<Map<String, EDIFPropertyValue>> distinct = new HashSet<>();
+        int numInsts = 0;
+        for (EDIFHierCellInst leaf : leaves) {
+            Map<String, EDIFPropertyValue> properties = leaf.getInst().getPropertiesMap();
+            Assertions.assertTrue(properties instanceof EDIFFrozenMap);
+            distinct.add(properties);
+            numInsts++;
+        }
+        Set<Map<String, EDIFPropertyValue>> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (EDIFHierCellInst leaf : leaves) {
+            identities.add(leaf.getInst().getPropertiesMap());
+        }
+        Assertions.assertEquals(distinct.size(), identities.size());
+        Assertions.assertTrue(identities.size() < numInsts);
+
+        // Names of port instances on bussed ports are shared between instances
+        Map<String, String> portInstNames = new HashMap<>();
+        for (EDIFHierCellInst leaf : leaves) {
+            for (EDIFPortInst portInst : leaf.getInst().getPortInsts()) {
+                if (portInst.getPort().isBus()) {
+                    String name = portInstNames.computeIfAbsent(portInst.getName(), (n) -> n);
+                    Assertions.assertSame(name, portInst.getName());
+                }
+            }
+        }
+
+        EDIFCellInst inst = leaves.get(0).getInst();
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> inst.addProperty("TEST", "1"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> top.createNet("test_net"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> top.removeCellInst(inst.getName()));
+        EDIFNet net = top.getNets().iterator().next();
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> net.removePortInst(net.getPortInsts().get(0)));
+
+        // Shared property values cannot be modified, nor objects renamed
+        EDIFCellInst instWithProperty = null;
+        for (EDIFHierCellInst leaf : leaves) {
+            if (!leaf.getInst().getPropertiesMap().isEmpty()) {
+                instWithProperty = leaf.getInst();
+                break;
+            }
+        }
+        Assertions.assertNotNull(instWithProperty);
+        String key = instWithProperty.getPropertiesMap().keySet().iterator().next();
+        EDIFPropertyValue value = instWithProperty.getProperty(key);
+        String oldValue = value.getValue();
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> value.setValue("1"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> value.setType(EDIFValueType.STRING));
+        Assertions.assertEquals(oldValue, value.getValue());
+        String topName = top.getName();
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> top.rename("test_top"));
+        Assertions.assertEquals(topName, top.getName());
+        String netName = net.getName();
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> net.rename("test_net"));
+        Assertions.assertEquals(netName, net.getName());
+
+        // A rejected instance is not left attached to the cell
+        EDIFCellInst orphan = new EDIFCellInst("test_inst", inst.getCellType(), null);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> top.addCellInst(orphan));
+        Assertions.assertNull(orphan.getParentCell());
+
+        Path frozenPath = tempDir.resolve("frozen.edf");
+        netlist.exportEDIF(frozenPath);
+        Assertions.assertTrue(EquivalentEDIF.compareEDIFFiles(goldenPath, frozenPath));
+
+        netlist.thaw();
+        Assertions.assertFalse(netlist.isFrozen());
+        inst.addProperty("TEST", "1");
+        Assertions.assertEquals("1", inst.getProperty("TEST").getValue());
+        Assertions.assertNotNull(top.createNet("test_net"));
+        inst.removeProperty("TEST");
+        top.removeNet("test_net");
+        EDIFPropertyValue thawedValue = instWithProperty.getProperty(key);
+        thawedValue.setValue("1");
+        Assertions.assertEquals("1", thawedValue.getValue());
+        thawedValue.setValue(oldValue);
+
+        Path thawedPath = tempDir.resolve("thawed.edf");
+        netlist.exportEDIF(thawedPath);
+        Assertions.assertTrue(EquivalentEDIF.compareEDIFFiles(goldenPath, thawedPath));
+    }
+
+    @Test
+    public void testHierNameIndex() {
+        Design design = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+        EDIFNetlist netlist = design.getNetlist();
+        List<EDIFHierCellInst> insts = netlist.findCellInsts(null);
+        List<EDIFHierNet> nets = new ArrayList<>();
+        List<EDIFHierCellInst> parents = new ArrayList<>(insts);
+        parents.add(netlist.getTopHierCellInst());
+        for (EDIFHierCellInst parent : parents) {
+            for (EDIFNet net : parent.getCellType().getNets()) {
+                nets.add(new EDIFHierNet(parent, net));
+            }
+        }
+
+        Assertions.assertFalse(netlist.hasHierNameIndex());
+        EDIFHierNameIndex index = netlist.getHierNameIndex();
+        Assertions.assertTrue(netlist.hasHierNameIndex());
+        for (EDIFHierCellInst inst : insts) {
+            Assertions.assertEquals(inst, netlist.getHierCellInstFromName(inst.getFullHierarchicalInstName()));
+        }
+        for (EDIFHierNet net : nets) {
+            Assertions.assertEquals(net, netlist.getHierNetFromName(net.getHierarchicalNetName()));
+        }
+        Assertions.assertEquals(netlist.getTopHierCellInst(), netlist.getHierCellInstFromName(""));
+        Assertions.assertNull(netlist.getHierCellInstFromName("does/not/exist"));
+        Assertions.assertNull(netlist.getHierNetFromName("does/not/exist"));
+
+        Assertions.assertEquals(new HashSet<>(insts), new HashSet<>(netlist.findCellInsts(null)));
+        Assertions.assertEquals(new HashSet<>(nets), new HashSet<>(index.findNets("*")));
+
+        EDIFHierCellInst parent = insts.stream().filter((i) -> !i.getCellType().isLeafCellOrBlackBox())
+                .findFirst().get();
+        String prefix = parent.getFullHierarchicalInstName() + EDIFTools.EDIF_HIER_SEP;
+        Set<EDIFHierCellInst> expected = new HashSet<>();
+        for (EDIFHierCellInst inst : insts) {
+            if (inst.getFullHierarchicalInstName().startsWith(prefix)) {
+                expected.add(inst);
+            }
+        }
+        Assertions.assertFalse(expected.isEmpty());
+        Assertions.assertEquals(expected, new HashSet<>(index.getCellInstsWithPrefix(prefix)));
+        Assertions.assertEquals(expected, new HashSet<>(netlist.findCellInsts(prefix + "*")));
+        expected.removeIf((i) -> !i.getFullHierarchicalInstName().endsWith("_1"));
+        Assertions.assertEquals(expected, new HashSet<>(index.findCellInsts(prefix + "*_1")));
+
+        // The index follows changes to the netlist
+        EDIFCell cell = parent.getCellType();
+        EDIFCell leaf = insts.stream().filter((i) -> i.getCellType().isPrimitive()).findFirst().get().getCellType();
+        EDIFCellInst added = cell.createChildCellInst("index/test", leaf);
+        Assertions.assertEquals(added, netlist.getCellInstFromHierName(prefix + "index/test"));
+        EDIFNet net = cell.createNet("index_test");
+        Assertions.assertEquals(net, netlist.getNetFromHierName(prefix + "index_test"));
+        cell.removeCellInst(added);
+        cell.removeNet(net);
+        Assertions.assertNull(netlist.getHierCellInstFromName(prefix + "index/test"));
+        Assertions.assertNull(netlist.getHierNetFromName(prefix + "index_test"));
+
+        // Patterns match the same instances with and without the index, with '.' matching any character
+        String dotted = prefix.substring(0, prefix.length() - 2) + "." + EDIFTools.EDIF_HIER_SEP;
+        String[] patterns = {null, "*", prefix + "*", dotted + "*", "*.*_1", "*[*]*", "*a+*"};
+        List<Set<EDIFHierCellInst>> indexed = new ArrayList<>();
+        for (String pattern : patterns) {
+            indexed.add(new HashSet<>(netlist.findCellInsts(pattern)));
+        }
+        Assertions.assertTrue(indexed.get(3).containsAll(index.getCellInstsWithPrefix(prefix)));
+
+        netlist.removeHierNameIndex();
+        Assertions.assertFalse(netlist.hasHierNameIndex());
+        Assertions.assertNull(cell.getHierNameNode());
+        for (int i = 0; i < patterns.length; i++) {
+            Assertions.assertEquals(new HashSet<>(netlist.findCellInsts(patterns[i])), indexed.get(i), patterns[i]);
+        }
+    }
 }
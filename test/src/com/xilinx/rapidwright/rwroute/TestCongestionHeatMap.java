@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.design.Design;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class TestCongestionHeatMap {
+    @Test
+    public void testCongestionHeatMap() {
+        Design design = new Design("design", "xcvu3p");
+        RouteNodeGraph routingGraph = new RouteNodeGraph(design, new RWRouteConfig(null));
+        RouteNode rnode = routingGraph.getOrCreate(design.getDevice().getNode("INT_X52Y123/WW1_W_BEG7"));
+        NetWrapper a = new NetWrapper(0, design.createNet("a"));
+        NetWrapper b = new NetWrapper(1, design.createNet("b"));
+        NetWrapper c = new NetWrapper(2, design.createNet("c"));
+        CongestionHeatMap heatMap = new CongestionHeatMap(design.getDevice().getColumns(), design.getDevice().getRows());
+        int x = rnode.getEndTileXCoordinate();
+        int y = rnode.getEndTileYCoordinate();
+        List<RouteNode> overUsedRnodes = Collections.singletonList(rnode);
+
+        // More connections of the same user do not overuse a rnode
+        rnode.incrementUser(a);
+        rnode.incrementUser(a);
+        Assertions.assertFalse(rnode.isOverUsed());
+        rnode.incrementUser(b);
+        rnode.incrementUser(c);
+        Assertions.assertTrue(rnode.isOverUsed());
+        // Overuse is only computed at the end of an iteration
+        Assertions.assertEquals(0, heatMap.getPresentOveruse(x, y));
+        heatMap.endIteration(overUsedRnodes);
+        Assertions.assertEquals(2, heatMap.getPresentOveruse(x, y));
+        Assertions.assertEquals(2, heatMap.getHistoricalOveruse(x, y));
+        Assertions.assertEquals(1, heatMap.getNumHotTiles());
+
+        rnode.decrementUser(c);
+        heatMap.endIteration(overUsedRnodes);
+        Assertions.assertEquals(1, heatMap.getPresentOveruse(x, y));
+        Assertions.assertEquals(3, heatMap.getHistoricalOveruse(x, y));
+        Assertions.assertEquals(1, heatMap.getNumHotTiles());
+
+        rnode.decrementUser(a);
+        rnode.decrementUser(a);
+        Assertions.assertFalse(rnode.isOverUsed());
+        heatMap.endIteration(Collections.emptyList());
+        Assertions.assertEquals(0, heatMap.getPresentOveruse(x, y));
+        Assertions.assertEquals(3, heatMap.getHistoricalOveruse(x, y));
+        Assertions.assertEquals(0, heatMap.getNumHotTiles());
+        Assertions.assertEquals(1, rnode.getOccupancy());
+    }
+}
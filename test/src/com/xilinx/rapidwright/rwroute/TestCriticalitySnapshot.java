@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.design.Design;
+import com.xilinx.rapidwright.design.Net;
+import com.xilinx.rapidwright.design.SitePinInst;
+import com.xilinx.rapidwright.support.LargeTest;
+import com.xilinx.rapidwright.support.RapidWrightDCP;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestCriticalitySnapshot {
+    private static List<Connection> createConnections(Design design) {
+        List<Connection> connections = new ArrayList<>();
+        int netId = 0;
+        for (Net net : design.getNets()) {
+            SitePinInst source = net.getSource();
+            if (source == null || net.isStaticNet() || net.isClockNet()) {
+                continue;
+            }
+            NetWrapper netWrapper = new NetWrapper(netId++, net);
+            for (SitePinInst sink : net.getSinkPins()) {
+                connections.add(new Connection(connections.size(), source, sink, netWrapper));
+            }
+        }
+        return connections;
+    }
+
+    @Test
+    @LargeTest(max_memory_gb = 8)
+    public void testSaveLoad(@TempDir Path tempDir) {
+        Path path = tempDir.resolve("bnn.rwcs");
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        RWRoute.routeDesignWithUserDefinedArguments(design, new String[] {"--saveCriticalities", path.toString()});
+        Assertions.assertTrue(Files.exists(path));
+
+        CriticalitySnapshot snapshot = CriticalitySnapshot.load(path, design);
+        Assertions.assertEquals(design.getName(), snapshot.getDesignName());
+        Assertions.assertTrue(snapshot.getNumConnections() > 0);
+
+        Path resavedPath = tempDir.resolve("bnn_resaved.rwcs");
+        snapshot.save(resavedPath);
+        CriticalitySnapshot reloaded = CriticalitySnapshot.load(resavedPath, design);
+        Assertions.assertEquals(snapshot.getDesignName(), reloaded.getDesignName());
+        Assertions.assertEquals(snapshot.getNumConnections(), reloaded.getNumConnections());
+
+        int numRecorded = 0;
+        for (Connection connection : createConnections(design)) {
+            Float criticality = snapshot.getCriticality(connection);
+            Assertions.assertEquals(criticality, reloaded.getCriticality(connection));
+            Assertions.assertEquals(snapshot.getRouteDelay(connection), reloaded.getRouteDelay(connection));
+            if (criticality != null) {
+                Assertions.assertTrue(criticality >= 0f && criticality <= 1f);
+                numRecorded++;
+            }
+        }
+        Assertions.assertTrue(numRecorded > 0 && numRecorded <= snapshot.getNumConnections());
+    }
+
+    @Test
+    @LargeTest(max_memory_gb = 8)
+    public void testSortAndSeed(@TempDir Path tempDir) {
+        Path path = tempDir.resolve("bnn.rwcs");
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        RWRoute.routeDesignWithUserDefinedArguments(design, new String[] {"--saveCriticalities", path.toString()});
+        CriticalitySnapshot snapshot = CriticalitySnapshot.load(path, design);
+
+        List<Connection> connections = createConnections(design);
+        snapshot.sort(connections);
+        float previous = Float.MAX_VALUE;
+        for (Connection connection : connections) {
+            Float criticality = snapshot.getCriticality(connection);
+            float current = (criticality != null) ? criticality : 0f;
+            Assertions.assertTrue(current <= previous);
+            previous = current;
+        }
+
+        int numSeeded = snapshot.seedCriticalities(connections);
+        Assertions.assertTrue(numSeeded > 0);
+        for (Connection connection : connections) {
+            Float criticality = snapshot.getCriticality(connection);
+            Assertions.assertEquals((criticality != null) ? criticality : 0f, connection.getCriticality());
+        }
+    }
+}
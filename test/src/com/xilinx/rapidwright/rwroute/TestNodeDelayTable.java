@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.device.Device;
+import com.xilinx.rapidwright.device.Node;
+import com.xilinx.rapidwright.device.Tile;
+import com.xilinx.rapidwright.device.TileTypeEnum;
+import com.xilinx.rapidwright.timing.delayestimator.DelayEstimatorBase;
+import com.xilinx.rapidwright.timing.delayestimator.InterconnectInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestNodeDelayTable {
+    private static void assertSameDelays(DelayEstimatorBase estimator, NodeDelayTable table, Tile tile) {
+        for (int wireIndex = 0; wireIndex < tile.getWireCount(); wireIndex++) {
+            Node node = Node.getNode(tile, wireIndex);
+            if (node == null) {
+                continue;
+            }
+            Assertions.assertEquals(RouterHelper.computeNodeDelay(estimator, node), table.getDelay(node),
+                    node.toString());
+        }
+    }
+
+    @Test
+    public void testNodeDelayTable(@TempDir Path tempDir) {
+        Device device = Device.getDevice("xcvu3p");
+        DelayEstimatorBase estimator = new DelayEstimatorBase(device, new InterconnectInfo(), false, 0);
+        RWRouteConfig config = new RWRouteConfig(new String[] {"--nodeDelayTable",
+                "--routeNodeGraphCacheDir", tempDir.toString()});
+        NodeDelayTable table = NodeDelayTable.get(device, estimator, config);
+        Assertions.assertTrue(table.getNumDelays() > 0);
+
+        // Compare against the estimator for the INT tiles at the corners of the device, where U-turns occur,
+        // for an INT tile in the middle, and for a non-INT tile
+        int maxX = 0;
+        int maxY = 0;
+        for (Tile tile : device.getAllTiles()) {
+            if (tile.getTileTypeEnum() == TileTypeEnum.INT) {
+                maxX = Math.max(maxX, tile.getTileXCoordinate());
+                maxY = Math.max(maxY, tile.getTileYCoordinate());
+            }
+        }
+        List<Tile> tiles = new ArrayList<>();
+        for (Tile tile : device.getAllTiles()) {
+            int x = tile.getTileXCoordinate();
+            int y = tile.getTileYCoordinate();
+            if (tile.getTileTypeEnum() == TileTypeEnum.INT && (x == 0 || x == maxX) && (y == 0 || y == maxY)) {
+                tiles.add(tile);
+            }
+        }
+        tiles.add(device.getTile("INT_X37Y220"));
+        tiles.add(device.getTile("CLEM_X59Y185"));
+        for (Tile tile : tiles) {
+            assertSameDelays(estimator, table, tile);
+        }
+
+        // Second time around, the table is read from the cache directory
+        NodeDelayTable cached = NodeDelayTable.get(device, estimator, config);
+        Assertions.assertNotSame(table, cached);
+        Assertions.assertEquals(table.getNumDelays(), cached.getNumDelays());
+        for (Tile tile : tiles) {
+            assertSameDelays(estimator, cached, tile);
+        }
+    }
+}
@@ -23,6 +23,7 @@
 
 package com.xilinx.rapidwright.rwroute;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -33,6 +34,7 @@ import java.util.Map;
 import java.util.Random;
 
 import com.xilinx.rapidwright.util.VivadoToolsHelper;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -181,6 +183,272 @@ public class TestRWRoute {
         VivadoToolsHelper.assertFullyRouted(design);
     }
 
+    /**
+     * Tests that routing with a cold and then a warm persistent routing graph cache explores
+     * identically to routing without one.
+     */
+    @Test
+    @LargeTest(max_memory_gb = 8)
+    public void testNonTimingDrivenFullRoutingWithRouteNodeGraphCache(@TempDir Path tempDir) {
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        RWRoute.routeDesignWithUserDefinedArguments(design, new String[] {"--nonTimingDriven"});
+        long nodesPoppedDefault = Long.parseLong(System.getProperty("rapidwright.rwroute.nodesPopped"));
+
+        String[] args = new String[] {"--nonTimingDriven", "--routeNodeGraphCacheDir", tempDir.toString()};
+        for (int i = 0; i < 2; i++) {
+            design = RapidWrightDCP.loadDCP("bnn.dcp");
+            RWRoute.routeDesignWithUserDefinedArguments(design, args);
+            long nodesPoppedCached = Long.parseLong(System.getProperty("rapidwright.rwroute.nodesPopped"));
+            assertAllSourcesRoutedFlagSet(design);
+            assertAllPinsRouted(design);
+            Assertions.assertEquals(nodesPoppedDefault, nodesPoppedCached);
+        }
+        VivadoToolsHelper.assertFullyRouted(design);
+        Assertions.assertTrue(tempDir.toFile().list().length > 0);
+    }
+
+    /**
+     * Tests that routing with a precomputed router lookahead in place of the Manhattan distance estimate
+     * explores fewer nodes than without it, at the same quality of results.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @LargeTest(max_memory_gb = 8)
+    public void testFullRoutingWithRouterLookahead(boolean timingDriven, @TempDir Path tempDir) {
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        List<String> args = new ArrayList<>();
+        if (!timingDriven) {
+            args.add("--nonTimingDriven");
+        }
+        RWRoute.routeDesignWithUserDefinedArguments(design, args.toArray(new String[0]));
+        long nodesPoppedDefault = Long.parseLong(System.getProperty("rapidwright.rwroute.nodesPopped"));
+        long wirelengthDefault = Long.parseLong(System.getProperty("rapidwright.rwroute.totalWirelength"));
+        float maxDelayDefault = timingDriven ? Float.parseFloat(System.getProperty("rapidwright.rwroute.maxDelay")) : 0;
+
+        design = RapidWrightDCP.loadDCP("bnn.dcp");
+        Path lookaheadPath = tempDir.resolve(design.getDevice().getName() + RouterLookahead.FILE_EXTENSION);
+        RouterLookahead.build(design.getPartName(), RouterLookahead.DEFAULT_RANGE, RouterLookahead.DEFAULT_SAMPLES)
+                .save(lookaheadPath);
+        args.add("--routerLookahead");
+        args.add(lookaheadPath.toString());
+        RWRoute.routeDesignWithUserDefinedArguments(design, args.toArray(new String[0]));
+        long nodesPoppedLookahead = Long.parseLong(System.getProperty("rapidwright.rwroute.nodesPopped"));
+        long wirelengthLookahead = Long.parseLong(System.getProperty("rapidwright.rwroute.totalWirelength"));
+        assertAllSourcesRoutedFlagSet(design);
+        assertAllPinsRouted(design);
+        VivadoToolsHelper.assertFullyRouted(design);
+
+        Assertions.assertTrue(nodesPoppedLookahead < nodesPoppedDefault,
+                nodesPoppedLookahead + " nodes popped with lookahead vs " + nodesPoppedDefault + " without");
+        // Same quality of results, within 1%
+        Assertions.assertTrue(wirelengthLookahead <= wirelengthDefault * 1.01,
+                wirelengthLookahead + " wirelength with lookahead vs " + wirelengthDefault + " without");
+        if (timingDriven) {
+            float maxDelayLookahead = Float.parseFloat(System.getProperty("rapidwright.rwroute.maxDelay"));
+            Assertions.assertTrue(maxDelayLookahead <= maxDelayDefault * 1.01,
+                    maxDelayLookahead + " ps max delay with lookahead vs " + maxDelayDefault + " without");
+        }
+    }
+
+    /**
+     * Tests saving the criticality snapshot at the end of a timing-driven routing run, then warm-starting
+     * a second run of the same design from it.
+     */
+    @Test
+    @LargeTest(max_memory_gb = 8)
+    public void testTimingDrivenFullRoutingFromCriticalitySnapshot(@TempDir Path tempDir) {
+        Path snapshotPath = tempDir.resolve("bnn.rwcs");
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        RWRoute.routeDesignWithUserDefinedArguments(design, new String[] {"--saveCriticalities", snapshotPath.toString()});
+        Assertions.assertTrue(Files.exists(snapshotPath));
+
+        design = RapidWrightDCP.loadDCP("bnn.dcp");
+        RWRoute.routeDesignWithUserDefinedArguments(design, new String[] {"--loadCriticalities", snapshotPath.toString()});
+        assertAllSourcesRoutedFlagSet(design);
+        assertAllPinsRouted(design);
+        VivadoToolsHelper.assertFullyRouted(design);
+    }
+
+    /**
+     * Tests routing with the sinks of high-fanout nets seeded from their net's existing routing tree.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @LargeTest(max_memory_gb = 8)
+    public void testFullRoutingWithMultiSinkRouting(boolean timingDriven) {
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        List<String> args = new ArrayList<>();
+        args.add("--multiSinkFanoutThreshold");
+        args.add("8");
+        if (!timingDriven) {
+            args.add("--nonTimingDriven");
+        }
+        RWRoute.routeDesignWithUserDefinedArguments(design, args.toArray(new String[0]));
+        assertAllSourcesRoutedFlagSet(design);
+        assertAllPinsRouted(design);
+        VivadoToolsHelper.assertFullyRouted(design);
+    }
+
+    /**
+     * Tests routing while also re-routing connections that overlap congested regions,
+     * and writing the congestion heat map after every iteration.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @LargeTest(max_memory_gb = 8)
+    public void testFullRoutingWithHotRegionReroute(boolean timingDriven, @TempDir Path tempDir) throws IOException {
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        List<String> args = new ArrayList<>();
+        args.add("--hotRegionReroute");
+        args.add("--congestionHeatMapDir");
+        args.add(tempDir.toString());
+        if (!timingDriven) {
+            args.add("--nonTimingDriven");
+        }
+        RWRoute.routeDesignWithUserDefinedArguments(design, args.toArray(new String[0]));
+        assertAllSourcesRoutedFlagSet(design);
+        assertAllPinsRouted(design);
+        VivadoToolsHelper.assertFullyRouted(design);
+
+        // The first iteration is expected to leave some tiles overused, and its history is its present overuse
+        List<String> first = Files.readAllLines(tempDir.resolve("congestion_iter_1.csv"));
+        Assertions.assertEquals("x,y,present_overuse,historical_overuse", first.get(0));
+        Assertions.assertTrue(first.size() > 1);
+        long firstOveruse = 0;
+        for (String line : first.subList(1, first.size())) {
+            String[] fields = line.split(",");
+            int present = Integer.parseInt(fields[2]);
+            Assertions.assertTrue(present > 0);
+            Assertions.assertEquals(present, Long.parseLong(fields[3]));
+            firstOveruse += present;
+        }
+
+        // Once fully routed, no tile is overused but every earlier overuse has been accumulated
+        int lastIteration = 1;
+        while (Files.exists(tempDir.resolve("congestion_iter_" + (lastIteration + 1) + ".csv"))) {
+            lastIteration++;
+        }
+        Assertions.assertTrue(lastIteration > 1);
+        List<String> last = Files.readAllLines(tempDir.resolve("congestion_iter_" + lastIteration + ".csv"));
+        long lastHistoricalOveruse = 0;
+        for (String line : last.subList(1, last.size())) {
+            String[] fields = line.split(",");
+            Assertions.assertEquals(0, Integer.parseInt(fields[2]));
+            lastHistoricalOveruse += Long.parseLong(fields[3]);
+        }
+        Assertions.assertTrue(lastHistoricalOveruse >= firstOveruse);
+    }
+
+    /**
+     * Tests that routing progress is streamed as JSON lines, with one event for each iteration and for each
+     * timed phase as it ends, followed by the final outcome.
+     */
+    @Test
+    @LargeTest(max_memory_gb = 8)
+    public void testNonTimingDrivenFullRoutingWithRoutingProgressFile(@TempDir Path tempDir) throws Exception {
+        Path progressPath = tempDir.resolve("progress.jsonl");
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        RWRoute.routeDesignWithUserDefinedArguments(design, new String[] {"--nonTimingDriven",
+                "--routingProgressFile", progressPath.toString()});
+        assertAllPinsRouted(design);
+
+        List<String> lines = Files.readAllLines(progressPath);
+        Assertions.assertFalse(lines.isEmpty());
+        List<JSONObject> iterations = new ArrayList<>();
+        Map<String, Integer> phaseLines = new HashMap<>();
+        int firstIterationLine = -1;
+        for (int i = 0; i < lines.size(); i++) {
+            JSONObject object = new JSONObject(lines.get(i));
+            if (object.getString("event").equals("iteration")) {
+                if (iterations.isEmpty()) {
+                    firstIterationLine = i;
+                }
+                iterations.add(object);
+            } else if (object.getString("event").equals("phase")) {
+                // Each phase is reported exactly once
+                Assertions.assertNull(phaseLines.put(object.getString("name"), i));
+            }
+        }
+        Assertions.assertFalse(iterations.isEmpty());
+        JSONObject first = iterations.get(0);
+        Assertions.assertEquals(1, first.getInt("iteration"));
+        Assertions.assertTrue(first.getLong("nodesPopped") > 0);
+        // A single thread routes all connections
+        Assertions.assertEquals(1, first.getInt("busyThreads"));
+
+        // Phases are reported as they end, with sub-phases before their phase
+        Assertions.assertTrue(phaseLines.get("determine route targets") < phaseLines.get("Initialization"));
+        Assertions.assertTrue(phaseLines.get("Initialization") < firstIterationLine);
+        Assertions.assertTrue(phaseLines.get("route static nets") < firstIterationLine);
+        Assertions.assertTrue(phaseLines.get("route connections") > firstIterationLine);
+        Assertions.assertTrue(phaseLines.get("route connections") < phaseLines.get("route wire nets"));
+        Assertions.assertTrue(phaseLines.get("finalize routes") < phaseLines.get("Routing"));
+
+        JSONObject last = new JSONObject(lines.get(lines.size() - 1));
+        Assertions.assertEquals("done", last.getString("event"));
+        Assertions.assertTrue(last.getBoolean("success"));
+    }
+
+    /**
+     * Tests saving the routing state at the end of a full routing run, then resuming from it
+     * to partially re-route a design following an ECO edit that unroutes some pins of one net.
+     */
+    @Test
+    @LargeTest(max_memory_gb = 8)
+    public void testNonTimingDrivenPartialRoutingFromRoutingState(@TempDir Path tempDir) {
+        Path statePath = tempDir.resolve("bnn.rws");
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        RWRoute.routeDesignWithUserDefinedArguments(design, new String[] {"--nonTimingDriven",
+                "--saveRoutingState", statePath.toString()});
+        Assertions.assertTrue(Files.exists(statePath));
+
+        // Pseudo-randomly unroute some pins from a multi-pin net
+        Net ecoNet = null;
+        for (Net net : design.getNets()) {
+            if (!net.isStaticNet() && !net.isClockNet() && net.getSinkPins().size() > 4) {
+                ecoNet = net;
+                break;
+            }
+        }
+        Assertions.assertNotNull(ecoNet);
+        Random random = new Random(0);
+        List<SitePinInst> sinkPins = ecoNet.getSinkPins();
+        DesignTools.unroutePins(ecoNet, Collections.singletonList(sinkPins.get(random.nextInt(sinkPins.size()))));
+
+        RoutingState state = RoutingState.load(statePath, design);
+        Assertions.assertNull(state.getPreservedNodes(ecoNet));
+        for (Net net : design.getNets()) {
+            if (net != ecoNet && !net.isStaticNet() && net.hasPIPs()) {
+                Assertions.assertNotNull(state.getPreservedNodes(net));
+            }
+        }
+
+        PartialRouter.routeDesignWithUserDefinedArguments(design, new String[] {"--nonTimingDriven",
+                "--loadRoutingState", statePath.toString()});
+        assertAllSourcesRoutedFlagSet(design);
+        assertAllPinsRouted(ecoNet);
+        VivadoToolsHelper.assertFullyRouted(design);
+    }
+
+    /**
+     * Tests the indexed heap (with decrease-key) as the routing queue, using both RWRoute and CUFR.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @LargeTest(max_memory_gb = 8)
+    public void testNonTimingDrivenFullRoutingWithIndexedHeap(boolean cufr) {
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        String[] args = new String[] {"--nonTimingDriven", "--indexedHeap"};
+        if (cufr) {
+            CUFR.routeDesignWithUserDefinedArguments(design, args);
+        } else {
+            RWRoute.routeDesignWithUserDefinedArguments(design, args);
+        }
+        assertAllSourcesRoutedFlagSet(design);
+        assertAllPinsRouted(design);
+        VivadoToolsHelper.assertFullyRouted(design);
+    }
+
     @ParameterizedTest
     @CsvSource({
             "bnn.dcp,false,false",
@@ -202,6 +470,27 @@ public class TestRWRoute {
         VivadoToolsHelper.assertFullyRouted(design);
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "bnn.dcp,false,1",
+            "bnn.dcp,false,0",
+            "bnn.dcp,true,0",
+            "optical-flow.dcp,true,0"
+    })
+    @LargeTest(max_memory_gb = 8)
+    public void testFullRoutingWithRegionLockedCUFR(String path, boolean timingDriven, int threads) {
+        Design design = RapidWrightDCP.loadDCP(path);
+        CUFR.routeDesignWithUserDefinedArguments(design, new String[]{
+                timingDriven ? "--timingDriven" : "--nonTimingDriven",
+                "--regionLockedRouting",
+                "--regionLockedRoutingThreads", String.valueOf(threads),
+                "--verbose"
+        });
+        assertAllSourcesRoutedFlagSet(design);
+        assertAllPinsRouted(design);
+        VivadoToolsHelper.assertFullyRouted(design);
+    }
+
     @Test
     @LargeTest(max_memory_gb = 8)
     public void testNonTimingDrivenPartialCUFR() {
@@ -241,6 +530,27 @@ public class TestRWRoute {
         VivadoToolsHelper.assertFullyRouted(design);
     }
 
+    /**
+     * Tests that propagating timing on the levelized timing graph, either fully, incrementally or in parallel,
+     * routes identically to the default.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"--levelizedTimingGraph", "--incrementalTiming", "--parallelTiming"})
+    @LargeTest(max_memory_gb = 8)
+    public void testTimingDrivenFullRoutingWithLevelizedTimingGraph(String arg) {
+        Design design = RapidWrightDCP.loadDCP("bnn.dcp");
+        RWRoute.routeDesignWithUserDefinedArguments(design, new String[] {});
+        long nodesPoppedDefault = Long.parseLong(System.getProperty("rapidwright.rwroute.nodesPopped"));
+
+        design = RapidWrightDCP.loadDCP("bnn.dcp");
+        RWRoute.routeDesignWithUserDefinedArguments(design, new String[] {arg});
+        long nodesPoppedLevelized = Long.parseLong(System.getProperty("rapidwright.rwroute.nodesPopped"));
+        assertAllSourcesRoutedFlagSet(design);
+        assertAllPinsRouted(design);
+        VivadoToolsHelper.assertFullyRouted(design);
+        Assertions.assertEquals(nodesPoppedDefault, nodesPoppedLevelized);
+    }
+
     /**
      * Tests the non-timing driven full routing with a design that has a global net.
      * The optical-flow design from Rosetta benchmarks is used.
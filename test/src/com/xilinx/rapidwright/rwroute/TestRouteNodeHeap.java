@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.design.Design;
+import com.xilinx.rapidwright.device.Node;
+import com.xilinx.rapidwright.device.Tile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class TestRouteNodeHeap {
+    private static List<RouteNode> createRouteNodes() {
+        Design design = new Design("design", "xcvu3p");
+        RouteNodeGraph routingGraph = new RouteNodeGraph(design, new RWRouteConfig(null));
+        Tile tile = design.getDevice().getTile("INT_X52Y123");
+        Set<RouteNode> rnodes = new LinkedHashSet<>();
+        for (int wireIndex = 0; wireIndex < tile.getWireCount(); wireIndex++) {
+            Node node = Node.getNode(tile, wireIndex);
+            if (node == null || node.isInvalidNode() || node.isTiedToVcc()) {
+                continue;
+            }
+            rnodes.add(routingGraph.getOrCreate(node));
+        }
+        return new ArrayList<>(rnodes);
+    }
+
+    @Test
+    public void testPushDecreaseKeyPoll() {
+        List<RouteNode> rnodes = createRouteNodes();
+        Assertions.assertTrue(rnodes.size() > 1000);
+
+        Random random = new Random(0);
+        RouteNodeHeap heap = new RouteNodeHeap();
+        for (RouteNode rnode : rnodes) {
+            Assertions.assertEquals(-1, rnode.getHeapIndex());
+            rnode.setLowerBoundTotalPathCost(random.nextFloat() * 100);
+            heap.add(rnode);
+        }
+        Assertions.assertEquals(rnodes.size(), heap.size());
+
+        int numPolled = 0;
+        float lastCost = Float.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            // Randomly decrease the key of a node still in the heap (but never below the last polled cost)
+            RouteNode rnode = rnodes.get(random.nextInt(rnodes.size()));
+            if (heap.contains(rnode)) {
+                float newCost = lastCost + (rnode.getLowerBoundTotalPathCost() - lastCost) * random.nextFloat();
+                rnode.setLowerBoundTotalPathCost(newCost);
+                heap.decreaseKey(rnode);
+            }
+
+            Assertions.assertSame(heap.peek(), heap.peek());
+            RouteNode min = heap.poll();
+            Assertions.assertFalse(heap.contains(min));
+            Assertions.assertEquals(-1, min.getHeapIndex());
+            Assertions.assertTrue(min.getLowerBoundTotalPathCost() >= lastCost);
+            lastCost = min.getLowerBoundTotalPathCost();
+            numPolled++;
+        }
+        Assertions.assertEquals(rnodes.size(), numPolled);
+        Assertions.assertNull(heap.poll());
+    }
+
+    @Test
+    public void testClear() {
+        List<RouteNode> rnodes = createRouteNodes();
+
+        RouteNodeHeap heap = new RouteNodeHeap();
+        for (RouteNode rnode : rnodes) {
+            rnode.setLowerBoundTotalPathCost(0);
+            heap.add(rnode);
+        }
+        heap.clear();
+        Assertions.assertTrue(heap.isEmpty());
+        for (RouteNode rnode : rnodes) {
+            Assertions.assertFalse(heap.contains(rnode));
+            Assertions.assertEquals(-1, rnode.getHeapIndex());
+        }
+
+        // Heap must be reusable after being cleared
+        heap.add(rnodes.get(0));
+        Assertions.assertSame(rnodes.get(0), heap.poll());
+    }
+}
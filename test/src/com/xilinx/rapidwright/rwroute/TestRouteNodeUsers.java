@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.design.Design;
+import com.xilinx.rapidwright.util.ParallelismTools;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Future;
+
+public class TestRouteNodeUsers {
+    @Test
+    public void testRouteNodeUsers() {
+        RouteNodeUsers users = new RouteNodeUsers();
+        Map<Integer, Integer> golden = new HashMap<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            int id = random.nextInt(32);
+            if (random.nextBoolean()) {
+                users.add(id, 1);
+                golden.merge(id, 1, Integer::sum);
+            } else if (golden.containsKey(id)) {
+                users.decrement(id);
+                golden.compute(id, (k, v) -> (v == 1) ? null : v - 1);
+            }
+            Assertions.assertEquals(golden.size(), users.size());
+            Assertions.assertEquals((int) golden.getOrDefault(id, 0), users.get(id));
+        }
+        for (int id = 0; id < 32; id++) {
+            Assertions.assertEquals((int) golden.getOrDefault(id, 0), users.get(id));
+        }
+    }
+
+    @Test
+    public void testIncrementDecrementUser() {
+        Design design = new Design("design", "xcvu3p");
+        RouteNodeGraph routingGraph = new RouteNodeGraph(design, new RWRouteConfig(null));
+        RouteNode rnode = routingGraph.getOrCreate(design.getDevice().getNode("INT_X52Y123/WW1_W_BEG7"));
+        NetWrapper a = new NetWrapper(0, design.createNet("a"));
+        NetWrapper b = new NetWrapper(1, design.createNet("b"));
+        List<NetWrapper> users = Arrays.asList(a, b);
+
+        Assertions.assertEquals(0, rnode.getOccupancy());
+        rnode.incrementUser(a);
+        rnode.incrementUser(a);
+        Assertions.assertEquals(1, rnode.getOccupancy());
+        Assertions.assertEquals(2, rnode.countConnectionsOfUser(a));
+        Assertions.assertEquals(0, rnode.countConnectionsOfUser(b));
+        Assertions.assertFalse(rnode.willOverUse(a));
+        Assertions.assertTrue(rnode.willOverUse(b));
+
+        // Second user
+        rnode.incrementUser(b);
+        Assertions.assertEquals(2, rnode.getOccupancy());
+        Assertions.assertTrue(rnode.isOverUsed());
+        Assertions.assertEquals(2, rnode.countConnectionsOfUser(a));
+        Assertions.assertEquals(1, rnode.countConnectionsOfUser(b));
+
+        // Back to one user
+        rnode.decrementUser(a);
+        rnode.decrementUser(a);
+        Assertions.assertEquals(1, rnode.getOccupancy());
+        Assertions.assertEquals(0, rnode.countConnectionsOfUser(a));
+        Assertions.assertEquals(1, rnode.countConnectionsOfUser(b));
+        Map<NetWrapper, Integer> counts = rnode.getUsersConnectionCounts(users::get);
+        Assertions.assertEquals(1, counts.size());
+        Assertions.assertEquals(1, (int) counts.get(b));
+
+        rnode.decrementUser(b);
+        Assertions.assertEquals(0, rnode.getOccupancy());
+        Assertions.assertTrue(rnode.getUsersConnectionCounts(users::get).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentUsers() {
+        Design design = new Design("design", "xcvu3p");
+        RouteNodeGraph routingGraph = new RouteNodeGraph(design, new RWRouteConfig(null));
+        RouteNode rnode = routingGraph.getOrCreate(design.getDevice().getNode("INT_X52Y123/WW1_W_BEG7"));
+        final int numUsers = 8;
+        final int numIterations = 10000;
+        List<Future<?>> futures = new ArrayList<>();
+        List<NetWrapper> users = new ArrayList<>();
+        for (int i = 0; i < numUsers; i++) {
+            NetWrapper user = new NetWrapper(i, design.createNet("net" + i));
+            users.add(user);
+            futures.add(ParallelismTools.submit(() -> {
+                for (int j = 0; j < numIterations; j++) {
+                    rnode.incrementUser(user);
+                    rnode.incrementUser(user);
+                    Assertions.assertTrue(rnode.countConnectionsOfUser(user) >= 2);
+                    rnode.decrementUser(user);
+                }
+            }));
+        }
+        ParallelismTools.join(futures);
+
+        Assertions.assertEquals(numUsers, rnode.getOccupancy());
+        Map<NetWrapper, Integer> counts = rnode.getUsersConnectionCounts(users::get);
+        for (NetWrapper user : users) {
+            Assertions.assertEquals(numIterations, (int) counts.get(user));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.rwroute;
+
+import com.xilinx.rapidwright.device.Device;
+import com.xilinx.rapidwright.device.IntentCode;
+import com.xilinx.rapidwright.support.LargeTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+public class TestRouterLookahead {
+    @Test
+    public void testBuildSaveLoad(@TempDir Path tempDir) {
+        final int range = 3;
+        RouterLookahead lookahead = RouterLookahead.build("xcvu3p", range, 1);
+        Assertions.assertEquals(range, lookahead.getRange());
+        Assertions.assertTrue(lookahead.hasTable(IntentCode.NODE_SINGLE, 0));
+        Assertions.assertFalse(lookahead.hasTable(IntentCode.NODE_GLOBAL_VDISTR, 0));
+
+        Path path = tempDir.resolve("xcvu3p" + RouterLookahead.FILE_EXTENSION);
+        lookahead.save(path);
+        Device device = Device.getDevice("xcvu3p");
+        RouterLookahead loaded = RouterLookahead.load(path, device);
+        Assertions.assertEquals(lookahead.getDeviceName(), loaded.getDeviceName());
+        Assertions.assertEquals(range, loaded.getRange());
+        for (IntentCode ic : IntentCode.values()) {
+            for (int deltaSLR = 0; deltaSLR <= RouterLookahead.MAX_DELTA_SLR; deltaSLR++) {
+                Assertions.assertEquals(lookahead.hasTable(ic, deltaSLR), loaded.hasTable(ic, deltaSLR));
+                for (int dy = 0; dy <= range + 2; dy++) {
+                    for (int dx = 0; dx <= range + 2; dx++) {
+                        Assertions.assertEquals(lookahead.getWirelength(ic, deltaSLR, dx, dy),
+                                loaded.getWirelength(ic, deltaSLR, dx, dy));
+                        Assertions.assertEquals(lookahead.getDelay(ic, deltaSLR, dx, dy),
+                                loaded.getDelay(ic, deltaSLR, dx, dy));
+                    }
+                }
+            }
+        }
+        // A single SLR device has no tables for crossing SLRs
+        Assertions.assertFalse(loaded.hasTable(IntentCode.NODE_SINGLE, 1));
+
+        // Without a table, the estimate is the Manhattan distance
+        Assertions.assertEquals(5f, loaded.getWirelength(IntentCode.NODE_GLOBAL_VDISTR, 0, 2, 3));
+        Assertions.assertEquals(2 * RouterLookahead.DELAY_PER_TILE_X + 3 * RouterLookahead.DELAY_PER_TILE_Y,
+                loaded.getDelay(IntentCode.NODE_GLOBAL_VDISTR, 0, 2, 3));
+        // Beyond the range of the table, the estimate is extended by the Manhattan distance
+        Assertions.assertEquals(loaded.getWirelength(IntentCode.NODE_SINGLE, 0, range, range) + 3,
+                loaded.getWirelength(IntentCode.NODE_SINGLE, 0, range + 1, range + 2));
+        // Delays are in the unit of the Manhattan delay estimate (100 ps), so a single's delay is well below
+        // a tile's worth of delay per 100 ps
+        float delay = loaded.getDelay(IntentCode.NODE_SINGLE, 0, 1, 0);
+        Assertions.assertTrue(delay >= 0 && delay < 10 * RouterLookahead.DELAY_PER_TILE_X);
+    }
+
+    @Test
+    @LargeTest(max_memory_gb = 8)
+    public void testCrossSLRTables() {
+        final int range = 2;
+        RouterLookahead lookahead = RouterLookahead.build("xcvu9p", range, 1);
+        Assertions.assertTrue(lookahead.hasTable(IntentCode.NODE_SINGLE, 0));
+        Assertions.assertTrue(lookahead.hasTable(IntentCode.NODE_SINGLE, 1));
+        // Crossing an SLR takes at least a Super Long Line
+        int sll = RouteNodeGraph.SUPER_LONG_LINE_LENGTH_IN_TILES;
+        Assertions.assertTrue(lookahead.getWirelength(IntentCode.NODE_SINGLE, 1, 0, sll) >=
+                lookahead.getWirelength(IntentCode.NODE_SINGLE, 0, 0, 0));
+        // Beyond the tables, the Manhattan distance is used
+        Assertions.assertEquals(2f * sll, lookahead.getWirelength(IntentCode.NODE_SINGLE, 2, 0, 2 * sll));
+    }
+}
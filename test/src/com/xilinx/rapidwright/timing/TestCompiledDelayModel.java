@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.timing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.xilinx.rapidwright.device.SiteTypeEnum;
+import com.xilinx.rapidwright.util.FileTools;
+
+public class TestCompiledDelayModel {
+    private static final String FILE_NAME = TimingModel.TIMING_DATA_DIR + File.separator + "ultrascaleplus" +
+            File.separator + "intrasite_delay_terms.txt";
+
+    private static void assertSameDelays(DelayModelSource src, DelayModel expected, DelayModel actual) {
+        for (DelayEntry e : src.getIntraSiteDelayEntries()) {
+            SiteTypeEnum siteType = SiteTypeEnum.valueOf(e.scope);
+            Short delay = expected.getIntraSiteDelay(siteType, e.fr, e.to);
+            Assertions.assertEquals(delay, actual.getIntraSiteDelay(siteType, e.fr, e.to));
+            Assertions.assertEquals((short) delay, actual.getIntraSiteDelay(actual.getSiteTypeIndex(siteType),
+                    actual.getPinId(e.fr), actual.getPinId(e.to)));
+            int slash = e.to.indexOf('/');
+            if (slash >= 0) {
+                Assertions.assertEquals(actual.getPinId(e.to),
+                        actual.getBELPinId(e.to.substring(0, slash), e.to.substring(slash + 1)));
+            }
+        }
+        for (DelayEntry e : src.getLogicDelayEntries()) {
+            short belIdx = expected.getBELIndex(e.scope);
+            Assertions.assertEquals(belIdx, actual.getBELIndex(e.scope));
+            for (int config : new int[] {0, e.config}) {
+                short delay = expected.getLogicDelay(belIdx, e.fr, e.to, config);
+                Assertions.assertEquals(delay, actual.getLogicDelay(belIdx, e.fr, e.to, config));
+                Assertions.assertEquals(delay, actual.getLogicDelay(belIdx, actual.getPinId(e.fr),
+                        actual.getPinId(e.to), config));
+            }
+        }
+        for (String config : src.getConfigCodeMap().keySet()) {
+            Assertions.assertEquals(expected.getEncodedConfigCode(config), actual.getEncodedConfigCode(config));
+        }
+
+        // Arcs that do not exist
+        Assertions.assertNull(actual.getIntraSiteDelay(SiteTypeEnum.BUFGCE, "A1", "A6LUT/A1"));
+        Assertions.assertEquals(expected.getIntraSiteDelay(SiteTypeEnum.SLICEL, "A1", "NOT_A_PIN"),
+                actual.getIntraSiteDelay(SiteTypeEnum.SLICEL, "A1", "NOT_A_PIN"));
+        Assertions.assertEquals(-1, actual.getPinId("NOT_A_PIN"));
+        Assertions.assertEquals(-1, actual.getBELPinId("NOT_A_BEL", "D"));
+    }
+
+    @Test
+    public void testCompiledDelayModel(@TempDir Path tempDir) throws IOException {
+        DelayModelSource src = new DelayModelSourceFromText(FILE_NAME);
+        DelayModel expected = new SmallDelayModel(src);
+        CompiledDelayModel compiled = CompiledDelayModel.compile(src);
+        assertSameDelays(src, expected, compiled);
+
+        Path sourcePath = Paths.get(FileTools.getRapidWrightPath(), FILE_NAME);
+        Path binaryPath = tempDir.resolve("intrasite_delay_terms" + CompiledDelayModel.FILE_EXTENSION);
+        Assertions.assertNull(CompiledDelayModel.read(binaryPath, sourcePath));
+        Assertions.assertTrue(compiled.write(binaryPath, sourcePath));
+        CompiledDelayModel loaded = CompiledDelayModel.read(binaryPath, sourcePath);
+        Assertions.assertNotNull(loaded);
+        assertSameDelays(src, expected, loaded);
+
+        // A binary file compiled from a different version of the text file is ignored
+        Path otherSourcePath = tempDir.resolve("intrasite_delay_terms.txt");
+        Files.write(otherSourcePath, "# empty\n".getBytes());
+        Assertions.assertNull(CompiledDelayModel.read(binaryPath, otherSourcePath));
+    }
+}
@@ -25,6 +25,16 @@ import org.junit.jupiter.api.Test;
 
 import com.xilinx.rapidwright.design.Design;
 import com.xilinx.rapidwright.support.RapidWrightDCP;
+import com.xilinx.rapidwright.util.Pair;
+import com.xilinx.rapidwright.util.ParallelismTools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 public class TestTimingManager {
 
@@ -39,4 +49,300 @@ public class TestTimingManager {
         
         Assertions.assertEquals(expectedClkPeriod, TimingManager.getDesignTimingRequirement(d));
     }
+
+    @Test
+    public void testLevelizedTimingGraph() {
+        Design d = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+        TimingManager tm = new TimingManager(d);
+        TimingGraph tg = tm.getTimingGraph();
+        Pair<Float, TimingVertex> expected = tm.calculateArrivalRequiredTimes();
+        Map<TimingVertex, Float> expectedArrival = new HashMap<>();
+        Map<TimingVertex, Float> expectedRequired = new HashMap<>();
+        for (TimingVertex v : tg.vertexSet()) {
+            expectedArrival.put(v, v.getArrivalTime());
+            expectedRequired.put(v, v.getRequiredTime());
+        }
+
+        tm.setUseLevelizedGraph(true);
+        LevelizedTimingGraph lg = tg.getLevelizedGraph();
+        Assertions.assertEquals(tg.vertexSet().size(), lg.getNumVertices());
+        Assertions.assertEquals(tg.edgeSet().size(), lg.getNumEdges());
+        Assertions.assertTrue(lg.getNumLevels() > 1);
+
+        Pair<Float, TimingVertex> actual = tm.calculateArrivalRequiredTimes();
+        Assertions.assertEquals(expected.getFirst(), actual.getFirst());
+        Assertions.assertEquals(expected.getSecond(), actual.getSecond());
+        // Vertex times are only updated on request
+        tg = tm.getTimingGraph();
+        for (TimingVertex v : tg.vertexSet()) {
+            Assertions.assertEquals(expectedArrival.get(v), v.getArrivalTime(), v.getName());
+            Assertions.assertEquals(expectedRequired.get(v), v.getRequiredTime(), v.getName());
+            Assertions.assertEquals(lg.getSlack(v), v.getRequiredTime() - v.getArrivalTime());
+        }
+    }
+
+    private static List<String> getEdgesInOrder(TimingGraph tg) {
+        List<String> edges = new ArrayList<>();
+        for (TimingEdge e : tg.edgeSet()) {
+            edges.add(e.getSrc().getName() + " -> " + e.getDst().getName() + ": " + e.getDelay());
+        }
+        return edges;
+    }
+
+    @Test
+    public void testParallelTimingGraphBuild() {
+        boolean parallel = ParallelismTools.getParallel();
+        try {
+            ParallelismTools.setParallel(false);
+            Design d = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+            TimingGraph expected = new TimingManager(d).getTimingGraph();
+
+            ParallelismTools.setParallel(true);
+            d = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+            TimingGraph actual = new TimingManager(d).getTimingGraph();
+
+            List<String> expectedVertices = new ArrayList<>();
+            for (TimingVertex v : expected.vertexSet()) {
+                expectedVertices.add(v.getName());
+            }
+            List<String> actualVertices = new ArrayList<>();
+            for (TimingVertex v : actual.vertexSet()) {
+                actualVertices.add(v.getName());
+            }
+            Assertions.assertEquals(expectedVertices, actualVertices);
+            Assertions.assertEquals(getEdgesInOrder(expected), getEdgesInOrder(actual));
+        } finally {
+            ParallelismTools.setParallel(parallel);
+        }
+    }
+
+    @Test
+    public void testParallelTiming() {
+        Design d = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+        TimingManager tm = new TimingManager(d);
+        tm.setUseLevelizedGraph(true);
+        Pair<Float, TimingVertex> expected = tm.calculateArrivalRequiredTimes();
+        TimingGraph tg = tm.getTimingGraph();
+        Map<TimingVertex, Float> expectedArrival = new HashMap<>();
+        Map<TimingVertex, Float> expectedRequired = new HashMap<>();
+        for (TimingVertex v : tg.vertexSet()) {
+            expectedArrival.put(v, v.getArrivalTime());
+            expectedRequired.put(v, v.getRequiredTime());
+        }
+
+        tm.setParallel(true);
+        Assertions.assertTrue(tm.isUseLevelizedGraph());
+        Pair<Float, TimingVertex> actual = tm.calculateArrivalRequiredTimes();
+        Assertions.assertEquals(expected.getFirst(), actual.getFirst());
+        tg = tm.getTimingGraph();
+        for (TimingVertex v : tg.vertexSet()) {
+            Assertions.assertEquals(expectedArrival.get(v), v.getArrivalTime(), v.getName());
+            Assertions.assertEquals(expectedRequired.get(v), v.getRequiredTime(), v.getName());
+        }
+    }
+
+    @Test
+    public void testIncrementalTiming() {
+        Design d = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+        TimingManager tm = new TimingManager(d);
+        tm.setIncremental(true);
+        Assertions.assertTrue(tm.isUseLevelizedGraph());
+        tm.calculateArrivalRequiredTimes();
+        TimingGraph tg = tm.getTimingGraph();
+        int numVertices = tg.vertexSet().size();
+        // First update is always a full one
+        Assertions.assertEquals(2 * numVertices, tm.getNumVerticesUpdated());
+
+        // Nothing changed
+        tm.calculateArrivalRequiredTimes();
+        Assertions.assertEquals(0, tm.getNumVerticesUpdated());
+
+        // Slow down a few net edges
+        int changed = 0;
+        for (TimingEdge e : tg.edgeSet()) {
+            if (e.getNet() == null) {
+                continue;
+            }
+            e.setNetDelay(e.getNetDelay() + 100);
+            if (++changed == 10) {
+                break;
+            }
+        }
+        Assertions.assertEquals(10, changed);
+        Pair<Float, TimingVertex> incremental = tm.calculateArrivalRequiredTimes();
+        Assertions.assertTrue(tm.getNumVerticesUpdated() > 0);
+        Assertions.assertTrue(tm.getNumVerticesUpdated() < 2 * numVertices);
+        tg = tm.getTimingGraph();
+        Map<TimingVertex, Float> incrementalArrival = new HashMap<>();
+        Map<TimingVertex, Float> incrementalRequired = new HashMap<>();
+        for (TimingVertex v : tg.vertexSet()) {
+            incrementalArrival.put(v, v.getArrivalTime());
+            incrementalRequired.put(v, v.getRequiredTime());
+        }
+
+        // Must match a full update
+        tm.setIncremental(false);
+        Pair<Float, TimingVertex> full = tm.calculateArrivalRequiredTimes();
+        Assertions.assertEquals(full.getFirst(), incremental.getFirst());
+        tg = tm.getTimingGraph();
+        for (TimingVertex v : tg.vertexSet()) {
+            Assertions.assertEquals(v.getArrivalTime(), incrementalArrival.get(v), v.getName());
+            Assertions.assertEquals(v.getRequiredTime(), incrementalRequired.get(v), v.getName());
+        }
+    }
+
+    @Test
+    public void testWorstPaths() {
+        Design d = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+        TimingManager tm = new TimingManager(d);
+        Pair<Float, TimingVertex> max = tm.calculateArrivalRequiredTimes();
+        TimingGraph tg = tm.getTimingGraph();
+
+        final int maxPaths = 1000;
+        List<TimingPath> paths = tm.getWorstPaths(maxPaths, 0);
+        Assertions.assertEquals(maxPaths, paths.size());
+        Assertions.assertEquals(max.getFirst(), paths.get(0).getDelay(), 1e-3);
+        Set<List<TimingEdge>> distinct = new HashSet<>();
+        float prevDelay = Float.MAX_VALUE;
+        for (TimingPath path : paths) {
+            List<TimingEdge> edges = path.getEdges();
+            Assertions.assertEquals(0, tg.inDegreeOf(edges.get(0).getSrc()));
+            Assertions.assertEquals(tg.superSink, edges.get(edges.size() - 1).getDst());
+            float delay = 0;
+            for (int i = 0; i < edges.size(); i++) {
+                if (i > 0) {
+                    Assertions.assertEquals(edges.get(i - 1).getDst(), edges.get(i).getSrc());
+                }
+                delay += edges.get(i).getDelay();
+            }
+            Assertions.assertEquals(delay, path.getDelay(), 1e-3);
+            Assertions.assertEquals(tm.getTimingRequirementPs() - path.getDelay(), path.getSlack(), 1e-3);
+            Assertions.assertTrue(path.getDelay() <= prevDelay + 1e-3);
+            prevDelay = path.getDelay();
+            Assertions.assertTrue(distinct.add(edges));
+        }
+
+        // At most one path per endpoint, each the worst to its endpoint
+        List<TimingPath> perEndpoint = tm.getWorstPaths(maxPaths, 1);
+        Assertions.assertEquals(paths.get(0).getDelay(), perEndpoint.get(0).getDelay(), 1e-3);
+        Set<TimingVertex> endpoints = new HashSet<>();
+        for (TimingPath path : perEndpoint) {
+            Assertions.assertTrue(endpoints.add(path.getEndpoint()));
+            Assertions.assertEquals(path.getEndpoint().getArrivalTime(), path.getDelay() -
+                    path.getEdges().get(path.getEdges().size() - 1).getDelay(), 1e-3);
+        }
+
+        // At most a few paths per clock domain, starting with the worst path
+        final int maxPathsPerClock = 10;
+        List<TimingPath> perClock = tm.getWorstPaths(maxPaths, 0, maxPathsPerClock);
+        Assertions.assertEquals(paths.get(0).getDelay(), perClock.get(0).getDelay(), 1e-3);
+        Map<String, Integer> pathsPerClock = new HashMap<>();
+        for (TimingPath path : perClock) {
+            String clock = String.valueOf(tg.getClockNetName(path.getEndpoint()));
+            Assertions.assertTrue(pathsPerClock.merge(clock, 1, Integer::sum) <= maxPathsPerClock);
+        }
+
+        // Same paths when using the levelized graph
+        tm.setUseLevelizedGraph(true);
+        List<TimingPath> levelized = tm.getWorstPaths(maxPaths, 0);
+        for (int i = 0; i < maxPaths; i++) {
+            Assertions.assertEquals(paths.get(i).getEdges(), levelized.get(i).getEdges());
+        }
+    }
+
+    @Test
+    public void testMultiClockTiming() {
+        Design d = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+        TimingManager tm = new TimingManager(d);
+        tm.setUseLevelizedGraph(true);
+        Pair<Float, TimingVertex> expectedMax = tm.calculateArrivalRequiredTimes();
+        TimingGraph tg = tm.getTimingGraph();
+        LevelizedTimingGraph graph = tg.getLevelizedGraph();
+        float requirement = graph.getRequiredTime(tg.superSink);
+
+        // Without any known clock, there is a single domain with the same times as a single-clock analysis
+        MultiClockTiming single = new MultiClockTiming(graph, tg.superSource, tg.superSink, (v) -> null);
+        Assertions.assertEquals(1, single.getNumDomains());
+        Assertions.assertNull(single.getDomainName(0));
+        single.computeArrivalTimes(false);
+        single.computeRequiredTimes(new float[] {requirement}, false);
+        for (TimingVertex v : tg.vertexSet()) {
+            Assertions.assertEquals(graph.getArrivalTime(v), single.getArrivalTime(v, 0));
+            Assertions.assertEquals(graph.getRequiredTime(v), single.getRequiredTime(v, 0));
+        }
+
+        // With two clocks, the maximum delay of each domain only considers the paths launched and captured by
+        // its clock
+        Function<TimingVertex, String> clockOf = (v) -> (v.getName().hashCode() & 1) == 0 ? "clk0" : "clk1";
+        MultiClockTiming multi = new MultiClockTiming(graph, tg.superSource, tg.superSink, clockOf);
+        Assertions.assertEquals(2, multi.getNumDomains());
+        multi.computeArrivalTimes(true);
+        for (int domain = 0; domain < multi.getNumDomains(); domain++) {
+            String clock = multi.getDomainName(domain);
+            Map<TimingVertex, Float> arrival = new HashMap<>();
+            for (int id = 0; id < graph.getNumVertices(); id++) {
+                TimingVertex v = graph.getVertex(id);
+                Float a = null;
+                for (TimingEdge e : tg.incomingEdgesOf(v)) {
+                    Float srcArrival = (e.getSrc() == tg.superSource) ? (clock.equals(clockOf.apply(v)) ? 0f : null)
+                            : arrival.get(e.getSrc());
+                    if (srcArrival != null && v != tg.superSink) {
+                        a = (a == null) ? srcArrival + e.getDelay() : Math.max(a, srcArrival + e.getDelay());
+                    }
+                }
+                if (a != null) {
+                    arrival.put(v, a);
+                }
+            }
+            float expected = Float.NEGATIVE_INFINITY;
+            for (TimingEdge e : tg.incomingEdgesOf(tg.superSink)) {
+                Float srcArrival = arrival.get(e.getSrc());
+                if (srcArrival != null && clock.equals(clockOf.apply(e.getSrc()))) {
+                    expected = Math.max(expected, srcArrival + e.getDelay());
+                }
+            }
+            Assertions.assertEquals(expected, multi.getMaxArrivalTime(domain));
+            Assertions.assertTrue(expected <= expectedMax.getFirst());
+        }
+
+        // Using the clocks of the design, no path can be worse than in the single-clock analysis
+        tm.setMultiClock(true);
+        Pair<Float, TimingVertex> max = tm.calculateArrivalRequiredTimes();
+        Assertions.assertTrue(tm.getMultiClockTiming().getNumDomains() >= 1);
+        Assertions.assertTrue(max.getFirst() <= expectedMax.getFirst());
+        // The times written back are the worst over all domains
+        Assertions.assertEquals(max.getFirst(), tm.getTimingGraph().superSink.getArrivalTime());
+    }
+
+    @Test
+    public void testClockRequirement() {
+        Design d = RapidWrightDCP.loadDCP("picoblaze_ooc_X10Y235.dcp");
+        TimingManager tm = new TimingManager(d);
+        TimingGraph tg = tm.getTimingGraph();
+        Map<String, Float> periods = TimingManager.getDesignClockPeriods(d);
+        Assertions.assertEquals(1, periods.size());
+        float expected = periods.values().iterator().next() * 1000;
+
+        // Every clock net of this single-clock design traces back to the constrained port
+        Set<String> clockNetNames = new HashSet<>();
+        for (TimingVertex v : tg.vertexSet()) {
+            String clockNetName = tg.getClockNetName(v);
+            if (clockNetName != null) {
+                clockNetNames.add(clockNetName);
+            }
+        }
+        Assertions.assertFalse(clockNetNames.isEmpty());
+        for (String clockNetName : clockNetNames) {
+            Assertions.assertEquals(expected, tm.getClockRequirementPs(clockNetName));
+        }
+
+        // A net whose name merely starts with that of the port is not assumed to be the same clock
+        String port = periods.keySet().iterator().next();
+        Assertions.assertEquals(tm.getTimingRequirementPs(), tm.getClockRequirementPs(port + "_unrelated"));
+
+        // Explicit requirements take precedence
+        String clockNetName = clockNetNames.iterator().next();
+        tm.setClockRequirementPs(clockNetName, 1234f);
+        Assertions.assertEquals(1234f, tm.getClockRequirementPs(clockNetName));
+    }
 }
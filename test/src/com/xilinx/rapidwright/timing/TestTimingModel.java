@@ -24,6 +24,7 @@ package com.xilinx.rapidwright.timing;
 import com.xilinx.rapidwright.device.Device;
 import com.xilinx.rapidwright.device.Tile;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
@@ -50,4 +51,32 @@ public class TestTimingModel {
         Assertions.assertEquals(expectedCol,tile.getColumn());
         Assertions.assertEquals(expectedRow,tile.getRow());
     }
+
+    private static void assertSameDist(int[] dist, GroupDelayType type, boolean horizontal, TimingModel model) {
+        for (int from = 0; from < dist.length; from++) {
+            int expected = 0;
+            for (int to = from; to < dist.length; to++) {
+                expected += dist[to];
+                Assertions.assertEquals(expected, horizontal ? model.computeHorizontalDistFromArray(from, to, type)
+                        : model.computeVerticalDistFromArray(from, to, type));
+            }
+            Assertions.assertEquals(0, horizontal ? model.computeHorizontalDistFromArray(from, from - 1, type)
+                    : model.computeVerticalDistFromArray(from, from - 1, type));
+        }
+    }
+
+    @Test
+    public void testDistFromArray() {
+        TimingModel model = new TimingModel(Device.getDevice("xcvu3p"));
+        model.build();
+        assertSameDist(model.sDistHorizontal, GroupDelayType.SINGLE, true, model);
+        assertSameDist(model.dDistHorizontal, GroupDelayType.DOUBLE, true, model);
+        assertSameDist(model.qDistHorizontal, GroupDelayType.QUAD, true, model);
+        assertSameDist(model.lDistHorizontal, GroupDelayType.LONG, true, model);
+        assertSameDist(model.sDistVertical, GroupDelayType.SINGLE, false, model);
+        assertSameDist(model.dDistVertical, GroupDelayType.DOUBLE, false, model);
+        assertSameDist(model.qDistVertical, GroupDelayType.QUAD, false, model);
+        assertSameDist(model.lDistVertical, GroupDelayType.LONG, false, model);
+        Assertions.assertEquals(0, model.computeHorizontalDistFromArray(0, 10, GroupDelayType.INTERNAL));
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024, Advanced Micro Devices, Inc.
+ * All rights reserved.
+ *
+ * This file is part of RapidWright.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.xilinx.rapidwright.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TestIndexedGzipInputStream {
+
+    private static byte[] makeData(int size) {
+        Random random = new Random(0);
+        String[] words = {"(instance ", "(net ", "(portref ", "(property ", "(string \"64'h0000\")", ")", "\n   "};
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        while (data.size() < size) {
+            byte[] word = (words[random.nextInt(words.length)] + random.nextInt(100000)).getBytes(StandardCharsets.UTF_8);
+            data.write(word, 0, word.length);
+            if (random.nextInt(50) == 0) {
+                // Incompressible data, for variety of deflate blocks
+                byte[] noise = new byte[random.nextInt(300)];
+                random.nextBytes(noise);
+                data.write(noise, 0, noise.length);
+            }
+        }
+        return data.toByteArray();
+    }
+
+    private static void writeMember(OutputStream os, byte[] data, int from, int to, int level) throws IOException {
+        GZIPOutputStream gos = new GZIPOutputStream(os, 65536) {
+            {
+                def.setLevel(level);
+            }
+        };
+        gos.write(data, from, to - from);
+        gos.finish();
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while (out.size() < length && (n = in.read(buffer, 0, Math.min(buffer.length, length - out.size()))) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    public void testIndexedGzipInputStream(int numMembers, @TempDir Path tempDir) throws IOException {
+        byte[] data = makeData(4_000_000);
+        Path gzipFile = tempDir.resolve("data.gz");
+        try (OutputStream os = Files.newOutputStream(gzipFile)) {
+            for (int i = 0; i < numMembers; i++) {
+                // Include stored blocks (level 0) when there are several members
+                writeMember(os, data, i * data.length / numMembers, (i + 1) * data.length / numMembers, i * 3);
+            }
+        }
+
+        GzipIndex index = GzipIndex.build(gzipFile, 1 << 18);
+        Assertions.assertEquals(data.length, index.getUncompressedSize());
+        Assertions.assertTrue(index.getNumAccessPoints() > numMembers);
+
+        try (InputStream in = new IndexedGzipInputStream(gzipFile, index)) {
+            Assertions.assertArrayEquals(data, readFully(in, Integer.MAX_VALUE));
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            int offset = random.nextInt(data.length);
+            try (IndexedGzipInputStream in = new IndexedGzipInputStream(gzipFile, index)) {
+                Assertions.assertEquals(offset, in.skip(offset));
+                byte[] expected = new byte[Math.min(4096, data.length - offset)];
+                System.arraycopy(data, offset, expected, 0, expected.length);
+                Assertions.assertArrayEquals(expected, readFully(in, expected.length));
+            }
+        }
+
+        // No index is written alongside the gzip file unless requested
+        Assertions.assertNull(GzipIndex.load(gzipFile));
+        Assertions.assertFalse(Files.exists(GzipIndex.getIndexFileName(gzipFile)));
+
+        // Once written, the index is read from alongside the gzip file
+        GzipIndex stored = GzipIndex.buildAndWrite(gzipFile);
+        Assertions.assertTrue(Files.exists(GzipIndex.getIndexFileName(gzipFile)));
+        GzipIndex loaded = GzipIndex.load(gzipFile);
+        Assertions.assertNotNull(loaded);
+        Assertions.assertNotSame(stored, loaded);
+        Assertions.assertEquals(stored.getNumAccessPoints(), loaded.getNumAccessPoints());
+        Assertions.assertEquals(stored.getUncompressedSize(), loaded.getUncompressedSize());
+    }
+}